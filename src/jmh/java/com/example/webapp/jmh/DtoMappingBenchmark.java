@@ -0,0 +1,86 @@
+package com.example.webapp.jmh;
+
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.entity.Student;
+import com.example.webapp.entity.Teacher;
+import com.example.webapp.mapper.DtoMapper;
+import com.example.webapp.mapper.DtoMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// WHAT: Entity -> DTO conversion cost without the database (DtoMapper.toDto(Student))
+// HOW: Detached entity graphs built in memory; "links" = courses and teachers per student, so the collection-heavy
+//      cases show how conversion scales with the size of the graph. studentListToDto is the getAllStudentsDTO assembly step
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private static final int LIST_SIZE = 500;
+
+    @Param({"0", "10", "100"})
+    private int links;
+
+    private DtoMapper dtoMapper;
+    private Student student;
+    private List<Student> students;
+
+    @Setup
+    public void setUp() {
+        dtoMapper = new DtoMapperImpl();
+
+        List<Course> courses = new ArrayList<>();
+        List<Teacher> teachers = new ArrayList<>();
+        Department department = new Department("Physics");
+        department.setId(1L);
+        for (long i = 0; i < links; i++) {
+            Course course = new Course("Course " + i, "Description " + i);
+            course.setId(i + 1);
+            course.setDepartment(department);
+            courses.add(course);
+            Teacher teacher = new Teacher("Teacher " + i, "teacher" + i + "@example.com");
+            teacher.setId(i + 1);
+            teachers.add(teacher);
+        }
+        students = new ArrayList<>(LIST_SIZE);
+        for (long i = 0; i < LIST_SIZE; i++) {
+            Student s = new Student("Student " + i, "R-" + i, "student" + i + "@example.com");
+            s.setId(i + 1);
+            courses.forEach(s::addCourse);
+            teachers.forEach(t -> t.addStudent(s));
+            students.add(s);
+        }
+        student = students.get(0);
+    }
+
+    @Benchmark
+    public StudentDTO studentToDto() {
+        return dtoMapper.toDto(student);
+    }
+
+    @Benchmark
+    public List<StudentDTO> studentListToDto() {
+        return students.stream()
+                .map(dtoMapper::toDto)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.webapp.jmh;
+
+import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.DepartmentDTO;
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.dto.TeacherDTO;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.entity.Student;
+import com.example.webapp.entity.Teacher;
+import com.example.webapp.mapper.DtoMapper;
+import com.example.webapp.mapper.DtoMapperImpl;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// WHAT: Per-object mapping cost for every entity/DTO pair through the generated DtoMapper
+// HOW: One small graph (a department with 3 courses and 3 teachers, a student linked to all of them).
+//      Student and department are also mapped by ModelMapper (the reflection-based mapper DtoMapper replaced)
+//      and by the stream-based code the services used to hand-roll, as baselines
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private DtoMapper dtoMapper;
+    private ModelMapper modelMapper;
+    private Student student;
+    private Teacher teacher;
+    private Course course;
+    private Department department;
+    private DepartmentDTO departmentDTO;
+
+    @Setup
+    public void setUp() {
+        dtoMapper = new DtoMapperImpl();
+        modelMapper = new ModelMapper();
+
+        department = new Department("Chemistry");
+        department.setId(1L);
+        student = new Student("Student", "R-1", "student@example.com");
+        student.setId(1L);
+        for (long i = 1; i <= 3; i++) {
+            Course c = new Course("Course " + i, "Description " + i);
+            c.setId(i);
+            c.setDepartment(department);
+            department.getCourses().add(c);
+            student.addCourse(c);
+            Teacher t = new Teacher("Teacher " + i, "teacher" + i + "@example.com");
+            t.setId(i);
+            t.setDepartment(department);
+            department.getTeachers().add(t);
+            t.addStudent(student);
+        }
+        course = student.getCourses().iterator().next();
+        teacher = student.getTeachers().iterator().next();
+        departmentDTO = new DepartmentDTO(null, "Chemistry");
+    }
+
+    // ---------- entity -> DTO ----------
+
+    @Benchmark
+    public StudentDTO studentToDto_mapStruct() {
+        return dtoMapper.toDto(student);
+    }
+
+    @Benchmark
+    public StudentDTO studentToDto_modelMapper() {
+        return modelMapper.map(student, StudentDTO.class);
+    }
+
+    @Benchmark
+    public StudentDTO studentToDto_handWritten() {
+        StudentDTO dto = new StudentDTO();
+        dto.setId(student.getId());
+        dto.setName(student.getName());
+        dto.setRoll(student.getRoll());
+        dto.setEmail(student.getEmail());
+        dto.setRole(student.getRole().name());
+        dto.setCourseIds(student.getCourses().stream().map(Course::getId).collect(Collectors.toList()));
+        dto.setTeacherIds(student.getTeachers().stream().map(Teacher::getId).collect(Collectors.toList()));
+        return dto;
+    }
+
+    @Benchmark
+    public TeacherDTO teacherToDto_mapStruct() {
+        return dtoMapper.toDto(teacher);
+    }
+
+    @Benchmark
+    public CourseDTO courseToDto_mapStruct() {
+        return dtoMapper.toDto(course);
+    }
+
+    @Benchmark
+    public DepartmentDTO departmentToDto_mapStruct() {
+        return dtoMapper.toDto(department);
+    }
+
+    // ---------- DTO -> entity (DepartmentService.saveDepartment) ----------
+
+    @Benchmark
+    public Department departmentFromDto_mapStruct() {
+        return dtoMapper.toEntity(departmentDTO);
+    }
+
+    @Benchmark
+    public Department departmentFromDto_modelMapper() {
+        return modelMapper.map(departmentDTO, Department.class);
+    }
+
+    @Benchmark
+    public Department departmentFromDto_handWritten() {
+        Department department = new Department(departmentDTO.getName());
+        department.setId(departmentDTO.getId());
+        return department;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.webapp.jmh;
+
+import com.example.webapp.WebappApplication;
+import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.DepartmentDTO;
+import com.example.webapp.dto.KeysetPage;
+import com.example.webapp.dto.ListQuery;
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.entity.Student;
+import com.example.webapp.entity.Teacher;
+import com.example.webapp.repository.CourseRepository;
+import com.example.webapp.repository.DepartmentRepository;
+import com.example.webapp.repository.StudentRepository;
+import com.example.webapp.repository.TeacherRepository;
+import com.example.webapp.service.CourseService;
+import com.example.webapp.service.DepartmentService;
+import com.example.webapp.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// WHAT: Service read paths end to end against embedded H2 - repository query, entity graph load, DTO assembly
+// HOW: Boots the app once per fork with the test profile (H2, DTO caches off) and seeds 10 departments, 50 courses,
+//      20 teachers and 2000 students with 3 courses each. The second-level cache stays on, as in production
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryReadBenchmark {
+
+    private static final int STUDENTS = 2_000;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private CourseService courseService;
+    private DepartmentService departmentService;
+    private List<Long> fiftyStudentIds;
+    private ListQuery firstPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WebappApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN", "app.request-timing.header=false")
+                .run();
+        studentService = context.getBean(StudentService.class);
+        courseService = context.getBean(CourseService.class);
+        departmentService = context.getBean(DepartmentService.class);
+        seed();
+        firstPage = new ListQuery();
+    }
+
+    private void seed() {
+        List<Department> departments = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            departments.add(new Department("Department " + i));
+        }
+        context.getBean(DepartmentRepository.class).saveAll(departments);
+
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Course course = new Course("Course " + i, "Description " + i);
+            course.setDepartment(departments.get(i % departments.size()));
+            courses.add(course);
+        }
+        context.getBean(CourseRepository.class).saveAll(courses);
+
+        List<Teacher> teachers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Teacher teacher = new Teacher("Teacher " + i, "teacher" + i + "@example.com");
+            teacher.setDepartment(departments.get(i % departments.size()));
+            teachers.add(teacher);
+        }
+        context.getBean(TeacherRepository.class).saveAll(teachers);
+
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student("Student " + i, "R-" + i, "student" + i + "@example.com");
+            for (int c = 0; c < 3; c++) {
+                student.addCourse(courses.get((i + c * 17) % courses.size()));
+            }
+            students.add(student);
+        }
+        fiftyStudentIds = context.getBean(StudentRepository.class).saveAll(students).stream()
+                .limit(50)
+                .map(Student::getId)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // /students: one keyset page with its course and teacher ids
+    @Benchmark
+    public KeysetPage<StudentDTO> studentsFirstPage() {
+        return studentService.getStudentsPage(firstPage);
+    }
+
+    // Every student with course and teacher ids - the collection-heavy graph
+    @Benchmark
+    public List<StudentDTO> allStudents() {
+        return studentService.getAllStudentsDTO();
+    }
+
+    // Detail page branches (course and teacher views)
+    @Benchmark
+    public List<StudentDTO> studentsByIds() {
+        return studentService.getStudentsByIds(fiftyStudentIds);
+    }
+
+    @Benchmark
+    public List<CourseDTO> allCourses() {
+        return courseService.getAllCoursesDTO();
+    }
+
+    // Dropdown options, served from the second-level cache
+    @Benchmark
+    public List<DepartmentDTO> departmentOptions() {
+        return departmentService.getDepartmentOptions();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.webapp.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Latency samples and error counts per endpoint ("GET /students/{id}"), kept only while recording, i.e.
+ * after the warm-up. Every sample is stored, so the percentiles are exact.
+ */
+final class LatencyStats {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+    private volatile boolean recording;
+    private volatile long startedAt;
+    private volatile long stoppedAt;
+
+    void startRecording() {
+        startedAt = System.nanoTime();
+        recording = true;
+    }
+
+    void stopRecording() {
+        recording = false;
+        stoppedAt = System.nanoTime();
+    }
+
+    void record(String endpoint, long nanos, boolean ok) {
+        if (recording) {
+            endpoints.computeIfAbsent(endpoint, name -> new Endpoint()).add(nanos, ok);
+        }
+    }
+
+    double errorRate() {
+        long requests = 0;
+        long errors = 0;
+        for (Endpoint endpoint : endpoints.values()) {
+            requests += endpoint.count;
+            errors += endpoint.errors;
+        }
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    String report() {
+        double seconds = seconds();
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%-32s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        Endpoint total = new Endpoint();
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            out.append(entry.getValue().line(entry.getKey(), seconds));
+            total.addAll(entry.getValue());
+        }
+        out.append(total.line("TOTAL", seconds));
+        return out.toString();
+    }
+
+    String csv() {
+        double seconds = seconds();
+        StringBuilder out = new StringBuilder("endpoint,requests,errors,requests_per_second,p50_ms,p95_ms,p99_ms,max_ms\n");
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint e = entry.getValue();
+            long[] sorted = e.sorted();
+            out.append(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.1f,%.1f,%.1f,%.1f%n", entry.getKey(), e.count,
+                    e.errors, e.count / seconds, millis(sorted, 50), millis(sorted, 95), millis(sorted, 99),
+                    millis(sorted, 100)));
+        }
+        return out.toString();
+    }
+
+    private double seconds() {
+        long end = recording ? System.nanoTime() : stoppedAt;
+        return Math.max(1, end - startedAt) / 1e9;
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    private static final class Endpoint {
+
+        private long[] samples = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void add(long nanos, boolean ok) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized void addAll(Endpoint other) {
+            long[] values = other.sorted();
+            for (long value : values) {
+                add(value, true);
+            }
+            errors += other.errors;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(samples, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        String line(String name, double seconds) {
+            long[] sorted = sorted();
+            return String.format(Locale.ROOT, "%-32s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", name, sorted.length,
+                    errors, sorted.length / seconds, millis(sorted, 50), millis(sorted, 95), millis(sorted, 99),
+                    millis(sorted, 100));
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.webapp.loadtest;
+
+import com.example.webapp.WebappApplication;
+import com.example.webapp.dto.GeneratorPlan;
+import com.example.webapp.service.DataGenerator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// WHAT: HTTP load test against a running app - students and teachers log in through the real login form and
+//       mix list, detail, search, edit and enrollment requests; p50/p95/p99 latency and throughput per endpoint
+// HOW: One virtual thread and one cookie session per virtual user. Accounts <prefix>-teacher-N / <prefix>-student-N
+//      are registered through /auth/register on the first run. Requests during warm-up are not counted.
+//      url=embedded starts the app in this JVM instead (test profile, H2, DTO caches on) with a generated dataset
+//      of `students` students (DataGenerator). Run with:
+//        ./mvnw verify -Ploadtest -Dloadtest.args="url=http://localhost:8080 users=100 duration=2m"
+//        ./mvnw verify -Ploadtest -Dloadtest.args="url=embedded students=20000"
+//      Options (name=value): url, users, teachers (share of users, 0..1), duration, warmup, think (mean pause
+//      between actions, 0 = none), prefix, password, seed, max-error-rate, report (CSV file), students
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        double errorRate;
+        if (!options.url.equals("embedded")) {
+            errorRate = run(options);
+        } else {
+            try (ConfigurableApplicationContext app = startEmbedded(options)) {
+                options.url = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+                errorRate = run(options);
+            }
+        }
+        if (errorRate > options.maxErrorRate) {
+            System.err.printf("Error rate %.2f%% is above max-error-rate %.2f%%%n", errorRate * 100, options.maxErrorRate * 100);
+            System.exit(1);
+        }
+    }
+
+    private static double run(Options options) throws Exception {
+        System.out.printf("Load test against %s: %d users (%d teachers), warm-up %ds, %ds measured, think %d ms%n",
+                options.url, options.users, options.teacherCount(), options.warmup.toSeconds(),
+                options.duration.toSeconds(), options.think.toMillis());
+
+        LatencyStats stats = new LatencyStats();
+        List<VirtualUser> users = new ArrayList<>(options.users);
+        SplittableRandom seeds = new SplittableRandom(options.seed);
+        for (int i = 0; i < options.users; i++) {
+            boolean teacher = i < options.teacherCount();
+            String username = options.prefix + (teacher ? "-teacher-" : "-student-") + (i + 1);
+            users.add(new VirtualUser(new Session(options.url, stats), username, options.password, teacher,
+                    seeds.split(), options.think));
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> logins = new ArrayList<>();
+            for (VirtualUser user : users) {
+                logins.add(executor.submit(() -> {
+                    user.login();
+                    return null;
+                }));
+            }
+            for (Future<?> login : logins) {
+                login.get();
+            }
+
+            long warmupEnd = System.nanoTime() + options.warmup.toNanos();
+            long end = warmupEnd + options.duration.toNanos();
+            List<Future<?>> running = new ArrayList<>();
+            for (VirtualUser user : users) {
+                running.add(executor.submit(() -> {
+                    user.run(end);
+                    return null;
+                }));
+            }
+            Thread.sleep(Duration.ofNanos(Math.max(0, warmupEnd - System.nanoTime())));
+            stats.startRecording();
+            for (Future<?> user : running) {
+                user.get();
+            }
+            stats.stopRecording();
+        }
+
+        System.out.println();
+        System.out.print(stats.report());
+        if (options.report != null) {
+            Files.createDirectories(options.report.toAbsolutePath().getParent());
+            Files.writeString(options.report, stats.csv());
+            System.out.println("Report written to " + options.report);
+        }
+        return stats.errorRate();
+    }
+
+    private static ConfigurableApplicationContext startEmbedded(Options options) {
+        // devtools would restart this main class in a new class loader, without its arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(WebappApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "app.cache.enabled=true",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.example.webapp.service.DataGenerator=INFO")
+                .run();
+        GeneratorPlan plan = new GeneratorPlan();
+        plan.setStudents(options.students);
+        plan.setCourses(Math.max(1, options.students / 40));
+        plan.setTeachers(Math.max(1, options.students / 100));
+        plan.setDepartments(Math.max(1, Math.min(50, options.students / 1000)));
+        plan.setUsers(0); // the virtual users register their own accounts
+        app.getBean(DataGenerator.class).generate(plan);
+        return app;
+    }
+
+    static final class Options {
+
+        String url = "http://localhost:8080";
+        int users = 50;
+        double teachers = 0.2;
+        Duration duration = Duration.ofSeconds(60);
+        Duration warmup = Duration.ofSeconds(10);
+        Duration think = Duration.ofMillis(500);
+        String prefix = "lt";
+        String password = "loadtest-password";
+        long seed = 1;
+        double maxErrorRate = 0.01;
+        Path report;
+        int students = 20_000;
+
+        int teacherCount() {
+            return (int) Math.round(users * teachers);
+        }
+
+        static Options parse(String[] args) throws IOException {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (eq < 1) {
+                    throw new IllegalArgumentException("Expected name=value, got: " + arg);
+                }
+                values.put(arg.substring(0, eq).trim().toLowerCase(Locale.ROOT), arg.substring(eq + 1).trim());
+            }
+            Options options = new Options();
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                String value = entry.getValue();
+                switch (entry.getKey()) {
+                    case "url" -> options.url = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    case "users" -> options.users = Integer.parseInt(value);
+                    case "teachers" -> options.teachers = Double.parseDouble(value);
+                    case "duration" -> options.duration = duration(value);
+                    case "warmup" -> options.warmup = duration(value);
+                    case "think" -> options.think = duration(value);
+                    case "prefix" -> options.prefix = value;
+                    case "password" -> options.password = value;
+                    case "seed" -> options.seed = Long.parseLong(value);
+                    case "max-error-rate" -> options.maxErrorRate = Double.parseDouble(value);
+                    case "report" -> options.report = value.isEmpty() ? null : Path.of(value);
+                    case "students" -> options.students = Integer.parseInt(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + entry.getKey());
+                }
+            }
+            if (options.users < 1 || options.teachers < 0 || options.teachers > 1) {
+                throw new IllegalArgumentException("users must be at least 1, teachers between 0 and 1");
+            }
+            return options;
+        }
+
+        // 90s, 2m, 500ms or plain seconds
+        static Duration duration(String value) {
+            String v = value.toLowerCase(Locale.ROOT);
+            if (v.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+            }
+            if (v.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+            }
+            if (v.endsWith("s")) {
+                return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+            }
+            return Duration.ofSeconds(Long.parseLong(v));
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.webapp.loadtest;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One browser: its own cookie jar (session and CSRF token) and connection. Redirects are not followed, so each
+ * request is timed on its own and recorded in {@link LatencyStats} under its endpoint label.
+ */
+final class Session {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String base;
+    private final LatencyStats stats;
+    private final HttpClient client;
+
+    Session(String base, LatencyStats stats) {
+        this.base = base;
+        this.stats = stats;
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    Response get(String endpoint, String path) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(base + path)).timeout(TIMEOUT).GET().build());
+    }
+
+    Response post(String endpoint, String path, Form form) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(base + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form.encode()))
+                .build());
+    }
+
+    private Response send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        Response response;
+        try {
+            HttpResponse<String> http = client.send(request, HttpResponse.BodyHandlers.ofString());
+            response = new Response(http.statusCode(), http.body(), http.headers().firstValue("Location").orElse(""));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response = new Response(0, "", "");
+        } catch (Exception e) {
+            response = new Response(0, "", "");
+        }
+        boolean ok = "POST".equals(request.method())
+                ? response.status == 302 && !response.redirectsToLogin() && !response.location.contains("error")
+                : response.status == 200;
+        stats.record(endpoint, System.nanoTime() - start, ok);
+        return response;
+    }
+
+    record Response(int status, String body, String location) {
+
+        boolean ok() {
+            return status == 200;
+        }
+
+        // Session expired or never logged in: Spring Security sends the browser to the login page
+        boolean redirectsToLogin() {
+            return status == 302 && location.contains("/auth/login");
+        }
+    }
+
+    /**
+     * Fields of an HTML form as the browser would submit them: inputs (including the hidden CSRF token),
+     * textareas and the selected options of each select. Enough for the Thymeleaf forms of this app.
+     */
+    static final class Form {
+
+        private static final Pattern INPUT = Pattern.compile("<input\\b([^>]*)>", Pattern.CASE_INSENSITIVE);
+        private static final Pattern TEXTAREA = Pattern.compile("<textarea\\b([^>]*)>(.*?)</textarea>",
+                Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+        private static final Pattern SELECT = Pattern.compile("<select\\b([^>]*)>(.*?)</select>",
+                Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+        private static final Pattern OPTION = Pattern.compile("<option\\b([^>]*)>", Pattern.CASE_INSENSITIVE);
+        private static final Pattern ATTRIBUTE = Pattern.compile("([\\w:-]+)(?:=\"([^\"]*)\")?");
+
+        private final Map<String, List<String>> fields = new LinkedHashMap<>();
+
+        static Form empty() {
+            return new Form();
+        }
+
+        // The first form whose action ends with the given path
+        static Form parse(String html, String action) {
+            Form form = new Form();
+            int start = html.indexOf("action=\"" + action + "\"");
+            if (start < 0) {
+                return form;
+            }
+            int end = html.indexOf("</form>", start);
+            String body = html.substring(start, end < 0 ? html.length() : end);
+
+            Matcher input = INPUT.matcher(body);
+            while (input.find()) {
+                Map<String, String> attributes = attributes(input.group(1));
+                String type = attributes.getOrDefault("type", "text");
+                boolean checkable = type.equals("checkbox") || type.equals("radio");
+                if (attributes.containsKey("name") && !type.equals("submit")
+                        && (!checkable || attributes.containsKey("checked"))) {
+                    form.add(attributes.get("name"), attributes.getOrDefault("value", checkable ? "on" : ""));
+                }
+            }
+            Matcher textarea = TEXTAREA.matcher(body);
+            while (textarea.find()) {
+                String name = attributes(textarea.group(1)).get("name");
+                if (name != null) {
+                    form.add(name, unescape(textarea.group(2)));
+                }
+            }
+            Matcher select = SELECT.matcher(body);
+            while (select.find()) {
+                String name = attributes(select.group(1)).get("name");
+                if (name == null) {
+                    continue;
+                }
+                form.fields.putIfAbsent(name, new ArrayList<>());
+                Matcher option = OPTION.matcher(select.group(2));
+                while (option.find()) {
+                    Map<String, String> attributes = attributes(option.group(1));
+                    if (attributes.containsKey("selected")) {
+                        form.add(name, attributes.getOrDefault("value", ""));
+                    }
+                }
+            }
+            return form;
+        }
+
+        boolean has(String name) {
+            return fields.containsKey(name);
+        }
+
+        List<String> values(String name) {
+            return fields.getOrDefault(name, List.of());
+        }
+
+        Form set(String name, String value) {
+            fields.put(name, new ArrayList<>(List.of(value)));
+            return this;
+        }
+
+        Form set(String name, List<String> values) {
+            fields.put(name, new ArrayList<>(values));
+            return this;
+        }
+
+        private void add(String name, String value) {
+            fields.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+        }
+
+        String encode() {
+            StringBuilder out = new StringBuilder();
+            for (Map.Entry<String, List<String>> field : fields.entrySet()) {
+                for (String value : field.getValue()) {
+                    if (!out.isEmpty()) {
+                        out.append('&');
+                    }
+                    out.append(URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8)).append('=')
+                            .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+                }
+            }
+            return out.toString();
+        }
+
+        private static Map<String, String> attributes(String tag) {
+            Map<String, String> attributes = new LinkedHashMap<>();
+            Matcher attribute = ATTRIBUTE.matcher(tag);
+            while (attribute.find()) {
+                attributes.put(attribute.group(1).toLowerCase(), attribute.group(2) == null ? "" : unescape(attribute.group(2)));
+            }
+            return attributes;
+        }
+
+        private static String unescape(String html) {
+            return html.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                    .replace("&#39;", "'").replace("&amp;", "&");
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.webapp.loadtest;
+
+import com.example.webapp.loadtest.Session.Form;
+import com.example.webapp.loadtest.Session.Response;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One logged-in student or teacher clicking through the app. Like a real user it only opens records it has
+ * seen on a list page or in search results. Students browse (lists, detail pages, search); teachers also
+ * open edit forms, save departments and enroll or drop students on the course form.
+ */
+final class VirtualUser {
+
+    private static final String[] TYPES = {"students", "teachers", "courses", "departments"};
+    private static final String[] SEARCH_PREFIXES = {"a", "ma", "jo", "sa", "ra", "li", "da", "ch", "ka", "mi", "ha", "ro"};
+    private static final Pattern DETAIL_LINK = Pattern.compile("href=\"/(students|teachers|courses|departments)/(\\d+)\"");
+    private static final Pattern NEXT_PAGE = Pattern.compile("href=\"(/(?:students|teachers|courses|departments)\\?[^\"]*cursor=[^\"]+)\"");
+    private static final Pattern JSON_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final int MAX_KNOWN = 500;
+
+    private final Session session;
+    private final String username;
+    private final String password;
+    private final boolean teacher;
+    private final SplittableRandom random;
+    private final Duration think;
+
+    // Ids seen so far per type, and the next-page link of the last list page per type
+    private final Map<String, List<Long>> known = new HashMap<>();
+    private final Map<String, String> nextPage = new HashMap<>();
+
+    VirtualUser(Session session, String username, String password, boolean teacher, SplittableRandom random,
+                Duration think) {
+        this.session = session;
+        this.username = username;
+        this.password = password;
+        this.teacher = teacher;
+        this.random = random;
+        this.think = think;
+    }
+
+    /**
+     * Logs in through the login form, registering the account through the registration form first if needed.
+     */
+    void login() {
+        if (tryLogin()) {
+            return;
+        }
+        Response page = session.get("GET /auth/register", "/auth/register");
+        Form form = Form.parse(page.body(), "/auth/register")
+                .set("username", username)
+                .set("name", (teacher ? "Load Teacher " : "Load Student ") + username)
+                .set("email", username + "@loadtest.example.com")
+                .set("password", password)
+                .set("confirmPassword", password)
+                .set("role", teacher ? "TEACHER" : "STUDENT");
+        session.post("POST /auth/register", "/auth/register", form);
+        if (!tryLogin()) {
+            throw new IllegalStateException("Cannot log in as " + username + " (registered with a different password?)");
+        }
+    }
+
+    private boolean tryLogin() {
+        Response page = session.get("GET /auth/login", "/auth/login");
+        if (!page.ok()) {
+            throw new IllegalStateException("Login page not reachable (HTTP " + page.status() + "), is the app running?");
+        }
+        Form form = Form.parse(page.body(), "/auth/login").set("username", username).set("password", password);
+        Response response = session.post("POST /auth/login", "/auth/login", form);
+        return response.status() == 302 && !response.location().contains("/auth/login");
+    }
+
+    void run(long endNanos) throws InterruptedException {
+        while (System.nanoTime() < endNanos) {
+            Response last = teacher ? teacherStep() : studentStep();
+            if (last != null && last.redirectsToLogin()) {
+                login(); // session expired, e.g. the same account logged in elsewhere
+            }
+            pause();
+        }
+    }
+
+    // ==================== traffic mix ====================
+
+    private Response studentStep() {
+        int roll = random.nextInt(100);
+        if (roll < 45) {
+            return list();
+        }
+        if (roll < 90) {
+            return view();
+        }
+        return search();
+    }
+
+    private Response teacherStep() {
+        int roll = random.nextInt(100);
+        if (roll < 30) {
+            return list();
+        }
+        if (roll < 60) {
+            return view();
+        }
+        if (roll < 70) {
+            return search();
+        }
+        if (roll < 80) {
+            return editForm();
+        }
+        if (roll < 95) {
+            return enroll();
+        }
+        return saveDepartment();
+    }
+
+    // ==================== actions ====================
+
+    private Response list() {
+        String type = TYPES[random.nextInt(TYPES.length)];
+        String next = nextPage.get(type);
+        boolean following = next != null && random.nextInt(100) < 30;
+        Response response = following
+                ? session.get("GET /" + type + "?cursor", next)
+                : session.get("GET /" + type, "/" + type);
+        if (response.ok()) {
+            remember(response.body());
+            Matcher link = NEXT_PAGE.matcher(response.body());
+            String found = null;
+            while (link.find()) {
+                if (link.group(1).startsWith("/" + type + "?")) {
+                    found = link.group(1).replace("&amp;", "&"); // the last cursor link is "next"
+                }
+            }
+            nextPage.put(type, found);
+        }
+        return response;
+    }
+
+    private Response view() {
+        String type = TYPES[random.nextInt(TYPES.length)];
+        Long id = pick(type);
+        if (id == null) {
+            return list();
+        }
+        Response response = session.get("GET /" + type + "/{id}", "/" + type + "/" + id);
+        if (response.ok()) {
+            remember(response.body());
+        }
+        return response;
+    }
+
+    private Response search() {
+        String q = SEARCH_PREFIXES[random.nextInt(SEARCH_PREFIXES.length)];
+        Response response = session.get("GET /students/search", "/students/search?q=" + q);
+        if (response.ok()) {
+            Matcher id = JSON_ID.matcher(response.body());
+            while (id.find()) {
+                add("students", Long.parseLong(id.group(1)));
+            }
+        }
+        return response;
+    }
+
+    private Response editForm() {
+        String type = random.nextBoolean() ? "students" : "courses";
+        Long id = pick(type);
+        if (id == null) {
+            return list();
+        }
+        return session.get("GET /" + type + "/{id}/edit", "/" + type + "/" + id + "/edit");
+    }
+
+    // Opens a course form and saves it with one student more or one student fewer
+    private Response enroll() {
+        Long courseId = pick("courses");
+        Long studentId = pick("students");
+        if (courseId == null || studentId == null) {
+            return list();
+        }
+        String path = "/courses/" + courseId + "/edit";
+        Response page = session.get("GET /courses/{id}/edit", path);
+        if (!page.ok()) {
+            return page;
+        }
+        Form form = Form.parse(page.body(), path);
+        List<String> enrolled = new ArrayList<>(form.values("studentIds"));
+        if (random.nextBoolean() || enrolled.isEmpty()) {
+            if (!enrolled.contains(studentId.toString())) {
+                enrolled.add(studentId.toString());
+            }
+        } else {
+            enrolled.remove(random.nextInt(enrolled.size()));
+        }
+        return session.post("POST /courses/{id}/edit", path, form.set("studentIds", enrolled));
+    }
+
+    // Opens a department form and saves it unchanged: a full update with cache evictions, no data drift
+    private Response saveDepartment() {
+        Long id = pick("departments");
+        if (id == null) {
+            return list();
+        }
+        String path = "/departments/" + id + "/edit";
+        Response page = session.get("GET /departments/{id}/edit", path);
+        if (!page.ok()) {
+            return page;
+        }
+        return session.post("POST /departments/{id}/edit", path, Form.parse(page.body(), path));
+    }
+
+    // ==================== state ====================
+
+    private void remember(String html) {
+        Matcher link = DETAIL_LINK.matcher(html);
+        while (link.find()) {
+            add(link.group(1), Long.parseLong(link.group(2)));
+        }
+    }
+
+    private void add(String type, long id) {
+        List<Long> ids = known.computeIfAbsent(type, key -> new ArrayList<>());
+        if (ids.size() >= MAX_KNOWN) {
+            ids.set(random.nextInt(MAX_KNOWN), id);
+        } else if (!ids.contains(id)) {
+            ids.add(id);
+        }
+    }
+
+    private Long pick(String type) {
+        List<Long> ids = known.get(type);
+        return ids == null || ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+    }
+
+    private void pause() throws InterruptedException {
+        if (think.isZero()) {
+            return;
+        }
+        // Exponential think time around the mean, capped so one user never idles for long
+        long mean = think.toMillis();
+        long millis = (long) Math.min(mean * 10.0, -mean * Math.log(1 - random.nextDouble()));
+        Thread.sleep(millis);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.webapp.config;
+
+import com.example.webapp.service.DtoCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+
+// WHAT: Service-level DTO cache (getStudentDTO, getAllCoursesDTO, ...) - protiti cache er nijer size ar TTL
+// HOW: app.cache.specs.<cache name> e Caffeine spec (maximumSize=...,expireAfterWrite=...), na thakle app.cache.default-spec.
+//      Invalidation DtoCache e; EvictionGuardedCache drops puts from reads that started before the key's last
+//      eviction (tombstones kept for app.cache.tombstone-ttl), and within app.db.read-your-writes-window of it also
+//      the ones read from a lagging replica. Metrics: cache.gets{result=hit|miss} ar cache.hit.ratio (/actuator/metrics)
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(Environment environment,
+                                     @Value("${app.cache.enabled:true}") boolean enabled,
+                                     @Value("${app.cache.default-spec:maximumSize=1000,expireAfterWrite=10m}") String defaultSpec,
+                                     @Value("${app.cache.tombstone-ttl:1m}") Duration tombstoneTtl,
+                                     @Value("${app.db.read-your-writes-window:5s}") Duration replicaLag) {
+        if (!enabled) {
+            return new NoOpCacheManager();
+        }
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name,
+                                               com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new EvictionGuardedCache(name, cache, isAllowNullValues(), tombstoneTtl, replicaLag);
+            }
+        };
+        cacheManager.setAllowNullValues(false);
+        for (String name : DtoCache.NAMES) {
+            String spec = environment.getProperty("app.cache.specs." + name, defaultSpec);
+            cacheManager.registerCustomCache(name, Caffeine.from(spec).recordStats().build());
+        }
+        cacheManager.setCacheNames(List.of()); // no caches beyond the configured ones
+        return cacheManager;
+    }
+
+    @Bean
+    public MeterBinder dtoCacheHitRatio(CacheManager cacheManager) {
+        return registry -> {
+            for (String name : cacheManager.getCacheNames()) {
+                if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                    Gauge.builder("cache.hit.ratio", cache, c -> c.getNativeCache().stats().hitRate())
+                            .tag("cache", name)
+                            .tag("cache.manager", "cacheManager")
+                            .description("Share of lookups answered from the cache since startup")
+                            .register(registry);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.webapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+// WHAT: Second-level cache regions er gets/puts/evictions metrics (/actuator/metrics/cache.*)
+// HOW: Hibernate er JCache manager theke protiti region (Caffeine cache) Micrometer e bind kore.
+//      Hit/miss per region Hibernate statistics theke ashe (hibernate.second.level.cache.requests)
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getCache().getRegionFactory();
+            if (regionFactory instanceof JCacheRegionFactory jcache) {
+                bindRegions(jcache.getCacheManager(), registry);
+            }
+        };
+    }
+
+    private static void bindRegions(CacheManager cacheManager, MeterRegistry registry) {
+        for (String name : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(name);
+            new JCacheMetrics<>(cache, Tags.of("cache.manager", "hibernate")).bindTo(registry);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.webapp.config;
+
+import com.example.webapp.dto.GeneratorPlan;
+import com.example.webapp.service.DataGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+// WHAT: Synthetic dataset for load/capacity tests - datagen profile e generator ekbar chale, tarpor app bondho hoy
+// HOW: java -jar webapp.jar --spring.profiles.active=datagen --app.datagen.students=1000000 --app.datagen.seed=7
+//      Volumes er default application-datagen.yml e; same seed + same volumes = same data
+@Component
+@Profile("datagen")
+public class DataGeneratorRunner implements ApplicationRunner {
+
+    private final DataGenerator dataGenerator;
+    private final GeneratorPlan plan = new GeneratorPlan();
+
+    public DataGeneratorRunner(DataGenerator dataGenerator,
+                               @Value("${app.datagen.seed:42}") long seed,
+                               @Value("${app.datagen.departments:50}") int departments,
+                               @Value("${app.datagen.teachers:2000}") int teachers,
+                               @Value("${app.datagen.courses:20000}") int courses,
+                               @Value("${app.datagen.students:1000000}") int students,
+                               @Value("${app.datagen.users:10000}") int users,
+                               @Value("${app.datagen.enrollments-per-student:5}") double enrollmentsPerStudent,
+                               @Value("${app.datagen.skew:1.1}") double skew,
+                               @Value("${app.datagen.batch-size:5000}") int batchSize) {
+        this.dataGenerator = dataGenerator;
+        plan.setSeed(seed);
+        plan.setDepartments(departments);
+        plan.setTeachers(teachers);
+        plan.setCourses(courses);
+        plan.setStudents(students);
+        plan.setUsers(users);
+        plan.setEnrollmentsPerStudent(enrollmentsPerStudent);
+        plan.setSkew(skew);
+        plan.setBatchSize(batchSize);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        dataGenerator.generate(plan);
+    }
+}
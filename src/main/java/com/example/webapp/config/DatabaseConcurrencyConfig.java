@@ -0,0 +1,85 @@
+package com.example.webapp.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// WHAT: Database concurrency limit (bulkhead) - virtual threads e hajar request ekshathe DB te jete pare
+// HOW: DataSource ke ConcurrencyLimitedDataSource diye wrap kore. app.db.max-concurrency (default = Hikari pool size)
+//      er beshi connection ekshathe ber hoy na; app.db.acquire-timeout er moddhe permit na pele fail fast.
+//      Read replica thakle limit protiti route er (primary, replica-N) pool er upore alada (ReadReplicaConfig),
+//      routing DataSource er upore ekta semaphore na - noile primary er size er ekta limit shob pool ke cap korto
+@Configuration
+public class DatabaseConcurrencyConfig {
+
+    @Bean
+    public static BeanPostProcessor databaseConcurrencyLimit(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)
+                        && DataSourceUnwrapper.unwrap(dataSource, ReadWriteRoutingDataSource.class) == null) {
+                    int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                    return limit(dataSource, poolSize, environment);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // The bulkhead for one pool: app.db.max-concurrency permits, or as many as the pool has connections
+    static ConcurrencyLimitedDataSource limit(DataSource pool, int poolSize, Environment environment) {
+        int limit = environment.getProperty("app.db.max-concurrency", Integer.class, poolSize);
+        Duration timeout = environment.getProperty("app.db.acquire-timeout", Duration.class, Duration.ofSeconds(30));
+        return new ConcurrencyLimitedDataSource(pool, limit, timeout);
+    }
+
+    @Bean
+    public MeterBinder databaseConcurrencyMetrics(DataSource dataSource) {
+        return registry -> {
+            // With read replicas there is one bulkhead per route, tagged with the route's name
+            ReadWriteRoutingDataSource routing = DataSourceUnwrapper.unwrap(dataSource, ReadWriteRoutingDataSource.class);
+            if (routing != null) {
+                for (ReadWriteRoutingDataSource.Route route : routing.getRoutes()) {
+                    if (route.getDataSource() instanceof ConcurrencyLimitedDataSource limited) {
+                        register(registry, limited, Tags.of("route", route.getName()));
+                    }
+                }
+                return;
+            }
+            // Other DataSource wrappers (SqlTimingDataSource) may sit on top of the bulkhead
+            ConcurrencyLimitedDataSource limited = DataSourceUnwrapper.unwrap(dataSource, ConcurrencyLimitedDataSource.class);
+            if (limited != null) {
+                register(registry, limited, Tags.empty());
+            }
+        };
+    }
+
+    private static void register(MeterRegistry registry, ConcurrencyLimitedDataSource limited, Tags tags) {
+        Gauge.builder("db.concurrency.active", limited, ConcurrencyLimitedDataSource::getActive)
+                .description("Connections checked out under the concurrency limit")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("db.concurrency.waiting", limited, ConcurrencyLimitedDataSource::getWaiting)
+                .description("Threads waiting for a database permit")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("db.concurrency.limit", limited, ConcurrencyLimitedDataSource::getMaxConcurrency)
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("db.concurrency.rejected", limited, ConcurrencyLimitedDataSource::getRejected)
+                .description("Requests that gave up waiting for a database permit")
+                .tags(tags)
+                .register(registry);
+    }
+}
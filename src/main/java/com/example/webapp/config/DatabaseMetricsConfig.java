@@ -0,0 +1,54 @@
+package com.example.webapp.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// WHAT: SQL timing - slow query log (logger "sql.slow") ar request er Server-Timing er db hishab
+// HOW: DataSource ke SqlTimingDataSource diye wrap kore. app.sql.slow-query.info-threshold er beshi shomoy nile INFO log,
+//      warn-threshold er beshi hole WARN; count ashe sql.slow.queries{level} metric e. Hikari (hikaricp.*), Hibernate
+//      statistics (hibernate.*) ar repository method latency (spring.data.repository.invocations) Boot nijei bind kore
+@Configuration
+public class DatabaseMetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlTiming(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlTimingDataSource)) {
+                    Duration info = environment.getProperty("app.sql.slow-query.info-threshold", Duration.class,
+                            Duration.ofMillis(200));
+                    Duration warn = environment.getProperty("app.sql.slow-query.warn-threshold", Duration.class,
+                            Duration.ofSeconds(1));
+                    return new SqlTimingDataSource(dataSource, info, warn);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder slowQueryMetrics(DataSource dataSource) {
+        return registry -> {
+            SqlTimingDataSource timed = DataSourceUnwrapper.unwrap(dataSource, SqlTimingDataSource.class);
+            if (timed != null) {
+                FunctionCounter.builder("sql.slow.queries", timed, SqlTimingDataSource::getSlowQueries)
+                        .description("Statements logged as slow at INFO")
+                        .tag("level", "info")
+                        .register(registry);
+                FunctionCounter.builder("sql.slow.queries", timed, SqlTimingDataSource::getVerySlowQueries)
+                        .description("Statements logged as slow at WARN")
+                        .tag("level", "warn")
+                        .register(registry);
+            }
+        };
+    }
+}
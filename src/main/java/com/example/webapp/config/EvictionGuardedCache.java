@@ -0,0 +1,162 @@
+package com.example.webapp.config;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caffeine cache that refuses to store a value loaded before the last eviction of its key. A {@code @Cacheable}
+ * read first misses ({@link #lookup}), then loads and {@link #put}s; a write evicting the key in between (even the
+ * after-commit eviction of {@code DtoCache}) means the read may have seen the old state, so its put is dropped and
+ * the next read loads again. Evictions are numbered from a per-cache counter and each evicted key keeps a tombstone
+ * with that number for {@code tombstoneTtl}; the miss remembers the counter on its thread. When tombstones are
+ * pruned their highest number becomes a watermark, so a read older than the oldest tombstone is not cached either.
+ * {@link #clear()} acts as an eviction of every key. A put without a preceding miss on the same thread is dropped.
+ * <p>
+ * A read that went to a read replica ({@link ReadWriteRoutingDataSource}) may miss a write committed up to
+ * {@code replicaLag} earlier, even if it started after the eviction. Its put is therefore also dropped while the
+ * key's last eviction (or the last clear) is younger than {@code replicaLag}; reads from the primary are cached as
+ * usual, so the writer, pinned to the primary by {@link ReadYourWrites}, is the one who fills the entry again.
+ */
+public class EvictionGuardedCache extends CaffeineCache {
+
+    private record Miss(Object key, long sequence, long replicaReads) {
+    }
+
+    private record Tombstone(long sequence, long evictedAt) {
+    }
+
+    private final long tombstoneTtlNanos;
+    private final long replicaLagNanos;
+    private final AtomicLong evictions = new AtomicLong();
+    private final Map<Object, Tombstone> tombstones = new ConcurrentHashMap<>();
+    private final ThreadLocal<Miss> lastMiss = new ThreadLocal<>();
+    private final AtomicLong clearedAt = new AtomicLong();
+    private final AtomicLong prunedUpTo = new AtomicLong();
+    private volatile long lastClear = System.nanoTime() - Long.MAX_VALUE / 2; // long before any read
+    private volatile long lastPrune = System.nanoTime();
+
+    public EvictionGuardedCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                boolean allowNullValues, Duration tombstoneTtl, Duration replicaLag) {
+        super(name, cache, allowNullValues);
+        this.replicaLagNanos = replicaLag.toNanos();
+        // a tombstone has to outlive the replica lag to judge replica reads
+        this.tombstoneTtlNanos = Math.max(tombstoneTtl.toNanos(), replicaLagNanos);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = super.lookup(key);
+        if (value == null) {
+            lastMiss.set(new Miss(key, evictions.get(), ReadWriteRoutingDataSource.replicaReadsOnCurrentThread()));
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            @SuppressWarnings("unchecked")
+            T value = (T) cached.get();
+            return value;
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            lastMiss.remove();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Miss miss = lastMiss.get();
+        lastMiss.remove();
+        if (miss == null || !miss.key().equals(key)) {
+            return;
+        }
+        long readAt = miss.sequence();
+        boolean fromReplica = ReadWriteRoutingDataSource.replicaReadsOnCurrentThread() != miss.replicaReads();
+        if (fromReplica && System.nanoTime() - lastClear < replicaLagNanos) {
+            return;
+        }
+        // the check and the put run under the tombstone's lock, so an eviction of this key cannot fall in between
+        tombstones.compute(key, (k, tombstone) -> {
+            boolean evictedSince = tombstone != null && tombstone.sequence() > readAt;
+            boolean replicaMayLag = fromReplica && tombstone != null
+                    && System.nanoTime() - tombstone.evictedAt() < replicaLagNanos;
+            if (!evictedSince && !replicaMayLag && prunedUpTo.get() <= readAt && clearedAt.get() <= readAt) {
+                super.put(k, value);
+            }
+            return tombstone;
+        });
+        if (clearedAt.get() > readAt) {
+            super.evict(key); // a clear() between the check and the put
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = get(key);
+        if (existing == null) {
+            put(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean[] present = new boolean[1];
+        tombstones.compute(key, (k, tombstone) -> {
+            present[0] = super.evictIfPresent(k);
+            return new Tombstone(evictions.incrementAndGet(), System.nanoTime());
+        });
+        pruneTombstones();
+        return present[0];
+    }
+
+    @Override
+    public void clear() {
+        lastClear = System.nanoTime();
+        clearedAt.accumulateAndGet(evictions.incrementAndGet(), Math::max);
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        lastClear = System.nanoTime();
+        clearedAt.accumulateAndGet(evictions.incrementAndGet(), Math::max);
+        return super.invalidate();
+    }
+
+    // At most once per TTL: drops the expired tombstones, raising the watermark before each one goes
+    private void pruneTombstones() {
+        long now = System.nanoTime();
+        if (now - lastPrune < tombstoneTtlNanos) {
+            return;
+        }
+        lastPrune = now;
+        for (Object key : tombstones.keySet()) {
+            tombstones.computeIfPresent(key, (k, tombstone) -> {
+                if (now - tombstone.evictedAt() < tombstoneTtlNanos) {
+                    return tombstone;
+                }
+                prunedUpTo.accumulateAndGet(tombstone.sequence(), Math::max);
+                return null;
+            });
+        }
+    }
+}
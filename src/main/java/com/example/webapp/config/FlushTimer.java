@@ -0,0 +1,67 @@
+package com.example.webapp.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Reports Hibernate flushes into the current {@link RequestTimings}: the time spent flushing, which is mostly the
+ * dirty check of every managed entity plus the SQL it sends, and the number of entities checked. Covers the flush at
+ * commit and the automatic flush before a query. A read-only transaction (flush mode MANUAL) checks no entities.
+ * <p>
+ * Hibernate creates one instance per session ({@code hibernate.session.events.auto}), and a session is used by one
+ * thread at a time.
+ */
+public class FlushTimer implements SessionEventListener {
+
+    private int depth;
+    private long start;
+    private int entities;
+
+    @Override
+    public void flushStart() {
+        started();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        entities += numberOfEntities;
+        ended();
+    }
+
+    @Override
+    public void prePartialFlushStart() {
+        started();
+    }
+
+    @Override
+    public void prePartialFlushEnd() {
+        ended();
+    }
+
+    @Override
+    public void partialFlushStart() {
+        started();
+    }
+
+    @Override
+    public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+        entities += numberOfEntities;
+        ended();
+    }
+
+    // Only the outermost start and end are timed, should Hibernate nest them
+    private void started() {
+        if (depth++ == 0) {
+            start = System.nanoTime();
+            entities = 0;
+        }
+    }
+
+    private void ended() {
+        if (depth > 0 && --depth == 0) {
+            RequestTimings timings = RequestTimings.current();
+            if (timings != null) {
+                timings.flushed(System.nanoTime() - start, entities);
+            }
+        }
+    }
+}
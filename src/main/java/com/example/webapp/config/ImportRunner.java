@@ -0,0 +1,56 @@
+package com.example.webapp.config;
+
+import com.example.webapp.dto.ImportJobStatus;
+import com.example.webapp.dto.ImportType;
+import com.example.webapp.service.ImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+// WHAT: Command line bulk import, runs once at startup when app.import.file is set
+// HOW: java -jar webapp.jar --app.import.type=students --app.import.file=students.csv --spring.main.web-application-type=none
+@Component
+@ConditionalOnProperty(name = "app.import.file")
+public class ImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportRunner.class);
+
+    private final ImportService importService;
+    private final Path file;
+    private final ImportType type;
+
+    public ImportRunner(ImportService importService,
+                        @Value("${app.import.file}") String file,
+                        @Value("${app.import.type:students}") String type) {
+        this.importService = importService;
+        this.file = Path.of(file);
+        this.type = ImportType.valueOf(type.trim().toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        log.info("Importing {} from {}", type, file);
+        ImportJobStatus result;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            result = importService.runImport(type, reader, file.getFileName().toString());
+        }
+        log.info("Import {}: {} rows read, {} imported, {} skipped, {} failed ({} rows/s)",
+                result.getState(), result.getRowsRead(), result.getRowsImported(), result.getRowsSkipped(),
+                result.getRowsFailed(), result.getRowsPerSecond());
+        if (result.getMessage() != null) {
+            log.error("Import stopped: {}", result.getMessage());
+        }
+        importService.getErrorReport(result.getId())
+                .ifPresent(report -> log.warn("Rejected rows written to {}", report));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.webapp.config;
+
+import org.hibernate.HibernateException;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+
+/**
+ * Counts lazy loads into the current {@link RequestTimings}: a lazy collection being initialized, or an entity
+ * proxy being loaded on first access ({@link LoadEventListener#IMMEDIATE_LOAD}). Collections fetched by a join or
+ * a batch query are already initialized and never reach this listener, so a count that grows with the size of a
+ * page is an N+1. Proxies answered from the second-level cache are counted too.
+ */
+public class LazyLoadCounter implements Integrator, InitializeCollectionEventListener, LoadEventListener {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry listeners = sessionFactory.getEventListenerRegistry();
+        listeners.appendListeners(EventType.INIT_COLLECTION, this);
+        listeners.appendListeners(EventType.LOAD, this);
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+        count();
+    }
+
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) throws HibernateException {
+        if (loadType == IMMEDIATE_LOAD) {
+            count();
+        }
+    }
+
+    private static void count() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.lazyLoaded();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.webapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// WHAT: Read replica routing - @Transactional(readOnly = true) er read gulo replica te, baki shob (write) primary te
+// HOW: app.db.replicas e URL thakle tobei on hoy. spring.datasource = primary, protiti replica r nijer Hikari pool;
+//      ReadWriteRoutingDataSource transaction dekhe route thik kore, LazyConnectionDataSourceProxy er pichone (readOnly
+//      flag connection chawar pore set hoy). Write commit er por app.db.read-your-writes-window porjonto oi browser er
+//      read primary theke (ReadYourWrites cookie). Bulkhead (app.db.max-concurrency) protiti pool er nijer, tai
+//      replica add korle total limit bare; SQL timing (BPP) ager motoi shob route er upore
+@Configuration
+@ConditionalOnProperty(name = "app.db.replicas[0].url")
+public class ReadReplicaConfig implements DisposableBean {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment) {
+        Binder binder = Binder.get(environment);
+        DataSource primary = limited(pool("primary", properties, binder), environment);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<DataSourceProperties> replicaProperties = binder
+                .bind("app.db.replicas", Bindable.listOf(DataSourceProperties.class))
+                .orElse(List.of());
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            String name = "replica-" + (i + 1);
+            replicas.put(name, limited(pool(name, replicaProperties.get(i), binder), environment));
+        }
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicas));
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(Environment environment) {
+        Duration window = environment.getProperty("app.db.read-your-writes-window", Duration.class,
+                Duration.ofSeconds(5));
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(window));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1); // right after RequestTimingFilter
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder readReplicaMetrics(DataSource dataSource) {
+        return registry -> {
+            ReadWriteRoutingDataSource routing = DataSourceUnwrapper.unwrap(dataSource, ReadWriteRoutingDataSource.class);
+            if (routing == null) {
+                return;
+            }
+            for (ReadWriteRoutingDataSource.Route route : routing.getRoutes()) {
+                FunctionCounter.builder("db.route.connections", route, ReadWriteRoutingDataSource.Route::getConnections)
+                        .description("Connections handed out per route")
+                        .tag("route", route.getName())
+                        .register(registry);
+                FunctionCounter.builder("db.route.statements", route, ReadWriteRoutingDataSource.Route::getStatements)
+                        .description("SQL statements executed per route")
+                        .tag("route", route.getName())
+                        .register(registry);
+                // The pools are not beans, so Boot's hikaricp.* metrics do not find them on their own
+                HikariDataSource hikari = DataSourceUnwrapper.unwrap(route.getDataSource(), HikariDataSource.class);
+                if (hikari != null) {
+                    hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                }
+            }
+            FunctionCounter.builder("db.route.pinned.reads", routing, ReadWriteRoutingDataSource::getPinnedReads)
+                    .description("Read-only transactions sent to the primary to read the request's own writes")
+                    .register(registry);
+            FunctionCounter.builder("db.route.replica.failures", routing, ReadWriteRoutingDataSource::getReplicaFailures)
+                    .description("Read-only transactions sent to the primary because a replica failed to connect")
+                    .register(registry);
+        };
+    }
+
+    // Same Hikari settings (spring.datasource.hikari.*) for every pool
+    private HikariDataSource pool(String name, DataSourceProperties properties, Binder binder) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pools.add(pool);
+        return pool;
+    }
+
+    // Each route gets its own bulkhead sized to its own pool (DatabaseConcurrencyConfig skips the routing data source)
+    private static DataSource limited(HikariDataSource pool, Environment environment) {
+        return DatabaseConcurrencyConfig.limit(pool, pool.getMaximumPoolSize(), environment);
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
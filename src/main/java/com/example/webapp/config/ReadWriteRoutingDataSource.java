@@ -0,0 +1,165 @@
+package com.example.webapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only transactions to the replicas, round robin, and everything else to the primary: read-write
+ * transactions, and work outside a transaction (Flyway, schema validation, autocommit JDBC).
+ * <p>
+ * The route is chosen when a connection is requested, and the transaction manager requests one before it marks the
+ * transaction read-only; this data source therefore has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which asks for the real connection only
+ * when the first statement runs.
+ * <p>
+ * A read-only transaction still goes to the primary while {@link ReadYourWrites} pins the current request, and when
+ * the replica cannot hand out a connection. Connections and statements are counted per route, and replica
+ * connections also per thread ({@link #replicaReadsOnCurrentThread()}), so a cache can tell whether a value it is
+ * given was read from a replica that may lag behind.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private static final ThreadLocal<long[]> REPLICA_READS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final Route primary;
+    private final List<Route> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder pinnedReads = new LongAdder();
+    private final LongAdder replicaFailures = new LongAdder();
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.primary = new Route("primary", primary);
+        replicas.forEach((name, replica) -> this.replicas.add(new Route(name, replica)));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(username, password);
+    }
+
+    public List<Route> getRoutes() {
+        List<Route> routes = new ArrayList<>();
+        routes.add(primary);
+        routes.addAll(replicas);
+        return routes;
+    }
+
+    // Read-only transactions sent to the primary because the request had just written
+    public long getPinnedReads() {
+        return pinnedReads.sum();
+    }
+
+    // Read-only transactions sent to the primary because a replica failed to connect
+    public long getReplicaFailures() {
+        return replicaFailures.sum();
+    }
+
+    // Replica connections handed to the current thread so far; compare two readings to see whether work in between
+    // read from a replica
+    public static long replicaReadsOnCurrentThread() {
+        return REPLICA_READS.get()[0];
+    }
+
+    private Connection connect(String username, String password) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !replicas.isEmpty()) {
+            if (ReadYourWrites.isPinned()) {
+                pinnedReads.increment();
+            } else {
+                Route replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                try {
+                    Connection connection = replica.connect(username, password);
+                    REPLICA_READS.get()[0]++;
+                    return connection;
+                } catch (SQLException e) {
+                    replicaFailures.increment();
+                    log.warn("Reading from the primary, {} is unavailable: {}", replica.getName(), e.getMessage());
+                }
+            }
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            // A read-write transaction: once it commits, this request reads from the primary
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ReadYourWrites.wrote();
+                }
+            });
+        }
+        return primary.connect(username, password);
+    }
+
+    /**
+     * One target data source and what went to it.
+     */
+    public static final class Route {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final LongAdder connections = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+
+        private Route(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public long getConnections() {
+            return connections.sum();
+        }
+
+        public long getStatements() {
+            return statements.sum();
+        }
+
+        private Connection connect(String username, String password) throws SQLException {
+            Connection connection = username == null
+                    ? dataSource.getConnection()
+                    : dataSource.getConnection(username, password);
+            connections.increment();
+            return SqlTimingDataSource.proxy(Connection.class, connection, (proxy, method, args) -> {
+                Object result = SqlTimingDataSource.invoke(connection, method, args);
+                if (result instanceof Statement statement) {
+                    return countedStatement(method.getReturnType(), statement);
+                }
+                return result;
+            });
+        }
+
+        private Object countedStatement(Class<?> type, Statement statement) {
+            return SqlTimingDataSource.proxy(type, statement, (proxy, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    statements.increment();
+                }
+                return SqlTimingDataSource.invoke(statement, method, args);
+            });
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.webapp.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes for {@link ReadWriteRoutingDataSource}: after a request commits a write, the same browser reads
+ * from the primary for a while, because a replica may not have replayed the write yet. The deadline travels in a
+ * cookie, so the page after a form post and the requests after it are covered on any node.
+ * <p>
+ * Bound to the request thread by {@link ReadYourWritesFilter}; work handed to another thread keeps it with
+ * {@link #propagate(Runnable)}. Outside a request, or with no replicas configured, nothing is pinned.
+ */
+public final class ReadYourWrites {
+
+    static final String COOKIE = "read-primary-until";
+
+    private static final ThreadLocal<ReadYourWrites> CURRENT = new ThreadLocal<>();
+
+    private final HttpServletResponse response;
+    private final Duration window;
+    private volatile long primaryUntil;
+    private volatile boolean cookieSent;
+
+    private ReadYourWrites(HttpServletResponse response, Duration window, long primaryUntil) {
+        this.response = response;
+        this.window = window;
+        this.primaryUntil = primaryUntil;
+    }
+
+    /**
+     * Binds a scope to the current thread. {@code primaryUntil} comes from the request's cookie (epoch millis);
+     * a value further out than one window is not trusted.
+     */
+    static ReadYourWrites start(HttpServletResponse response, Duration window, long primaryUntil) {
+        long latest = System.currentTimeMillis() + window.toMillis();
+        ReadYourWrites scope = new ReadYourWrites(response, window, Math.min(primaryUntil, latest));
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public static boolean isPinned() {
+        ReadYourWrites scope = CURRENT.get();
+        return scope != null && System.currentTimeMillis() < scope.primaryUntil;
+    }
+
+    /**
+     * Records that the current request committed a write, or handed one to a background worker.
+     */
+    public static void wrote() {
+        ReadYourWrites scope = CURRENT.get();
+        if (scope == null) {
+            return;
+        }
+        scope.primaryUntil = System.currentTimeMillis() + scope.window.toMillis();
+        if (!scope.cookieSent && scope.response != null && !scope.response.isCommitted()) {
+            scope.cookieSent = true;
+            Cookie cookie = new Cookie(COOKIE, Long.toString(scope.primaryUntil));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) scope.window.toSeconds() + 1);
+            scope.response.addCookie(cookie);
+        }
+    }
+
+    /**
+     * Runs {@code task} with the current request's scope, if any.
+     */
+    public static Runnable propagate(Runnable task) {
+        ReadYourWrites scope = CURRENT.get();
+        if (scope == null) {
+            return task;
+        }
+        return () -> {
+            ReadYourWrites previous = CURRENT.get();
+            CURRENT.set(scope);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+}
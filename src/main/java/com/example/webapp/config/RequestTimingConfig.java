@@ -0,0 +1,112 @@
+package com.example.webapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// WHAT: Per-request time breakdown - controller, service, db (SQL count + rows), view (Thymeleaf) - Server-Timing header e
+//       ar /actuator/metrics/request.layer?tag=uri:/students/{id}&tag=layer:db e
+// HOW: Filter request er RequestTimings bind kore; @Service class er method e advisor, SQL er hishab SqlTimingDataSource
+//      (DatabaseMetricsConfig) theke, handler interceptor controller ar view er shuru-shesh mark kore.
+//      app.request-timing.header=false dile header bondho. LazyLoadCounter Hibernate er lazy load gune; ek request e
+//      app.request-timing.lazy-load-warn-threshold er beshi hole WARN log (dev profile e 10, default 0 = bondho).
+//      FlushTimer (Hibernate session event listener) flush/dirty-check er shomoy ar entity shongkha "flush" layer e dey
+@Configuration
+public class RequestTimingConfig implements WebMvcConfigurer {
+
+    @Bean
+    public FilterRegistrationBean<RequestTimingFilter> requestTimingFilter(MeterRegistry meterRegistry,
+                                                                           @Value("${app.request-timing.header:true}") boolean sendHeader,
+                                                                           @Value("${app.request-timing.lazy-load-warn-threshold:0}") int lazyLoadWarnThreshold) {
+        FilterRegistrationBean<RequestTimingFilter> registration =
+                new FilterRegistrationBean<>(new RequestTimingFilter(meterRegistry, sendHeader, lazyLoadWarnThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE); // outside security, so total covers the whole request
+        return registration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer lazyLoadCounter() {
+        return properties -> properties.put(JpaSettings.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(new LazyLoadCounter()));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer flushTimer() {
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, FlushTimer.class.getName());
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceTimingAdvisor() {
+        MethodInterceptor timing = invocation -> {
+            boolean outermost = RequestTimings.enterService();
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                RequestTimings.exitService(outermost, System.nanoTime() - start);
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class), timing);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE); // outside @Transactional, so commit time counts as service time
+        return advisor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                RequestTimings timings = RequestTimings.current();
+                if (timings != null) {
+                    timings.handlerStarted();
+                }
+                return true;
+            }
+
+            @Override
+            public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                   ModelAndView modelAndView) {
+                RequestTimings timings = RequestTimings.current();
+                if (timings != null) {
+                    timings.handlerFinished();
+                    if (modelAndView != null && !modelAndView.wasCleared()) {
+                        timings.viewStarted();
+                    }
+                }
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                        Exception ex) {
+                RequestTimings timings = RequestTimings.current();
+                if (timings != null) {
+                    timings.handlerFinished();
+                    timings.viewFinished();
+                }
+            }
+        });
+    }
+}
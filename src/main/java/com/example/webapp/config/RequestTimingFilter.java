@@ -0,0 +1,184 @@
+package com.example.webapp.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times each request with {@link RequestTimings}, sends the breakdown as a {@code Server-Timing} header and records
+ * it per endpoint: {@code request.layer} timers tagged with the layer, {@code request.sql.statements},
+ * {@code request.sql.rows} and {@code request.flush.entities} summaries, and {@code request.allocated.bytes} where the
+ * request thread's allocations can be measured. The header is added just before the body is first written, which for
+ * Thymeleaf pages is after rendering (partial output is switched off in application.yml).
+ * <p>
+ * With a lazy-load threshold above zero, a request that triggers more lazy loads than that is logged at WARN
+ * (a likely N+1); the dev profile turns this on.
+ */
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private static final Logger log = LoggerFactory.getLogger(RequestTimingFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean sendHeader;
+    private final int lazyLoadWarnThreshold;
+
+    public RequestTimingFilter(MeterRegistry meterRegistry, boolean sendHeader, int lazyLoadWarnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.sendHeader = sendHeader;
+        this.lazyLoadWarnThreshold = lazyLoadWarnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        HeaderOnCommitResponse timedResponse = new HeaderOnCommitResponse(response, timings);
+        try {
+            chain.doFilter(request, sendHeader ? timedResponse : response);
+        } finally {
+            timings.finished();
+            RequestTimings.clear();
+            if (sendHeader) {
+                timedResponse.addHeader(); // responses without a body
+            }
+            record(request, timings);
+            if (lazyLoadWarnThreshold > 0 && timings.lazyLoads() > lazyLoadWarnThreshold) {
+                log.warn("{} {} triggered {} lazy loads ({} SQL statements), more than {}: likely an N+1 query",
+                        request.getMethod(), request.getRequestURI(), timings.lazyLoads(), timings.statements(),
+                        lazyLoadWarnThreshold);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestTimings timings) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        layer(uri, "controller", timings.controllerNanos());
+        layer(uri, "service", timings.serviceNanos());
+        layer(uri, "db", timings.sqlNanos());
+        layer(uri, "flush", timings.flushNanos());
+        layer(uri, "view", timings.viewNanos());
+        layer(uri, "total", timings.totalNanos());
+        DistributionSummary.builder("request.sql.statements")
+                .description("SQL statements executed per request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(timings.statements());
+        DistributionSummary.builder("request.sql.rows")
+                .description("Rows read from result sets per request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(timings.rows());
+        DistributionSummary.builder("request.flush.entities")
+                .description("Entities dirty-checked by Hibernate flushes per request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(timings.flushedEntities());
+        if (timings.allocatedBytes() >= 0) {
+            DistributionSummary.builder("request.allocated.bytes")
+                    .description("Heap allocated by the request thread per request")
+                    .baseUnit("bytes")
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(timings.allocatedBytes());
+        }
+    }
+
+    private void layer(String uri, String layer, long nanos) {
+        Timer.builder("request.layer")
+                .description("Time per request spent in one layer")
+                .tag("uri", uri)
+                .tag("layer", layer)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Adds Server-Timing the first time the response could be committed
+    private static final class HeaderOnCommitResponse extends HttpServletResponseWrapper {
+
+        private final RequestTimings timings;
+        private boolean headerAdded;
+
+        HeaderOnCommitResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void addHeader() {
+            if (!headerAdded && !isCommitted()) {
+                headerAdded = true;
+                setHeader(HEADER, timings.toServerTiming());
+            }
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addHeader();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void sendRedirect(String location, int sc) throws IOException {
+            addHeader();
+            super.sendRedirect(location, sc);
+        }
+
+        @Override
+        public void sendRedirect(String location, boolean clearBuffer) throws IOException {
+            addHeader();
+            super.sendRedirect(location, clearBuffer);
+        }
+
+        @Override
+        public void sendRedirect(String location, int sc, boolean clearBuffer) throws IOException {
+            addHeader();
+            super.sendRedirect(location, sc, clearBuffer);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addHeader();
+            super.sendError(sc, msg);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.webapp.config;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where the time of one HTTP request went: controller code, service calls, SQL and template rendering.
+ * Bound to the request thread by {@link RequestTimingFilter}; the service advisor, the SQL proxy and the
+ * handler interceptor report into whatever instance is {@link #current()}, and do nothing outside a request.
+ * Work handed to another thread can be included with {@link #propagate(Runnable)}.
+ * <p>
+ * Service time is wall-clock time in the outermost service call on the request thread, so it contains the SQL
+ * run underneath it; controller time is the handler minus service time. SQL time, statements, rows, lazy loads and
+ * Hibernate flushes are summed over all threads working for the request. Allocated bytes are those of the request
+ * thread, and only where the JVM measures them per thread: not on virtual threads.
+ * <p>
+ * Timings started while another instance is current (a test measuring a whole request) report their SQL and lazy
+ * loads to that instance as well, and hand it back on {@link #clear()}.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final long start = System.nanoTime();
+    private final long allocatedAtStart = currentThreadAllocatedBytes();
+    private final RequestTimings outer;
+
+    // Written by the request thread only
+    private long handlerStart;
+    private long handlerEnd;
+    private long viewStart;
+    private long viewEnd;
+    private long end;
+    private long allocatedBytes = -1;
+
+    private final LongAdder serviceNanos = new LongAdder();
+    private final LongAdder sqlNanos = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder lazyLoads = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final LongAdder flushedEntities = new LongAdder();
+
+    private RequestTimings(RequestTimings outer) {
+        this.outer = outer;
+    }
+
+    // Per-thread view of the request: service calls nested in another service call are not counted again
+    private static final class Scope {
+        final RequestTimings timings;
+        final Scope previous;
+        int serviceDepth;
+
+        Scope(RequestTimings timings, Scope previous, int serviceDepth) {
+            this.timings = timings;
+            this.previous = previous;
+            this.serviceDepth = serviceDepth;
+        }
+    }
+
+    static RequestTimings start() {
+        Scope previous = CURRENT.get();
+        RequestTimings timings = new RequestTimings(previous != null ? previous.timings : null);
+        CURRENT.set(new Scope(timings, previous, 0));
+        return timings;
+    }
+
+    static void clear() {
+        Scope scope = CURRENT.get();
+        if (scope != null && scope.previous != null) {
+            CURRENT.set(scope.previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    public static RequestTimings current() {
+        Scope scope = CURRENT.get();
+        return scope != null ? scope.timings : null;
+    }
+
+    /**
+     * Runs {@code task} as part of the current request, if any. Only SQL is counted on the other thread: the
+     * service call that handed the work over is already being timed on the request thread.
+     */
+    public static Runnable propagate(Runnable task) {
+        RequestTimings timings = current();
+        if (timings == null) {
+            return task;
+        }
+        return () -> {
+            Scope previous = CURRENT.get();
+            CURRENT.set(new Scope(timings, null, 1));
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    // Returns true for the outermost service call on this thread, which the caller then times
+    static boolean enterService() {
+        Scope scope = CURRENT.get();
+        return scope != null && scope.serviceDepth++ == 0;
+    }
+
+    static void exitService(boolean outermost, long nanos) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.serviceDepth--;
+            if (outermost) {
+                scope.timings.serviceNanos.add(nanos);
+            }
+        }
+    }
+
+    void sqlExecuted(long nanos) {
+        statements.increment();
+        sqlNanos.add(nanos);
+        if (outer != null) {
+            outer.sqlExecuted(nanos);
+        }
+    }
+
+    void rowFetched() {
+        rows.increment();
+        if (outer != null) {
+            outer.rowFetched();
+        }
+    }
+
+    // A lazy collection or proxy initialized while the request runs (LazyLoadCounter)
+    void lazyLoaded() {
+        lazyLoads.increment();
+        if (outer != null) {
+            outer.lazyLoaded();
+        }
+    }
+
+    // A Hibernate flush and the number of entities it dirty-checked (FlushTimer)
+    void flushed(long nanos, int entities) {
+        flushNanos.add(nanos);
+        flushedEntities.add(entities);
+        if (outer != null) {
+            outer.flushed(nanos, entities);
+        }
+    }
+
+    void handlerStarted() {
+        handlerStart = System.nanoTime();
+    }
+
+    void handlerFinished() {
+        if (handlerStart != 0 && handlerEnd == 0) {
+            handlerEnd = System.nanoTime();
+        }
+    }
+
+    void viewStarted() {
+        viewStart = System.nanoTime();
+    }
+
+    void viewFinished() {
+        if (viewStart != 0 && viewEnd == 0) {
+            viewEnd = System.nanoTime();
+        }
+    }
+
+    void finished() {
+        end = System.nanoTime();
+        long allocated = currentThreadAllocatedBytes();
+        if (allocatedAtStart >= 0 && allocated >= 0) {
+            allocatedBytes = allocated - allocatedAtStart;
+        }
+    }
+
+    long controllerNanos() {
+        long handler = handlerStart == 0 ? 0 : (handlerEnd != 0 ? handlerEnd : System.nanoTime()) - handlerStart;
+        return Math.max(0, handler - serviceNanos.sum());
+    }
+
+    long serviceNanos() {
+        return serviceNanos.sum();
+    }
+
+    long sqlNanos() {
+        return sqlNanos.sum();
+    }
+
+    long statements() {
+        return statements.sum();
+    }
+
+    long rows() {
+        return rows.sum();
+    }
+
+    long lazyLoads() {
+        return lazyLoads.sum();
+    }
+
+    long flushNanos() {
+        return flushNanos.sum();
+    }
+
+    long flushedEntities() {
+        return flushedEntities.sum();
+    }
+
+    // -1 when not measured
+    long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    // A view still rendering counts up to now: the header goes out when the rendered page is written
+    long viewNanos() {
+        return viewStart == 0 ? 0 : (viewEnd != 0 ? viewEnd : System.nanoTime()) - viewStart;
+    }
+
+    long totalNanos() {
+        return (end != 0 ? end : System.nanoTime()) - start;
+    }
+
+    /**
+     * Value of the {@code Server-Timing} header, durations in milliseconds.
+     */
+    String toServerTiming() {
+        return String.format(Locale.ROOT,
+                "controller;dur=%.1f, service;dur=%.1f, db;dur=%.1f;desc=\"%d queries, %d rows\", flush;dur=%.1f;desc=\"%d entities\", view;dur=%.1f, total;dur=%.1f",
+                millis(controllerNanos()), millis(serviceNanos()), millis(sqlNanos()), statements(), rows(),
+                millis(flushNanos()), flushedEntities(), millis(viewNanos()), millis(totalNanos()));
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean threads && !Thread.currentThread().isVirtual()
+                && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.webapp.config;
 
 import com.example.webapp.security.CustomUserDetailsService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -51,9 +53,35 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    // WHAT: Actuator (/actuator/**) er alada security - Prometheus er moto scraper form login korte pare na
+    // HOW: Ei chain age check hoy (@Order(1)); health public, baki shob TEACHER role - browser session othoba HTTP Basic
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .authenticationProvider(authenticationProvider())
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/actuator/health").permitAll()
+                .anyRequest().hasRole("TEACHER")
+            )
+            // HOW: 401/403 shudhu status diye, sendError na - noile /error page er jonno main chain login e redirect kore
+            .httpBasic(basic -> basic.authenticationEntryPoint((request, response, e) -> {
+                response.setHeader("WWW-Authenticate", "Basic realm=\"actuator\"");
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            }))
+            .exceptionHandling(ex -> ex
+                .accessDeniedHandler((request, response, e) -> response.setStatus(HttpServletResponse.SC_FORBIDDEN))
+            )
+            .csrf(csrf -> csrf.disable());   // read-only GET endpoints, no form posts
+
+        return http.build();
+    }
+
     // WHAT: Main security configuration - kon URL te ke access korte parbe seta define kore
     // HOW: HTTP request ashle filter chain check kore: authentication ache ki? authorized ki na? then allow/deny kore
     @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             // Amader custom authentication provider set korchi
@@ -71,6 +99,7 @@ public class SecurityConfig {
                 .requestMatchers("/teachers/new", "/teachers/*/edit", "/teachers/*/delete").hasRole("TEACHER")
                 .requestMatchers("/courses/new", "/courses/*/edit", "/courses/*/delete").hasRole("TEACHER")
                 .requestMatchers("/departments/new", "/departments/*/edit", "/departments/*/delete").hasRole("TEACHER")
+                .requestMatchers("/import/**", "/export/**").hasRole("TEACHER")
                 
                 // WHAT: Baki shob URLs authenticated user ra access korte parbe
                 // HOW: authenticated() = kono logged-in user hole cholbe, role matter kore na
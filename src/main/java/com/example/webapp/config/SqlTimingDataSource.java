@@ -0,0 +1,156 @@
+package com.example.webapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times every SQL statement for two consumers. During an HTTP request, each {@code execute*} call, the statement
+ * count and the rows read from result sets go to the request's {@link RequestTimings}. Any statement slower than
+ * the info threshold is logged to the {@code sql.slow} logger with its SQL (never its parameters): at INFO, or at
+ * WARN past the warn threshold. A zero threshold switches that level off; with both off, statements created outside
+ * a request are returned unwrapped.
+ */
+public class SqlTimingDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger("sql.slow");
+
+    private final long infoNanos;
+    private final long warnNanos;
+    private final LongAdder slowQueries = new LongAdder();
+    private final LongAdder verySlowQueries = new LongAdder();
+
+    public SqlTimingDataSource(DataSource target, Duration infoThreshold, Duration warnThreshold) {
+        super(target);
+        this.infoNanos = infoThreshold.toNanos();
+        this.warnNanos = warnThreshold.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timedConnection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timedConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    // Statements logged at INFO
+    public long getSlowQueries() {
+        return slowQueries.sum();
+    }
+
+    // Statements logged at WARN
+    public long getVerySlowQueries() {
+        return verySlowQueries.sum();
+    }
+
+    private boolean slowLogEnabled() {
+        return infoNanos > 0 || warnNanos > 0;
+    }
+
+    private Connection timedConnection(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement) {
+                RequestTimings timings = RequestTimings.current();
+                if (timings != null || slowLogEnabled()) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                    return timedStatement(method.getReturnType(), statement, sql, timings);
+                }
+            }
+            return result;
+        });
+    }
+
+    private Object timedStatement(Class<?> type, Statement statement, String preparedSql, RequestTimings timings) {
+        return proxy(type, statement, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return countRows(invoke(statement, method, args), timings);
+            }
+            long start = System.nanoTime();
+            try {
+                return countRows(invoke(statement, method, args), timings);
+            } finally {
+                long nanos = System.nanoTime() - start;
+                if (timings != null) {
+                    timings.sqlExecuted(nanos);
+                }
+                // Plain statements carry their SQL in execute(sql), prepared ones got it in prepareStatement(sql)
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                logIfSlow(sql, nanos);
+            }
+        });
+    }
+
+    private void logIfSlow(String sql, long nanos) {
+        boolean warn = warnNanos > 0 && nanos >= warnNanos;
+        if (!warn && (infoNanos <= 0 || nanos < infoNanos)) {
+            return;
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (warn) {
+            verySlowQueries.increment();
+            log.warn("Slow query took {} ms: {}", millis, sql);
+        } else {
+            slowQueries.increment();
+            log.info("Slow query took {} ms: {}", millis, sql);
+        }
+    }
+
+    // Wraps the result sets a statement hands out (executeQuery, getResultSet, getGeneratedKeys)
+    private static Object countRows(Object result, RequestTimings timings) {
+        if (timings == null || !(result instanceof ResultSet resultSet)) {
+            return result;
+        }
+        return proxy(ResultSet.class, resultSet, (proxy, method, args) -> {
+            Object value = invoke(resultSet, method, args);
+            if (Boolean.TRUE.equals(value) && method.getName().equals("next")) {
+                timings.rowFetched();
+            }
+            return value;
+        });
+    }
+
+    // JDBC proxy that answers equals, hashCode and unwrap itself; also used by ReadWriteRoutingDataSource
+    static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return handler.invoke(proxy, method, args);
+        }));
+    }
+
+    static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -1,15 +1,29 @@
 package com.example.webapp.controller;
 
 import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.EnrollmentDiff;
+import com.example.webapp.dto.EnrollmentTicket;
+import com.example.webapp.dto.KeysetPage;
+import com.example.webapp.dto.ListQuery;
+import com.example.webapp.security.CustomUserDetails;
 import com.example.webapp.service.CourseService;
 import com.example.webapp.service.DepartmentService;
+import com.example.webapp.service.EnrollmentQueue;
+import com.example.webapp.service.EnrollmentService;
 import com.example.webapp.service.StudentService;
+import com.example.webapp.service.ViewAssembler;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
 @Controller
 @RequestMapping("/courses")
 public class CourseController {
@@ -17,37 +31,109 @@ public class CourseController {
     private final CourseService courseService;
     private final DepartmentService departmentService;
     private final StudentService studentService;
+    private final EnrollmentService enrollmentService;
+    private final EnrollmentQueue enrollmentQueue;
+    private final ViewAssembler viewAssembler;
 
     public CourseController(CourseService courseService, 
                            DepartmentService departmentService,
-                           StudentService studentService) {
+                           StudentService studentService,
+                           EnrollmentService enrollmentService,
+                           EnrollmentQueue enrollmentQueue,
+                           ViewAssembler viewAssembler) {
         this.courseService = courseService;
         this.departmentService = departmentService;
         this.studentService = studentService;
+        this.enrollmentService = enrollmentService;
+        this.enrollmentQueue = enrollmentQueue;
+        this.viewAssembler = viewAssembler;
     }
 
     @GetMapping
-    public String getAllCourses(Model model) {
-        model.addAttribute("courses", courseService.getAllCoursesDTO());
+    public String getAllCourses(@ModelAttribute("query") ListQuery query, Model model) {
+        KeysetPage<CourseDTO> page = courseService.getCoursesPage(query);
+        model.addAttribute("page", page);
+        model.addAttribute("courses", page.getItems());
+        model.addAttribute("departments", departmentService.getDepartmentOptions());
         return "courses";
     }
 
     @GetMapping("/{id}")
-    public String viewCourse(@PathVariable Long id, Model model) {
-        CourseDTO course = courseService.getCourseDTO(id);
-        model.addAttribute("course", course);
-        if (course.getStudentIds() != null && !course.getStudentIds().isEmpty()) {
-            model.addAttribute("students", studentService.getStudentsByIds(course.getStudentIds()));
-        }
+    public String viewCourse(@PathVariable Long id, Model model,
+                             @AuthenticationPrincipal CustomUserDetails userDetails) {
+        Long studentId = currentStudentId(userDetails);
+        model.addAllAttributes(viewAssembler.assemble("course-view", "course",
+                () -> courseService.getCourseDTO(id),
+                course -> {
+                    Map<String, Supplier<?>> branches = new LinkedHashMap<>();
+                    if (course.getStudentIds() != null && !course.getStudentIds().isEmpty()) {
+                        branches.put("students", () -> studentService.getStudentsByIds(course.getStudentIds()));
+                    }
+                    // Free seats and the waitlist change all the time, so they are read live, not from the DTO cache
+                    if (course.getCapacity() != null) {
+                        branches.put("seats", () -> enrollmentService.getSeatStatus(id, studentId));
+                    }
+                    return branches;
+                }));
+        model.addAttribute("currentStudentId", studentId);
+        model.addAttribute("pendingTicket", studentId == null ? null
+                : enrollmentQueue.findOutstanding(id, studentId).orElse(null));
         return "course-view";
     }
 
+    // Enroll and drop go through the queue; outside a rush the result is there before the redirect
+    @PostMapping("/{id}/enroll")
+    @PreAuthorize("hasRole('STUDENT')")
+    public String enroll(@PathVariable Long id,
+                         @AuthenticationPrincipal CustomUserDetails userDetails,
+                         RedirectAttributes redirectAttributes) {
+        EnrollmentTicket ticket = enrollmentQueue.submitAndWait(id, userDetails.getProfileId(),
+                EnrollmentTicket.Action.ENROLL);
+        addTicketMessage(ticket, redirectAttributes);
+        return "redirect:/courses/" + id;
+    }
+
+    @PostMapping("/{id}/drop")
+    @PreAuthorize("hasRole('STUDENT')")
+    public String drop(@PathVariable Long id,
+                       @AuthenticationPrincipal CustomUserDetails userDetails,
+                       RedirectAttributes redirectAttributes) {
+        EnrollmentTicket ticket = enrollmentQueue.submitAndWait(id, userDetails.getProfileId(),
+                EnrollmentTicket.Action.DROP);
+        addTicketMessage(ticket, redirectAttributes);
+        return "redirect:/courses/" + id;
+    }
+
+    private static void addTicketMessage(EnrollmentTicket ticket, RedirectAttributes redirectAttributes) {
+        switch (ticket.getState()) {
+            case QUEUED, PROCESSING -> redirectAttributes.addFlashAttribute("successMessage",
+                    "Your request is in the queue, this page updates when it has been processed");
+            case REJECTED -> redirectAttributes.addFlashAttribute("errorMessage",
+                    "Registration is very busy right now, please try again in a moment");
+            case FAILED -> redirectAttributes.addFlashAttribute("errorMessage", ticket.getMessage());
+            case COMPLETED -> redirectAttributes.addFlashAttribute("successMessage", switch (ticket.getResult()) {
+                case ENROLLED -> "You are enrolled in this course";
+                case WAITLISTED -> "The course is full, you are on the waitlist";
+                case ALREADY_ENROLLED -> "You are already enrolled in this course";
+                case ALREADY_WAITLISTED -> "You are already on the waitlist";
+                case DROPPED -> "You left the course";
+                case NOT_ENROLLED -> "You are not enrolled in this course";
+            });
+        }
+    }
+
+    private static Long currentStudentId(CustomUserDetails userDetails) {
+        boolean student = userDetails != null && userDetails.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_STUDENT"));
+        return student ? userDetails.getProfileId() : null;
+    }
+
     @GetMapping("/new")
     @PreAuthorize("hasRole('TEACHER')")
     public String showAddForm(Model model) {
         model.addAttribute("course", new CourseDTO());
-        model.addAttribute("departments", departmentService.getAllDepartmentsDTO());
-        model.addAttribute("students", studentService.getAllStudents());
+        model.addAttribute("departments", departmentService.getDepartmentOptions());
+        model.addAttribute("selectedStudents", List.of());
         return "course-form";
     }
 
@@ -63,9 +149,11 @@ public class CourseController {
     @GetMapping("/{id}/edit")
     @PreAuthorize("hasRole('TEACHER')")
     public String showEditForm(@PathVariable Long id, Model model) {
-        model.addAttribute("course", courseService.getCourseDTO(id));
-        model.addAttribute("departments", departmentService.getAllDepartmentsDTO());
-        model.addAttribute("students", studentService.getAllStudents());
+        CourseDTO course = courseService.getCourseDTO(id);
+        model.addAttribute("course", course);
+        model.addAttribute("departments", departmentService.getDepartmentOptions());
+        // Only the current selection is rendered; other students are found through /students/search
+        model.addAttribute("selectedStudents", studentService.getStudentSummariesByIds(course.getStudentIds()));
         return "course-form";
     }
 
@@ -74,8 +162,10 @@ public class CourseController {
     public String updateCourse(@PathVariable Long id, 
                               @ModelAttribute("course") CourseDTO courseDTO,
                               RedirectAttributes redirectAttributes) {
-        courseService.updateCourse(id, courseDTO);
-        redirectAttributes.addFlashAttribute("successMessage", "Course updated successfully");
+        EnrollmentDiff diff = courseService.updateCourse(id, courseDTO);
+        redirectAttributes.addFlashAttribute("successMessage", "Course updated successfully ("
+                + diff.getAddedStudentIds().size() + " enrolled, "
+                + diff.getRemovedStudentIds().size() + " removed)");
         return "redirect:/courses";
     }
 
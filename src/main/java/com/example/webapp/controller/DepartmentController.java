@@ -1,15 +1,22 @@
 package com.example.webapp.controller;
 
 import com.example.webapp.dto.DepartmentDTO;
+import com.example.webapp.dto.KeysetPage;
+import com.example.webapp.dto.ListQuery;
 import com.example.webapp.service.CourseService;
 import com.example.webapp.service.DepartmentService;
 import com.example.webapp.service.TeacherService;
+import com.example.webapp.service.ViewAssembler;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
 @Controller
 @RequestMapping("/departments")
 public class DepartmentController {
@@ -17,31 +24,41 @@ public class DepartmentController {
     private final DepartmentService departmentService;
     private final TeacherService teacherService;
     private final CourseService courseService;
+    private final ViewAssembler viewAssembler;
 
     public DepartmentController(DepartmentService departmentService,
                                TeacherService teacherService,
-                               CourseService courseService) {
+                               CourseService courseService,
+                               ViewAssembler viewAssembler) {
         this.departmentService = departmentService;
         this.teacherService = teacherService;
         this.courseService = courseService;
+        this.viewAssembler = viewAssembler;
     }
 
     @GetMapping
-    public String getAllDepartments(Model model) {
-        model.addAttribute("departments", departmentService.getAllDepartmentsDTO());
+    public String getAllDepartments(@ModelAttribute("query") ListQuery query, Model model) {
+        KeysetPage<DepartmentDTO> page = departmentService.getDepartmentsPage(query);
+        model.addAttribute("page", page);
+        model.addAttribute("departments", page.getItems());
         return "departments";
     }
 
     @GetMapping("/{id}")
     public String viewDepartment(@PathVariable Long id, Model model) {
-        DepartmentDTO department = departmentService.getDepartmentDTO(id);
-        model.addAttribute("department", department);
-        if (department.getTeacherIds() != null && !department.getTeacherIds().isEmpty()) {
-            model.addAttribute("teachers", teacherService.getTeachersByIds(department.getTeacherIds()));
-        }
-        if (department.getCourseIds() != null && !department.getCourseIds().isEmpty()) {
-            model.addAttribute("courses", courseService.getCoursesByIds(department.getCourseIds()));
-        }
+        // Teachers and courses are loaded in parallel once the department is known
+        model.addAllAttributes(viewAssembler.assemble("department-view", "department",
+                () -> departmentService.getDepartmentDTO(id),
+                department -> {
+                    Map<String, Supplier<?>> branches = new LinkedHashMap<>();
+                    if (department.getTeacherIds() != null && !department.getTeacherIds().isEmpty()) {
+                        branches.put("teachers", () -> teacherService.getTeachersByIds(department.getTeacherIds()));
+                    }
+                    if (department.getCourseIds() != null && !department.getCourseIds().isEmpty()) {
+                        branches.put("courses", () -> courseService.getCoursesByIds(department.getCourseIds()));
+                    }
+                    return branches;
+                }));
         return "department-view";
     }
 
@@ -0,0 +1,90 @@
+package com.example.webapp.controller;
+
+import com.example.webapp.dto.EnrollmentTicket;
+import com.example.webapp.security.CustomUserDetails;
+import com.example.webapp.service.EnrollmentQueue;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+
+@Controller
+@RequestMapping("/enrollments")
+@PreAuthorize("hasRole('STUDENT')")
+public class EnrollmentController {
+
+    private static final Duration EVENTS_TIMEOUT = Duration.ofMinutes(5);
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private final EnrollmentQueue enrollmentQueue;
+
+    public EnrollmentController(EnrollmentQueue enrollmentQueue) {
+        this.enrollmentQueue = enrollmentQueue;
+    }
+
+    // 202 with the ticket to poll, or 503 with Retry-After when the queue is full
+    @PostMapping
+    @ResponseBody
+    public ResponseEntity<EnrollmentTicket> submit(@RequestParam Long courseId,
+                                                   @RequestParam(defaultValue = "ENROLL") EnrollmentTicket.Action action,
+                                                   @AuthenticationPrincipal CustomUserDetails userDetails) {
+        EnrollmentTicket ticket = enrollmentQueue.submit(courseId, userDetails.getProfileId(), action);
+        if (ticket.getState() == EnrollmentTicket.State.REJECTED) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(ticket);
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/enrollments/" + ticket.getId())
+                .body(ticket);
+    }
+
+    @GetMapping("/{id}")
+    @ResponseBody
+    public ResponseEntity<EnrollmentTicket> ticket(@PathVariable String id,
+                                                   @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.of(ownTicket(id, userDetails));
+    }
+
+    // Server-sent "ticket" events: the current state, then every change; the stream ends once the ticket is finished
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> events(@PathVariable String id,
+                                             @AuthenticationPrincipal CustomUserDetails userDetails) {
+        if (ownTicket(id, userDetails).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = new SseEmitter(EVENTS_TIMEOUT.toMillis());
+        Optional<Runnable> unsubscribe = enrollmentQueue.subscribe(id, ticket -> {
+            try {
+                emitter.send(SseEmitter.event().name("ticket").data(ticket, MediaType.APPLICATION_JSON));
+                if (ticket.isFinished()) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e); // client went away, or the stream already ended
+            }
+        });
+        if (unsubscribe.isEmpty()) {
+            return ResponseEntity.notFound().build(); // purged in the meantime
+        }
+        emitter.onCompletion(unsubscribe.get());
+        emitter.onTimeout(emitter::complete);
+        return ResponseEntity.ok(emitter);
+    }
+
+    // Students only see their own tickets; anybody else's id answers 404
+    private Optional<EnrollmentTicket> ownTicket(String id, CustomUserDetails userDetails) {
+        return enrollmentQueue.getTicket(id)
+                .filter(ticket -> ticket.getStudentId().equals(userDetails.getProfileId()));
+    }
+}
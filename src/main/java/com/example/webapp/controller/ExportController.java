@@ -0,0 +1,50 @@
+package com.example.webapp.controller;
+
+import com.example.webapp.dto.ExportFormat;
+import com.example.webapp.dto.ExportStatus;
+import com.example.webapp.service.ExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Controller
+@RequestMapping("/export")
+@PreAuthorize("hasRole('TEACHER')")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    // No Content-Length is known up front, so the body goes out with chunked transfer encoding as it is written
+    @GetMapping("/students")
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        StreamingResponseBody body = output -> exportService.exportStudents(exportFormat, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"students-" + LocalDate.now() + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    // Rows written and rows/s of running and recent exports
+    @GetMapping("/status")
+    @ResponseBody
+    public List<ExportStatus> exportStatus() {
+        return exportService.getRecentExports();
+    }
+}
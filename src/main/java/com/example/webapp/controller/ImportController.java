@@ -0,0 +1,94 @@
+package com.example.webapp.controller;
+
+import com.example.webapp.dto.ImportJobStatus;
+import com.example.webapp.dto.ImportType;
+import com.example.webapp.service.ImportService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Controller
+@RequestMapping("/import")
+@PreAuthorize("hasRole('TEACHER')")
+public class ImportController {
+
+    private final ImportService importService;
+
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    @GetMapping
+    public String showImportPage(Model model) {
+        model.addAttribute("types", ImportType.values());
+        model.addAttribute("jobs", importService.getRecentJobs());
+        return "import";
+    }
+
+    @PostMapping
+    public String upload(@RequestParam("type") ImportType type,
+                         @RequestParam("file") MultipartFile file,
+                         RedirectAttributes redirectAttributes) throws IOException {
+        if (file.isEmpty()) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Choose a CSV file to import");
+            return "redirect:/import";
+        }
+        ImportJobStatus job = start(type, file);
+        redirectAttributes.addFlashAttribute("successMessage", "Import started");
+        return "redirect:/import/jobs/" + job.getId();
+    }
+
+    // Same as the form upload, for scripts: responds with the job status to poll
+    @PostMapping("/jobs")
+    @ResponseBody
+    public ResponseEntity<ImportJobStatus> uploadForJob(@RequestParam("type") ImportType type,
+                                                        @RequestParam("file") MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(start(type, file));
+    }
+
+    @GetMapping("/jobs/{id}")
+    public String viewJob(@PathVariable String id, Model model) {
+        model.addAttribute("job", importService.getJob(id)
+                .orElseThrow(() -> new RuntimeException("Import job not found")));
+        return "import-job";
+    }
+
+    @GetMapping("/jobs/{id}/status")
+    @ResponseBody
+    public ResponseEntity<ImportJobStatus> jobStatus(@PathVariable String id) {
+        return ResponseEntity.of(importService.getJob(id));
+    }
+
+    @GetMapping("/jobs/{id}/errors")
+    public ResponseEntity<Resource> errorReport(@PathVariable String id) {
+        return importService.getErrorReport(id)
+                .map(path -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("text/csv"))
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-errors.csv\"")
+                        .body((Resource) new FileSystemResource(path)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // The upload is spooled to disk because the import outlives the request
+    private ImportJobStatus start(ImportType type, MultipartFile file) throws IOException {
+        Path spooled = Files.createTempFile("import-upload-", ".csv");
+        file.transferTo(spooled);
+        return importService.startImport(type, spooled, file.getOriginalFilename());
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.webapp.controller;
 
+import com.example.webapp.dto.KeysetPage;
+import com.example.webapp.dto.ListQuery;
 import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.dto.StudentSummaryDTO;
 import com.example.webapp.security.CustomUserDetails;
 import com.example.webapp.service.CourseService;
 import com.example.webapp.service.StudentService;
 import com.example.webapp.service.TeacherService;
+import com.example.webapp.service.ViewAssembler;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -12,6 +16,11 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
 @Controller
 @RequestMapping("/students")
 public class StudentController {
@@ -19,34 +28,53 @@ public class StudentController {
     private final StudentService studentService;
     private final CourseService courseService;
     private final TeacherService teacherService;
+    private final ViewAssembler viewAssembler;
 
     public StudentController(StudentService studentService, 
                             CourseService courseService,
-                            TeacherService teacherService) {
+                            TeacherService teacherService,
+                            ViewAssembler viewAssembler) {
         this.studentService = studentService;
         this.courseService = courseService;
         this.teacherService = teacherService;
+        this.viewAssembler = viewAssembler;
     }
 
     @GetMapping
-    public String getAllStudents(Model model, @AuthenticationPrincipal CustomUserDetails userDetails) {
-        model.addAttribute("students", studentService.getAllStudentsDTO());
+    public String getAllStudents(@ModelAttribute("query") ListQuery query, Model model,
+                                 @AuthenticationPrincipal CustomUserDetails userDetails) {
+        KeysetPage<StudentDTO> page = studentService.getStudentsPage(query);
+        model.addAttribute("page", page);
+        model.addAttribute("students", page.getItems());
         if (userDetails != null) {
             model.addAttribute("currentUserId", userDetails.getProfileId());
         }
         return "students";
     }
 
+    // Typeahead endpoint used by the student pickers on the course and teacher forms
+    @GetMapping("/search")
+    @ResponseBody
+    public List<StudentSummaryDTO> searchStudents(@RequestParam("q") String q,
+                                                  @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return studentService.searchStudents(q, limit);
+    }
+
     @GetMapping("/{id}")
     public String viewStudent(@PathVariable Long id, Model model) {
-        StudentDTO student = studentService.getStudentDTO(id);
-        model.addAttribute("student", student);
-        if (student.getTeacherIds() != null && !student.getTeacherIds().isEmpty()) {
-            model.addAttribute("teachers", teacherService.getTeachersByIds(student.getTeacherIds()));
-        }
-        if (student.getCourseIds() != null && !student.getCourseIds().isEmpty()) {
-            model.addAttribute("courses", courseService.getCoursesByIds(student.getCourseIds()));
-        }
+        // Teachers and courses are loaded in parallel once the student is known
+        model.addAllAttributes(viewAssembler.assemble("student-view", "student",
+                () -> studentService.getStudentDTO(id),
+                student -> {
+                    Map<String, Supplier<?>> branches = new LinkedHashMap<>();
+                    if (student.getTeacherIds() != null && !student.getTeacherIds().isEmpty()) {
+                        branches.put("teachers", () -> teacherService.getTeachersByIds(student.getTeacherIds()));
+                    }
+                    if (student.getCourseIds() != null && !student.getCourseIds().isEmpty()) {
+                        branches.put("courses", () -> courseService.getCoursesByIds(student.getCourseIds()));
+                    }
+                    return branches;
+                }));
         return "student-view";
     }
 
@@ -55,7 +83,7 @@ public class StudentController {
     public String showAddForm(Model model) {
         model.addAttribute("student", new StudentDTO());
         model.addAttribute("teachers", teacherService.getAllTeachersDTO());
-        model.addAttribute("courses", courseService.getAllCoursesDTO());
+        model.addAttribute("courses", courseService.getCourseOptions());
         return "student-form";
     }
 
@@ -73,7 +101,7 @@ public class StudentController {
     public String showEditForm(@PathVariable Long id, Model model) {
         model.addAttribute("student", studentService.getStudentDTO(id));
         model.addAttribute("teachers", teacherService.getAllTeachersDTO());
-        model.addAttribute("courses", courseService.getAllCoursesDTO());
+        model.addAttribute("courses", courseService.getCourseOptions());
         return "student-form";
     }
 
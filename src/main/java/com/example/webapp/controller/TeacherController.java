@@ -1,15 +1,21 @@
 package com.example.webapp.controller;
 
+import com.example.webapp.dto.KeysetPage;
+import com.example.webapp.dto.ListQuery;
 import com.example.webapp.dto.TeacherDTO;
 import com.example.webapp.service.DepartmentService;
 import com.example.webapp.service.StudentService;
 import com.example.webapp.service.TeacherService;
+import com.example.webapp.service.ViewAssembler;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.List;
+import java.util.Map;
+
 @Controller
 @RequestMapping("/teachers")
 public class TeacherController {
@@ -17,28 +23,34 @@ public class TeacherController {
     private final TeacherService teacherService;
     private final DepartmentService departmentService;
     private final StudentService studentService;
+    private final ViewAssembler viewAssembler;
 
     public TeacherController(TeacherService teacherService, 
                             DepartmentService departmentService,
-                            StudentService studentService) {
+                            StudentService studentService,
+                            ViewAssembler viewAssembler) {
         this.teacherService = teacherService;
         this.departmentService = departmentService;
         this.studentService = studentService;
+        this.viewAssembler = viewAssembler;
     }
 
     @GetMapping
-    public String getAllTeachers(Model model) {
-        model.addAttribute("teachers", teacherService.getAllTeachersDTO());
+    public String getAllTeachers(@ModelAttribute("query") ListQuery query, Model model) {
+        KeysetPage<TeacherDTO> page = teacherService.getTeachersPage(query);
+        model.addAttribute("page", page);
+        model.addAttribute("teachers", page.getItems());
+        model.addAttribute("departments", departmentService.getDepartmentOptions());
         return "teachers";
     }
 
     @GetMapping("/{id}")
     public String viewTeacher(@PathVariable Long id, Model model) {
-        TeacherDTO teacher = teacherService.getTeacherDTO(id);
-        model.addAttribute("teacher", teacher);
-        if (teacher.getStudentIds() != null && !teacher.getStudentIds().isEmpty()) {
-            model.addAttribute("students", studentService.getStudentsByIds(teacher.getStudentIds()));
-        }
+        model.addAllAttributes(viewAssembler.assemble("teacher-view", "teacher",
+                () -> teacherService.getTeacherDTO(id),
+                teacher -> teacher.getStudentIds() != null && !teacher.getStudentIds().isEmpty()
+                        ? Map.of("students", () -> studentService.getStudentsByIds(teacher.getStudentIds()))
+                        : Map.of()));
         return "teacher-view";
     }
 
@@ -46,8 +58,8 @@ public class TeacherController {
     @PreAuthorize("hasRole('TEACHER')")
     public String showAddForm(Model model) {
         model.addAttribute("teacher", new TeacherDTO());
-        model.addAttribute("departments", departmentService.getAllDepartmentsDTO());
-        model.addAttribute("students", studentService.getAllStudents());
+        model.addAttribute("departments", departmentService.getDepartmentOptions());
+        model.addAttribute("selectedStudents", List.of());
         return "teacher-form";
     }
 
@@ -63,9 +75,11 @@ public class TeacherController {
     @GetMapping("/{id}/edit")
     @PreAuthorize("hasRole('TEACHER')")
     public String showEditForm(@PathVariable Long id, Model model) {
-        model.addAttribute("teacher", teacherService.getTeacherDTO(id));
-        model.addAttribute("departments", departmentService.getAllDepartmentsDTO());
-        model.addAttribute("students", studentService.getAllStudents());
+        TeacherDTO teacher = teacherService.getTeacherDTO(id);
+        model.addAttribute("teacher", teacher);
+        model.addAttribute("departments", departmentService.getDepartmentOptions());
+        // Only the current selection is rendered; other students are found through /students/search
+        model.addAttribute("selectedStudents", studentService.getStudentSummariesByIds(teacher.getStudentIds()));
         return "teacher-form";
     }
 
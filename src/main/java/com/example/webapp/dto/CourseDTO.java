@@ -7,6 +7,7 @@ public class CourseDTO {
     private Long id;
     private String name;
     private String description;
+    private Integer capacity;
     private Long departmentId;
     private String departmentName;
     private List<Long> studentIds;
@@ -37,6 +38,14 @@ public class CourseDTO {
         this.description = description;
     }
 
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+
     public Long getDepartmentId() {
         return departmentId;
     }
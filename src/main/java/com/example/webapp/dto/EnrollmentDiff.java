@@ -0,0 +1,40 @@
+package com.example.webapp.dto;
+
+import java.util.List;
+
+/**
+ * What an enrollment update actually changed in {@code student_course} for one course.
+ */
+public class EnrollmentDiff {
+
+    private final Long courseId;
+    private final List<Long> addedStudentIds;
+    private final List<Long> removedStudentIds;
+
+    public EnrollmentDiff(Long courseId, List<Long> addedStudentIds, List<Long> removedStudentIds) {
+        this.courseId = courseId;
+        this.addedStudentIds = addedStudentIds;
+        this.removedStudentIds = removedStudentIds;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public List<Long> getAddedStudentIds() {
+        return addedStudentIds;
+    }
+
+    public List<Long> getRemovedStudentIds() {
+        return removedStudentIds;
+    }
+
+    public boolean isEmpty() {
+        return addedStudentIds.isEmpty() && removedStudentIds.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "course " + courseId + ": +" + addedStudentIds.size() + " / -" + removedStudentIds.size();
+    }
+}
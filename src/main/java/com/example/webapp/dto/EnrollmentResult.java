@@ -0,0 +1,13 @@
+package com.example.webapp.dto;
+
+/**
+ * Outcome of a student's request to join or leave a course.
+ */
+public enum EnrollmentResult {
+    ENROLLED,
+    WAITLISTED,
+    ALREADY_ENROLLED,
+    ALREADY_WAITLISTED,
+    DROPPED,
+    NOT_ENROLLED
+}
@@ -0,0 +1,109 @@
+package com.example.webapp.dto;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time view of a queued enrollment request, safe to poll until it is finished.
+ */
+public class EnrollmentTicket {
+
+    public enum Action { ENROLL, DROP }
+
+    public enum State { QUEUED, PROCESSING, COMPLETED, FAILED, REJECTED }
+
+    private String id;
+    private Long courseId;
+    private Long studentId;
+    private Action action;
+    private State state;
+    private EnrollmentResult result;
+    private Integer position;
+    private String message;
+    private Instant queuedAt;
+    private Instant finishedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public void setAction(Action action) {
+        this.action = action;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public EnrollmentResult getResult() {
+        return result;
+    }
+
+    public void setResult(EnrollmentResult result) {
+        this.result = result;
+    }
+
+    // 1-based place among the requests queued for the same course, while QUEUED
+    public Integer getPosition() {
+        return position;
+    }
+
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Instant getQueuedAt() {
+        return queuedAt;
+    }
+
+    public void setQueuedAt(Instant queuedAt) {
+        this.queuedAt = queuedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED || state == State.REJECTED;
+    }
+}
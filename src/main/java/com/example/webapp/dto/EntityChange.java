@@ -0,0 +1,55 @@
+package com.example.webapp.dto;
+
+import java.time.Instant;
+
+/**
+ * One committed change of a student, teacher, course or department, as delivered by
+ * {@link com.example.webapp.service.EntityChangeBus}. UPDATED also covers a change in what the entity's DTO lists,
+ * such as a course gaining a student. Immutable: the same instance goes to every listener.
+ */
+public class EntityChange {
+
+    public enum Type { STUDENT, TEACHER, COURSE, DEPARTMENT }
+
+    public enum Action { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final Long id;
+    private final Action action;
+    private final long sequence;
+    private final Instant committedAt;
+
+    public EntityChange(Type type, Long id, Action action, long sequence, Instant committedAt) {
+        this.type = type;
+        this.id = id;
+        this.action = action;
+        this.sequence = sequence;
+        this.committedAt = committedAt;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    // Increases in commit order; for one entity, listeners see the changes in this order
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Instant getCommittedAt() {
+        return committedAt;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + id + " " + action + " #" + sequence;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.webapp.dto;
+
+/**
+ * Volumes and shape of a synthetic dataset (see DataGenerator). The same plan and seed produce the same rows.
+ */
+public class GeneratorPlan {
+
+    private long seed = 42;
+    private int departments = 50;
+    private int teachers = 2_000;
+    private int courses = 20_000;
+    private int students = 1_000_000;
+    // Login accounts, given to teachers first, then to students
+    private int users = 10_000;
+    // Mean courses per student (at least one each)
+    private double enrollmentsPerStudent = 5;
+    // Zipf exponent for course popularity and department size; 0 = uniform, around 1 = a few very large courses
+    private double skew = 1.1;
+    private int batchSize = 5_000;
+
+    public GeneratorPlan() {}
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getDepartments() {
+        return departments;
+    }
+
+    public void setDepartments(int departments) {
+        this.departments = departments;
+    }
+
+    public int getTeachers() {
+        return teachers;
+    }
+
+    public void setTeachers(int teachers) {
+        this.teachers = teachers;
+    }
+
+    public int getCourses() {
+        return courses;
+    }
+
+    public void setCourses(int courses) {
+        this.courses = courses;
+    }
+
+    public int getStudents() {
+        return students;
+    }
+
+    public void setStudents(int students) {
+        this.students = students;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public void setUsers(int users) {
+        this.users = users;
+    }
+
+    public double getEnrollmentsPerStudent() {
+        return enrollmentsPerStudent;
+    }
+
+    public void setEnrollmentsPerStudent(double enrollmentsPerStudent) {
+        this.enrollmentsPerStudent = enrollmentsPerStudent;
+    }
+
+    public double getSkew() {
+        return skew;
+    }
+
+    public void setSkew(double skew) {
+        this.skew = skew;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
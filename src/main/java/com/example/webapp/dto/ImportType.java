@@ -0,0 +1,24 @@
+package com.example.webapp.dto;
+
+/**
+ * The CSV files the bulk importer understands and the header columns each one expects.
+ */
+public enum ImportType {
+    STUDENTS("name", "roll", "email"),
+    TEACHERS("name", "email", "department_id"),
+    ENROLLMENTS("roll", "course_id");
+
+    private final String[] columns;
+
+    ImportType(String... columns) {
+        this.columns = columns;
+    }
+
+    public String[] getColumns() {
+        return columns.clone();
+    }
+
+    public String getHeader() {
+        return String.join(",", columns);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.webapp.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list. The cursors are opaque tokens that are passed back
+ * as the {@code cursor} request parameter; a null cursor means there is no page in that direction.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+    private final String previousCursor;
+
+    public KeysetPage(List<T> items, String nextCursor, String previousCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.webapp.dto;
+
+/**
+ * Request parameters shared by the list pages: filter, sort and keyset cursor.
+ */
+public class ListQuery {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private String q;
+    private Long departmentId;
+    private String sort = "name";
+    private String dir = "asc";
+    private String cursor;
+    private int size = DEFAULT_SIZE;
+
+    public ListQuery() {}
+
+    public String getQ() {
+        return q;
+    }
+
+    public void setQ(String q) {
+        this.q = q;
+    }
+
+    public Long getDepartmentId() {
+        return departmentId;
+    }
+
+    public void setDepartmentId(Long departmentId) {
+        this.departmentId = departmentId;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public String getDir() {
+        return dir;
+    }
+
+    public void setDir(String dir) {
+        this.dir = dir;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isDescending() {
+        return "desc".equalsIgnoreCase(dir);
+    }
+
+    public boolean isSortById() {
+        return "id".equalsIgnoreCase(sort);
+    }
+
+    public int getPageSize() {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+}
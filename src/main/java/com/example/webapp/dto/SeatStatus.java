@@ -0,0 +1,54 @@
+package com.example.webapp.dto;
+
+/**
+ * Seats of a capacity-limited course as shown on the course page, read live (not cached).
+ */
+public class SeatStatus {
+
+    private int capacity;
+    private int enrolled;
+    private int free;
+    private int waitlisted;
+    // 1-based place of the viewing student in the waitlist, null when not waiting
+    private Integer waitlistPosition;
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getEnrolled() {
+        return enrolled;
+    }
+
+    public void setEnrolled(int enrolled) {
+        this.enrolled = enrolled;
+    }
+
+    public int getFree() {
+        return free;
+    }
+
+    public void setFree(int free) {
+        this.free = free;
+    }
+
+    public int getWaitlisted() {
+        return waitlisted;
+    }
+
+    public void setWaitlisted(int waitlisted) {
+        this.waitlisted = waitlisted;
+    }
+
+    public Integer getWaitlistPosition() {
+        return waitlistPosition;
+    }
+
+    public void setWaitlistPosition(Integer waitlistPosition) {
+        this.waitlistPosition = waitlistPosition;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.webapp.dto;
+
+import java.util.List;
+
+/**
+ * One line of the student roster export: the student with the names of their courses and teachers.
+ */
+public class StudentExportRow {
+
+    private Long id;
+    private String name;
+    private String roll;
+    private String email;
+    private List<String> courses;
+    private List<String> teachers;
+
+    public StudentExportRow(Long id, String name, String roll, String email,
+                            List<String> courses, List<String> teachers) {
+        this.id = id;
+        this.name = name;
+        this.roll = roll;
+        this.email = email;
+        this.courses = courses;
+        this.teachers = teachers;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getRoll() {
+        return roll;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public List<String> getCourses() {
+        return courses;
+    }
+
+    public List<String> getTeachers() {
+        return teachers;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.webapp.dto;
+
+/**
+ * Lightweight student row for pickers and typeahead search: no associations are loaded.
+ */
+public class StudentSummaryDTO {
+
+    private Long id;
+    private String name;
+    private String roll;
+    private String email;
+
+    public StudentSummaryDTO() {}
+
+    public StudentSummaryDTO(Long id, String name, String roll, String email) {
+        this.id = id;
+        this.name = name;
+        this.roll = roll;
+        this.email = email;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getRoll() {
+        return roll;
+    }
+
+    public void setRoll(String roll) {
+        this.roll = roll;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getLabel() {
+        return name + " (" + roll + ")";
+    }
+}
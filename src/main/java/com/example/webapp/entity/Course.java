@@ -1,15 +1,22 @@
 package com.example.webapp.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "courses")
+@Table(name = "courses", indexes = {
+    @Index(name = "idx_courses_name_id", columnList = "name, id"),
+    @Index(name = "idx_courses_department_name_id", columnList = "department_id, name, id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses")
 public class Course {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "courses_seq")
+    @SequenceGenerator(name = "courses_seq", sequenceName = "courses_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -18,10 +25,14 @@ public class Course {
     @Column(length = 500)
     private String description;
 
+    // Seats for students; null = unlimited. Free seats and the waitlist live in course_seats / course_waitlist
+    private Integer capacity;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id")
     private Department department;
 
+    // Not cached: enrollments are written with plain JDBC (EnrollmentRepository), which bypasses the cache
     @ManyToMany(mappedBy = "courses")
     private Set<Student> students = new HashSet<>();
 
@@ -56,6 +67,14 @@ public class Course {
         this.description = description;
     }
 
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+
     public Department getDepartment() {
         return department;
     }
@@ -1,15 +1,23 @@
 package com.example.webapp.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.HashSet;
 import java.util.Set;
 
+// Reference data: read on every course/teacher form, rarely written, so kept in the second-level cache.
+// Department proxies missing from the cache are loaded together, not one query per course or teacher
 @Entity
+@BatchSize(size = 50)
 @Table(name = "departments")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "departments")
 public class Department {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "departments_seq")
+    @SequenceGenerator(name = "departments_seq", sequenceName = "departments_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -18,7 +26,9 @@ public class Department {
     @OneToMany(mappedBy = "department", cascade = CascadeType.ALL)
     private Set<Teacher> teachers = new HashSet<>();
 
+    // Teachers are not cached, so caching their ids here would only turn one query into N lookups
     @OneToMany(mappedBy = "department", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "department-courses")
     private Set<Course> courses = new HashSet<>();
 
     public Department() {}
@@ -5,11 +5,15 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "students")
+@Table(name = "students", indexes = {
+    @Index(name = "idx_students_name_id", columnList = "name, id"),
+    @Index(name = "idx_students_email", columnList = "email")
+})
 public class Student {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_seq")
+    @SequenceGenerator(name = "students_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -31,7 +35,9 @@ public class Student {
     @JoinTable(
         name = "student_course",
         joinColumns = @JoinColumn(name = "student_id"),
-        inverseJoinColumns = @JoinColumn(name = "course_id")
+        inverseJoinColumns = @JoinColumn(name = "course_id"),
+        // the primary key starts with course_id; this one finds a student's courses
+        indexes = @Index(name = "idx_student_course_student_course", columnList = "student_id, course_id")
     )
     private Set<Course> courses = new HashSet<>();
 
@@ -5,11 +5,15 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "teachers")
+@Table(name = "teachers", indexes = {
+    @Index(name = "idx_teachers_name_id", columnList = "name, id"),
+    @Index(name = "idx_teachers_department_name_id", columnList = "department_id, name, id")
+})
 public class Teacher {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "teachers_seq")
+    @SequenceGenerator(name = "teachers_seq", sequenceName = "teachers_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -29,7 +33,9 @@ public class Teacher {
     @JoinTable(
         name = "teacher_student",
         joinColumns = @JoinColumn(name = "teacher_id"),
-        inverseJoinColumns = @JoinColumn(name = "student_id")
+        inverseJoinColumns = @JoinColumn(name = "student_id"),
+        // the primary key starts with student_id; this one finds a teacher's students
+        indexes = @Index(name = "idx_teacher_student_teacher_student", columnList = "teacher_id, student_id")
     )
     private Set<Student> students = new HashSet<>();
 
@@ -0,0 +1,106 @@
+package com.example.webapp.mapper;
+
+import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.DepartmentDTO;
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.dto.TeacherDTO;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.entity.Student;
+import com.example.webapp.entity.Teacher;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+/**
+ * Entity <-> DTO mapping for every entity/DTO pair. MapStruct generates {@code DtoMapperImpl} at compile time:
+ * plain getter/setter calls and pre-sized lists, no reflection at runtime. Associations are exposed as id lists,
+ * read from whatever the caller has already fetched; a null collection maps to a null list.
+ *
+ * <p>The DTO -> entity methods copy scalar fields only. Resolving ids to entities needs the repositories, so that
+ * part stays in the services.
+ */
+@Mapper(componentModel = "spring")
+public interface DtoMapper {
+
+    // ---------- Student ----------
+
+    @Mapping(target = "courseIds", source = "courses")
+    @Mapping(target = "teacherIds", source = "teachers")
+    StudentDTO toDto(Student student);
+
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "name", source = "name")
+    @Mapping(target = "roll", source = "roll")
+    @Mapping(target = "email", source = "email")
+    void updateStudent(StudentDTO dto, @MappingTarget Student student);
+
+    // ---------- Teacher ----------
+
+    @Mapping(target = "departmentId", source = "department.id")
+    @Mapping(target = "departmentName", source = "department.name")
+    @Mapping(target = "studentIds", source = "students")
+    TeacherDTO toDto(Teacher teacher);
+
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "name", source = "name")
+    @Mapping(target = "email", source = "email")
+    void updateTeacher(TeacherDTO dto, @MappingTarget Teacher teacher);
+
+    // ---------- Course ----------
+
+    @Mapping(target = "departmentId", source = "department.id")
+    @Mapping(target = "departmentName", source = "department.name")
+    @Mapping(target = "studentIds", source = "students")
+    CourseDTO toDto(Course course);
+
+    // Course with its department but no studentIds, for courses loaded from the second-level cache
+    @Mapping(target = "departmentId", source = "department.id")
+    @Mapping(target = "departmentName", source = "department.name")
+    @Mapping(target = "studentIds", ignore = true)
+    CourseDTO toDtoWithoutStudents(Course course);
+
+    // Id and name only, for dropdowns
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    @Mapping(target = "name", source = "name")
+    CourseDTO toOption(Course course);
+
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "name", source = "name")
+    @Mapping(target = "description", source = "description")
+    @Mapping(target = "capacity", source = "capacity")
+    void updateCourse(CourseDTO dto, @MappingTarget Course course);
+
+    // ---------- Department ----------
+
+    @Mapping(target = "teacherIds", source = "teachers")
+    @Mapping(target = "courseIds", source = "courses")
+    DepartmentDTO toDto(Department department);
+
+    // Id and name only, for dropdowns
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    @Mapping(target = "name", source = "name")
+    DepartmentDTO toOption(Department department);
+
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    @Mapping(target = "name", source = "name")
+    Department toEntity(DepartmentDTO dto);
+
+    // ---------- Association ids (element mappings for the id lists above) ----------
+
+    default Long id(Student student) {
+        return student.getId();
+    }
+
+    default Long id(Teacher teacher) {
+        return teacher.getId();
+    }
+
+    default Long id(Course course) {
+        return course.getId();
+    }
+}
@@ -2,11 +2,32 @@ package com.example.webapp.repository;
 
 import com.example.webapp.entity.Course;
 import com.example.webapp.entity.Department;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface CourseRepository extends JpaRepository<Course, Long> {
+public interface CourseRepository extends JpaRepository<Course, Long>, JpaSpecificationExecutor<Course> {
     List<Course> findByDepartment(Department department);
     List<Course> findByDepartmentId(Long departmentId);
+
+    @Query("select c from Course c left join fetch c.department left join fetch c.students order by c.id")
+    List<Course> findAllWithDepartmentAndStudents();
+
+    @Query("select c from Course c left join fetch c.department left join fetch c.students "
+            + "where c.id in :ids order by c.id")
+    List<Course> findWithDepartmentAndStudentsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Dropdown options, served from the query and entity caches once warm
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Course> findAllByOrderByNameAsc();
+
+    @Query("select c.id from Course c")
+    List<Long> findAllIds();
 }
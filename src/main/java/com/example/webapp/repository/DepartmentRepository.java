@@ -1,10 +1,39 @@
 package com.example.webapp.repository;
 
 import com.example.webapp.entity.Department;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface DepartmentRepository extends JpaRepository<Department, Long> {
+public interface DepartmentRepository extends JpaRepository<Department, Long>, JpaSpecificationExecutor<Department> {
     Optional<Department> findByName(String name);
+
+    // Teachers and courses are fetched in two queries (same transaction) to avoid a cartesian product.
+    @Query("select d from Department d left join fetch d.teachers order by d.id")
+    List<Department> findAllWithTeachers();
+
+    @Query("select d from Department d left join fetch d.courses order by d.id")
+    List<Department> findAllWithCourses();
+
+    @Query("select d from Department d left join fetch d.teachers where d.id in :ids order by d.id")
+    List<Department> findWithTeachersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select d from Department d left join fetch d.courses where d.id in :ids order by d.id")
+    List<Department> findWithCoursesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Dropdown options: the id list comes from the query cache and each department from the entity cache,
+    // so a warm cache answers this without touching the database
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Department> findAllByOrderByNameAsc();
+
+    @Query("select d.id from Department d")
+    List<Long> findAllIds();
 }
@@ -0,0 +1,134 @@
+package com.example.webapp.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based access to the {@code student_course} join table.
+ * Student owns the JPA mapping, but bulk roster edits go straight to the table so that a change touches
+ * only the rows that differ instead of loading and saving every enrolled student.
+ * Runs on the connection of the surrounding JPA transaction.
+ */
+@Repository
+public class EnrollmentRepository {
+
+    // Keeps IN lists and batches well below driver parameter limits
+    static final int CHUNK_SIZE = 1000;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public EnrollmentRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<Long> findStudentIdsByCourseId(Long courseId) {
+        return jdbc.queryForList("select student_id from student_course where course_id = :courseId",
+                new MapSqlParameterSource("courseId", courseId), Long.class);
+    }
+
+    public int countByCourseId(Long courseId) {
+        Integer count = jdbc.queryForObject("select count(*) from student_course where course_id = :courseId",
+                new MapSqlParameterSource("courseId", courseId), Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    public boolean exists(Long courseId, Long studentId) {
+        return !jdbc.queryForList("select 1 from student_course where student_id = :studentId and course_id = :courseId",
+                new MapSqlParameterSource("courseId", courseId).addValue("studentId", studentId), Integer.class).isEmpty();
+    }
+
+    // Single enrollment; false when the student is already enrolled
+    public boolean insertIfAbsent(Long courseId, Long studentId) {
+        return jdbc.update("insert into student_course (student_id, course_id) select :studentId, :courseId "
+                        + "where not exists (select 1 from student_course where student_id = :studentId and course_id = :courseId)",
+                new MapSqlParameterSource("courseId", courseId).addValue("studentId", studentId)) == 1;
+    }
+
+    public int insert(Long courseId, Collection<Long> studentIds) {
+        int inserted = 0;
+        for (List<Long> chunk : chunks(studentIds)) {
+            List<Object[]> rows = new ArrayList<>(chunk.size());
+            for (Long studentId : chunk) {
+                rows.add(new Object[] {studentId, courseId});
+            }
+            inserted += insertRows(rows);
+        }
+        return inserted;
+    }
+
+    /**
+     * Inserts {@code [studentId, courseId]} pairs in a single batch; used by the CSV importer.
+     */
+    public int insertPairs(List<long[]> pairs) {
+        List<Object[]> rows = new ArrayList<>(pairs.size());
+        for (long[] pair : pairs) {
+            rows.add(new Object[] {pair[0], pair[1]});
+        }
+        return insertRows(rows);
+    }
+
+    public Map<Long, Set<Long>> findCourseIdsByStudentIds(Collection<Long> studentIds) {
+        Map<Long, Set<Long>> courseIds = new HashMap<>();
+        for (List<Long> chunk : chunks(studentIds)) {
+            jdbc.query("select student_id, course_id from student_course where student_id in (:studentIds)",
+                    new MapSqlParameterSource("studentIds", chunk),
+                    rs -> {
+                        courseIds.computeIfAbsent(rs.getLong(1), id -> new HashSet<>()).add(rs.getLong(2));
+                    });
+        }
+        return courseIds;
+    }
+
+    private int insertRows(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int inserted = 0;
+        for (int count : jdbc.getJdbcOperations()
+                .batchUpdate("insert into student_course (student_id, course_id) values (?, ?)", rows)) {
+            // Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+            inserted += count < 0 ? 1 : count;
+        }
+        return inserted;
+    }
+
+    public int delete(Long courseId, Collection<Long> studentIds) {
+        int deleted = 0;
+        for (List<Long> chunk : chunks(studentIds)) {
+            deleted += jdbc.update(
+                    "delete from student_course where course_id = :courseId and student_id in (:studentIds)",
+                    new MapSqlParameterSource("courseId", courseId).addValue("studentIds", chunk));
+        }
+        return deleted;
+    }
+
+    public int deleteByCourseId(Long courseId) {
+        return jdbc.update("delete from student_course where course_id = :courseId",
+                new MapSqlParameterSource("courseId", courseId));
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> current = new ArrayList<>(Math.min(ids.size(), CHUNK_SIZE));
+        for (Long id : ids) {
+            current.add(id);
+            if (current.size() == CHUNK_SIZE) {
+                chunks.add(current);
+                current = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+}
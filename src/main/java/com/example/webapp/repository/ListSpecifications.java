@@ -0,0 +1,36 @@
+package com.example.webapp.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters used by the list pages. Every entity with a list page has a {@code name} column,
+ * and teachers and courses also belong to a department.
+ */
+public final class ListSpecifications {
+
+    private ListSpecifications() {}
+
+    /**
+     * Case-insensitive name prefix, {@code lower(name) like 'p%'}. On PostgreSQL the V4 expression index
+     * {@code lower(name) varchar_pattern_ops} turns it into an index range scan over the matches, which are then
+     * sorted for the keyset window; the {@code (name, id)} index alone cannot serve it. See PostgresMigrationTest.
+     */
+    public static <T> Specification<T> nameStartsWith(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            return Specification.unrestricted();
+        }
+        String pattern = escapeLike(prefix.trim().toLowerCase()) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, '\\');
+    }
+
+    public static <T> Specification<T> inDepartment(Long departmentId) {
+        if (departmentId == null) {
+            return Specification.unrestricted();
+        }
+        return (root, query, cb) -> cb.equal(root.get("department").get("id"), departmentId);
+    }
+
+    public static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.webapp.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Seat counters ({@code course_seats}) and waitlist ({@code course_waitlist}) of capacity-limited courses.
+ * The free seats of a course are spread over a fixed number of bucket rows; a seat is claimed with a conditional
+ * decrement of one bucket, so the database never hands out more seats than there are, on any number of nodes.
+ * Runs on the connection of the surrounding transaction.
+ */
+@Repository
+public class SeatRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public SeatRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // ==================== capacity ====================
+
+    /**
+     * Capacities of the given courses that have one; unlimited and unknown courses are left out.
+     */
+    public Map<Long, Integer> findCapacities(Collection<Long> courseIds) {
+        Map<Long, Integer> capacities = new HashMap<>();
+        if (courseIds.isEmpty()) {
+            return capacities;
+        }
+        jdbc.query("select id, capacity from courses where id in (:ids) and capacity is not null",
+                new MapSqlParameterSource("ids", courseIds),
+                rs -> {
+                    capacities.put(rs.getLong(1), rs.getInt(2));
+                });
+        return capacities;
+    }
+
+    /**
+     * Capacity of one course, empty when unlimited.
+     */
+    public Optional<Integer> findCapacity(Long courseId) {
+        List<Integer> capacity = new ArrayList<>(1);
+        jdbc.query("select capacity from courses where id = :courseId",
+                new MapSqlParameterSource("courseId", courseId),
+                rs -> {
+                    int value = rs.getInt(1);
+                    capacity.add(rs.wasNull() ? null : value);
+                });
+        if (capacity.isEmpty()) {
+            throw new RuntimeException("Course not found");
+        }
+        return Optional.ofNullable(capacity.get(0));
+    }
+
+    // ==================== seats ====================
+
+    // Non-locking read: buckets that had free seats when the statement started
+    public List<Integer> findBucketsWithFreeSeats(Long courseId) {
+        return jdbc.queryForList("select bucket from course_seats where course_id = :courseId and free > 0",
+                new MapSqlParameterSource("courseId", courseId), Integer.class);
+    }
+
+    /**
+     * Takes one seat from the bucket if it still has one. The row stays locked until the transaction ends.
+     */
+    public boolean claim(Long courseId, int bucket) {
+        return jdbc.update("update course_seats set free = free - 1 "
+                        + "where course_id = :courseId and bucket = :bucket and free > 0",
+                new MapSqlParameterSource("courseId", courseId).addValue("bucket", bucket)) == 1;
+    }
+
+    public boolean release(Long courseId, int bucket) {
+        return jdbc.update("update course_seats set free = free + 1 where course_id = :courseId and bucket = :bucket",
+                new MapSqlParameterSource("courseId", courseId).addValue("bucket", bucket)) == 1;
+    }
+
+    public int countFree(Long courseId) {
+        Integer free = jdbc.queryForObject("select coalesce(sum(free), 0) from course_seats where course_id = :courseId",
+                new MapSqlParameterSource("courseId", courseId), Integer.class);
+        return free == null ? 0 : free;
+    }
+
+    /**
+     * Locks the course's bucket rows until the end of the transaction and returns their numbers. Enrollments
+     * that claim or release a seat wait until then; the course row itself is not locked, since enrollment
+     * inserts need a shared lock on it for their foreign key.
+     */
+    public List<Integer> lockBuckets(Long courseId) {
+        return jdbc.queryForList("select bucket from course_seats where course_id = :courseId order by bucket for update",
+                new MapSqlParameterSource("courseId", courseId), Integer.class);
+    }
+
+    /**
+     * Sets the free seats of each bucket (index = bucket number). Locked rows are updated in place, so an
+     * enrollment waiting on one of them re-checks the new value instead of losing its row.
+     */
+    public void writeBuckets(Long courseId, List<Integer> locked, int[] free) {
+        for (int bucket = 0; bucket < free.length; bucket++) {
+            MapSqlParameterSource row = new MapSqlParameterSource("courseId", courseId)
+                    .addValue("bucket", bucket)
+                    .addValue("free", free[bucket]);
+            if (locked.contains(bucket)) {
+                jdbc.update("update course_seats set free = :free where course_id = :courseId and bucket = :bucket", row);
+            } else {
+                jdbc.update("insert into course_seats (course_id, bucket, free) values (:courseId, :bucket, :free)", row);
+            }
+        }
+        if (locked.stream().anyMatch(bucket -> bucket >= free.length)) {
+            jdbc.update("delete from course_seats where course_id = :courseId and bucket >= :buckets",
+                    new MapSqlParameterSource("courseId", courseId).addValue("buckets", free.length));
+        }
+    }
+
+    public int deleteBuckets(Long courseId) {
+        return jdbc.update("delete from course_seats where course_id = :courseId",
+                new MapSqlParameterSource("courseId", courseId));
+    }
+
+    // ==================== waitlist ====================
+
+    /**
+     * Puts the student at the end of the line unless already waiting or enrolled. Both are checked in the same
+     * statement as the insert, so a concurrent promotion (waitlist row out, enrollment in) is seen either before
+     * or after, never halfway.
+     */
+    public boolean addToWaitlist(Long courseId, Long studentId) {
+        return jdbc.update("insert into course_waitlist (course_id, student_id, created_at) "
+                        + "select :courseId, :studentId, current_timestamp where not exists "
+                        + "(select 1 from course_waitlist where course_id = :courseId and student_id = :studentId) "
+                        + "and not exists "
+                        + "(select 1 from student_course where student_id = :studentId and course_id = :courseId)",
+                new MapSqlParameterSource("courseId", courseId).addValue("studentId", studentId)) == 1;
+    }
+
+    public boolean removeFromWaitlist(Long courseId, Long studentId) {
+        return jdbc.update("delete from course_waitlist where course_id = :courseId and student_id = :studentId",
+                new MapSqlParameterSource("courseId", courseId).addValue("studentId", studentId)) == 1;
+    }
+
+    /**
+     * Removes and returns the first student in line, or null when nobody is waiting. Two transactions that read
+     * the same first row race on its delete; the loser moves on to the next one.
+     */
+    public Long pollWaitlist(Long courseId) {
+        MapSqlParameterSource course = new MapSqlParameterSource("courseId", courseId);
+        while (true) {
+            List<Map<String, Object>> first = jdbc.queryForList("select id, student_id from course_waitlist "
+                    + "where course_id = :courseId order by id fetch first 1 rows only", course);
+            if (first.isEmpty()) {
+                return null;
+            }
+            Number id = (Number) first.get(0).get("id");
+            if (jdbc.update("delete from course_waitlist where id = :id",
+                    new MapSqlParameterSource("id", id.longValue())) == 1) {
+                return ((Number) first.get(0).get("student_id")).longValue();
+            }
+        }
+    }
+
+    public int countWaitlist(Long courseId) {
+        Integer count = jdbc.queryForObject("select count(*) from course_waitlist where course_id = :courseId",
+                new MapSqlParameterSource("courseId", courseId), Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 1-based place of the student in the course's waitlist, or null when not waiting.
+     */
+    public Integer findWaitlistPosition(Long courseId, Long studentId) {
+        List<Integer> position = jdbc.queryForList("select count(*) from course_waitlist w "
+                        + "join course_waitlist mine on mine.course_id = w.course_id and w.id <= mine.id "
+                        + "where mine.course_id = :courseId and mine.student_id = :studentId",
+                new MapSqlParameterSource("courseId", courseId).addValue("studentId", studentId), Integer.class);
+        return position.isEmpty() || position.get(0) == 0 ? null : position.get(0);
+    }
+
+    public int deleteWaitlistByCourseId(Long courseId) {
+        return jdbc.update("delete from course_waitlist where course_id = :courseId",
+                new MapSqlParameterSource("courseId", courseId));
+    }
+
+    public int deleteWaitlistByStudentId(Long studentId) {
+        return jdbc.update("delete from course_waitlist where student_id = :studentId",
+                new MapSqlParameterSource("studentId", studentId));
+    }
+}
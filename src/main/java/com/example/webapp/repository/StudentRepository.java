@@ -1,11 +1,77 @@
 package com.example.webapp.repository;
 
+import com.example.webapp.dto.StudentSummaryDTO;
 import com.example.webapp.entity.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, JpaSpecificationExecutor<Student> {
     Optional<Student> findByRoll(String roll);
     Optional<Student> findByEmail(String email);
+
+    // Both collections are fetched in separate queries to avoid a courses x teachers cartesian product.
+    // Run them in the same transaction so the second query fills in the students loaded by the first.
+    @Query("select s from Student s left join fetch s.courses order by s.id")
+    List<Student> findAllWithCourses();
+
+    @Query("select s from Student s left join fetch s.teachers order by s.id")
+    List<Student> findAllWithTeachers();
+
+    @Query("select s from Student s left join fetch s.courses where s.id in :ids order by s.id")
+    List<Student> findWithCoursesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select s from Student s left join fetch s.teachers where s.id in :ids order by s.id")
+    List<Student> findWithTeachersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select s.id from Student s where s.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Roll uniqueness check for a whole import chunk in one round trip
+    @Query("select s.roll from Student s where s.roll in :rolls")
+    List<String> findExistingRolls(@Param("rolls") Collection<String> rolls);
+
+    // [roll, id] pairs for resolving import rows to students
+    @Query("select s.roll, s.id from Student s where s.roll in :rolls")
+    List<Object[]> findIdsByRollIn(@Param("rolls") Collection<String> rolls);
+
+    // Export cursor: rows arrive from the driver in fetch-size batches instead of as one materialized list.
+    // Must be consumed inside a transaction (PostgreSQL only uses a server-side cursor when autocommit is off)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select s from Student s order by s.id")
+    Stream<Student> streamAllOrderById();
+
+    // [studentId, course name] and [studentId, teacher name] pairs for one export batch
+    @Query("select s.id, c.name from Student s join s.courses c where s.id in :ids order by c.name")
+    List<Object[]> findCourseNamesByStudentIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select s.id, t.name from Student s join s.teachers t where s.id in :ids order by t.name")
+    List<Object[]> findTeacherNamesByStudentIdIn(@Param("ids") Collection<Long> ids);
+
+    // Prefix match on name, roll or email. On PostgreSQL each lower(...) has a varchar_pattern_ops expression index
+    // (V4), so the OR becomes a BitmapOr of three index range scans and only the matches are sorted; a short prefix
+    // matching many rows is served by walking (name, id) until the limit. H2 has no expression indexes and scans
+    @Query("select new com.example.webapp.dto.StudentSummaryDTO(s.id, s.name, s.roll, s.email) from Student s "
+            + "where lower(s.name) like :prefix escape '\\' "
+            + "or lower(s.roll) like :prefix escape '\\' "
+            + "or lower(s.email) like :prefix escape '\\' "
+            + "order by s.name, s.id")
+    List<StudentSummaryDTO> searchByPrefix(@Param("prefix") String prefix, Limit limit);
+
+    @Query("select new com.example.webapp.dto.StudentSummaryDTO(s.id, s.name, s.roll, s.email) from Student s "
+            + "where s.id in :ids order by s.name, s.id")
+    List<StudentSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -3,12 +3,23 @@ package com.example.webapp.repository;
 import com.example.webapp.entity.Teacher;
 import com.example.webapp.entity.Department;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface TeacherRepository extends JpaRepository<Teacher, Long> {
+public interface TeacherRepository extends JpaRepository<Teacher, Long>, JpaSpecificationExecutor<Teacher> {
     List<Teacher> findByDepartment(Department department);
     List<Teacher> findByDepartmentId(Long departmentId);
     Optional<Teacher> findByEmail(String email);
+
+    @Query("select t from Teacher t left join fetch t.department left join fetch t.students order by t.id")
+    List<Teacher> findAllWithDepartmentAndStudents();
+
+    @Query("select t from Teacher t left join fetch t.department left join fetch t.students "
+            + "where t.id in :ids order by t.id")
+    List<Teacher> findWithDepartmentAndStudentsByIdIn(@Param("ids") Collection<Long> ids);
 }
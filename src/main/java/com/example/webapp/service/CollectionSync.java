@@ -0,0 +1,58 @@
+package com.example.webapp.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Brings a managed many-to-many collection in line with a list of requested ids by mutating it in place.
+ * Hibernate tracks the individual adds and removes on the persistent set, so only the changed
+ * join-table rows are deleted or inserted instead of the whole collection being recreated.
+ */
+final class CollectionSync {
+
+    private CollectionSync() {}
+
+    /**
+     * @param current the owning side's managed collection
+     * @param requestedIds ids the collection should contain afterwards; unknown ids are ignored
+     * @param idOf extracts the id of an element
+     * @param loader loads the elements for ids that are not in the collection yet
+     * @return number of links added plus removed
+     */
+    static <T> int sync(Set<T> current, Collection<Long> requestedIds,
+                        Function<T, Long> idOf, Function<List<Long>, List<T>> loader) {
+        Set<Long> wanted = requestedIds == null ? new HashSet<>() : new HashSet<>(requestedIds);
+        wanted.remove(null);
+
+        Set<Long> present = new HashSet<>();
+        int before = current.size();
+        current.removeIf(element -> {
+            Long id = idOf.apply(element);
+            if (wanted.contains(id)) {
+                present.add(id);
+                return false;
+            }
+            return true;
+        });
+        int changes = before - current.size();
+
+        List<Long> missing = new ArrayList<>();
+        for (Long id : wanted) {
+            if (!present.contains(id)) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (T element : loader.apply(missing)) {
+                if (current.add(element)) {
+                    changes++;
+                }
+            }
+        }
+        return changes;
+    }
+}
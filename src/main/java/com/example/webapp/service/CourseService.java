@@ -1,61 +1,122 @@
 package com.example.webapp.service;
 
 import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.EnrollmentDiff;
+import com.example.webapp.dto.EntityChange.Action;
+import com.example.webapp.dto.EntityChange.Type;
+import com.example.webapp.dto.KeysetPage;
+import com.example.webapp.dto.ListQuery;
 import com.example.webapp.entity.Course;
 import com.example.webapp.entity.Department;
-import com.example.webapp.entity.Student;
+import com.example.webapp.mapper.DtoMapper;
 import com.example.webapp.repository.CourseRepository;
 import com.example.webapp.repository.DepartmentRepository;
+import com.example.webapp.repository.EnrollmentRepository;
+import com.example.webapp.repository.ListSpecifications;
 import com.example.webapp.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class CourseService {
 
     private final CourseRepository courseRepository;
     private final DepartmentRepository departmentRepository;
     private final StudentRepository studentRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final EnrollmentService enrollmentService;
+    private final EntityManager entityManager;
+    private final DtoCache dtoCache;
+    private final EntityChangeBus entityChanges;
+    private final DtoMapper dtoMapper;
 
     public CourseService(CourseRepository courseRepository, 
                         DepartmentRepository departmentRepository,
-                        StudentRepository studentRepository) {
+                        StudentRepository studentRepository,
+                        EnrollmentRepository enrollmentRepository,
+                        EnrollmentService enrollmentService,
+                        EntityManager entityManager,
+                        DtoCache dtoCache,
+                        EntityChangeBus entityChanges,
+                        DtoMapper dtoMapper) {
         this.courseRepository = courseRepository;
         this.departmentRepository = departmentRepository;
         this.studentRepository = studentRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.enrollmentService = enrollmentService;
+        this.entityManager = entityManager;
+        this.dtoCache = dtoCache;
+        this.entityChanges = entityChanges;
+        this.dtoMapper = dtoMapper;
     }
 
     public List<Course> getAllCourses() {
         return courseRepository.findAll();
     }
 
+    @Cacheable(cacheNames = DtoCache.COURSE_LIST, key = "'" + DtoCache.ALL + "'")
     public List<CourseDTO> getAllCoursesDTO() {
-        return courseRepository.findAll().stream()
-                .map(this::convertToDTO)
+        return courseRepository.findAllWithDepartmentAndStudents().stream()
+                .map(dtoMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    // Id and name only, for dropdowns; served from the second-level cache
+    public List<CourseDTO> getCourseOptions() {
+        return courseRepository.findAllByOrderByNameAsc().stream()
+                .map(dtoMapper::toOption)
+                .collect(Collectors.toList());
+    }
+
+    public KeysetPage<CourseDTO> getCoursesPage(ListQuery query) {
+        KeysetScrollPosition position = KeysetPaging.position(query);
+        Specification<Course> filter = ListSpecifications.<Course>nameStartsWith(query.getQ())
+                .and(ListSpecifications.inDepartment(query.getDepartmentId()));
+        Window<Course> window = courseRepository.findBy(filter, q -> q
+                .sortBy(KeysetPaging.sort(query))
+                .limit(query.getPageSize())
+                .scroll(position));
+        List<Long> ids = window.getContent().stream().map(Course::getId).toList();
+        if (!ids.isEmpty()) {
+            courseRepository.findWithDepartmentAndStudentsByIdIn(ids);
+        }
+        List<CourseDTO> items = window.getContent().stream()
+                .map(dtoMapper::toDto)
+                .collect(Collectors.toList());
+        return KeysetPaging.page(query, position, window, Course::getId, Course::getName, items);
+    }
+
     public Optional<Course> getCourseById(Long id) {
         return courseRepository.findById(id);
     }
 
+    @Cacheable(DtoCache.COURSE)
     public CourseDTO getCourseDTO(Long id) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Course not found"));
-        return convertToDTO(course);
+        return dtoMapper.toDto(course);
     }
 
     @Transactional
     public Course saveCourse(CourseDTO courseDTO) {
         Course course = new Course();
-        course.setName(courseDTO.getName());
-        course.setDescription(courseDTO.getDescription());
+        dtoMapper.updateCourse(courseDTO, course);
+        checkCapacity(course);
         
         if (courseDTO.getDepartmentId() != null) {
             Department department = departmentRepository.findById(courseDTO.getDepartmentId())
@@ -63,26 +124,27 @@ public class CourseService {
             course.setDepartment(department);
         }
         
-        Course savedCourse = courseRepository.save(course);
-        
-        // Handle student associations (Student owns the relationship)
-        if (courseDTO.getStudentIds() != null && !courseDTO.getStudentIds().isEmpty()) {
-            List<Student> students = studentRepository.findAllById(courseDTO.getStudentIds());
-            for (Student student : students) {
-                student.getCourses().add(savedCourse);
-                studentRepository.save(student);
-            }
+        // Flush so the course row exists before enrollment rows reference it
+        Course savedCourse = courseRepository.saveAndFlush(course);
+        syncEnrollments(savedCourse.getId(), courseDTO.getStudentIds());
+        if (savedCourse.getCapacity() != null) {
+            enrollmentService.recount(List.of(savedCourse.getId()));
         }
-        
+        dtoCache.evictCourses(List.of(savedCourse.getId()));
+        dtoCache.evictDepartments(departmentIds(savedCourse.getDepartment()));
+        entityChanges.publish(Type.COURSE, Action.CREATED, savedCourse.getId());
+        entityChanges.publish(Type.DEPARTMENT, Action.UPDATED, departmentIds(savedCourse.getDepartment()));
         return savedCourse;
     }
 
     @Transactional
-    public Course updateCourse(Long id, CourseDTO courseDTO) {
+    public EnrollmentDiff updateCourse(Long id, CourseDTO courseDTO) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Course not found"));
-        course.setName(courseDTO.getName());
-        course.setDescription(courseDTO.getDescription());
+        boolean wasLimited = course.getCapacity() != null;
+        dtoMapper.updateCourse(courseDTO, course);
+        checkCapacity(course);
+        List<Long> oldDepartment = departmentIds(course.getDepartment());
         
         if (courseDTO.getDepartmentId() != null) {
             Department department = departmentRepository.findById(courseDTO.getDepartmentId())
@@ -92,52 +154,93 @@ public class CourseService {
             course.setDepartment(null);
         }
         
-        // Handle student associations (Student owns the ManyToMany relationship)
-        // First, remove this course from all students who currently have it
-        Set<Student> currentStudents = course.getStudents();
-        if (currentStudents != null) {
-            for (Student student : new HashSet<>(currentStudents)) {
-                student.getCourses().remove(course);
-                studentRepository.save(student);
-            }
+        courseRepository.save(course);
+        dtoCache.evictCourses(List.of(id));
+        entityChanges.publish(Type.COURSE, Action.UPDATED, id);
+        if (!oldDepartment.equals(departmentIds(course.getDepartment()))) {
+            // both departments' courseIds change
+            dtoCache.evictDepartments(oldDepartment);
+            dtoCache.evictDepartments(departmentIds(course.getDepartment()));
+            entityChanges.publish(Type.DEPARTMENT, Action.UPDATED, oldDepartment);
+            entityChanges.publish(Type.DEPARTMENT, Action.UPDATED, departmentIds(course.getDepartment()));
         }
-        
-        // Then add this course to the selected students
-        if (courseDTO.getStudentIds() != null && !courseDTO.getStudentIds().isEmpty()) {
-            List<Student> newStudents = studentRepository.findAllById(courseDTO.getStudentIds());
-            for (Student student : newStudents) {
-                student.getCourses().add(course);
-                studentRepository.save(student);
-            }
+        EnrollmentDiff diff = syncEnrollments(course.getId(), courseDTO.getStudentIds());
+        // A teacher's roster may go past the capacity; the seat counters follow the roster and the waitlist
+        // moves up into seats that became free
+        if (wasLimited || course.getCapacity() != null) {
+            courseRepository.flush(); // the recount reads the capacity with plain JDBC
+            enrollmentService.recount(List.of(id));
         }
-        
-        return courseRepository.save(course);
+        return diff;
+    }
+
+    private static void checkCapacity(Course course) {
+        if (course.getCapacity() != null && course.getCapacity() < 0) {
+            throw new RuntimeException("Capacity cannot be negative");
+        }
+    }
+
+    /**
+     * Brings the course roster in line with the requested student ids by writing only the difference
+     * to student_course: one chunked DELETE for the removed students and one JDBC batch INSERT for the added ones.
+     * Unknown student ids are ignored, as findAllById used to do.
+     */
+    private EnrollmentDiff syncEnrollments(Long courseId, List<Long> requestedStudentIds) {
+        Set<Long> target = new HashSet<>();
+        if (requestedStudentIds != null && !requestedStudentIds.isEmpty()) {
+            target.addAll(studentRepository.findExistingIds(new HashSet<>(requestedStudentIds)));
+        }
+        Set<Long> current = new HashSet<>(enrollmentRepository.findStudentIdsByCourseId(courseId));
+
+        List<Long> added = target.stream().filter(sid -> !current.contains(sid)).sorted().toList();
+        List<Long> removed = current.stream().filter(sid -> !target.contains(sid)).sorted().toList();
+        if (!removed.isEmpty()) {
+            enrollmentRepository.delete(courseId, removed);
+        }
+        if (!added.isEmpty()) {
+            enrollmentRepository.insert(courseId, added);
+        }
+        // added and removed students now have a different courseIds
+        dtoCache.evictStudents(added);
+        dtoCache.evictStudents(removed);
+        entityChanges.publish(Type.STUDENT, Action.UPDATED, added);
+        entityChanges.publish(Type.STUDENT, Action.UPDATED, removed);
+        return new EnrollmentDiff(courseId, added, removed);
     }
 
+    @Transactional
     public void deleteCourse(Long id) {
+        courseRepository.findById(id).ifPresent(course -> {
+            List<Long> studentIds = enrollmentRepository.findStudentIdsByCourseId(id);
+            dtoCache.evictCourses(List.of(id));
+            dtoCache.evictDepartments(departmentIds(course.getDepartment()));
+            dtoCache.evictStudents(studentIds);
+            entityChanges.publish(Type.COURSE, Action.DELETED, id);
+            entityChanges.publish(Type.DEPARTMENT, Action.UPDATED, departmentIds(course.getDepartment()));
+            entityChanges.publish(Type.STUDENT, Action.UPDATED, studentIds);
+        });
+        // Course is the inverse side of student_course, so its rows must go first
+        enrollmentService.deleteCourse(id);
+        enrollmentRepository.deleteByCourseId(id);
         courseRepository.deleteById(id);
     }
 
+    /**
+     * Courses (with department) for the tag lists on the student and department pages.
+     * Loaded by id so that cached courses and departments never reach the database;
+     * studentIds is left empty because enrollments are not cached.
+     */
     public List<CourseDTO> getCoursesByIds(List<Long> ids) {
-        return courseRepository.findAllById(ids).stream()
-                .map(this::convertToDTO)
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return entityManager.unwrap(Session.class).findMultiple(Course.class, ids).stream()
+                .filter(Objects::nonNull)
+                .map(dtoMapper::toDtoWithoutStudents)
                 .collect(Collectors.toList());
     }
 
-    private CourseDTO convertToDTO(Course course) {
-        CourseDTO dto = new CourseDTO();
-        dto.setId(course.getId());
-        dto.setName(course.getName());
-        dto.setDescription(course.getDescription());
-        if (course.getDepartment() != null) {
-            dto.setDepartmentId(course.getDepartment().getId());
-            dto.setDepartmentName(course.getDepartment().getName());
-        }
-        if (course.getStudents() != null) {
-            dto.setStudentIds(course.getStudents().stream()
-                    .map(s -> s.getId())
-                    .collect(Collectors.toList()));
-        }
-        return dto;
+    private static List<Long> departmentIds(Department department) {
+        return department == null ? List.of() : List.of(department.getId());
     }
 }
@@ -0,0 +1,386 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.GeneratorPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic dataset for load and capacity tests: departments, courses, teachers, students, enrollments,
+ * teacher-student links and login accounts, in the volumes of a {@link GeneratorPlan}.
+ * Rows are written with plain JDBC batches outside any transaction, so memory use does not grow with the
+ * volume. Ids are assigned here, above both the existing rows and the ids Hibernate may already hold, and
+ * the sequences are moved past them afterwards, so the running application keeps inserting normally.
+ * Everything random comes from one seeded generator: the same plan on the same database gives the same rows.
+ */
+@Service
+public class DataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(DataGenerator.class);
+
+    // BCrypt of "password", the same as the demo accounts in data.sql (hashing per row would dominate the run)
+    static final String PASSWORD_HASH = "$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z6qMXPrpcCc8Jq5kvuGvDiBi";
+    // Matches allocationSize of the entity sequences (see V1__baseline_schema.sql)
+    private static final int ID_BLOCK = 50;
+    private static final int MAX_COURSES_PER_STUDENT = 12;
+
+    private static final String[] SUBJECTS = {
+            "Computer Science", "Mathematics", "Physics", "Chemistry", "Biology", "Economics", "History",
+            "Philosophy", "Linguistics", "Statistics", "Electrical Engineering", "Mechanical Engineering",
+            "Civil Engineering", "Architecture", "Psychology", "Sociology", "Political Science", "Geography",
+            "Music", "Fine Arts", "Medicine", "Law", "Accounting", "Marketing", "Environmental Science"};
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Ayesha", "Rahim", "Fatima", "Tanvir", "Nusrat", "Arif", "Sadia", "Imran", "Farhana",
+            "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "David", "Elena",
+            "Wei", "Mei", "Hiroshi", "Yuki", "Carlos", "Lucia", "Ahmed", "Leila", "Ivan", "Olga"};
+    private static final String[] LAST_NAMES = {
+            "Rahman", "Hossain", "Islam", "Ahmed", "Chowdhury", "Khan", "Akter", "Sarkar", "Das", "Roy",
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Martinez", "Lopez",
+            "Wang", "Li", "Tanaka", "Sato", "Silva", "Costa", "Haddad", "Nasser", "Petrov", "Novak"};
+    private static final String[] LEVELS = {"Introduction to", "Foundations of", "Topics in", "Advanced",
+            "Seminar in", "Applied", "Research Methods in"};
+
+    private final JdbcTemplate jdbc;
+
+    public DataGenerator(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Generates the plan and returns the rows written per table, in insert order.
+     */
+    public Map<String, Long> generate(GeneratorPlan plan) {
+        validate(plan);
+        SplittableRandom random = new SplittableRandom(plan.getSeed());
+        Map<String, Long> written = new LinkedHashMap<>();
+        long started = System.nanoTime();
+
+        long[] departmentIds = insertDepartments(plan, written);
+        // Department sizes are skewed too: a few large faculties, a long tail of small ones
+        Zipf departmentPick = new Zipf(departmentIds.length, plan.getSkew(), null);
+        int[] courseDepartment = new int[plan.getCourses()];
+        long[] courseIds = insertCourses(plan, random, departmentIds, departmentPick, courseDepartment, written);
+        long[][] teachersByDepartment = insertTeachers(plan, random, departmentIds, departmentPick, written);
+        insertStudents(plan, random, courseIds, courseDepartment, teachersByDepartment, written);
+
+        long total = written.values().stream().mapToLong(Long::longValue).sum();
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Generated {} rows in {} ms ({} rows/s): {}", total, millis, total * 1000 / millis, written);
+        return written;
+    }
+
+    private static void validate(GeneratorPlan plan) {
+        if (plan.getDepartments() < 1 || plan.getCourses() < 1) {
+            throw new IllegalArgumentException("At least one department and one course are required");
+        }
+        if (plan.getTeachers() < 0 || plan.getStudents() < 0 || plan.getUsers() < 0) {
+            throw new IllegalArgumentException("Volumes cannot be negative");
+        }
+        if (plan.getBatchSize() < 1 || plan.getSkew() < 0 || plan.getEnrollmentsPerStudent() < 1) {
+            throw new IllegalArgumentException("batch-size and enrollments-per-student must be at least 1, skew at least 0");
+        }
+    }
+
+    // ==================== tables ====================
+
+    private long[] insertDepartments(GeneratorPlan plan, Map<String, Long> written) {
+        Set<String> taken = new HashSet<>(jdbc.queryForList("select name from departments", String.class));
+        long firstId = reserveIds("departments", plan.getDepartments());
+        long[] ids = new long[plan.getDepartments()];
+        Batch batch = new Batch("insert into departments (id, name) values (?, ?)", plan.getBatchSize());
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = firstId + i;
+            String name = SUBJECTS[i % SUBJECTS.length] + (i < SUBJECTS.length ? "" : " " + (i / SUBJECTS.length + 1));
+            if (!taken.add(name)) {
+                name = name + " (" + ids[i] + ")"; // the name column is unique; keeps reruns on the same database working
+            }
+            batch.add(ids[i], name);
+            batch.flushIfFull();
+        }
+        batch.flush();
+        finish("departments", ids.length, firstId, written);
+        return ids;
+    }
+
+    private long[] insertCourses(GeneratorPlan plan, SplittableRandom random, long[] departmentIds, Zipf departmentPick,
+                                 int[] courseDepartment, Map<String, Long> written) {
+        long firstId = reserveIds("courses", plan.getCourses());
+        long[] ids = new long[plan.getCourses()];
+        Batch batch = new Batch("insert into courses (id, name, description, department_id) values (?, ?, ?, ?)",
+                plan.getBatchSize());
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = firstId + i;
+            int department = departmentPick.sample(random);
+            String subject = SUBJECTS[department % SUBJECTS.length];
+            String name = LEVELS[random.nextInt(LEVELS.length)] + " " + subject + " " + (100 + random.nextInt(400));
+            courseDepartment[i] = department;
+            batch.add(ids[i], name, "Synthetic course in " + subject, departmentIds[department]);
+            batch.flushIfFull();
+        }
+        batch.flush();
+        finish("courses", ids.length, firstId, written);
+        return ids;
+    }
+
+    private long[][] insertTeachers(GeneratorPlan plan, SplittableRandom random, long[] departmentIds,
+                                    Zipf departmentPick, Map<String, Long> written) {
+        long firstId = reserveIds("teachers", plan.getTeachers());
+        List<List<Long>> byDepartment = new ArrayList<>();
+        for (int i = 0; i < departmentIds.length; i++) {
+            byDepartment.add(new ArrayList<>());
+        }
+        int accounts = Math.min(plan.getUsers(), plan.getTeachers());
+        long firstUserId = reserveIds("users", accounts);
+        Batch teachers = new Batch("insert into teachers (id, name, email, role, department_id) values (?, ?, ?, 'TEACHER', ?)",
+                plan.getBatchSize());
+        Batch users = new Batch(UserRows.SQL, plan.getBatchSize());
+        for (int i = 0; i < plan.getTeachers(); i++) {
+            long id = firstId + i;
+            int department = departmentPick.sample(random);
+            String[] name = personName(random);
+            String email = email(name, id, "faculty.example.edu");
+            teachers.add(id, name[0] + " " + name[1], email, departmentIds[department]);
+            byDepartment.get(department).add(id);
+            if (i < accounts) {
+                users.add(UserRows.row(firstUserId + i, "teacher" + id, name, email, "TEACHER", id));
+            }
+            teachers.flushIfFull();
+            users.flushIfFull();
+        }
+        teachers.flush();
+        users.flush();
+        finish("teachers", plan.getTeachers(), firstId, written);
+        finish("users", accounts, firstUserId, written);
+
+        long[][] result = new long[departmentIds.length][];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = byDepartment.get(i).stream().mapToLong(Long::longValue).toArray();
+        }
+        return result;
+    }
+
+    private void insertStudents(GeneratorPlan plan, SplittableRandom random, long[] courseIds, int[] courseDepartment,
+                                long[][] teachersByDepartment, Map<String, Long> written) {
+        long firstId = reserveIds("students", plan.getStudents());
+        int accounts = (int) Math.min(Math.max(0, plan.getUsers() - plan.getTeachers()), plan.getStudents());
+        long firstUserId = reserveIds("users", accounts);
+        long[] allTeachers = Arrays.stream(teachersByDepartment).flatMapToLong(Arrays::stream).toArray();
+        // Course popularity follows a power law; the ranks are shuffled so the big courses are spread over
+        // departments instead of all being the first ones created
+        Zipf coursePick = new Zipf(courseIds.length, plan.getSkew(), random);
+        int maxCourses = Math.min(MAX_COURSES_PER_STUDENT, courseIds.length);
+        // Extra courses per student are geometric, so most take a few and some take many
+        double extraProbability = 1.0 / plan.getEnrollmentsPerStudent();
+
+        Batch students = new Batch("insert into students (id, name, roll, email, role) values (?, ?, ?, ?, 'STUDENT')",
+                plan.getBatchSize());
+        Batch enrollments = new Batch("insert into student_course (student_id, course_id) values (?, ?)", plan.getBatchSize());
+        Batch mentors = new Batch("insert into teacher_student (teacher_id, student_id) values (?, ?)", plan.getBatchSize());
+        Batch users = new Batch(UserRows.SQL, plan.getBatchSize());
+        long enrollmentCount = 0;
+        long mentorCount = 0;
+        int[] chosen = new int[maxCourses];
+        for (int i = 0; i < plan.getStudents(); i++) {
+            long id = firstId + i;
+            String[] name = personName(random);
+            String email = email(name, id, "students.example.edu");
+            students.add(id, name[0] + " " + name[1], String.format(Locale.ROOT, "R%08d", id), email);
+            if (i < accounts) {
+                users.add(UserRows.row(firstUserId + i, "student" + id, name, email, "STUDENT", id));
+            }
+
+            int courses = Math.min(maxCourses, 1 + geometric(random, extraProbability));
+            int picked = 0;
+            while (picked < courses) {
+                int course = coursePick.sample(random);
+                if (!contains(chosen, picked, course)) {
+                    chosen[picked++] = course;
+                    enrollments.add(id, courseIds[course]);
+                }
+            }
+            enrollmentCount += courses;
+
+            // One teacher per student, from the department of the first course when it has any
+            long[] candidates = teachersByDepartment[courseDepartment[chosen[0]]];
+            if (candidates.length == 0) {
+                candidates = allTeachers;
+            }
+            if (candidates.length > 0) {
+                mentors.add(candidates[random.nextInt(candidates.length)], id);
+                mentorCount++;
+            }
+
+            if (students.isFull()) {
+                students.flush(); // the link tables reference these rows
+                enrollments.flush();
+                mentors.flush();
+                users.flush();
+                if ((i + 1) % (plan.getBatchSize() * 20) == 0) {
+                    log.info("{} of {} students written", i + 1, plan.getStudents());
+                }
+            }
+        }
+        students.flush();
+        enrollments.flush();
+        mentors.flush();
+        users.flush();
+        finish("students", plan.getStudents(), firstId, written);
+        finish("users", accounts, firstUserId, written);
+        written.put("student_course", enrollmentCount);
+        written.put("teacher_student", mentorCount);
+    }
+
+    // ==================== ids and sequences ====================
+
+    /**
+     * First id of a block of {@code count} new ids: above max(id), and above every block Hibernate has
+     * already been handed by the sequence (the next value minus a block is past all of those).
+     */
+    private long reserveIds(String table, int count) {
+        long maxId = jdbc.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        long nextValue = jdbc.queryForObject(nextValueSql(table + "_seq"), Long.class);
+        long firstId = Math.max(maxId, nextValue - ID_BLOCK) + 1;
+        if (count > 0) {
+            restartSequence(table, firstId + count - 1);
+        }
+        return firstId;
+    }
+
+    // With the pooled optimizer a sequence value N stands for ids N-49..N, so the next one must be lastId + 50
+    private void restartSequence(String table, long lastId) {
+        jdbc.execute("alter sequence " + table + "_seq restart with " + (lastId + ID_BLOCK));
+    }
+
+    private String nextValueSql(String sequence) {
+        String product = jdbc.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(product)
+                ? "select nextval('" + sequence + "')"
+                : "select next value for " + sequence;
+    }
+
+    private void finish(String table, long rows, long firstId, Map<String, Long> written) {
+        written.merge(table, rows, Long::sum);
+        log.info("{}: {} rows, ids {}..{}", table, rows, firstId, firstId + rows - 1);
+    }
+
+    // ==================== values ====================
+
+    private static String[] personName(SplittableRandom random) {
+        return new String[] {FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)]};
+    }
+
+    private static String email(String[] name, long id, String domain) {
+        return (name[0] + "." + name[1]).toLowerCase(Locale.ROOT) + id + "@" + domain;
+    }
+
+    private static int geometric(SplittableRandom random, double p) {
+        if (p >= 1) {
+            return 0;
+        }
+        return (int) Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Zipf distribution over {@code 0..n-1}: P(rank k) is proportional to 1 / k^skew. Sampling is a binary
+     * search in the cumulative weights. With a random generator the ranks are assigned to a shuffled order.
+     */
+    static final class Zipf {
+
+        private final double[] cumulative;
+        private final int[] order;
+
+        Zipf(int n, double skew, SplittableRandom shuffle) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                sum += 1.0 / Math.pow(k + 1, skew);
+                cumulative[k] = sum;
+            }
+            order = new int[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            if (shuffle != null) {
+                for (int i = n - 1; i > 0; i--) {
+                    int j = shuffle.nextInt(i + 1);
+                    int swap = order[i];
+                    order[i] = order[j];
+                    order[j] = swap;
+                }
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            double target = random.nextDouble() * cumulative[cumulative.length - 1];
+            int index = Arrays.binarySearch(cumulative, target);
+            return order[index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1)];
+        }
+    }
+
+    private static final class UserRows {
+
+        static final String SQL = "insert into users (id, username, password, name, email, role, enabled, profile_id) "
+                + "values (?, ?, ?, ?, ?, ?, true, ?)";
+
+        static Object[] row(long id, String username, String[] name, String email, String role, long profileId) {
+            return new Object[] {id, username, PASSWORD_HASH, name[0] + " " + name[1], email, role, profileId};
+        }
+    }
+
+    // Rows for one insert statement, sent as one JDBC batch; the caller flushes, so rows referenced by a
+    // link table are always written before the links
+    private final class Batch {
+
+        private final String sql;
+        private final int size;
+        private final List<Object[]> rows;
+
+        Batch(String sql, int size) {
+            this.sql = sql;
+            this.size = size;
+            this.rows = new ArrayList<>(size);
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+        }
+
+        boolean isFull() {
+            return rows.size() >= size;
+        }
+
+        void flushIfFull() {
+            if (isFull()) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbc.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
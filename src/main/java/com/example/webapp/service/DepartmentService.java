@@ -1,76 +1,140 @@
 package com.example.webapp.service;
 
 import com.example.webapp.dto.DepartmentDTO;
+import com.example.webapp.dto.EntityChange.Action;
+import com.example.webapp.dto.EntityChange.Type;
+import com.example.webapp.dto.KeysetPage;
+import com.example.webapp.dto.ListQuery;
 import com.example.webapp.entity.Department;
 import com.example.webapp.repository.DepartmentRepository;
-import org.modelmapper.ModelMapper;
+import com.example.webapp.repository.ListSpecifications;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Teacher;
+import com.example.webapp.mapper.DtoMapper;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class DepartmentService {
 
     private final DepartmentRepository departmentRepository;
-    private final ModelMapper modelMapper;
+    private final DtoMapper dtoMapper;
+    private final DtoCache dtoCache;
+    private final EntityChangeBus entityChanges;
 
-    public DepartmentService(DepartmentRepository departmentRepository, ModelMapper modelMapper) {
+    public DepartmentService(DepartmentRepository departmentRepository, DtoMapper dtoMapper, DtoCache dtoCache,
+                             EntityChangeBus entityChanges) {
         this.departmentRepository = departmentRepository;
-        this.modelMapper = modelMapper;
+        this.dtoMapper = dtoMapper;
+        this.dtoCache = dtoCache;
+        this.entityChanges = entityChanges;
     }
 
     public List<Department> getAllDepartments() {
         return departmentRepository.findAll();
     }
 
+    @Cacheable(cacheNames = DtoCache.DEPARTMENT_LIST, key = "'" + DtoCache.ALL + "'")
     public List<DepartmentDTO> getAllDepartmentsDTO() {
-        return departmentRepository.findAll().stream()
-                .map(this::convertToDTO)
+        List<Department> departments = departmentRepository.findAllWithTeachers();
+        departmentRepository.findAllWithCourses(); // initializes courses on the same managed instances
+        return departments.stream()
+                .map(dtoMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    // Id and name only, for dropdowns; served from the second-level cache
+    public List<DepartmentDTO> getDepartmentOptions() {
+        return departmentRepository.findAllByOrderByNameAsc().stream()
+                .map(dtoMapper::toOption)
+                .collect(Collectors.toList());
+    }
+
+    public KeysetPage<DepartmentDTO> getDepartmentsPage(ListQuery query) {
+        KeysetScrollPosition position = KeysetPaging.position(query);
+        Specification<Department> filter = ListSpecifications.nameStartsWith(query.getQ());
+        Window<Department> window = departmentRepository.findBy(filter, q -> q
+                .sortBy(KeysetPaging.sort(query))
+                .limit(query.getPageSize())
+                .scroll(position));
+        List<Long> ids = window.getContent().stream().map(Department::getId).toList();
+        if (!ids.isEmpty()) {
+            departmentRepository.findWithTeachersByIdIn(ids);
+            departmentRepository.findWithCoursesByIdIn(ids);
+        }
+        List<DepartmentDTO> items = window.getContent().stream()
+                .map(dtoMapper::toDto)
+                .collect(Collectors.toList());
+        return KeysetPaging.page(query, position, window, Department::getId, Department::getName, items);
+    }
+
     public Optional<Department> getDepartmentById(Long id) {
         return departmentRepository.findById(id);
     }
 
+    @Transactional
     public Department saveDepartment(DepartmentDTO departmentDTO) {
-        Department department = modelMapper.map(departmentDTO, Department.class);
-        return departmentRepository.save(department);
+        Department department = dtoMapper.toEntity(departmentDTO);
+        Department saved = departmentRepository.save(department);
+        dtoCache.evictDepartments(List.of(saved.getId()));
+        entityChanges.publish(Type.DEPARTMENT, Action.CREATED, saved.getId());
+        return saved;
     }
 
+    @Transactional
     public Department updateDepartment(Long id, DepartmentDTO departmentDTO) {
         Department department = departmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Department not found"));
+        if (!Objects.equals(department.getName(), departmentDTO.getName())) {
+            // course and teacher DTOs carry the department name
+            List<Long> courseIds = department.getCourses().stream().map(Course::getId).toList();
+            List<Long> teacherIds = department.getTeachers().stream().map(Teacher::getId).toList();
+            dtoCache.evictCourses(courseIds);
+            dtoCache.evictTeachers(teacherIds);
+            entityChanges.publish(Type.COURSE, Action.UPDATED, courseIds);
+            entityChanges.publish(Type.TEACHER, Action.UPDATED, teacherIds);
+        }
         department.setName(departmentDTO.getName());
+        dtoCache.evictDepartments(List.of(id));
+        entityChanges.publish(Type.DEPARTMENT, Action.UPDATED, id);
         return departmentRepository.save(department);
     }
 
+    @Transactional
     public void deleteDepartment(Long id) {
+        // Read before the delete: it cascades to the department's courses and teachers, whose students change too
+        departmentRepository.findById(id).ifPresent(department -> {
+            Set<Long> studentIds = new HashSet<>();
+            department.getCourses().forEach(course -> course.getStudents().forEach(s -> studentIds.add(s.getId())));
+            department.getTeachers().forEach(teacher -> teacher.getStudents().forEach(s -> studentIds.add(s.getId())));
+            entityChanges.publish(Type.DEPARTMENT, Action.DELETED, id);
+            entityChanges.publish(Type.COURSE, Action.DELETED,
+                    department.getCourses().stream().map(Course::getId).toList());
+            entityChanges.publish(Type.TEACHER, Action.DELETED,
+                    department.getTeachers().stream().map(Teacher::getId).toList());
+            entityChanges.publish(Type.STUDENT, Action.UPDATED, studentIds);
+        });
         departmentRepository.deleteById(id);
+        // the delete cascades to the department's courses and teachers, and from there to their students' DTOs
+        dtoCache.evictAll();
     }
 
+    @Cacheable(DtoCache.DEPARTMENT)
     public DepartmentDTO getDepartmentDTO(Long id) {
         Department dept = departmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Department not found"));
-        return convertToDTO(dept);
-    }
-
-    private DepartmentDTO convertToDTO(Department dept) {
-        DepartmentDTO dto = new DepartmentDTO();
-        dto.setId(dept.getId());
-        dto.setName(dept.getName());
-        if (dept.getTeachers() != null) {
-            dto.setTeacherIds(dept.getTeachers().stream()
-                    .map(t -> t.getId())
-                    .collect(Collectors.toList()));
-        }
-        if (dept.getCourses() != null) {
-            dto.setCourseIds(dept.getCourses().stream()
-                    .map(c -> c.getId())
-                    .collect(Collectors.toList()));
-        }
-        return dto;
+        return dtoMapper.toDto(dept);
     }
 }
@@ -0,0 +1,107 @@
+package com.example.webapp.service;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Names of the service-level DTO caches and the write-side invalidation for them.
+ * The read methods cache with {@code @Cacheable}; every write reports the ids whose DTOs it changed,
+ * including DTOs of other entity types that list the written entity's id or name
+ * (a course's studentIds, a student's courseIds, a teacher's departmentName, ...).
+ * Entries are evicted straight away and once more after commit. A concurrent read that missed before
+ * an eviction may still be holding the pre-commit state when it finishes; the caches are
+ * {@link com.example.webapp.config.EvictionGuardedCache}s, which drop such a put instead of storing it.
+ */
+@Component
+public class DtoCache {
+
+    public static final String STUDENT = "studentDTO";
+    public static final String TEACHER = "teacherDTO";
+    public static final String COURSE = "courseDTO";
+    public static final String DEPARTMENT = "departmentDTO";
+    public static final String STUDENT_LIST = "studentDTOList";
+    public static final String TEACHER_LIST = "teacherDTOList";
+    public static final String COURSE_LIST = "courseDTOList";
+    public static final String DEPARTMENT_LIST = "departmentDTOList";
+
+    public static final List<String> NAMES = List.of(STUDENT, TEACHER, COURSE, DEPARTMENT,
+            STUDENT_LIST, TEACHER_LIST, COURSE_LIST, DEPARTMENT_LIST);
+
+    // Key of the single entry in each list cache
+    public static final String ALL = "all";
+
+    private final CacheManager cacheManager;
+
+    public DtoCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public void evictStudents(Collection<Long> ids) {
+        evict(STUDENT, STUDENT_LIST, ids);
+    }
+
+    public void evictTeachers(Collection<Long> ids) {
+        evict(TEACHER, TEACHER_LIST, ids);
+    }
+
+    public void evictCourses(Collection<Long> ids) {
+        evict(COURSE, COURSE_LIST, ids);
+    }
+
+    public void evictDepartments(Collection<Long> ids) {
+        evict(DEPARTMENT, DEPARTMENT_LIST, ids);
+    }
+
+    // For writes whose effects are not worth tracing, such as a department delete cascading to its courses and teachers
+    public void evictAll() {
+        runNowAndAfterCommit(() -> {
+            for (String name : NAMES) {
+                Cache cache = cacheManager.getCache(name);
+                if (cache != null) {
+                    cache.clear();
+                }
+            }
+        });
+    }
+
+    private void evict(String name, String listName, Collection<Long> ids) {
+        List<Long> keys = new ArrayList<>();
+        for (Long id : ids) {
+            if (id != null) {
+                keys.add(id);
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        runNowAndAfterCommit(() -> {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                keys.forEach(cache::evict);
+            }
+            Cache list = cacheManager.getCache(listName);
+            if (list != null) {
+                list.evict(ALL);
+            }
+        });
+    }
+
+    private static void runNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
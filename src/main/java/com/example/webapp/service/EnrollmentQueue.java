@@ -0,0 +1,424 @@
+package com.example.webapp.service;
+
+import com.example.webapp.config.ReadYourWrites;
+import com.example.webapp.dto.EnrollmentResult;
+import com.example.webapp.dto.EnrollmentTicket;
+import com.example.webapp.dto.EnrollmentTicket.Action;
+import com.example.webapp.dto.EnrollmentTicket.State;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Queue in front of {@link EnrollmentService} for the rush when registration opens.
+ * <p>
+ * A request is accepted at once and answered with a ticket to poll or stream. Requests wait in one FIFO per course
+ * and are processed in batches of up to {@code batch-size} requests of one course, each batch in a single
+ * transaction, so a surge costs one commit per batch instead of one per click. At most {@code workers} batches run
+ * at a time, and never two of the same course, which keeps the waitlist in arrival order. Courses take turns: after
+ * a batch its course goes to the back of the line, so a popular course cannot starve the others. When
+ * {@code capacity} requests are waiting, new ones are rejected straight away (backpressure) rather than queued
+ * for longer than anyone would wait.
+ * <p>
+ * The queue lives in memory and belongs to this node; seats are still allocated by the database, so several nodes
+ * with a queue each cannot overbook a course. Published as {@code enrollment.queue.*} metrics.
+ */
+@Service
+public class EnrollmentQueue implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentQueue.class);
+
+    private final EnrollmentService enrollmentService;
+    private final TransactionTemplate transactionTemplate;
+    private final SimpleAsyncTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final int capacity;
+    private final int batchSize;
+    private final int workers;
+    private final Duration replyWait;
+    private final Duration retention;
+
+    private final Timer waitTimer;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+
+    // Every ticket not yet purged, by id
+    private final Map<String, Intent> tickets = new ConcurrentHashMap<>();
+
+    // Guarded by this: waiting requests per course, the courses whose turn is next (waiting requests and no
+    // batch running), the latest unfinished request of each student in each course, finished tickets oldest first
+    private final Map<Long, ArrayDeque<Intent>> queues = new HashMap<>();
+    private final ArrayDeque<Long> ready = new ArrayDeque<>();
+    private final Map<String, Intent> outstanding = new HashMap<>();
+    private final ArrayDeque<Intent> finished = new ArrayDeque<>();
+    private int depth;
+    private int running;
+    private boolean closed;
+
+    public EnrollmentQueue(EnrollmentService enrollmentService,
+                           PlatformTransactionManager transactionManager,
+                           SimpleAsyncTaskExecutorBuilder executorBuilder,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.enrollment.queue.capacity:10000}") int capacity,
+                           @Value("${app.enrollment.queue.batch-size:50}") int batchSize,
+                           @Value("${app.enrollment.queue.workers:4}") int workers,
+                           @Value("${app.enrollment.queue.reply-wait:2s}") Duration replyWait,
+                           @Value("${app.enrollment.queue.ticket-retention:10m}") Duration retention) {
+        this.enrollmentService = enrollmentService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executorBuilder.threadNamePrefix("enrollment-").build();
+        this.meterRegistry = meterRegistry;
+        this.capacity = capacity;
+        this.batchSize = Math.max(1, batchSize);
+        this.workers = Math.max(1, workers);
+        this.replyWait = replyWait;
+        this.retention = retention;
+
+        Gauge.builder("enrollment.queue.depth", this, EnrollmentQueue::getDepth)
+                .description("Enrollment requests waiting to be processed")
+                .register(meterRegistry);
+        Gauge.builder("enrollment.queue.batches.active", this, EnrollmentQueue::getRunning)
+                .description("Enrollment batches being processed")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("enrollment.queue.wait")
+                .description("Time an enrollment request waited before its batch started")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("enrollment.queue.batch")
+                .description("Time to process one batch of enrollment requests")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("enrollment.queue.batch.size")
+                .description("Enrollment requests per batch")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("enrollment.queue.rejected")
+                .description("Enrollment requests turned away because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a request and returns its ticket, QUEUED (or already PROCESSING). The same request of a student
+     * still waiting for the same course returns the waiting ticket; a full queue returns a REJECTED ticket.
+     */
+    public EnrollmentTicket submit(Long courseId, Long studentId, Action action) {
+        Intent intent = new Intent(courseId, studentId, action);
+        synchronized (this) {
+            purgeFinished();
+            Intent pending = outstanding.get(intent.key());
+            if (pending != null && pending.action == action && pending.state == State.QUEUED) {
+                return snapshot(pending);
+            }
+            if (closed || depth >= capacity) {
+                rejected.increment();
+                intent.state = State.REJECTED;
+                intent.finishedAt = intent.queuedAt;
+                intent.message = closed ? "The server is shutting down" : "Too many requests are waiting";
+                return snapshot(intent);
+            }
+            tickets.put(intent.id, intent);
+            outstanding.put(intent.key(), intent);
+            ArrayDeque<Intent> queue = queues.get(courseId);
+            if (queue == null) {
+                // a course with a batch running keeps its queue and gets its turn when the batch ends
+                queue = new ArrayDeque<>();
+                queues.put(courseId, queue);
+                ready.add(courseId);
+            }
+            queue.add(intent);
+            depth++;
+            dispatch();
+            // the write happens on a worker, so with read replicas the next pages must read from the primary
+            ReadYourWrites.wrote();
+            return snapshot(intent);
+        }
+    }
+
+    /**
+     * {@link #submit} for a form post: waits up to {@code reply-wait} for the result, so outside a rush the
+     * student sees the outcome right away. Returns the ticket as it is by then.
+     */
+    public EnrollmentTicket submitAndWait(Long courseId, Long studentId, Action action) {
+        EnrollmentTicket ticket = submit(courseId, studentId, action);
+        return ticket.isFinished() ? ticket : await(ticket.getId(), replyWait).orElse(ticket);
+    }
+
+    /**
+     * Waits until the ticket is finished or the timeout passes, then returns it as it is.
+     */
+    public Optional<EnrollmentTicket> await(String id, Duration timeout) {
+        Intent intent = tickets.get(id);
+        if (intent == null) {
+            return Optional.empty();
+        }
+        try {
+            intent.done.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // still waiting; the caller gets the current state
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Optional.of(snapshot(intent));
+    }
+
+    public Optional<EnrollmentTicket> getTicket(String id) {
+        return Optional.ofNullable(tickets.get(id)).map(this::snapshot);
+    }
+
+    /**
+     * The student's latest request for the course that is still queued or processing.
+     */
+    public synchronized Optional<EnrollmentTicket> findOutstanding(Long courseId, Long studentId) {
+        return Optional.ofNullable(outstanding.get(key(courseId, studentId))).map(this::snapshot);
+    }
+
+    /**
+     * Calls the listener with the ticket now and after every change until it is finished. Returns the action
+     * that unsubscribes, or empty when the ticket is unknown.
+     */
+    public Optional<Runnable> subscribe(String id, Consumer<EnrollmentTicket> listener) {
+        Intent intent = tickets.get(id);
+        if (intent == null) {
+            return Optional.empty();
+        }
+        // registered before the first call, so a change in between is delivered (possibly twice), never lost
+        intent.listeners.add(listener);
+        listener.accept(snapshot(intent));
+        return Optional.of(() -> intent.listeners.remove(listener));
+    }
+
+    public synchronized int getDepth() {
+        return depth;
+    }
+
+    private synchronized int getRunning() {
+        return running;
+    }
+
+    // ==================== processing ====================
+
+    // Starts batches while workers are free, taking the courses in turn
+    private void dispatch() {
+        while (!closed && running < workers && !ready.isEmpty()) {
+            Long courseId = ready.poll();
+            ArrayDeque<Intent> queue = queues.get(courseId);
+            List<Intent> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+            while (batch.size() < batchSize && !queue.isEmpty()) {
+                Intent intent = queue.poll();
+                intent.state = State.PROCESSING;
+                batch.add(intent);
+            }
+            depth -= batch.size();
+            running++;
+            executor.execute(() -> {
+                try {
+                    process(batch);
+                } finally {
+                    batchDone(courseId);
+                }
+            });
+        }
+    }
+
+    private synchronized void batchDone(Long courseId) {
+        running--;
+        ArrayDeque<Intent> queue = queues.get(courseId);
+        if (queue.isEmpty()) {
+            queues.remove(courseId);
+        } else {
+            ready.add(courseId); // back of the line
+        }
+        dispatch();
+    }
+
+    private void process(List<Intent> batch) {
+        long start = System.nanoTime();
+        for (Intent intent : batch) {
+            waitTimer.record(start - intent.queuedNanos, TimeUnit.NANOSECONDS);
+            notifyListeners(intent);
+        }
+        batchSizes.record(batch.size());
+        try {
+            Map<Intent, EnrollmentResult> results = transactionTemplate.execute(status -> {
+                Map<Intent, EnrollmentResult> applied = new LinkedHashMap<>();
+                for (Intent intent : batch) {
+                    applied.put(intent, apply(intent));
+                }
+                return applied;
+            });
+            results.forEach(this::complete);
+        } catch (RuntimeException e) {
+            // One failing request (course deleted meanwhile, a double submit through another path) rolls back
+            // the whole batch: retry one by one so that it only fails itself
+            for (Intent intent : batch) {
+                try {
+                    complete(intent, transactionTemplate.execute(status -> apply(intent)));
+                } catch (RuntimeException failure) {
+                    fail(intent, failure);
+                }
+            }
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private EnrollmentResult apply(Intent intent) {
+        if (intent.action == Action.DROP) {
+            return enrollmentService.drop(intent.courseId, intent.studentId)
+                    ? EnrollmentResult.DROPPED
+                    : EnrollmentResult.NOT_ENROLLED;
+        }
+        return enrollmentService.enroll(intent.courseId, intent.studentId);
+    }
+
+    private void complete(Intent intent, EnrollmentResult result) {
+        intent.result = result;
+        finish(intent, State.COMPLETED, result.name());
+    }
+
+    private void fail(Intent intent, RuntimeException failure) {
+        log.warn("Enrollment request {} ({} course {}, student {}) failed", intent.id, intent.action,
+                intent.courseId, intent.studentId, failure);
+        // database messages carry SQL, which is not for students
+        intent.message = failure instanceof DataAccessException
+                ? "The request could not be processed, please try again"
+                : failure.getMessage();
+        finish(intent, State.FAILED, State.FAILED.name());
+    }
+
+    private void finish(Intent intent, State state, String outcome) {
+        intent.finishedAt = Instant.now();
+        intent.state = state;
+        Timer.builder("enrollment.queue.latency")
+                .description("Time from accepting an enrollment request to its result")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - intent.queuedNanos, TimeUnit.NANOSECONDS);
+        synchronized (this) {
+            outstanding.remove(intent.key(), intent);
+            finished.add(intent);
+        }
+        notifyListeners(intent);
+        intent.done.complete(null);
+    }
+
+    private void notifyListeners(Intent intent) {
+        if (intent.listeners.isEmpty()) {
+            return;
+        }
+        EnrollmentTicket ticket = snapshot(intent);
+        for (Consumer<EnrollmentTicket> listener : intent.listeners) {
+            try {
+                listener.accept(ticket);
+            } catch (RuntimeException e) {
+                log.debug("Enrollment ticket listener failed", e);
+            }
+        }
+    }
+
+    // Finished tickets stay pollable for the retention period
+    private void purgeFinished() {
+        Instant cutoff = Instant.now().minus(retention);
+        while (!finished.isEmpty() && finished.peek().finishedAt.isBefore(cutoff)) {
+            tickets.remove(finished.poll().id);
+        }
+    }
+
+    private synchronized EnrollmentTicket snapshot(Intent intent) {
+        EnrollmentTicket ticket = new EnrollmentTicket();
+        ticket.setId(intent.id);
+        ticket.setCourseId(intent.courseId);
+        ticket.setStudentId(intent.studentId);
+        ticket.setAction(intent.action);
+        ticket.setState(intent.state);
+        ticket.setResult(intent.result);
+        ticket.setMessage(intent.message);
+        ticket.setQueuedAt(intent.queuedAt);
+        ticket.setFinishedAt(intent.finishedAt);
+        if (intent.state == State.QUEUED && queues.containsKey(intent.courseId)) {
+            int position = 1;
+            for (Intent ahead : queues.get(intent.courseId)) {
+                if (ahead == intent) {
+                    ticket.setPosition(position);
+                    break;
+                }
+                position++;
+            }
+        }
+        return ticket;
+    }
+
+    private static String key(Long courseId, Long studentId) {
+        return courseId + ":" + studentId;
+    }
+
+    @Override
+    public void destroy() {
+        List<Intent> abandoned = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            queues.values().forEach(abandoned::addAll);
+            queues.values().forEach(ArrayDeque::clear);
+            ready.clear();
+            depth = 0;
+        }
+        for (Intent intent : abandoned) {
+            intent.message = "The server is shutting down";
+            finish(intent, State.FAILED, State.FAILED.name());
+        }
+        executor.close();
+    }
+
+    private static final class Intent {
+        private final String id = UUID.randomUUID().toString();
+        private final Long courseId;
+        private final Long studentId;
+        private final Action action;
+        private final Instant queuedAt = Instant.now();
+        private final long queuedNanos = System.nanoTime();
+        private final List<Consumer<EnrollmentTicket>> listeners = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile State state = State.QUEUED;
+        private volatile EnrollmentResult result;
+        private volatile String message;
+        private volatile Instant finishedAt;
+
+        private Intent(Long courseId, Long studentId, Action action) {
+            this.courseId = courseId;
+            this.studentId = studentId;
+            this.action = action;
+        }
+
+        private String key() {
+            return EnrollmentQueue.key(courseId, studentId);
+        }
+    }
+}
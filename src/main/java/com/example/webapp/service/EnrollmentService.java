@@ -0,0 +1,343 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.EnrollmentResult;
+import com.example.webapp.dto.EntityChange.Action;
+import com.example.webapp.dto.EntityChange.Type;
+import com.example.webapp.dto.SeatStatus;
+import com.example.webapp.repository.EnrollmentRepository;
+import com.example.webapp.repository.SeatRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seat allocation for capacity-limited courses (capacity null = unlimited).
+ *
+ * <p>Students take seats one at a time: {@link #enroll} claims a seat from a random bucket of the course's
+ * seat counters (see {@link SeatRepository}) and joins the waitlist when every bucket is empty; {@link #drop}
+ * hands the seat to the first student on the waitlist, or back to a bucket. Each claim holds one bucket row
+ * lock for the rest of its short transaction, so enrollments in a popular course spread over the buckets
+ * instead of queueing on one row, and overbooking is impossible however many app nodes run.
+ *
+ * <p>Teachers manage rosters directly (course and student forms, CSV import) and may go past the capacity;
+ * those paths call {@link #recount} afterwards, which rebuilds the counters from the actual enrollments and
+ * fills free seats from the waitlist.
+ *
+ * <p>A seat given back while another transaction puts a student on the waitlist is invisible to that transaction
+ * until commit (and the other way round). Both sides therefore check again after their commit, in a new
+ * transaction, and pair free seats with waiting students; whichever commits last sees both changes. That check runs
+ * on a worker of its own: at {@code afterCommit} the committed transaction still holds its connection and bulkhead
+ * permit, and a burst of drops each waiting there for a second connection would starve the pool. Checks for a
+ * course that is already waiting for a worker are not queued twice.
+ */
+@Service
+public class EnrollmentService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentService.class);
+
+    private final SeatRepository seatRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final DtoCache dtoCache;
+    private final EntityChangeBus entityChanges;
+    private final TransactionTemplate newTransaction;
+    private final SimpleAsyncTaskExecutor fillExecutor;
+    private final Set<Long> fillsQueued = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger pendingFills = new AtomicInteger();
+    private final int buckets;
+
+    public EnrollmentService(SeatRepository seatRepository,
+                             EnrollmentRepository enrollmentRepository,
+                             DtoCache dtoCache,
+                             EntityChangeBus entityChanges,
+                             PlatformTransactionManager transactionManager,
+                             SimpleAsyncTaskExecutorBuilder executorBuilder,
+                             @Value("${app.enrollment.seat-buckets:8}") int buckets) {
+        this.seatRepository = seatRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.dtoCache = dtoCache;
+        this.entityChanges = entityChanges;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.fillExecutor = executorBuilder.threadNamePrefix("seat-fill-").build();
+        this.buckets = Math.max(1, buckets);
+    }
+
+    /**
+     * Takes a free seat, or a place on the waitlist when the course is full. Two requests of the same student
+     * racing each other both pass the "already" checks; the loser fails on a unique constraint and is rolled
+     * back as a whole, seat claim included.
+     */
+    @Transactional
+    public EnrollmentResult enroll(Long courseId, Long studentId) {
+        if (enrollmentRepository.exists(courseId, studentId)) {
+            return EnrollmentResult.ALREADY_ENROLLED;
+        }
+        boolean limited = seatRepository.findCapacity(courseId).isPresent();
+        if (limited) {
+            int bucket = claimSeat(courseId);
+            if (bucket < 0) {
+                if (!seatRepository.addToWaitlist(courseId, studentId)) {
+                    // possibly promoted from the waitlist since the check above
+                    return enrollmentRepository.exists(courseId, studentId)
+                            ? EnrollmentResult.ALREADY_ENROLLED
+                            : EnrollmentResult.ALREADY_WAITLISTED;
+                }
+                fillFromWaitlistAfterCommit(courseId);
+                return EnrollmentResult.WAITLISTED;
+            }
+            seatRepository.removeFromWaitlist(courseId, studentId);
+            if (!enrollmentRepository.insertIfAbsent(courseId, studentId)) {
+                // enrolled by a concurrent request in the meantime
+                seatRepository.release(courseId, bucket);
+                return EnrollmentResult.ALREADY_ENROLLED;
+            }
+        } else if (!enrollmentRepository.insertIfAbsent(courseId, studentId)) {
+            return EnrollmentResult.ALREADY_ENROLLED;
+        }
+        dtoCache.evictStudents(List.of(studentId));
+        dtoCache.evictCourses(List.of(courseId));
+        entityChanges.publish(Type.STUDENT, Action.UPDATED, studentId);
+        entityChanges.publish(Type.COURSE, Action.UPDATED, courseId);
+        return EnrollmentResult.ENROLLED;
+    }
+
+    /**
+     * Leaves the course, or its waitlist. Returns false when the student was in neither.
+     */
+    @Transactional
+    public boolean drop(Long courseId, Long studentId) {
+        if (seatRepository.removeFromWaitlist(courseId, studentId)) {
+            return true;
+        }
+        if (enrollmentRepository.delete(courseId, List.of(studentId)) == 0) {
+            return false;
+        }
+        releaseSeats(List.of(courseId));
+        dtoCache.evictStudents(List.of(studentId));
+        dtoCache.evictCourses(List.of(courseId));
+        entityChanges.publish(Type.STUDENT, Action.UPDATED, studentId);
+        entityChanges.publish(Type.COURSE, Action.UPDATED, courseId);
+        return true;
+    }
+
+    /**
+     * Claims a seat in each capacity-limited course of the list for a student whose enrollment the caller writes
+     * itself (student profile form). Returns the courses without a free seat; the student is waitlisted there.
+     */
+    @Transactional
+    public List<Long> claimSeats(Collection<Long> courseIds, Long studentId) {
+        List<Long> full = new ArrayList<>();
+        for (Long courseId : seatRepository.findCapacities(courseIds).keySet()) {
+            if (claimSeat(courseId) < 0) {
+                seatRepository.addToWaitlist(courseId, studentId);
+                fillFromWaitlistAfterCommit(courseId);
+                full.add(courseId);
+            } else {
+                seatRepository.removeFromWaitlist(courseId, studentId);
+            }
+        }
+        return full;
+    }
+
+    /**
+     * Gives back one seat in each capacity-limited course of the list, after the caller removed an enrollment.
+     */
+    @Transactional
+    public void releaseSeats(Collection<Long> courseIds) {
+        Map<Long, Integer> limited = seatRepository.findCapacities(courseIds);
+        for (Long courseId : new TreeSet<>(limited.keySet())) {
+            if (promoteNext(courseId) == null) {
+                int bucket = ThreadLocalRandom.current().nextInt(buckets);
+                if (!seatRepository.release(courseId, bucket) && !seatRepository.release(courseId, 0)) {
+                    recount(List.of(courseId)); // counters missing or resized: rebuild them
+                }
+                fillFromWaitlistAfterCommit(courseId);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the seat counters of the given courses from their enrollments and capacity, and moves students
+     * from the waitlist into free seats (all of them when the course has no capacity any more). Run after any
+     * change that bypasses {@link #enroll}/{@link #drop}; the caller's enrollment changes must be flushed.
+     */
+    @Transactional
+    public void recount(Collection<Long> courseIds) {
+        // fixed order, so two recounts never wait on each other's buckets crosswise
+        for (Long courseId : new TreeSet<>(courseIds)) {
+            List<Integer> locked = seatRepository.lockBuckets(courseId);
+            Optional<Integer> capacity = seatRepository.findCapacity(courseId);
+            if (capacity.isEmpty()) {
+                while (promoteNext(courseId) != null) {
+                    // everybody waiting gets in
+                }
+                if (!locked.isEmpty()) {
+                    seatRepository.deleteBuckets(courseId);
+                }
+                continue;
+            }
+            int free = capacity.get() - enrollmentRepository.countByCourseId(courseId);
+            while (free > 0 && promoteNext(courseId) != null) {
+                free--;
+            }
+            seatRepository.writeBuckets(courseId, locked, spread(Math.max(0, free)));
+            dtoCache.evictCourses(List.of(courseId));
+            entityChanges.publish(Type.COURSE, Action.UPDATED, courseId);
+        }
+    }
+
+    /**
+     * {@link #recount} for the capacity-limited courses among the given ones, after a teacher changed
+     * enrollments directly.
+     */
+    @Transactional
+    public void recountLimited(Collection<Long> courseIds) {
+        recount(seatRepository.findCapacities(courseIds).keySet());
+    }
+
+    @Transactional(readOnly = true)
+    public SeatStatus getSeatStatus(Long courseId, Long studentId) {
+        Optional<Integer> capacity = seatRepository.findCapacity(courseId);
+        if (capacity.isEmpty()) {
+            return null;
+        }
+        SeatStatus status = new SeatStatus();
+        status.setCapacity(capacity.get());
+        status.setEnrolled(enrollmentRepository.countByCourseId(courseId));
+        status.setFree(seatRepository.countFree(courseId));
+        status.setWaitlisted(seatRepository.countWaitlist(courseId));
+        if (studentId != null) {
+            status.setWaitlistPosition(seatRepository.findWaitlistPosition(courseId, studentId));
+        }
+        return status;
+    }
+
+    // Removes the course's seat counters and waitlist, before the course itself is deleted
+    @Transactional
+    public void deleteCourse(Long courseId) {
+        seatRepository.deleteBuckets(courseId);
+        seatRepository.deleteWaitlistByCourseId(courseId);
+    }
+
+    // Removes the student from every waitlist, before the student is deleted
+    @Transactional
+    public void deleteStudent(Long studentId) {
+        seatRepository.deleteWaitlistByStudentId(studentId);
+    }
+
+    /**
+     * Claims one seat and returns its bucket, or -1 when the course is full. Starts at a random bucket among
+     * those that showed free seats; if other claims empty them first, reads the counters again.
+     */
+    private int claimSeat(Long courseId) {
+        for (int round = 0; round < 3; round++) {
+            List<Integer> candidates = seatRepository.findBucketsWithFreeSeats(courseId);
+            if (candidates.isEmpty()) {
+                return -1;
+            }
+            int start = ThreadLocalRandom.current().nextInt(candidates.size());
+            for (int i = 0; i < candidates.size(); i++) {
+                int bucket = candidates.get((start + i) % candidates.size());
+                if (seatRepository.claim(courseId, bucket)) {
+                    return bucket;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Fill checks handed to the worker that have not finished yet
+    public int getPendingFills() {
+        return pendingFills.get();
+    }
+
+    private void fillFromWaitlistAfterCommit(Long courseId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // not on this thread: it still holds the committed transaction's connection and permit
+                if (fillsQueued.add(courseId)) {
+                    pendingFills.incrementAndGet();
+                    fillExecutor.execute(() -> fillFromWaitlistInNewTransaction(courseId));
+                }
+            }
+        });
+    }
+
+    private void fillFromWaitlistInNewTransaction(Long courseId) {
+        // off the queue before reading, so a commit from now on queues another check that will see it
+        fillsQueued.remove(courseId);
+        try {
+            newTransaction.executeWithoutResult(status -> fillFromWaitlist(courseId));
+        } catch (RuntimeException e) {
+            // the caller's change is committed; the next drop or recount fills the seat instead
+            log.warn("Could not fill free seats of course {} from its waitlist", courseId, e);
+        } finally {
+            pendingFills.decrementAndGet();
+        }
+    }
+
+    // Usually a single read: no bucket has a free seat
+    private void fillFromWaitlist(Long courseId) {
+        int bucket;
+        while ((bucket = claimSeat(courseId)) >= 0) {
+            if (promoteNext(courseId) == null) {
+                seatRepository.release(courseId, bucket);
+                return;
+            }
+        }
+    }
+
+    // Enrolls the first waitlisted student who is not enrolled yet; returns their id, or null if nobody was waiting
+    private Long promoteNext(Long courseId) {
+        Long studentId;
+        while ((studentId = seatRepository.pollWaitlist(courseId)) != null) {
+            if (enrollmentRepository.insertIfAbsent(courseId, studentId)) {
+                dtoCache.evictStudents(List.of(studentId));
+                dtoCache.evictCourses(List.of(courseId));
+                entityChanges.publish(Type.STUDENT, Action.UPDATED, studentId);
+                entityChanges.publish(Type.COURSE, Action.UPDATED, courseId);
+                return studentId;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void destroy() {
+        fillExecutor.close();
+    }
+
+    // Free seats split as evenly as possible over the buckets
+    private int[] spread(int free) {
+        int[] split = new int[buckets];
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            split[bucket] = free / buckets + (bucket < free % buckets ? 1 : 0);
+        }
+        return split;
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.EntityChange;
+import com.example.webapp.dto.EntityChange.Action;
+import com.example.webapp.dto.EntityChange.Type;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process publication of entity changes: the write methods of the services report what they created, updated
+ * or deleted, and every {@link EntityChangeListener} bean receives it once the transaction has committed. Changes
+ * of a rolled-back transaction are never delivered.
+ * <p>
+ * At commit the transaction's changes (duplicates removed) go into one of {@code lanes} FIFOs, chosen by entity, and
+ * the writing thread returns: listeners run on workers, at most one per lane, which take up to {@code batch-size}
+ * changes at a time. Changes that arrive while a batch is delivered make up the next one, so batches grow with the
+ * load. One lane per entity and one worker per lane keep each entity's changes in commit order. When
+ * {@code capacity} changes are waiting, further ones are dropped and counted rather than held in memory or slowing
+ * the writes down.
+ * <p>
+ * Published as {@code entity.changes.*} metrics; {@code entity.changes.lag} is the time from commit to delivery.
+ */
+@Service
+public class EntityChangeBus implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EntityChangeBus.class);
+
+    private final ObjectProvider<EntityChangeListener> listenerProvider;
+    private final SimpleAsyncTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final int capacity;
+    private final int batchSize;
+    private final int lanes;
+    private final Duration shutdownTimeout;
+
+    private final Timer lagTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter dropped;
+
+    // Resolved on first delivery: a listener may itself depend on the services that publish
+    private volatile List<EntityChangeListener> listeners;
+
+    // Guarded by this: waiting changes per lane, lanes with a worker, next sequence number
+    private final List<ArrayDeque<Queued>> queues = new ArrayList<>();
+    private final boolean[] busy;
+    private long sequence;
+    private int depth;
+    private int running;
+    private boolean closed;
+
+    public EntityChangeBus(ObjectProvider<EntityChangeListener> listenerProvider,
+                           SimpleAsyncTaskExecutorBuilder executorBuilder,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.entity-changes.capacity:100000}") int capacity,
+                           @Value("${app.entity-changes.batch-size:100}") int batchSize,
+                           @Value("${app.entity-changes.lanes:8}") int lanes,
+                           @Value("${app.entity-changes.shutdown-timeout:5s}") Duration shutdownTimeout) {
+        this.listenerProvider = listenerProvider;
+        this.executor = executorBuilder.threadNamePrefix("entity-changes-").build();
+        this.meterRegistry = meterRegistry;
+        this.capacity = capacity;
+        this.batchSize = Math.max(1, batchSize);
+        this.lanes = Math.max(1, lanes);
+        this.shutdownTimeout = shutdownTimeout;
+        for (int lane = 0; lane < this.lanes; lane++) {
+            queues.add(new ArrayDeque<>());
+        }
+        this.busy = new boolean[this.lanes];
+
+        Gauge.builder("entity.changes.depth", this, EntityChangeBus::getDepth)
+                .description("Committed entity changes waiting for delivery")
+                .register(meterRegistry);
+        Gauge.builder("entity.changes.lanes.active", this, EntityChangeBus::getRunning)
+                .description("Lanes with a delivery running")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("entity.changes.lag")
+                .description("Time from commit to the delivery of an entity change")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("entity.changes.batch.size")
+                .description("Entity changes per delivered batch")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("entity.changes.dropped")
+                .description("Entity changes not delivered because too many were waiting")
+                .register(meterRegistry);
+    }
+
+    public void publish(Type type, Action action, Long id) {
+        publish(type, action, Collections.singletonList(id));
+    }
+
+    /**
+     * Reports a change of the given entities. Inside a transaction it is held until commit and discarded on
+     * rollback; outside one it is queued at once.
+     */
+    public void publish(Type type, Action action, Collection<Long> ids) {
+        List<Change> changes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (id != null) {
+                changes.add(new Change(type, id, action));
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        PendingChanges pending = pending();
+        if (pending != null) {
+            pending.changes.addAll(changes);
+        } else {
+            enqueue(changes);
+        }
+    }
+
+    public synchronized int getDepth() {
+        return depth;
+    }
+
+    private synchronized int getRunning() {
+        return running;
+    }
+
+    // The current transaction's changes, or null outside a transaction (or once it has committed)
+    private PendingChanges pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        // Synchronizations are suspended for a REQUIRES_NEW transaction, so each transaction finds its own
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending && pending.bus() == this) {
+                return pending.committed ? null : pending;
+            }
+        }
+        PendingChanges pending = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private void enqueue(Collection<Change> changes) {
+        Instant committedAt = Instant.now();
+        long committedNanos = System.nanoTime();
+        List<Integer> start = new ArrayList<>();
+        List<Change> accepted = new ArrayList<>(changes.size());
+        synchronized (this) {
+            for (Change change : changes) {
+                if (closed || depth >= capacity) {
+                    continue;
+                }
+                accepted.add(change);
+                int lane = lane(change);
+                queues.get(lane).add(new Queued(new EntityChange(change.type, change.id, change.action, ++sequence,
+                        committedAt), committedNanos));
+                depth++;
+                if (!busy[lane]) {
+                    busy[lane] = true;
+                    running++;
+                    start.add(lane);
+                }
+            }
+        }
+        for (Change change : accepted) {
+            Counter.builder("entity.changes.published")
+                    .description("Committed entity changes queued for delivery")
+                    .tag("type", change.type.name())
+                    .register(meterRegistry)
+                    .increment();
+        }
+        int rejected = changes.size() - accepted.size();
+        if (rejected > 0) {
+            dropped.increment(rejected);
+            log.warn("Dropped {} entity changes: the bus is full ({}) or shutting down", rejected, capacity);
+        }
+        for (Integer lane : start) {
+            executor.execute(() -> drain(lane));
+        }
+    }
+
+    private int lane(Change change) {
+        return Math.floorMod(31 * change.type.ordinal() + Long.hashCode(change.id), lanes);
+    }
+
+    // ==================== delivery ====================
+
+    // Delivers the lane's changes batch by batch until it is empty
+    private void drain(int lane) {
+        while (true) {
+            List<Queued> batch;
+            synchronized (this) {
+                ArrayDeque<Queued> queue = queues.get(lane);
+                if (queue.isEmpty()) {
+                    busy[lane] = false;
+                    running--;
+                    notifyAll();
+                    return;
+                }
+                batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+                while (batch.size() < batchSize && !queue.isEmpty()) {
+                    batch.add(queue.poll());
+                }
+                depth -= batch.size();
+            }
+            deliver(batch);
+        }
+    }
+
+    private void deliver(List<Queued> batch) {
+        long start = System.nanoTime();
+        List<EntityChange> changes = new ArrayList<>(batch.size());
+        for (Queued queued : batch) {
+            lagTimer.record(start - queued.committedNanos, TimeUnit.NANOSECONDS);
+            changes.add(queued.change);
+        }
+        batchSizes.record(batch.size());
+        changes = Collections.unmodifiableList(changes);
+        for (EntityChangeListener listener : listeners()) {
+            String name = ClassUtils.getUserClass(listener).getSimpleName();
+            long listenerStart = System.nanoTime();
+            try {
+                listener.onChanges(changes);
+            } catch (RuntimeException e) {
+                Counter.builder("entity.changes.listener.failures")
+                        .description("Batches of entity changes a listener failed on")
+                        .tag("listener", name)
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("Entity change listener {} failed on {} changes", name, changes.size(), e);
+            } finally {
+                Timer.builder("entity.changes.listener")
+                        .description("Time a listener took for one batch of entity changes")
+                        .tag("listener", name)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - listenerStart, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private List<EntityChangeListener> listeners() {
+        List<EntityChangeListener> resolved = listeners;
+        if (resolved == null) {
+            resolved = listenerProvider.orderedStream().toList();
+            listeners = resolved;
+        }
+        return resolved;
+    }
+
+    /**
+     * Stops taking changes and waits up to {@code shutdown-timeout} for the queued ones to be delivered.
+     */
+    @Override
+    public void destroy() {
+        synchronized (this) {
+            closed = true;
+            long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+            long remaining;
+            while (running > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (depth > 0) {
+                log.warn("Shutting down with {} entity changes not delivered", depth);
+            }
+        }
+        executor.close();
+    }
+
+    // Changes of one transaction, queued when it commits
+    private final class PendingChanges implements TransactionSynchronization {
+        private final Set<Change> changes = new LinkedHashSet<>();
+        private boolean committed;
+
+        private EntityChangeBus bus() {
+            return EntityChangeBus.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            committed = true;
+            enqueue(changes);
+        }
+    }
+
+    private static final class Change {
+        private final Type type;
+        private final Long id;
+        private final Action action;
+
+        private Change(Type type, Long id, Action action) {
+            this.type = type;
+            this.id = id;
+            this.action = action;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Change change
+                    && type == change.type && id.equals(change.id) && action == change.action;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, id, action);
+        }
+    }
+
+    private static final class Queued {
+        private final EntityChange change;
+        private final long committedNanos;
+
+        private Queued(EntityChange change, long committedNanos) {
+            this.change = change;
+            this.committedNanos = committedNanos;
+        }
+    }
+}
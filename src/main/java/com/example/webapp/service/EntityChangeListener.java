@@ -0,0 +1,18 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.EntityChange;
+
+import java.util.List;
+
+/**
+ * Receives committed entity changes from {@link EntityChangeBus}. Any bean implementing this is called.
+ * <p>
+ * Called on a worker thread, never on the thread that made the change, with batches in commit order. The changes
+ * of one entity always arrive in the same lane, so they are never delivered out of order or concurrently with each
+ * other; other entities' changes may be delivered concurrently, so implementations must be thread-safe. Delivery
+ * is in memory and at most once: an exception is logged and counted, and the batch is not retried.
+ */
+public interface EntityChangeListener {
+
+    void onChanges(List<EntityChange> changes);
+}
@@ -0,0 +1,245 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.ExportFormat;
+import com.example.webapp.dto.ExportStatus;
+import com.example.webapp.dto.StudentExportRow;
+import com.example.webapp.entity.Student;
+import com.example.webapp.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Streams full rosters straight to an output stream.
+ * Students are read through a database cursor and handled in batches of {@link #BATCH_SIZE}: each batch gets its
+ * course and teacher names with two queries, is written and flushed to the client, and is then evicted from the
+ * persistence context. Memory use therefore stays the same whether the export has a thousand rows or a million.
+ */
+@Service
+public class ExportService {
+
+    static final int BATCH_SIZE = 500;
+    private static final int MAX_RECENT = 20;
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private final StudentRepository studentRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    // Running and recently finished exports, newest first
+    private final Deque<ExportRun> runs = new ArrayDeque<>();
+
+    public ExportService(StudentRepository studentRepository,
+                         EntityManager entityManager,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper) {
+        this.studentRepository = studentRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public void exportStudents(ExportFormat format, OutputStream output) throws IOException {
+        ExportRun run = register("students", format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rows = format == ExportFormat.CSV ? new CsvRows(writer) : new JsonRows(writer);
+        try {
+            rows.begin();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Student> students = studentRepository.streamAllOrderById()) {
+                    Iterator<Student> cursor = students.iterator();
+                    List<Student> batch = new ArrayList<>(BATCH_SIZE);
+                    while (cursor.hasNext()) {
+                        batch.add(cursor.next());
+                        if (batch.size() == BATCH_SIZE) {
+                            writeBatch(batch, rows, writer, run);
+                            batch.clear();
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        writeBatch(batch, rows, writer, run);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            run.complete();
+            log.info("Exported {} {} rows as {} in {} ms ({} rows/s)", run.rowsWritten, run.name, format,
+                    run.elapsedMillis(), run.rowsPerSecond());
+        } catch (UncheckedIOException e) {
+            // usually the client went away mid-download
+            run.fail(e.getCause().getMessage());
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            run.fail(e.getMessage());
+            throw e;
+        }
+    }
+
+    public List<ExportStatus> getRecentExports() {
+        List<ExportStatus> recent = new ArrayList<>();
+        synchronized (runs) {
+            for (ExportRun run : runs) {
+                recent.add(run.snapshot());
+            }
+        }
+        return recent;
+    }
+
+    private void writeBatch(List<Student> batch, RowWriter rows, Writer writer, ExportRun run) throws IOException {
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (Student student : batch) {
+            ids.add(student.getId());
+        }
+        Map<Long, List<String>> courses = group(studentRepository.findCourseNamesByStudentIdIn(ids));
+        Map<Long, List<String>> teachers = group(studentRepository.findTeacherNamesByStudentIdIn(ids));
+        for (Student student : batch) {
+            rows.write(new StudentExportRow(student.getId(), student.getName(), student.getRoll(), student.getEmail(),
+                    courses.getOrDefault(student.getId(), List.of()),
+                    teachers.getOrDefault(student.getId(), List.of())));
+        }
+        // hand the batch to the client (chunked transfer encoding) and drop it from the persistence context
+        writer.flush();
+        entityManager.clear();
+        run.rowsWritten += batch.size();
+    }
+
+    private static Map<Long, List<String>> group(List<Object[]> idAndNames) {
+        Map<Long, List<String>> grouped = new HashMap<>();
+        for (Object[] idAndName : idAndNames) {
+            grouped.computeIfAbsent((Long) idAndName[0], id -> new ArrayList<>()).add((String) idAndName[1]);
+        }
+        return grouped;
+    }
+
+    private ExportRun register(String name, ExportFormat format) {
+        ExportRun run = new ExportRun(name, format);
+        synchronized (runs) {
+            runs.addFirst(run);
+            while (runs.size() > MAX_RECENT) {
+                runs.removeLast();
+            }
+        }
+        return run;
+    }
+
+    // ==================== formats ====================
+
+    private interface RowWriter {
+        void begin() throws IOException;
+
+        void write(StudentExportRow row) throws IOException;
+    }
+
+    private static final class CsvRows implements RowWriter {
+        private final CsvWriter csv;
+
+        private CsvRows(Writer writer) {
+            this.csv = new CsvWriter(writer);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            csv.writeRow("id", "name", "roll", "email", "courses", "teachers");
+        }
+
+        @Override
+        public void write(StudentExportRow row) throws IOException {
+            csv.writeRow(String.valueOf(row.getId()), row.getName(), row.getRoll(), row.getEmail(),
+                    String.join("; ", row.getCourses()), String.join("; ", row.getTeachers()));
+        }
+    }
+
+    private final class JsonRows implements RowWriter {
+        private final Writer writer;
+
+        private JsonRows(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin() {
+            // NDJSON has no header
+        }
+
+        @Override
+        public void write(StudentExportRow row) throws IOException {
+            writer.write(objectMapper.writeValueAsString(row));
+            writer.write('\n');
+        }
+    }
+
+    // Written by the exporting thread only; volatile so status requests see fresh counts
+    private static final class ExportRun {
+        private final String name;
+        private final ExportFormat format;
+        private final Instant startedAt = Instant.now();
+        private volatile ExportStatus.State state = ExportStatus.State.RUNNING;
+        private volatile long rowsWritten;
+        private volatile Instant finishedAt;
+        private volatile String message;
+
+        private ExportRun(String name, ExportFormat format) {
+            this.name = name;
+            this.format = format;
+        }
+
+        private void complete() {
+            finishedAt = Instant.now();
+            state = ExportStatus.State.COMPLETED;
+        }
+
+        private void fail(String reason) {
+            finishedAt = Instant.now();
+            message = reason;
+            state = ExportStatus.State.FAILED;
+        }
+
+        private long elapsedMillis() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            return Math.max(1, Duration.between(startedAt, end).toMillis());
+        }
+
+        private double rowsPerSecond() {
+            return Math.round(rowsWritten * 10000.0 / elapsedMillis()) / 10.0;
+        }
+
+        private ExportStatus snapshot() {
+            ExportStatus status = new ExportStatus();
+            status.setName(name);
+            status.setFormat(format);
+            status.setState(state);
+            status.setRowsWritten(rowsWritten);
+            status.setStartedAt(startedAt);
+            status.setFinishedAt(finishedAt);
+            status.setRowsPerSecond(rowsPerSecond());
+            status.setMessage(message);
+            return status;
+        }
+    }
+}
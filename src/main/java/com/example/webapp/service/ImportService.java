@@ -0,0 +1,573 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.EntityChange.Action;
+import com.example.webapp.dto.EntityChange.Type;
+import com.example.webapp.dto.ImportJobStatus;
+import com.example.webapp.dto.ImportType;
+import com.example.webapp.entity.Student;
+import com.example.webapp.entity.Teacher;
+import com.example.webapp.repository.CourseRepository;
+import com.example.webapp.repository.DepartmentRepository;
+import com.example.webapp.repository.EnrollmentRepository;
+import com.example.webapp.repository.StudentRepository;
+import com.example.webapp.repository.TeacherRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk CSV import of students, teachers and enrollments.
+ * The file is streamed one record at a time and written in chunks of {@link #CHUNK_SIZE} rows, each chunk
+ * validated against the database and persisted in its own transaction; with pooled sequence ids Hibernate
+ * sends the inserts as JDBC batches. A failed chunk is
+ * retried row by row so one bad row cannot take down its neighbours. Rejected rows go to a CSV error report
+ * on disk, so memory use does not depend on the size of the file or the number of errors.
+ */
+@Service
+public class ImportService {
+
+    static final int CHUNK_SIZE = 1000;
+    private static final int MAX_JOBS = 20;
+    private static final int MAX_LENGTH = 255;
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final EnrollmentService enrollmentService;
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+    private final CourseRepository courseRepository;
+    private final DepartmentRepository departmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final DtoCache dtoCache;
+    private final EntityChangeBus entityChanges;
+
+    // Most recent jobs, oldest first
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+
+    public ImportService(EnrollmentRepository enrollmentRepository,
+                         EnrollmentService enrollmentService,
+                         StudentRepository studentRepository,
+                         TeacherRepository teacherRepository,
+                         CourseRepository courseRepository,
+                         DepartmentRepository departmentRepository,
+                         TransactionTemplate transactionTemplate,
+                         @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                         DtoCache dtoCache,
+                         EntityChangeBus entityChanges) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.enrollmentService = enrollmentService;
+        this.studentRepository = studentRepository;
+        this.teacherRepository = teacherRepository;
+        this.courseRepository = courseRepository;
+        this.departmentRepository = departmentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.dtoCache = dtoCache;
+        this.entityChanges = entityChanges;
+    }
+
+    /**
+     * Queues an import of a file already on disk and returns immediately; the file is deleted when the job ends.
+     */
+    public ImportJobStatus startImport(ImportType type, Path file, String fileName) {
+        ImportJob job = register(type, fileName);
+        taskExecutor.execute(() -> {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                run(job, reader);
+            } catch (IOException e) {
+                job.fail(e.getMessage());
+            } finally {
+                deleteQuietly(file);
+            }
+        });
+        return job.snapshot();
+    }
+
+    /**
+     * Runs an import on the calling thread, e.g. from the command line.
+     */
+    public ImportJobStatus runImport(ImportType type, Reader reader, String fileName) {
+        ImportJob job = register(type, fileName);
+        run(job, reader);
+        return job.snapshot();
+    }
+
+    public Optional<ImportJobStatus> getJob(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id)).map(ImportJob::snapshot);
+        }
+    }
+
+    public List<ImportJobStatus> getRecentJobs() {
+        List<ImportJobStatus> recent = new ArrayList<>();
+        synchronized (jobs) {
+            for (ImportJob job : jobs.values()) {
+                recent.add(0, job.snapshot());
+            }
+        }
+        return recent;
+    }
+
+    /**
+     * @return the error report of a job, present once the job has started and rejected at least one row
+     */
+    public Optional<Path> getErrorReport(String id) {
+        synchronized (jobs) {
+            ImportJob job = jobs.get(id);
+            if (job == null || job.errorReport == null || job.rowsFailed == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(job.errorReport);
+        }
+    }
+
+    private ImportJob register(ImportType type, String fileName) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), type, fileName);
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            Iterator<ImportJob> oldest = jobs.values().iterator();
+            while (jobs.size() > MAX_JOBS && oldest.hasNext()) {
+                ImportJob evicted = oldest.next();
+                if (evicted.finished) {
+                    oldest.remove();
+                    if (evicted.errorReport != null) {
+                        deleteQuietly(evicted.errorReport);
+                    }
+                }
+            }
+        }
+        return job;
+    }
+
+    private void run(ImportJob job, Reader input) {
+        job.start();
+        try (CsvReader csv = new CsvReader(input);
+             CsvWriter errors = new CsvWriter(Files.newBufferedWriter(job.createErrorReport(), StandardCharsets.UTF_8))) {
+            String[] columns = job.type.getColumns();
+            List<String> reportHeader = new ArrayList<>(List.of("line"));
+            reportHeader.addAll(List.of(columns));
+            reportHeader.add("error");
+            errors.writeRow(reportHeader);
+
+            List<String> header = csv.next();
+            int[] positions = header == null ? null : columnPositions(header, columns);
+            if (positions == null) {
+                job.fail("Expected a header row with columns: " + job.type.getHeader());
+                return;
+            }
+
+            ChunkContext context = new ChunkContext(job, errors);
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                String[] values = new String[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    values[i] = positions[i] < record.size() ? record.get(positions[i]).trim() : "";
+                }
+                chunk.add(new Row(csv.getRecordLine(), values));
+                job.rowsRead++;
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(context, chunk);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(context, chunk);
+            }
+            job.complete();
+        } catch (IOException | RuntimeException e) {
+            job.fail(e.getMessage());
+        }
+    }
+
+    private static int[] columnPositions(List<String> header, String[] columns) {
+        Map<String, Integer> byName = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            byName.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        int[] positions = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Integer position = byName.get(columns[i]);
+            if (position == null) {
+                return null;
+            }
+            positions[i] = position;
+        }
+        return positions;
+    }
+
+    // ==================== chunk writing ====================
+
+    private void writeChunk(ChunkContext context, List<Row> rows) throws IOException {
+        ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> validateAndInsert(context, rows));
+        } catch (DataAccessException e) {
+            // Something only the database could detect (e.g. a roll inserted concurrently): isolate the bad rows
+            result = new ChunkResult();
+            for (Row row : rows) {
+                try {
+                    result.add(transactionTemplate.execute(status -> validateAndInsert(context, List.of(row))));
+                } catch (DataAccessException rowFailure) {
+                    result.reject(row, "rejected by database: "
+                            + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+        ImportJob job = context.job;
+        job.rowsImported += result.imported;
+        job.rowsSkipped += result.skipped;
+        job.rowsFailed += result.rejected.size();
+        List<Map.Entry<Row, String>> rejectedRows = new ArrayList<>(result.rejected.entrySet());
+        rejectedRows.sort(Comparator.comparingLong(rejected -> rejected.getKey().line));
+        for (Map.Entry<Row, String> rejected : rejectedRows) {
+            Row row = rejected.getKey();
+            List<String> fields = new ArrayList<>(row.values.length + 2);
+            fields.add(String.valueOf(row.line));
+            fields.addAll(List.of(row.values));
+            fields.add(rejected.getValue());
+            context.errors.writeRow(fields);
+        }
+        context.errors.flush();
+    }
+
+    private ChunkResult validateAndInsert(ChunkContext context, List<Row> rows) {
+        switch (context.job.type) {
+            case STUDENTS:
+                return insertStudents(rows);
+            case TEACHERS:
+                return insertTeachers(context, rows);
+            default:
+                return insertEnrollments(context, rows);
+        }
+    }
+
+    // columns: name, roll, email
+    private ChunkResult insertStudents(List<Row> rows) {
+        ChunkResult result = new ChunkResult();
+        Map<String, Row> byRoll = new LinkedHashMap<>();
+        for (Row row : rows) {
+            String error = requireText(row.values[0], "name");
+            if (error == null) {
+                error = requireText(row.values[1], "roll");
+            }
+            if (error == null) {
+                error = checkEmail(row.values[2]);
+            }
+            if (error == null && byRoll.containsKey(row.values[1])) {
+                error = "duplicate roll in file (first seen on line " + byRoll.get(row.values[1]).line + ")";
+            }
+            if (error != null) {
+                result.reject(row, error);
+            } else {
+                byRoll.put(row.values[1], row);
+            }
+        }
+        if (byRoll.isEmpty()) {
+            return result;
+        }
+        for (String roll : studentRepository.findExistingRolls(byRoll.keySet())) {
+            result.reject(byRoll.remove(roll), "roll already exists");
+        }
+        List<Student> students = new ArrayList<>(byRoll.size());
+        for (Row row : byRoll.values()) {
+            students.add(new Student(row.values[0], row.values[1], emptyToNull(row.values[2])));
+        }
+        // flush inside the chunk transaction so constraint violations surface here and trigger the row-by-row retry
+        studentRepository.saveAllAndFlush(students);
+        List<Long> ids = students.stream().map(Student::getId).toList();
+        dtoCache.evictStudents(ids);
+        entityChanges.publish(Type.STUDENT, Action.CREATED, ids);
+        result.imported += students.size();
+        return result;
+    }
+
+    // columns: name, email, department_id
+    private ChunkResult insertTeachers(ChunkContext context, List<Row> rows) {
+        ChunkResult result = new ChunkResult();
+        List<Teacher> teachers = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            String error = requireText(row.values[0], "name");
+            if (error == null) {
+                error = checkEmail(row.values[1]);
+            }
+            Long departmentId = null;
+            if (error == null && !row.values[2].isEmpty()) {
+                departmentId = parseId(row.values[2]);
+                if (departmentId == null || !context.departmentIds().contains(departmentId)) {
+                    error = "unknown department_id " + row.values[2];
+                }
+            }
+            if (error != null) {
+                result.reject(row, error);
+                continue;
+            }
+            Teacher teacher = new Teacher(row.values[0], emptyToNull(row.values[1]));
+            if (departmentId != null) {
+                teacher.setDepartment(departmentRepository.getReferenceById(departmentId));
+            }
+            teachers.add(teacher);
+        }
+        teacherRepository.saveAllAndFlush(teachers);
+        List<Long> ids = teachers.stream().map(Teacher::getId).toList();
+        Set<Long> departmentIds = teachers.stream()
+                .filter(teacher -> teacher.getDepartment() != null)
+                .map(teacher -> teacher.getDepartment().getId())
+                .collect(Collectors.toSet());
+        dtoCache.evictTeachers(ids);
+        dtoCache.evictDepartments(departmentIds);
+        entityChanges.publish(Type.TEACHER, Action.CREATED, ids);
+        entityChanges.publish(Type.DEPARTMENT, Action.UPDATED, departmentIds);
+        result.imported += teachers.size();
+        return result;
+    }
+
+    // columns: roll, course_id
+    private ChunkResult insertEnrollments(ChunkContext context, List<Row> rows) {
+        ChunkResult result = new ChunkResult();
+        List<Row> valid = new ArrayList<>(rows.size());
+        Set<String> rolls = new HashSet<>();
+        for (Row row : rows) {
+            String error = requireText(row.values[0], "roll");
+            if (error == null) {
+                Long courseId = parseId(row.values[1]);
+                if (courseId == null || !context.courseIds().contains(courseId)) {
+                    error = "unknown course_id " + row.values[1];
+                }
+            }
+            if (error != null) {
+                result.reject(row, error);
+            } else {
+                valid.add(row);
+                rolls.add(row.values[0]);
+            }
+        }
+        if (valid.isEmpty()) {
+            return result;
+        }
+        Map<String, Long> studentIds = new HashMap<>();
+        for (Object[] rollAndId : studentRepository.findIdsByRollIn(rolls)) {
+            studentIds.put((String) rollAndId[0], (Long) rollAndId[1]);
+        }
+        Map<Long, Set<Long>> enrolled = enrollmentRepository.findCourseIdsByStudentIds(studentIds.values());
+        List<long[]> pairs = new ArrayList<>(valid.size());
+        for (Row row : valid) {
+            Long studentId = studentIds.get(row.values[0]);
+            if (studentId == null) {
+                result.reject(row, "unknown roll " + row.values[0]);
+                continue;
+            }
+            // Already enrolled, or listed twice in this chunk: nothing to write
+            if (!enrolled.computeIfAbsent(studentId, id -> new HashSet<>()).add(parseId(row.values[1]))) {
+                result.skipped++;
+                continue;
+            }
+            pairs.add(new long[] {studentId, parseId(row.values[1])});
+        }
+        if (!pairs.isEmpty()) {
+            result.imported += enrollmentRepository.insertPairs(pairs);
+            Set<Long> students = new HashSet<>();
+            Set<Long> courses = new HashSet<>();
+            for (long[] pair : pairs) {
+                students.add(pair[0]);
+                courses.add(pair[1]);
+            }
+            dtoCache.evictStudents(students);
+            dtoCache.evictCourses(courses);
+            entityChanges.publish(Type.STUDENT, Action.UPDATED, students);
+            entityChanges.publish(Type.COURSE, Action.UPDATED, courses);
+            // imported enrollments are not checked against the capacity; the seat counters follow them
+            enrollmentService.recountLimited(courses);
+        }
+        return result;
+    }
+
+    private static String requireText(String value, String column) {
+        if (value.isEmpty()) {
+            return column + " is required";
+        }
+        if (value.length() > MAX_LENGTH) {
+            return column + " is longer than " + MAX_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static String checkEmail(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        if (value.length() > MAX_LENGTH || value.indexOf('@') < 1) {
+            return "invalid email " + value;
+        }
+        return null;
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // temp files are cleaned up by the OS eventually
+        }
+    }
+
+    // ==================== job state ====================
+
+    private static final class Row {
+        private final long line;
+        private final String[] values;
+
+        private Row(long line, String[] values) {
+            this.line = line;
+            this.values = values;
+        }
+    }
+
+    private static final class ChunkResult {
+        private int imported;
+        private int skipped;
+        private final Map<Row, String> rejected = new LinkedHashMap<>();
+
+        private void reject(Row row, String error) {
+            rejected.put(row, error);
+        }
+
+        private void add(ChunkResult other) {
+            imported += other.imported;
+            skipped += other.skipped;
+            rejected.putAll(other.rejected);
+        }
+    }
+
+    // Per-run state: the error writer and reference ids loaded once instead of once per row
+    private final class ChunkContext {
+        private final ImportJob job;
+        private final CsvWriter errors;
+        private Set<Long> courseIds;
+        private Set<Long> departmentIds;
+
+        private ChunkContext(ImportJob job, CsvWriter errors) {
+            this.job = job;
+            this.errors = errors;
+        }
+
+        private Set<Long> courseIds() {
+            if (courseIds == null) {
+                courseIds = new HashSet<>(courseRepository.findAllIds());
+            }
+            return courseIds;
+        }
+
+        private Set<Long> departmentIds() {
+            if (departmentIds == null) {
+                departmentIds = new HashSet<>(departmentRepository.findAllIds());
+            }
+            return departmentIds;
+        }
+    }
+
+    // Written by the importing thread only; volatile so status requests on other threads see fresh counts
+    private static final class ImportJob {
+        private final String id;
+        private final ImportType type;
+        private final String fileName;
+        private volatile ImportJobStatus.State state = ImportJobStatus.State.QUEUED;
+        private volatile long rowsRead;
+        private volatile long rowsImported;
+        private volatile long rowsSkipped;
+        private volatile long rowsFailed;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String message;
+        private volatile Path errorReport;
+        private volatile boolean finished;
+
+        private ImportJob(String id, ImportType type, String fileName) {
+            this.id = id;
+            this.type = type;
+            this.fileName = fileName;
+        }
+
+        private Path createErrorReport() throws IOException {
+            errorReport = Files.createTempFile("import-" + id + "-", "-errors.csv");
+            return errorReport;
+        }
+
+        private void start() {
+            startedAt = Instant.now();
+            state = ImportJobStatus.State.RUNNING;
+        }
+
+        private void complete() {
+            finishedAt = Instant.now();
+            state = ImportJobStatus.State.COMPLETED;
+            finished = true;
+        }
+
+        private void fail(String reason) {
+            finishedAt = Instant.now();
+            message = reason;
+            state = ImportJobStatus.State.FAILED;
+            finished = true;
+        }
+
+        private ImportJobStatus snapshot() {
+            ImportJobStatus status = new ImportJobStatus();
+            status.setId(id);
+            status.setType(type);
+            status.setFileName(fileName);
+            status.setState(state);
+            status.setRowsRead(rowsRead);
+            status.setRowsImported(rowsImported);
+            status.setRowsSkipped(rowsSkipped);
+            status.setRowsFailed(rowsFailed);
+            status.setStartedAt(startedAt);
+            status.setFinishedAt(finishedAt);
+            status.setMessage(message);
+            if (startedAt != null) {
+                Instant end = finishedAt != null ? finishedAt : Instant.now();
+                long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+                status.setRowsPerSecond(Math.round(rowsRead * 10000.0 / millis) / 10.0);
+            }
+            return status;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.KeysetPage;
+import com.example.webapp.dto.ListQuery;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Keyset (cursor) pagination helpers shared by the list services.
+ * Rows are ordered by the chosen column with {@code id} as tie-breaker, so a page is always
+ * an index range scan that starts after the last row of the previous page, no matter how deep it is.
+ */
+final class KeysetPaging {
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+
+    private KeysetPaging() {}
+
+    static Sort sort(ListQuery query) {
+        Sort.Direction direction = query.isDescending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        if (query.isSortById()) {
+            return Sort.by(direction, ID);
+        }
+        return Sort.by(direction, NAME, ID);
+    }
+
+    static KeysetScrollPosition position(ListQuery query) {
+        KeysetScrollPosition position = decode(query.getCursor());
+        // A cursor taken under a different sort order is meaningless - start from the top instead
+        if (position == null || !position.getKeys().keySet().equals(keyNames(query))) {
+            return ScrollPosition.keyset();
+        }
+        return position;
+    }
+
+    static <E, D> KeysetPage<D> page(ListQuery query, KeysetScrollPosition position, Window<E> window,
+                                     Function<E, Long> idOf, Function<E, String> nameOf, List<D> items) {
+        List<E> content = window.getContent();
+        if (content.isEmpty()) {
+            return new KeysetPage<>(items, null, position.isInitial() ? null : encode(position.reverse()));
+        }
+        E first = content.get(0);
+        E last = content.get(content.size() - 1);
+        String next;
+        String previous;
+        if (position.scrollsBackward()) {
+            next = encode(ScrollPosition.forward(keys(query, last, idOf, nameOf)));
+            previous = window.hasNext() ? encode(ScrollPosition.backward(keys(query, first, idOf, nameOf))) : null;
+        } else {
+            next = window.hasNext() ? encode(ScrollPosition.forward(keys(query, last, idOf, nameOf))) : null;
+            previous = position.isInitial() ? null : encode(ScrollPosition.backward(keys(query, first, idOf, nameOf)));
+        }
+        return new KeysetPage<>(items, next, previous);
+    }
+
+    private static Set<String> keyNames(ListQuery query) {
+        return query.isSortById() ? Set.of(ID) : Set.of(NAME, ID);
+    }
+
+    private static <E> Map<String, Object> keys(ListQuery query, E row, Function<E, Long> idOf,
+                                                Function<E, String> nameOf) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if (!query.isSortById()) {
+            keys.put(NAME, nameOf.apply(row));
+        }
+        keys.put(ID, idOf.apply(row));
+        return keys;
+    }
+
+    // Cursor format (before base64url): "F|name=Ada&id=42" or "B|id=42"
+    static String encode(KeysetScrollPosition position) {
+        StringBuilder sb = new StringBuilder(position.scrollsBackward() ? "B|" : "F|");
+        boolean firstKey = true;
+        for (Map.Entry<String, Object> key : position.getKeys().entrySet()) {
+            if (!firstKey) {
+                sb.append('&');
+            }
+            sb.append(key.getKey()).append('=')
+              .append(URLEncoder.encode(String.valueOf(key.getValue()), StandardCharsets.UTF_8));
+            firstKey = false;
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (raw.length() < 2 || raw.charAt(1) != '|') {
+                return null;
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (String pair : raw.substring(2).split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq <= 0) {
+                    return null;
+                }
+                String name = pair.substring(0, eq);
+                String value = URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                if (ID.equals(name)) {
+                    keys.put(ID, Long.valueOf(value));
+                } else if (NAME.equals(name)) {
+                    keys.put(NAME, value);
+                } else {
+                    return null;
+                }
+            }
+            return raw.charAt(0) == 'B' ? ScrollPosition.backward(keys) : ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException e) {
+            return null; // tampered or truncated cursor
+        }
+    }
+}
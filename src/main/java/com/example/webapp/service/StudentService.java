@@ -1,45 +1,109 @@
 package com.example.webapp.service;
 
+import com.example.webapp.dto.EntityChange.Action;
+import com.example.webapp.dto.EntityChange.Type;
+import com.example.webapp.dto.KeysetPage;
+import com.example.webapp.dto.ListQuery;
 import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.dto.StudentSummaryDTO;
 import com.example.webapp.entity.Course;
 import com.example.webapp.entity.Role;
 import com.example.webapp.entity.Student;
 import com.example.webapp.entity.Teacher;
+import com.example.webapp.mapper.DtoMapper;
 import com.example.webapp.repository.CourseRepository;
+import com.example.webapp.repository.ListSpecifications;
 import com.example.webapp.repository.StudentRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class StudentService {
 
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
+    private final EnrollmentService enrollmentService;
+    private final DtoCache dtoCache;
+    private final EntityChangeBus entityChanges;
+    private final DtoMapper dtoMapper;
 
-    public StudentService(StudentRepository studentRepository, CourseRepository courseRepository) {
+    public StudentService(StudentRepository studentRepository, CourseRepository courseRepository,
+                          EnrollmentService enrollmentService, DtoCache dtoCache, EntityChangeBus entityChanges,
+                          DtoMapper dtoMapper) {
         this.studentRepository = studentRepository;
         this.courseRepository = courseRepository;
+        this.enrollmentService = enrollmentService;
+        this.dtoCache = dtoCache;
+        this.entityChanges = entityChanges;
+        this.dtoMapper = dtoMapper;
     }
 
     public List<Student> getAllStudents() {
         return studentRepository.findAll();
     }
 
+    @Cacheable(cacheNames = DtoCache.STUDENT_LIST, key = "'" + DtoCache.ALL + "'")
     public List<StudentDTO> getAllStudentsDTO() {
-        return studentRepository.findAll().stream()
+        List<Student> students = studentRepository.findAllWithCourses();
+        studentRepository.findAllWithTeachers(); // initializes teachers on the same managed instances
+        return students.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    public KeysetPage<StudentDTO> getStudentsPage(ListQuery query) {
+        KeysetScrollPosition position = KeysetPaging.position(query);
+        Specification<Student> filter = ListSpecifications.nameStartsWith(query.getQ());
+        Window<Student> window = studentRepository.findBy(filter, q -> q
+                .sortBy(KeysetPaging.sort(query))
+                .limit(query.getPageSize())
+                .scroll(position));
+        List<Long> ids = window.getContent().stream().map(Student::getId).toList();
+        if (!ids.isEmpty()) {
+            studentRepository.findWithCoursesByIdIn(ids);
+            studentRepository.findWithTeachersByIdIn(ids);
+        }
+        List<StudentDTO> items = window.getContent().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return KeysetPaging.page(query, position, window, Student::getId, Student::getName, items);
+    }
+
+    public List<StudentSummaryDTO> searchStudents(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return new ArrayList<>();
+        }
+        String prefix = ListSpecifications.escapeLike(query.trim().toLowerCase()) + "%";
+        return studentRepository.searchByPrefix(prefix, Limit.of(Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS))));
+    }
+
+    public List<StudentSummaryDTO> getStudentSummariesByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return studentRepository.findSummariesByIdIn(ids);
+    }
+
     public Optional<Student> getStudentById(Long id) {
         return studentRepository.findById(id);
     }
 
+    @Cacheable(DtoCache.STUDENT)
     public StudentDTO getStudentDTO(Long id) {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
@@ -49,9 +113,7 @@ public class StudentService {
     @Transactional
     public Student saveStudent(StudentDTO studentDTO) {
         Student student = new Student();
-        student.setName(studentDTO.getName());
-        student.setRoll(studentDTO.getRoll());
-        student.setEmail(studentDTO.getEmail());
+        dtoMapper.updateStudent(studentDTO, student);
         student.setRole(Role.STUDENT); // Always set role to STUDENT when creating
         
         if (studentDTO.getCourseIds() != null && !studentDTO.getCourseIds().isEmpty()) {
@@ -59,7 +121,16 @@ public class StudentService {
             student.setCourses(new HashSet<>(courses));
         }
         
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        if (!saved.getCourses().isEmpty()) {
+            studentRepository.flush();
+            enrollmentService.recountLimited(ids(saved.getCourses()));
+        }
+        dtoCache.evictStudents(List.of(saved.getId()));
+        dtoCache.evictCourses(ids(saved.getCourses()));
+        entityChanges.publish(Type.STUDENT, Action.CREATED, saved.getId());
+        entityChanges.publish(Type.COURSE, Action.UPDATED, ids(saved.getCourses()));
+        return saved;
     }
 
     @Transactional
@@ -68,18 +139,20 @@ public class StudentService {
                 .orElseThrow(() -> new RuntimeException("Student not found"));
         
         // Students can edit everything except role
-        student.setName(studentDTO.getName());
-        student.setRoll(studentDTO.getRoll());
-        student.setEmail(studentDTO.getEmail());
+        dtoMapper.updateStudent(studentDTO, student);
         
         // Only teachers can change role (but we keep it as STUDENT always for students)
         // Role remains unchanged for student self-edit
         
         if (studentDTO.getCourseIds() != null) {
-            List<Course> courses = courseRepository.findAllById(studentDTO.getCourseIds());
-            student.setCourses(new HashSet<>(courses));
+            // Teachers may enroll past the capacity; the seat counters are rebuilt from the new roster
+            Set<Long> changed = syncCourses(student, studentDTO.getCourseIds());
+            studentRepository.flush();
+            enrollmentService.recountLimited(changed);
         }
         
+        dtoCache.evictStudents(List.of(id));
+        entityChanges.publish(Type.STUDENT, Action.UPDATED, id);
         return studentRepository.save(student);
     }
 
@@ -94,46 +167,79 @@ public class StudentService {
                 .orElseThrow(() -> new RuntimeException("Student not found"));
         
         // Student can edit everything EXCEPT role
-        student.setName(studentDTO.getName());
-        student.setRoll(studentDTO.getRoll());
-        student.setEmail(studentDTO.getEmail());
+        dtoMapper.updateStudent(studentDTO, student);
         // Role is NOT updated - student cannot change their role
         
         if (studentDTO.getCourseIds() != null) {
-            List<Course> courses = courseRepository.findAllById(studentDTO.getCourseIds());
-            student.setCourses(new HashSet<>(courses));
+            // A new capacity-limited course needs a free seat; without one the student joins its waitlist instead
+            Set<Long> before = ids(student.getCourses());
+            List<Long> added = studentDTO.getCourseIds().stream()
+                    .filter(courseId -> courseId != null && !before.contains(courseId))
+                    .distinct()
+                    .toList();
+            List<Long> requested = new ArrayList<>(studentDTO.getCourseIds());
+            requested.removeAll(enrollmentService.claimSeats(added, id));
+            Set<Long> changed = syncCourses(student, requested);
+            changed.retainAll(before);
+            enrollmentService.releaseSeats(changed);
         }
         
+        dtoCache.evictStudents(List.of(id));
+        entityChanges.publish(Type.STUDENT, Action.UPDATED, id);
         return studentRepository.save(student);
     }
 
+    // Only the changed student_course rows are written; courses already linked are not reloaded.
+    // Courses gained or lost show up in those courses' studentIds, so their DTOs are evicted too
+    private Set<Long> syncCourses(Student student, List<Long> courseIds) {
+        Set<Long> before = ids(student.getCourses());
+        CollectionSync.sync(student.getCourses(), courseIds, Course::getId, courseRepository::findAllById);
+        Set<Long> changed = ids(student.getCourses());
+        for (Long courseId : before) {
+            if (!changed.remove(courseId)) {
+                changed.add(courseId);
+            }
+        }
+        dtoCache.evictCourses(changed);
+        entityChanges.publish(Type.COURSE, Action.UPDATED, changed);
+        return changed;
+    }
+
+    @Transactional
     public void deleteStudent(Long id) {
+        Set<Long> courseIds = new HashSet<>();
+        studentRepository.findById(id).ifPresent(student -> {
+            courseIds.addAll(ids(student.getCourses()));
+            List<Long> teacherIds = student.getTeachers().stream().map(Teacher::getId).toList();
+            dtoCache.evictStudents(List.of(id));
+            dtoCache.evictCourses(courseIds);
+            dtoCache.evictTeachers(teacherIds);
+            entityChanges.publish(Type.STUDENT, Action.DELETED, id);
+            entityChanges.publish(Type.COURSE, Action.UPDATED, courseIds);
+            entityChanges.publish(Type.TEACHER, Action.UPDATED, teacherIds);
+        });
+        enrollmentService.deleteStudent(id);
         studentRepository.deleteById(id);
+        // the student's seats go to the waitlists
+        enrollmentService.releaseSeats(courseIds);
+    }
+
+    private static Set<Long> ids(Set<Course> courses) {
+        return courses.stream().map(Course::getId).collect(Collectors.toSet());
     }
 
     public List<StudentDTO> getStudentsByIds(List<Long> ids) {
-        return studentRepository.findAllById(ids).stream()
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Student> students = studentRepository.findWithCoursesByIdIn(ids);
+        studentRepository.findWithTeachersByIdIn(ids);
+        return students.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
     public StudentDTO convertToDTO(Student student) {
-        StudentDTO dto = new StudentDTO();
-        dto.setId(student.getId());
-        dto.setName(student.getName());
-        dto.setRoll(student.getRoll());
-        dto.setEmail(student.getEmail());
-        dto.setRole(student.getRole().name());
-        if (student.getCourses() != null) {
-            dto.setCourseIds(student.getCourses().stream()
-                    .map(Course::getId)
-                    .collect(Collectors.toList()));
-        }
-        if (student.getTeachers() != null) {
-            dto.setTeacherIds(student.getTeachers().stream()
-                    .map(Teacher::getId)
-                    .collect(Collectors.toList()));
-        }
-        return dto;
+        return dtoMapper.toDto(student);
     }
 }
@@ -1,60 +1,101 @@
 package com.example.webapp.service;
 
+import com.example.webapp.dto.EntityChange.Action;
+import com.example.webapp.dto.EntityChange.Type;
+import com.example.webapp.dto.KeysetPage;
+import com.example.webapp.dto.ListQuery;
 import com.example.webapp.dto.TeacherDTO;
 import com.example.webapp.entity.Department;
 import com.example.webapp.entity.Student;
 import com.example.webapp.entity.Teacher;
+import com.example.webapp.mapper.DtoMapper;
 import com.example.webapp.repository.DepartmentRepository;
+import com.example.webapp.repository.ListSpecifications;
 import com.example.webapp.repository.StudentRepository;
 import com.example.webapp.repository.TeacherRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class TeacherService {
 
     private final TeacherRepository teacherRepository;
     private final DepartmentRepository departmentRepository;
     private final StudentRepository studentRepository;
+    private final DtoCache dtoCache;
+    private final EntityChangeBus entityChanges;
+    private final DtoMapper dtoMapper;
 
     public TeacherService(TeacherRepository teacherRepository, 
                          DepartmentRepository departmentRepository,
-                         StudentRepository studentRepository) {
+                         StudentRepository studentRepository,
+                         DtoCache dtoCache,
+                         EntityChangeBus entityChanges,
+                         DtoMapper dtoMapper) {
         this.teacherRepository = teacherRepository;
         this.departmentRepository = departmentRepository;
         this.studentRepository = studentRepository;
+        this.dtoCache = dtoCache;
+        this.entityChanges = entityChanges;
+        this.dtoMapper = dtoMapper;
     }
 
     public List<Teacher> getAllTeachers() {
         return teacherRepository.findAll();
     }
 
+    @Cacheable(cacheNames = DtoCache.TEACHER_LIST, key = "'" + DtoCache.ALL + "'")
     public List<TeacherDTO> getAllTeachersDTO() {
-        return teacherRepository.findAll().stream()
-                .map(this::convertToDTO)
+        return teacherRepository.findAllWithDepartmentAndStudents().stream()
+                .map(dtoMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    public KeysetPage<TeacherDTO> getTeachersPage(ListQuery query) {
+        KeysetScrollPosition position = KeysetPaging.position(query);
+        Specification<Teacher> filter = ListSpecifications.<Teacher>nameStartsWith(query.getQ())
+                .and(ListSpecifications.inDepartment(query.getDepartmentId()));
+        Window<Teacher> window = teacherRepository.findBy(filter, q -> q
+                .sortBy(KeysetPaging.sort(query))
+                .limit(query.getPageSize())
+                .scroll(position));
+        List<Long> ids = window.getContent().stream().map(Teacher::getId).toList();
+        if (!ids.isEmpty()) {
+            teacherRepository.findWithDepartmentAndStudentsByIdIn(ids);
+        }
+        List<TeacherDTO> items = window.getContent().stream()
+                .map(dtoMapper::toDto)
+                .collect(Collectors.toList());
+        return KeysetPaging.page(query, position, window, Teacher::getId, Teacher::getName, items);
+    }
+
     public Optional<Teacher> getTeacherById(Long id) {
         return teacherRepository.findById(id);
     }
 
+    @Cacheable(DtoCache.TEACHER)
     public TeacherDTO getTeacherDTO(Long id) {
         Teacher teacher = teacherRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Teacher not found"));
-        return convertToDTO(teacher);
+        return dtoMapper.toDto(teacher);
     }
 
     @Transactional
     public Teacher saveTeacher(TeacherDTO teacherDTO) {
         Teacher teacher = new Teacher();
-        teacher.setName(teacherDTO.getName());
-        teacher.setEmail(teacherDTO.getEmail());
+        dtoMapper.updateTeacher(teacherDTO, teacher);
         
         if (teacherDTO.getDepartmentId() != null) {
             Department department = departmentRepository.findById(teacherDTO.getDepartmentId())
@@ -67,31 +108,65 @@ public class TeacherService {
             teacher.setStudents(new HashSet<>(students));
         }
         
-        return teacherRepository.save(teacher);
+        Teacher saved = teacherRepository.save(teacher);
+        dtoCache.evictTeachers(List.of(saved.getId()));
+        dtoCache.evictDepartments(departmentIds(saved.getDepartment()));
+        dtoCache.evictStudents(ids(saved.getStudents()));
+        entityChanges.publish(Type.TEACHER, Action.CREATED, saved.getId());
+        entityChanges.publish(Type.DEPARTMENT, Action.UPDATED, departmentIds(saved.getDepartment()));
+        entityChanges.publish(Type.STUDENT, Action.UPDATED, ids(saved.getStudents()));
+        return saved;
     }
 
     @Transactional
     public Teacher updateTeacher(Long id, TeacherDTO teacherDTO) {
         Teacher teacher = teacherRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Teacher not found"));
-        teacher.setName(teacherDTO.getName());
-        teacher.setEmail(teacherDTO.getEmail());
+        dtoMapper.updateTeacher(teacherDTO, teacher);
+        dtoCache.evictTeachers(List.of(id));
+        entityChanges.publish(Type.TEACHER, Action.UPDATED, id);
         
         if (teacherDTO.getDepartmentId() != null) {
             Department department = departmentRepository.findById(teacherDTO.getDepartmentId())
                     .orElseThrow(() -> new RuntimeException("Department not found"));
+            if (!departmentIds(teacher.getDepartment()).equals(List.of(department.getId()))) {
+                // both departments' teacherIds change
+                dtoCache.evictDepartments(departmentIds(teacher.getDepartment()));
+                dtoCache.evictDepartments(departmentIds(department));
+                entityChanges.publish(Type.DEPARTMENT, Action.UPDATED, departmentIds(teacher.getDepartment()));
+                entityChanges.publish(Type.DEPARTMENT, Action.UPDATED, department.getId());
+            }
             teacher.setDepartment(department);
         }
         
         if (teacherDTO.getStudentIds() != null) {
-            List<Student> students = studentRepository.findAllById(teacherDTO.getStudentIds());
-            teacher.setStudents(new HashSet<>(students));
+            // Only the changed teacher_student rows are written; students gained or lost have a changed teacherIds
+            Set<Long> before = ids(teacher.getStudents());
+            CollectionSync.sync(teacher.getStudents(), teacherDTO.getStudentIds(),
+                    Student::getId, studentRepository::findAllById);
+            Set<Long> changed = ids(teacher.getStudents());
+            for (Long studentId : before) {
+                if (!changed.remove(studentId)) {
+                    changed.add(studentId);
+                }
+            }
+            dtoCache.evictStudents(changed);
+            entityChanges.publish(Type.STUDENT, Action.UPDATED, changed);
         }
         
         return teacherRepository.save(teacher);
     }
 
+    @Transactional
     public void deleteTeacher(Long id) {
+        teacherRepository.findById(id).ifPresent(teacher -> {
+            dtoCache.evictTeachers(List.of(id));
+            dtoCache.evictDepartments(departmentIds(teacher.getDepartment()));
+            dtoCache.evictStudents(ids(teacher.getStudents()));
+            entityChanges.publish(Type.TEACHER, Action.DELETED, id);
+            entityChanges.publish(Type.DEPARTMENT, Action.UPDATED, departmentIds(teacher.getDepartment()));
+            entityChanges.publish(Type.STUDENT, Action.UPDATED, ids(teacher.getStudents()));
+        });
         teacherRepository.deleteById(id);
     }
 
@@ -103,28 +178,26 @@ public class TeacherService {
                 .orElseThrow(() -> new RuntimeException("Student not found"));
         teacher.addStudent(student);
         teacherRepository.save(teacher);
+        dtoCache.evictTeachers(List.of(teacherId));
+        dtoCache.evictStudents(List.of(studentId));
+        entityChanges.publish(Type.TEACHER, Action.UPDATED, teacherId);
+        entityChanges.publish(Type.STUDENT, Action.UPDATED, studentId);
     }
 
     public List<TeacherDTO> getTeachersByIds(List<Long> ids) {
-        return teacherRepository.findAllById(ids).stream()
-                .map(this::convertToDTO)
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return teacherRepository.findWithDepartmentAndStudentsByIdIn(ids).stream()
+                .map(dtoMapper::toDto)
                 .collect(Collectors.toList());
     }
 
-    private TeacherDTO convertToDTO(Teacher teacher) {
-        TeacherDTO dto = new TeacherDTO();
-        dto.setId(teacher.getId());
-        dto.setName(teacher.getName());
-        dto.setEmail(teacher.getEmail());
-        if (teacher.getDepartment() != null) {
-            dto.setDepartmentId(teacher.getDepartment().getId());
-            dto.setDepartmentName(teacher.getDepartment().getName());
-        }
-        if (teacher.getStudents() != null) {
-            dto.setStudentIds(teacher.getStudents().stream()
-                    .map(Student::getId)
-                    .collect(Collectors.toList()));
-        }
-        return dto;
+    private static Set<Long> ids(Set<Student> students) {
+        return students.stream().map(Student::getId).collect(Collectors.toSet());
+    }
+
+    private static List<Long> departmentIds(Department department) {
+        return department == null ? List.of() : List.of(department.getId());
     }
 }
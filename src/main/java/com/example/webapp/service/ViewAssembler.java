@@ -0,0 +1,148 @@
+package com.example.webapp.service;
+
+import com.example.webapp.config.ReadYourWrites;
+import com.example.webapp.config.RequestTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Builds the model of a detail page from one root lookup and the lookups that depend only on it.
+ * The root (e.g. the student DTO) is loaded first; its branches (the student's teachers and courses) then run
+ * concurrently, so the page takes as long as the root plus its slowest branch rather than the sum of all of them.
+ * <p>
+ * Every lookup runs on a bounded executor of its own, never on the request thread, and brings its own read-only
+ * transaction: no connection is held while another lookup waits for one, so enough concurrent pages cannot hold the
+ * whole pool while waiting on it (open-in-view is off, nothing else keeps one open for the request).
+ * When a lookup fails or the page runs out of time, the lookups still running are cancelled and their threads
+ * interrupted, so they do not keep a permit and a connection for a page that has already failed.
+ * Timings are published per page and per branch as {@code view.assembly} and {@code view.assembly.branch}.
+ */
+@Service
+public class ViewAssembler implements DisposableBean {
+
+    private final SimpleAsyncTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Duration timeout;
+
+    public ViewAssembler(SimpleAsyncTaskExecutorBuilder executorBuilder,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.view.max-concurrency:64}") int maxConcurrency,
+                         @Value("${app.view.timeout:10s}") Duration timeout) {
+        this.executor = executorBuilder
+                .threadNamePrefix("view-")
+                .concurrencyLimit(maxConcurrency)
+                // SQL of the lookups counts towards the page's Server-Timing, and reads the request's own writes
+                .taskDecorator(task -> RequestTimings.propagate(ReadYourWrites.propagate(task)))
+                .build();
+        this.meterRegistry = meterRegistry;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Loads {@code root}, then every branch returned by {@code branches} for it in parallel.
+     * Returns the model attributes: the root under {@code rootName} and each branch under its own name.
+     * An exception thrown by any lookup is rethrown as is, so a missing entity still fails with "X not found".
+     */
+    public <T> Map<String, Object> assemble(String page, String rootName, Supplier<T> root,
+                                            Function<T, Map<String, Supplier<?>>> branches) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        Map<String, CompletableFuture<?>> running = new LinkedHashMap<>();
+        try {
+            CompletableFuture<T> rootLookup = load(page, rootName, root);
+            running.put(rootName, rootLookup);
+            T value = await(page, rootLookup, deadline);
+            // Branches are submitted from the request thread: a lookup holding an executor permit never waits for another
+            branches.apply(value).forEach((name, lookup) -> running.put(name, load(page, name, lookup)));
+            await(page, firstFailureOrAll(running.values()), deadline);
+
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            running.forEach((name, result) -> attributes.put(name, result.join()));
+            return attributes;
+        } catch (RuntimeException | Error e) {
+            running.values().forEach(lookup -> lookup.cancel(true));
+            throw e;
+        } finally {
+            Timer.builder("view.assembly")
+                    .description("Time to load the model of a detail page")
+                    .tag("page", page)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <R> R await(String page, CompletableFuture<R> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("Failed to load " + page, e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException(page + " did not load within " + timeout.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading " + page, e);
+        }
+    }
+
+    // Completes when every lookup has, or as soon as one fails, so a failed page does not wait for its slowest branch
+    private static CompletableFuture<Void> firstFailureOrAll(Collection<CompletableFuture<?>> lookups) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new));
+        lookups.forEach(lookup -> lookup.exceptionally(failure -> {
+            all.completeExceptionally(failure);
+            return null;
+        }));
+        return all;
+    }
+
+    // Cancelling the returned future interrupts the lookup's thread: a lookup still waiting for a permit or a
+    // connection gives up, one that has not started yet never runs
+    private <R> CompletableFuture<R> load(String page, String branch, Supplier<R> lookup) {
+        Timer timer = Timer.builder("view.assembly.branch")
+                .description("Time of one lookup of a detail page")
+                .tag("page", page)
+                .tag("branch", branch)
+                .register(meterRegistry);
+        CompletableFuture<R> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(timer.record(lookup));
+            } catch (Throwable failure) {
+                result.completeExceptionally(failure);
+            }
+        });
+        result.whenComplete((value, failure) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        executor.close();
+    }
+}
@@ -0,0 +1,86 @@
+-- Schema as Hibernate created it with ddl-auto: update, up to the switch to versioned migrations.
+-- Databases created before that already have it: Flyway baselines them at this version (baseline-on-migrate)
+-- and starts with V2. Portable SQL, runs on PostgreSQL and H2.
+
+create sequence departments_seq start with 1 increment by 50;
+create sequence courses_seq start with 1 increment by 50;
+create sequence teachers_seq start with 1 increment by 50;
+create sequence students_seq start with 1 increment by 50;
+create sequence users_seq start with 1 increment by 50;
+
+create table departments (
+    id bigint not null,
+    name varchar(255) not null,
+    constraint pk_departments primary key (id),
+    constraint uk_departments_name unique (name)
+);
+
+create table courses (
+    id bigint not null,
+    name varchar(255) not null,
+    description varchar(500),
+    department_id bigint,
+    constraint pk_courses primary key (id),
+    constraint fk_courses_department foreign key (department_id) references departments (id)
+);
+
+create table teachers (
+    id bigint not null,
+    name varchar(255) not null,
+    email varchar(255),
+    role varchar(255) not null,
+    department_id bigint,
+    constraint pk_teachers primary key (id),
+    constraint fk_teachers_department foreign key (department_id) references departments (id),
+    constraint ck_teachers_role check (role in ('STUDENT', 'TEACHER'))
+);
+
+create table students (
+    id bigint not null,
+    name varchar(255) not null,
+    roll varchar(255) not null,
+    email varchar(255),
+    role varchar(255) not null,
+    constraint pk_students primary key (id),
+    constraint uk_students_roll unique (roll),
+    constraint ck_students_role check (role in ('STUDENT', 'TEACHER'))
+);
+
+create table users (
+    id bigint not null,
+    username varchar(50) not null,
+    password varchar(255) not null,
+    name varchar(255) not null,
+    email varchar(255),
+    role varchar(255) not null,
+    enabled boolean not null,
+    profile_id bigint,
+    constraint pk_users primary key (id),
+    constraint uk_users_username unique (username),
+    constraint ck_users_role check (role in ('STUDENT', 'TEACHER'))
+);
+
+-- Join tables: the primary key only serves lookups by its first column
+create table student_course (
+    course_id bigint not null,
+    student_id bigint not null,
+    constraint pk_student_course primary key (course_id, student_id),
+    constraint fk_student_course_course foreign key (course_id) references courses (id),
+    constraint fk_student_course_student foreign key (student_id) references students (id)
+);
+
+create table teacher_student (
+    student_id bigint not null,
+    teacher_id bigint not null,
+    constraint pk_teacher_student primary key (student_id, teacher_id),
+    constraint fk_teacher_student_student foreign key (student_id) references students (id),
+    constraint fk_teacher_student_teacher foreign key (teacher_id) references teachers (id)
+);
+
+-- Keyset pagination (ORDER BY name, id) and student search by email
+create index idx_students_name_id on students (name, id);
+create index idx_students_email on students (email);
+create index idx_teachers_name_id on teachers (name, id);
+create index idx_teachers_department_id on teachers (department_id);
+create index idx_courses_name_id on courses (name, id);
+create index idx_courses_department_id on courses (department_id);
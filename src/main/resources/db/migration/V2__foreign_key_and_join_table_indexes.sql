@@ -0,0 +1,21 @@
+-- Indexes for the foreign keys and the reverse side of the join tables.
+--
+-- student_course (PK course_id, student_id) and teacher_student (PK student_id, teacher_id) could only be searched
+-- by their first column. A student's courses (student page, CSV export, enrollment diffs) and a teacher's students
+-- (teacher page) had to scan the whole join table; the reverse indexes make them index range scans.
+--
+-- Courses and teachers are listed per department ordered by name (ListQuery departmentId + keyset on name, id):
+-- (department_id, name, id) serves that filter and sort with one index range scan and no sort step, and still
+-- covers the foreign key lookups (department page, department delete), so the single-column indexes are dropped.
+--
+-- On a large PostgreSQL table, create the indexes by hand with CREATE INDEX CONCURRENTLY before deploying to
+-- avoid blocking writes; "if not exists" then turns these statements into no-ops.
+
+create index if not exists idx_student_course_student_course on student_course (student_id, course_id);
+create index if not exists idx_teacher_student_teacher_student on teacher_student (teacher_id, student_id);
+
+create index if not exists idx_courses_department_name_id on courses (department_id, name, id);
+drop index if exists idx_courses_department_id;
+
+create index if not exists idx_teachers_department_name_id on teachers (department_id, name, id);
+drop index if exists idx_teachers_department_id;
@@ -0,0 +1,37 @@
+-- Course capacity, seat counters and waitlist.
+--
+-- capacity null means unlimited (every course created before this version). The free seats of a limited course
+-- are split over several course_seats rows ("buckets"); an enrollment claims a seat with a conditional decrement
+-- of one bucket, starting at a random one. Concurrent enrollments in a popular course then wait on different rows
+-- instead of all queueing on a single counter or on the course row, and the database still guarantees that no
+-- bucket goes below zero, whichever app node the requests land on.
+--
+-- course_waitlist keeps students who found no free seat, in arrival order (id); a released seat goes to the
+-- first of them.
+
+alter table courses add column capacity integer;
+alter table courses add constraint ck_courses_capacity check (capacity is null or capacity >= 0);
+
+create table course_seats (
+    course_id bigint not null,
+    bucket integer not null,
+    free integer not null,
+    constraint pk_course_seats primary key (course_id, bucket),
+    constraint fk_course_seats_course foreign key (course_id) references courses (id),
+    constraint ck_course_seats_free check (free >= 0)
+);
+
+create table course_waitlist (
+    id bigint generated by default as identity,
+    course_id bigint not null,
+    student_id bigint not null,
+    created_at timestamp not null,
+    constraint pk_course_waitlist primary key (id),
+    constraint uk_course_waitlist_course_student unique (course_id, student_id),
+    constraint fk_course_waitlist_course foreign key (course_id) references courses (id),
+    constraint fk_course_waitlist_student foreign key (student_id) references students (id)
+);
+
+-- Next in line for a course; the unique constraint's index already serves lookups by (course_id, student_id)
+create index idx_course_waitlist_course_id on course_waitlist (course_id, id);
+create index idx_course_waitlist_student on course_waitlist (student_id);
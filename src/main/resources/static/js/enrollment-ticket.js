@@ -0,0 +1,61 @@
+/*
+ * Queued enrollment request on the course page.
+ * Listens to the ticket's server-sent events and reloads the page once the request has been processed;
+ * falls back to polling the ticket where EventSource is not available or the stream breaks.
+ */
+(function () {
+    'use strict';
+
+    var POLL_MS = 2000;
+
+    function watch(element) {
+        var url = element.dataset.enrollmentTicket;
+
+        function handle(ticket) {
+            if (ticket.state === 'COMPLETED' || ticket.state === 'FAILED' || ticket.state === 'REJECTED') {
+                window.location.reload();
+                return true;
+            }
+            if (ticket.position) {
+                element.textContent = element.textContent.replace(/number \d+/, 'number ' + ticket.position);
+            }
+            return false;
+        }
+
+        function poll() {
+            fetch(url, { headers: { 'Accept': 'application/json' } })
+                .then(function (response) {
+                    if (!response.ok) {
+                        window.location.reload(); // ticket expired: the page shows the outcome
+                        return null;
+                    }
+                    return response.json();
+                })
+                .then(function (ticket) {
+                    if (ticket && !handle(ticket)) {
+                        setTimeout(poll, POLL_MS);
+                    }
+                })
+                .catch(function () {
+                    setTimeout(poll, POLL_MS);
+                });
+        }
+
+        if (!window.EventSource) {
+            poll();
+            return;
+        }
+        var events = new EventSource(url + '/events');
+        events.addEventListener('ticket', function (event) {
+            if (handle(JSON.parse(event.data))) {
+                events.close();
+            }
+        });
+        events.onerror = function () {
+            events.close();
+            poll();
+        };
+    }
+
+    document.querySelectorAll('[data-enrollment-ticket]').forEach(watch);
+})();
@@ -0,0 +1,89 @@
+/*
+ * Typeahead student picker.
+ * Enhances <select multiple data-student-picker> so that only the current selection is rendered by the
+ * server; other students are fetched incrementally from the search endpoint as the user types.
+ */
+(function () {
+    'use strict';
+
+    var DEBOUNCE_MS = 200;
+    var RESULT_LIMIT = 20;
+
+    function initPicker(select) {
+        var input = document.getElementById(select.dataset.searchInput);
+        var results = document.getElementById(select.dataset.results);
+        var url = select.dataset.searchUrl;
+        var timer = null;
+        var latestRequest = 0;
+
+        function isSelected(id) {
+            return Array.prototype.some.call(select.options, function (option) {
+                return option.value === String(id) && option.selected;
+            });
+        }
+
+        function addStudent(student) {
+            var existing = Array.prototype.find.call(select.options, function (option) {
+                return option.value === String(student.id);
+            });
+            if (existing) {
+                existing.selected = true;
+                return;
+            }
+            var option = new Option(student.label, student.id, true, true);
+            select.add(option);
+        }
+
+        function render(students) {
+            results.innerHTML = '';
+            students.forEach(function (student) {
+                if (isSelected(student.id)) {
+                    return;
+                }
+                var item = document.createElement('li');
+                item.textContent = student.label + (student.email ? ' - ' + student.email : '');
+                item.addEventListener('click', function () {
+                    addStudent(student);
+                    item.remove();
+                });
+                results.appendChild(item);
+            });
+        }
+
+        function search(term) {
+            var requestId = ++latestRequest;
+            fetch(url + '?q=' + encodeURIComponent(term) + '&limit=' + RESULT_LIMIT, {
+                headers: { 'Accept': 'application/json' },
+                credentials: 'same-origin'
+            })
+                .then(function (response) { return response.ok ? response.json() : []; })
+                .then(function (students) {
+                    // Ignore responses that arrive after a newer search was started
+                    if (requestId === latestRequest) {
+                        render(students);
+                    }
+                })
+                .catch(function () { render([]); });
+        }
+
+        input.addEventListener('input', function () {
+            clearTimeout(timer);
+            var term = input.value.trim();
+            if (term.length === 0) {
+                latestRequest++;
+                results.innerHTML = '';
+                return;
+            }
+            timer = setTimeout(function () { search(term); }, DEBOUNCE_MS);
+        });
+
+        // Keep Enter in the search box from submitting the whole form
+        input.addEventListener('keydown', function (event) {
+            if (event.key === 'Enter') {
+                event.preventDefault();
+            }
+        });
+    }
+
+    document.querySelectorAll('select[data-student-picker]').forEach(initPicker);
+})();
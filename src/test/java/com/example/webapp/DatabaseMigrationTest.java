@@ -0,0 +1,68 @@
+package com.example.webapp;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for the Flyway migrations — the schema comes from db/migration (ddl-auto: validate only)
+//       and the foreign key / reverse join-table indexes are used by the queries they were added for
+// HOW: Reads flyway_schema_history, then runs H2's EXPLAIN on each query and checks the chosen index
+@SpringBootTest
+@ActiveProfiles("test")
+class DatabaseMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void appliesVersionedMigrations() {
+        List<String> versions = jdbc.queryForList(
+                "select \"version\" from \"flyway_schema_history\" where \"success\" = true and \"version\" is not null"
+                        + " order by \"installed_rank\"", String.class);
+
+        assertEquals(List.of("1", "2", "3", "4", "5"), versions);
+    }
+
+    @Test
+    void studentCoursesUseReverseJoinTableIndex() {
+        String plan = explain("select course_id from student_course where student_id = 1");
+
+        assertTrue(plan.contains("IDX_STUDENT_COURSE_STUDENT_COURSE"), plan);
+    }
+
+    @Test
+    void teacherStudentsUseReverseJoinTableIndex() {
+        String plan = explain("select student_id from teacher_student where teacher_id = 1");
+
+        assertTrue(plan.contains("IDX_TEACHER_STUDENT_TEACHER_STUDENT"), plan);
+    }
+
+    @Test
+    void departmentListsUseDepartmentNameIndex() {
+        String courses = explain("select id, name from courses where department_id = 1 and (name > 'M' or (name = 'M' and id > 5))"
+                + " order by name, id fetch first 20 rows only");
+        String teachers = explain("select id, name from teachers where department_id = 1 order by name, id");
+
+        assertTrue(courses.contains("IDX_COURSES_DEPARTMENT_NAME_ID"), courses);
+        assertTrue(teachers.contains("IDX_TEACHERS_DEPARTMENT_NAME_ID"), teachers);
+    }
+
+    @Test
+    void dropsSingleColumnDepartmentIndexes() {
+        Integer count = jdbc.queryForObject(
+                "select count(*) from information_schema.indexes where index_name in"
+                        + " ('IDX_COURSES_DEPARTMENT_ID', 'IDX_TEACHERS_DEPARTMENT_ID')", Integer.class);
+
+        assertEquals(0, count);
+    }
+
+    private String explain(String sql) {
+        return jdbc.queryForObject("explain " + sql, String.class).toUpperCase();
+    }
+}
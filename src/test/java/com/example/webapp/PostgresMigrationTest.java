@@ -0,0 +1,168 @@
+package com.example.webapp;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for the PostgreSQL-only migrations (db/vendor/postgresql) — the lower(...) expression
+//       indexes exist and the prefix searches use them instead of scanning the table; a database that still uses
+//       IDENTITY ids gets its sequences from V5
+// HOW: The app on a PostgreSQL container (Testcontainers, skipped without Docker), so the same Flyway locations
+//      resolve {vendor} to postgresql. The IDENTITY case runs Flyway on a schema of its own, turned back to identity
+//      ids at V4. DatabaseMigrationTest covers the portable migrations on H2
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@ActiveProfiles("test")
+class PostgresMigrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    private static final String LEGACY = "legacy_identity";
+    private static final List<String> ENTITIES = List.of("departments", "courses", "teachers", "students", "users");
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void appliesVendorMigrations() {
+        List<String> versions = jdbc.queryForList(
+                "select version from flyway_schema_history where success and version is not null"
+                        + " order by installed_rank", String.class);
+
+        assertEquals(List.of("1", "2", "3", "4", "5"), versions);
+    }
+
+    @Test
+    void createsLowerPrefixIndexes() {
+        List<String> indexes = jdbc.queryForList(
+                "select indexname from pg_indexes where indexdef like '%lower(%varchar_pattern_ops%'"
+                        + " order by indexname", String.class);
+
+        assertEquals(List.of("idx_courses_lower_name", "idx_departments_lower_name", "idx_students_lower_email",
+                "idx_students_lower_name", "idx_students_lower_roll", "idx_teachers_lower_name"), indexes);
+    }
+
+    @Test
+    void studentTypeaheadUsesLowerPrefixIndexes() {
+        seedStudents();
+
+        // StudentRepository.searchByPrefix as Hibernate sends it, with the parameters filled in
+        String plan = explain("select s.id, s.name, s.roll, s.email from students s"
+                + " where lower(s.name) like 'abc1%' escape '\\' or lower(s.roll) like 'abc1%' escape '\\'"
+                + " or lower(s.email) like 'abc1%' escape '\\' order by s.name, s.id fetch first 10 rows only");
+
+        assertTrue(plan.contains("idx_students_lower_name"), plan);
+        assertTrue(plan.contains("idx_students_lower_roll"), plan);
+        assertTrue(plan.contains("idx_students_lower_email"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void listNameFilterUsesLowerNameIndex() {
+        seedStudents();
+        seedTeachersAndCourses();
+
+        // ListSpecifications.nameStartsWith plus the keyset window of the list pages: first page and a later one
+        String first = explain("select s.id, s.name from students s where lower(s.name) like 'abc%' escape '\\'"
+                + " order by s.name, s.id fetch first 21 rows only");
+        String later = explain("select s.id, s.name from students s where lower(s.name) like 'abc%' escape '\\'"
+                + " and (s.name > 'Abc5' or (s.name = 'Abc5' and s.id > 5))"
+                + " order by s.name, s.id fetch first 21 rows only");
+        String teachers = explain("select t.id, t.name from teachers t where lower(t.name) like 'abc%' escape '\\'"
+                + " order by t.name, t.id fetch first 21 rows only");
+        String courses = explain("select c.id, c.name from courses c where lower(c.name) like 'abc%' escape '\\'"
+                + " order by c.name, c.id fetch first 21 rows only");
+
+        for (String plan : List.of(first, later)) {
+            assertTrue(plan.contains("idx_students_lower_name"), plan);
+            assertFalse(plan.contains("Seq Scan"), plan);
+        }
+        assertTrue(teachers.contains("idx_teachers_lower_name"), teachers);
+        assertTrue(courses.contains("idx_courses_lower_name"), courses);
+    }
+
+    @Test
+    void identityIdsBecomeSequencesPastExistingRows() {
+        try {
+            legacyFlyway().target("4").load().migrate();
+            for (String entity : ENTITIES) {
+                // the state of a database created while the entities used GenerationType.IDENTITY
+                jdbc.execute("alter table " + LEGACY + "." + entity + " alter column id drop default");
+                jdbc.execute("drop sequence " + LEGACY + "." + entity + "_seq");
+                jdbc.execute("alter table " + LEGACY + "." + entity
+                        + " alter column id add generated by default as identity");
+            }
+            jdbc.update("insert into " + LEGACY + ".students (name, roll, role)"
+                    + " select 'Legacy ' || g, 'L-' || g, 'STUDENT' from generate_series(1, 120) g");
+
+            legacyFlyway().load().migrate();
+
+            for (String entity : ENTITIES) {
+                assertEquals(0, jdbc.queryForObject("select count(*) from information_schema.columns"
+                        + " where table_schema = ? and table_name = ? and column_name = 'id' and is_identity = 'YES'",
+                        Integer.class, LEGACY, entity), entity);
+            }
+            // Hibernate's first pooled block starts after the last existing id
+            long next = jdbc.queryForObject("select nextval('" + LEGACY + ".students_seq')", Long.class);
+            assertTrue(next - 49 > 120, "first block " + (next - 49) + " overlaps existing ids");
+            jdbc.update("insert into " + LEGACY + ".students (name, roll, role) values ('New', 'L-NEW', 'STUDENT')");
+
+            // a second run (already converted) leaves the sequences alone
+            jdbc.update("delete from " + LEGACY + ".flyway_schema_history where version = '5'");
+            legacyFlyway().load().migrate();
+            assertEquals(next + 100, jdbc.queryForObject("select nextval('" + LEGACY + ".students_seq')", Long.class));
+        } finally {
+            jdbc.execute("drop schema if exists " + LEGACY + " cascade");
+        }
+    }
+
+    private FluentConfiguration legacyFlyway() {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(LEGACY)
+                .locations("classpath:db/migration", "classpath:db/vendor/postgresql");
+    }
+
+    // 50k students with md5 names, so every two-character prefix matches a few hundred rows; analyzed for the planner
+    private void seedStudents() {
+        if (jdbc.queryForObject("select count(*) from students where id >= 1000000", Integer.class) == 0) {
+            jdbc.update("insert into students (id, name, roll, email, role)"
+                    + " select g, initcap(md5(g::text)), 'R-' || g, md5((g * 7)::text) || '@example.com', 'STUDENT'"
+                    + " from generate_series(1000000, 1049999) g");
+            jdbc.execute("analyze students");
+        }
+    }
+
+    private void seedTeachersAndCourses() {
+        if (jdbc.queryForObject("select count(*) from teachers where id >= 1000000", Integer.class) == 0) {
+            jdbc.update("insert into teachers (id, name, role) select g, initcap(md5(g::text)), 'TEACHER'"
+                    + " from generate_series(1000000, 1049999) g");
+            jdbc.update("insert into courses (id, name) select g, initcap(md5(g::text))"
+                    + " from generate_series(1000000, 1049999) g");
+            jdbc.execute("analyze teachers");
+            jdbc.execute("analyze courses");
+        }
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbc.queryForList("explain " + sql, String.class));
+    }
+}
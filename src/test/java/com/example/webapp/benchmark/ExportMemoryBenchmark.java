@@ -0,0 +1,93 @@
+package com.example.webapp.benchmark;
+
+import com.example.webapp.dto.ExportFormat;
+import com.example.webapp.dto.ExportStatus;
+import com.example.webapp.service.ExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Heap use and throughput of the streaming student export as the export grows
+// HOW: Seeds benchmark.rows students (default 200k; -Dbenchmark.rows=1000000 for the full run) with plain JDBC,
+//      exports into a discarding stream that records the live heap (after GC) every 50k rows, and prints the samples.
+//      Run with: ./mvnw test -Pbenchmark -Dtest=ExportMemoryBenchmark
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportMemoryBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int SAMPLE_EVERY = 50_000;
+    private static final long FIRST_ID = 1_000_000_000L;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from student_course where student_id >= ?", FIRST_ID);
+        jdbcTemplate.update("delete from students where id >= ?", FIRST_ID);
+        jdbcTemplate.update("delete from courses where id = ?", FIRST_ID);
+    }
+
+    @Test
+    void heapStaysFlatWhileExporting() throws Exception {
+        seed();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        List<Long> liveHeap = new ArrayList<>();
+        OutputStream sampling = new OutputStream() {
+            private long lines;
+
+            @Override
+            public void write(int b) {
+                if (b == '\n' && ++lines % SAMPLE_EVERY == 0) {
+                    System.gc();
+                    liveHeap.add(memory.getHeapMemoryUsage().getUsed());
+                }
+            }
+        };
+
+        exportService.exportStudents(ExportFormat.CSV, sampling);
+
+        ExportStatus status = exportService.getRecentExports().get(0);
+        System.out.printf("exported %,d rows at %,.0f rows/s%n", status.getRowsWritten(), status.getRowsPerSecond());
+        for (int i = 0; i < liveHeap.size(); i++) {
+            System.out.printf("  after %,9d rows: live heap %,6d KB%n", (i + 1L) * SAMPLE_EVERY, liveHeap.get(i) / 1024);
+        }
+        assertEquals(ROWS, status.getRowsWritten());
+        long growth = liveHeap.get(liveHeap.size() - 1) - liveHeap.get(0);
+        assertTrue(growth < 32L * 1024 * 1024, "live heap grew by " + growth / 1024 + " KB");
+    }
+
+    private void seed() {
+        jdbcTemplate.update("insert into courses (id, name) values (?, 'Benchmark Course')", FIRST_ID);
+        List<Object[]> students = new ArrayList<>();
+        List<Object[]> enrollments = new ArrayList<>();
+        for (long i = 0; i < ROWS; i++) {
+            students.add(new Object[] {FIRST_ID + i, "Student " + i, "BM-" + i, "s" + i + "@example.com"});
+            enrollments.add(new Object[] {FIRST_ID + i, FIRST_ID});
+            if (students.size() == 5_000 || i == ROWS - 1) {
+                jdbcTemplate.batchUpdate(
+                        "insert into students (id, name, roll, email, role) values (?, ?, ?, ?, 'STUDENT')", students);
+                jdbcTemplate.batchUpdate("insert into student_course (student_id, course_id) values (?, ?)", enrollments);
+                students.clear();
+                enrollments.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.webapp.benchmark;
+
+import jakarta.persistence.*;
+
+// WHAT: Copy of the students table mapping with the old IDENTITY id, used only as the "before" side of the insert benchmark
+// HOW: Lives in test sources, so the table only exists in the H2 test schema
+@Entity
+@Table(name = "benchmark_identity_students")
+public class IdentityStudent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false, unique = true)
+    private String roll;
+
+    private String email;
+
+    protected IdentityStudent() {}
+
+    public IdentityStudent(String name, String roll, String email) {
+        this.name = name;
+        this.roll = roll;
+        this.email = email;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
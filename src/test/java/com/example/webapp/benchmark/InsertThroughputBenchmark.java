@@ -0,0 +1,81 @@
+package com.example.webapp.benchmark;
+
+import com.example.webapp.entity.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Insert throughput of IDENTITY ids (before) vs pooled sequence ids with JDBC batching (after)
+// HOW: Persists benchmark.rows students (default 100k) in chunks of 1000, one transaction per chunk, and prints rows/s.
+//      Excluded from the normal build; run with: ./mvnw test -Pbenchmark -Dtest=InsertThroughputBenchmark
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class InsertThroughputBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int CHUNK = 1000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("delete from IdentityStudent").executeUpdate();
+            entityManager.createQuery("delete from Student").executeUpdate();
+        });
+    }
+
+    @Test
+    void identityVersusPooledSequence() {
+        // warm-up, so class loading and JIT do not count against whichever side runs first
+        insert("warm-up identity", 5_000, i -> new IdentityStudent("Warm " + i, "WI-" + i, null));
+        insert("warm-up sequence", 5_000, i -> new Student("Warm " + i, "WS-" + i, null));
+        cleanUp();
+
+        double before = insert("IDENTITY", ROWS, i -> new IdentityStudent("Student " + i, "I-" + i, "s" + i + "@example.com"));
+        double after = insert("pooled sequence + batching", ROWS, i -> new Student("Student " + i, "S-" + i, "s" + i + "@example.com"));
+
+        System.out.printf("speed-up: %.1fx%n", after / before);
+        assertTrue(after > before);
+    }
+
+    private double insert(String label, int rows, IntFunction<Object> factory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int from = 0; from < rows; from += CHUNK) {
+            int first = from;
+            int last = Math.min(rows, from + CHUNK);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = first; i < last; i++) {
+                    entityManager.persist(factory.apply(i));
+                }
+            });
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double rowsPerSecond = rows / seconds;
+        System.out.printf("%-28s %,8d rows in %6.2f s = %,10.0f rows/s, %,d prepared statements%n",
+                label, rows, seconds, rowsPerSecond, statistics.getPrepareStatementCount());
+        return rowsPerSecond;
+    }
+}
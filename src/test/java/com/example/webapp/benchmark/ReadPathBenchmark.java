@@ -0,0 +1,224 @@
+package com.example.webapp.benchmark;
+
+import com.example.webapp.config.RequestTimingFilter;
+import com.example.webapp.dto.ListQuery;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.entity.Student;
+import com.example.webapp.entity.Teacher;
+import com.example.webapp.service.CourseService;
+import com.example.webapp.service.DepartmentService;
+import com.example.webapp.service.StudentService;
+import com.example.webapp.service.TeacherService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Cost of the list pages' reads with and without the read-only read path - time, Hibernate flush time,
+//       entities dirty-checked, heap allocated and heap still held when the view would render, per request
+// HOW: Seeds 5 departments, 40 courses, 20 teachers and 300 students, then runs the same "request" (the four list
+//      pages at 100 rows) through RequestTimingFilter in two modes. read-write: the page reads join one read-write
+//      transaction held for the whole request, as open-in-view with read-write service methods did. read-only: each
+//      service call brings its own read-only transaction. The numbers come from the request.* metrics, except the
+//      retained heap: live heap (after GC) at the end of the handler minus before the request, over a few samples.
+//      Run with: ./mvnw test -Pbenchmark -Dtest=ReadPathBenchmark
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadPathBenchmark {
+
+    private static final int STUDENTS = 300;
+    private static final int COURSES = 40;
+    private static final int TEACHERS = 20;
+    private static final int DEPARTMENTS = 5;
+    private static final int WARMUP = 200;
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 1_000);
+    private static final int HEAP_SAMPLES = 20;
+
+    @Autowired
+    private FilterRegistrationBean<RequestTimingFilter> requestTimingFilter;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TeacherService teacherService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from teacher_student where student_id in (select id from students where roll like 'RP-%')");
+        jdbcTemplate.update("delete from student_course where student_id in (select id from students where roll like 'RP-%')");
+        jdbcTemplate.update("delete from students where roll like 'RP-%'");
+        jdbcTemplate.update("delete from teachers where name like 'Read Path %'");
+        jdbcTemplate.update("delete from courses where name like 'Read Path %'");
+        jdbcTemplate.update("delete from departments where name like 'Read Path %'");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void readOnlyPathSkipsDirtyChecking() throws Exception {
+        seed();
+        for (int i = 0; i < WARMUP; i++) {
+            request("/warmup", true);
+            request("/warmup", false);
+        }
+        for (int i = 0; i < REQUESTS; i++) {
+            request("/read-write", true);
+            request("/read-only", false);
+        }
+        long retainedReadWrite = 0;
+        long retainedReadOnly = 0;
+        for (int i = 0; i < HEAP_SAMPLES; i++) {
+            retainedReadWrite += retainedHeap(true) / HEAP_SAMPLES;
+            retainedReadOnly += retainedHeap(false) / HEAP_SAMPLES;
+        }
+
+        Result readWrite = result("/read-write");
+        Result readOnly = result("/read-only");
+        System.out.printf("%n%-12s %10s %10s %12s %12s %14s %14s%n",
+                "mode", "requests", "ms/req", "flush ms/req", "entities/req", "allocated/req", "retained/req");
+        readWrite.print("read-write", retainedReadWrite);
+        readOnly.print("read-only", retainedReadOnly);
+        System.out.printf("time down %.1f%%, flush time down %.1f%%, retained heap down %.1f%%%n%n",
+                100.0 * (readWrite.millis - readOnly.millis) / readWrite.millis,
+                100.0 * (readWrite.flushMillis - readOnly.flushMillis) / readWrite.flushMillis,
+                100.0 * (retainedReadWrite - retainedReadOnly) / retainedReadWrite);
+
+        assertTrue(readWrite.flushedEntities > 0, "a read-write transaction dirty-checks what it loaded");
+        assertEquals(0, readOnly.flushedEntities, 0.0);
+        assertTrue(retainedReadOnly < retainedReadWrite,
+                "without a session held for the request, the loaded entities are gone before the view renders");
+    }
+
+    // One request reading the four list pages, in one read-write transaction or in each service's own
+    private void request(String uri, boolean readWrite) throws Exception {
+        request(uri, readWrite, () -> { });
+    }
+
+    private void request(String uri, boolean readWrite, Runnable beforeView) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, uri);
+        requestTimingFilter.getFilter().doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            if (readWrite) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    readPages();
+                    beforeView.run();
+                });
+            } else {
+                readPages();
+                beforeView.run();
+            }
+        });
+    }
+
+    private long retainedHeap(boolean readWrite) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        long[] atView = new long[1];
+        request("/heap-sample", readWrite, () -> {
+            System.gc();
+            atView[0] = memory.getHeapMemoryUsage().getUsed();
+        });
+        return atView[0] - before;
+    }
+
+    private void readPages() {
+        ListQuery query = new ListQuery();
+        query.setSize(ListQuery.MAX_SIZE);
+        studentService.getStudentsPage(query);
+        teacherService.getTeachersPage(query);
+        courseService.getCoursesPage(query);
+        departmentService.getDepartmentsPage(query);
+    }
+
+    private Result result(String uri) {
+        Timer total = meterRegistry.get("request.layer").tags("uri", uri, "layer", "total").timer();
+        Timer flush = meterRegistry.get("request.layer").tags("uri", uri, "layer", "flush").timer();
+        DistributionSummary entities = meterRegistry.get("request.flush.entities").tag("uri", uri).summary();
+        DistributionSummary allocated = meterRegistry.get("request.allocated.bytes").tag("uri", uri).summary();
+        long count = total.count();
+        return new Result(count, total.totalTime(TimeUnit.MILLISECONDS) / count,
+                flush.totalTime(TimeUnit.MILLISECONDS) / count, entities.totalAmount() / count,
+                allocated.totalAmount() / count);
+    }
+
+    private void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Department[] departments = new Department[DEPARTMENTS];
+            Course[] courses = new Course[COURSES];
+            Teacher[] teachers = new Teacher[TEACHERS];
+            for (int i = 0; i < DEPARTMENTS; i++) {
+                departments[i] = new Department("Read Path Department " + i);
+                entityManager.persist(departments[i]);
+            }
+            for (int i = 0; i < COURSES; i++) {
+                courses[i] = new Course("Read Path Course " + i, "Description " + i);
+                courses[i].setDepartment(departments[i % DEPARTMENTS]);
+                entityManager.persist(courses[i]);
+            }
+            for (int i = 0; i < TEACHERS; i++) {
+                teachers[i] = new Teacher("Read Path Teacher " + i, "read.path.teacher" + i + "@example.com");
+                teachers[i].setDepartment(departments[i % DEPARTMENTS]);
+                entityManager.persist(teachers[i]);
+            }
+            for (int i = 0; i < STUDENTS; i++) {
+                Student student = new Student("Read Path Student " + i, "RP-" + i, "read.path" + i + "@example.com");
+                for (int c = 0; c < 3; c++) {
+                    student.addCourse(courses[(i + c * 7) % COURSES]);
+                }
+                entityManager.persist(student);
+                teachers[i % TEACHERS].addStudent(student);
+            }
+        });
+    }
+
+    private record Result(long requests, double millis, double flushMillis, double flushedEntities,
+                          double allocatedBytes) {
+        void print(String label, long retainedBytes) {
+            System.out.printf("%-12s %10d %10.2f %12.3f %12.0f %11.0f KB %11d KB%n",
+                    label, requests, millis, flushMillis, flushedEntities, allocatedBytes / 1024, retainedBytes / 1024);
+        }
+    }
+}
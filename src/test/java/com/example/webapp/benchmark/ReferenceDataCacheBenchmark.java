@@ -0,0 +1,144 @@
+package com.example.webapp.benchmark;
+
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.repository.CourseRepository;
+import com.example.webapp.repository.DepartmentRepository;
+import com.example.webapp.service.CourseService;
+import com.example.webapp.service.DepartmentService;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Database reads of the reference-data pages with and without the second-level cache
+// HOW: Seeds 50 departments and 500 courses, then replays the same seeded mix of page loads (course/teacher form
+//      dropdowns, student form course list, student and department tag lists) twice: once with the cache bypassed
+//      (jakarta.persistence.cache.retrieveMode=BYPASS) and once with it in use. Prints statements, hit ratio and time.
+//      Run with: ./mvnw test -Pbenchmark -Dtest=ReferenceDataCacheBenchmark
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ReferenceDataCacheBenchmark {
+
+    private static final int DEPARTMENTS = 50;
+    private static final int COURSES_PER_DEPARTMENT = 10;
+    private static final int PAGE_LOADS = Integer.getInteger("benchmark.pages", 5_000);
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> departmentIds = new ArrayList<>();
+    private final List<Long> courseIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        courseRepository.deleteAllById(courseIds);
+        departmentRepository.deleteAllById(departmentIds);
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void cacheCutsDatabaseReads() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        seed(transaction);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Result bypassed = replay(transaction, statistics, CacheRetrieveMode.BYPASS);
+        Result cached = replay(transaction, statistics, CacheRetrieveMode.USE);
+
+        System.out.printf("%n%-10s %10s %14s %10s %10s%n", "cache", "pages", "statements", "hit ratio", "ms");
+        bypassed.print("bypassed");
+        cached.print("in use");
+        System.out.printf("database reads down %.1f%%%n%n",
+                100.0 * (bypassed.statements - cached.statements) / bypassed.statements);
+
+        // What is left with the cache in use is mostly the department view's teacher list, which is not cached
+        assertTrue(cached.statements * 5 < bypassed.statements,
+                "expected the warm cache to remove at least 80% of the reads");
+    }
+
+    private Result replay(TransactionTemplate transaction, Statistics statistics, CacheRetrieveMode mode) {
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        for (int page = 0; page < PAGE_LOADS; page++) {
+            int kind = random.nextInt(4);
+            Long department = departmentIds.get(random.nextInt(departmentIds.size()));
+            List<Long> tags = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                tags.add(courseIds.get(random.nextInt(courseIds.size())));
+            }
+            transaction.executeWithoutResult(status -> {
+                entityManager.setProperty("jakarta.persistence.cache.retrieveMode", mode);
+                switch (kind) {
+                    case 0 -> departmentService.getDepartmentOptions();      // course and teacher forms
+                    case 1 -> courseService.getCourseOptions();              // student form
+                    case 2 -> courseService.getCoursesByIds(tags);           // student view
+                    default -> departmentService.getDepartmentDTO(department).getCourseIds(); // department view
+                }
+            });
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long hits = statistics.getSecondLevelCacheHitCount() + statistics.getQueryCacheHitCount();
+        long misses = statistics.getSecondLevelCacheMissCount() + statistics.getQueryCacheMissCount();
+        return new Result(statistics.getPrepareStatementCount(), hits, misses, millis);
+    }
+
+    private void seed(TransactionTemplate transaction) {
+        transaction.executeWithoutResult(status -> {
+            for (int d = 0; d < DEPARTMENTS; d++) {
+                Department department = new Department("Benchmark Department " + d);
+                entityManager.persist(department);
+                departmentIds.add(department.getId());
+                for (int c = 0; c < COURSES_PER_DEPARTMENT; c++) {
+                    Course course = new Course("Benchmark Course " + d + "-" + c, "Description");
+                    course.setDepartment(department);
+                    entityManager.persist(course);
+                    courseIds.add(course.getId());
+                }
+            }
+        });
+    }
+
+    private record Result(long statements, long hits, long misses, long millis) {
+        void print(String label) {
+            double ratio = hits + misses == 0 ? 0 : 100.0 * hits / (hits + misses);
+            System.out.printf("%-10s %10d %14d %9.1f%% %10d%n", label, PAGE_LOADS, statements, ratio, millis);
+        }
+    }
+}
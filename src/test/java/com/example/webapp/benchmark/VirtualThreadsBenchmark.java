@@ -0,0 +1,237 @@
+package com.example.webapp.benchmark;
+
+import com.example.webapp.WebappApplication;
+import com.example.webapp.dto.RegisterDTO;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.repository.CourseRepository;
+import com.example.webapp.repository.DepartmentRepository;
+import com.example.webapp.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Throughput of the /courses page at 2k concurrent users, platform threads vs virtual threads
+// HOW: Starts the app twice on a random port (spring.threads.virtual.enabled=false, then true). Every JDBC statement
+//      sleeps 20 ms to stand in for a networked database, and the pool and app.db.max-concurrency are both 400, so
+//      the database is not the bottleneck: platform mode is capped by Tomcat's 200 workers, virtual mode by the
+//      database limit. 2000 clients (virtual threads) share one logged-in session and load the page 5 times each.
+//      Run with: ./mvnw test -Pbenchmark -Dtest=VirtualThreadsBenchmark
+@Tag("benchmark")
+class VirtualThreadsBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 2_000);
+    private static final int REQUESTS_PER_USER = 5;
+    private static final int DB_LIMIT = 400;
+    private static final long STATEMENT_LATENCY_MILLIS = 20;
+
+    @Test
+    void virtualThreadsServeMoreUsersThanThePlatformPool() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%n%-10s %8s %10s %10s %10s %10s %8s%n",
+                "threads", "users", "requests", "req/s", "p50 ms", "p99 ms", "errors");
+        platform.print("platform");
+        virtual.print("virtual");
+        System.out.println();
+
+        assertEquals(0, platform.errors);
+        assertEquals(0, virtual.errors);
+        assertTrue(virtual.requestsPerSecond() > platform.requestsPerSecond(),
+                "virtual threads should not be capped by the 200 Tomcat workers");
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(WebappApplication.class,
+                SlowDatabase.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:threads-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=" + DB_LIMIT,
+                        "app.db.max-concurrency=" + DB_LIMIT,
+                        "app.db.acquire-timeout=60s",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run()) {
+            seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port;
+            HttpClient client = HttpClient.newBuilder()
+                    .cookieHandler(new CookieManager())
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            login(client, base);
+            return load(client, URI.create(base + "/courses"));
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        RegisterDTO user = new RegisterDTO();
+        user.setUsername("bench");
+        user.setPassword("bench-password");
+        user.setName("Bench Teacher");
+        user.setEmail("bench@example.com");
+        user.setRole("TEACHER");
+        context.getBean(UserService.class).registerUser(user);
+
+        Department department = context.getBean(DepartmentRepository.class).save(new Department("Benchmark"));
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Course course = new Course("Course " + i, "Description " + i);
+            course.setDepartment(department);
+            courses.add(course);
+        }
+        context.getBean(CourseRepository.class).saveAll(courses);
+    }
+
+    private static void login(HttpClient client, String base) throws Exception {
+        String page = client.send(HttpRequest.newBuilder(URI.create(base + "/auth/login")).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher csrf = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"").matcher(page);
+        assertTrue(csrf.find(), "login form should carry a CSRF token");
+        String form = "username=bench&password=bench-password&_csrf="
+                + URLEncoder.encode(csrf.group(1), StandardCharsets.UTF_8);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(base + "/auth/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertEquals(base + "/", response.headers().firstValue("Location").orElse(""), "login should succeed");
+    }
+
+    private static Result load(HttpClient client, URI page) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(page).timeout(Duration.ofMinutes(2)).build();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(USERS * REQUESTS_PER_USER));
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>(USERS);
+            for (int u = 0; u < USERS; u++) {
+                running.add(users.submit(() -> {
+                    for (int r = 0; r < REQUESTS_PER_USER; r++) {
+                        long sent = System.nanoTime();
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.add((System.nanoTime() - sent) / 1_000_000);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> user : running) {
+                user.get();
+            }
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return new Result(sorted.size(), millis, percentile(sorted, 50), percentile(sorted, 99), errors.get());
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+
+    private record Result(int requests, long millis, long p50, long p99, int errors) {
+        double requestsPerSecond() {
+            return requests * 1000.0 / millis;
+        }
+
+        void print(String label) {
+            System.out.printf("%-10s %8d %10d %10.0f %10d %10d %8d%n",
+                    label, USERS, requests, requestsPerSecond(), p50, p99, errors);
+        }
+    }
+
+    // Adds a fixed delay to every statement execution, wrapped inside the concurrency limit like a remote database
+    @Configuration
+    static class SlowDatabase {
+
+        @Bean
+        static BeanPostProcessor slowStatements() {
+            return new OrderedPostProcessor();
+        }
+    }
+
+    private static final class OrderedPostProcessor implements BeanPostProcessor, Ordered {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        return slow(super.getConnection(), Connection.class);
+                    }
+                };
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    // Statements created by the connection sleep before each execute*
+    @SuppressWarnings("unchecked")
+    private static <T> T slow(T target, Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            try {
+                Object result = method.invoke(target, args);
+                if (result instanceof Statement statement && method.getName().matches("(prepare|create)\\w*")) {
+                    return slow(statement, (Class<Statement>) method.getReturnType());
+                }
+                if (method.getName().startsWith("execute")) {
+                    Thread.sleep(STATEMENT_LATENCY_MILLIS);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.webapp.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// WHAT: Unit test for the database bulkhead
+// HOW: Wraps a mocked DataSource with a limit of 2 and a short timeout, then checks permits are taken and given back
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    private ConcurrencyLimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConcurrencyLimitedDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    // ==================== TEST: limit ====================
+    @Test
+    void getConnection_BeyondLimit_ShouldFailFastAndCountRejection() throws SQLException {
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        assertEquals(2, dataSource.getActive());
+        assertEquals(1, dataSource.getRejected());
+        verify(target, times(2)).getConnection();
+    }
+
+    // ==================== TEST: close ====================
+    @Test
+    void close_ShouldReleasePermitOnce() throws SQLException {
+        Connection physical = mock(Connection.class);
+        when(target.getConnection()).thenReturn(physical);
+
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close(); // a second close must not hand out an extra permit
+
+        assertEquals(0, dataSource.getActive());
+        verify(physical, times(1)).close();
+        dataSource.getConnection();
+        dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+    }
+
+    // ==================== TEST: pool failure ====================
+    @Test
+    void getConnection_WhenPoolFails_ShouldGivePermitBack() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+        assertEquals(0, dataSource.getActive());
+    }
+
+    // ==================== TEST: delegation ====================
+    @Test
+    void connection_ShouldDelegateAndUnwrapToItself() throws SQLException {
+        Connection physical = mock(Connection.class);
+        when(target.getConnection()).thenReturn(physical);
+        when(physical.getAutoCommit()).thenReturn(true);
+
+        Connection connection = dataSource.getConnection();
+
+        assertTrue(connection.getAutoCommit());
+        assertSame(connection, connection.unwrap(Connection.class));
+        assertEquals(connection, connection);
+        assertNotEquals(connection, physical);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.webapp.config;
+
+import com.example.webapp.dto.RegisterDTO;
+import com.example.webapp.repository.StudentRepository;
+import com.example.webapp.repository.UserRepository;
+import com.example.webapp.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for the database metrics and their Prometheus endpoint
+// HOW: Real server on a random port; the slow-query threshold is 1 ns so every statement counts as slow.
+//      Checks Hikari, Hibernate, repository, bulkhead and slow-query meters, then scrapes /actuator/prometheus
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.sql.slow-query.info-threshold=1ns")
+@ActiveProfiles("test")
+class DatabaseMetricsTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByUsername("scraper").ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void meters_ShouldCoverPoolHibernateRepositoriesAndSlowQueries() {
+        studentRepository.findAll();
+
+        assertNotNull(meterRegistry.find("hikaricp.connections.max").gauge(), "Hikari pool metrics");
+        assertNotNull(meterRegistry.find("hibernate.entities.loads").functionCounter(), "Hibernate statistics");
+        assertNotNull(meterRegistry.find("db.concurrency.limit").gauge(), "bulkhead metrics behind SqlTimingDataSource");
+        assertTrue(meterRegistry.get("spring.data.repository.invocations")
+                .tags("repository", "StudentRepository", "method", "findAll").timer().count() >= 1);
+        assertTrue(meterRegistry.get("sql.slow.queries").tag("level", "info").functionCounter().count() >= 1);
+    }
+
+    @Test
+    void prometheusEndpoint_ShouldNeedTeacherAndServeTextFormat() throws Exception {
+        studentRepository.count();
+        RegisterDTO teacher = new RegisterDTO();
+        teacher.setUsername("scraper");
+        teacher.setPassword("scraper-password");
+        teacher.setName("Scraper");
+        teacher.setEmail("scraper@example.com");
+        teacher.setRole("TEACHER");
+        userService.registerUser(teacher);
+
+        HttpResponse<String> anonymous = scrape(null);
+        assertEquals(401, anonymous.statusCode());
+
+        HttpResponse<String> response = scrape("scraper:scraper-password");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain"));
+        assertTrue(response.body().contains("hikaricp_connections_active"));
+        assertTrue(response.body().contains("spring_data_repository_invocations_seconds_bucket"));
+    }
+
+    private HttpResponse<String> scrape(String credentials) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/prometheus"));
+        if (credentials != null) {
+            request.header("Authorization", "Basic "
+                    + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.webapp.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Unit test for the DTO cache guard - a read that missed before an eviction of its key must not store its result
+// HOW: Calls the Cache methods in the order CacheInterceptor does (get, load, put) and interleaves evictions by hand;
+//      one test runs the read and the write on separate threads like a request racing a commit
+class EvictionGuardedCacheTest {
+
+    private EvictionGuardedCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new EvictionGuardedCache("test", Caffeine.newBuilder().build(), false, Duration.ofMinutes(1),
+                Duration.ofSeconds(5));
+    }
+
+    // ==================== TEST: ordinary reads ====================
+    @Test
+    void put_AfterMiss_ShouldStore() {
+        assertNull(cache.get(1L));
+        cache.put(1L, "v1");
+
+        assertEquals("v1", cache.get(1L, String.class));
+    }
+
+    @Test
+    void put_MissStartedAfterEviction_ShouldStore() {
+        cache.evict(1L);
+        assertNull(cache.get(1L));
+        cache.put(1L, "v2");
+
+        assertEquals("v2", cache.get(1L, String.class));
+    }
+
+    @Test
+    void put_WithoutMiss_ShouldBeDropped() {
+        cache.put(1L, "v1");
+        assertNull(cache.get(2L));
+        cache.put(1L, "v1");
+
+        assertNull(cache.get(1L));
+    }
+
+    // ==================== TEST: reads racing a write ====================
+    @Test
+    void put_EvictedBetweenMissAndPut_ShouldBeDropped() {
+        assertNull(cache.get(1L));  // read starts, loads the old state
+        cache.evict(1L);            // writer commits
+        cache.put(1L, "old");       // read finishes
+
+        assertNull(cache.get(1L));
+        cache.put(1L, "new");
+        assertEquals("new", cache.get(1L, String.class));
+    }
+
+    @Test
+    void put_OtherKeyEvicted_ShouldStore() {
+        assertNull(cache.get(1L));
+        cache.evict(2L);
+        cache.put(1L, "v1");
+
+        assertEquals("v1", cache.get(1L, String.class));
+    }
+
+    @Test
+    void put_ClearedBetweenMissAndPut_ShouldBeDropped() {
+        assertNull(cache.get(1L));
+        cache.clear();
+        cache.put(1L, "old");
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void put_ReadOnOtherThreadRacingCommit_ShouldNotOutliveEviction() throws Exception {
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+
+        CompletableFuture<Void> read = CompletableFuture.runAsync(() -> {
+            assertNull(cache.get(1L));
+            loaded.countDown();
+            try {
+                assertTrue(committed.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            cache.put(1L, "old");
+        });
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        cache.evict(1L); // after-commit eviction
+        committed.countDown();
+        read.get(5, TimeUnit.SECONDS);
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void get_WithLoader_EvictedWhileLoading_ShouldReturnValueWithoutStoring() {
+        String value = cache.get(1L, () -> {
+            cache.evict(1L);
+            return "old";
+        });
+
+        assertEquals("old", value);
+        assertNull(cache.get(1L));
+    }
+
+    // ==================== TEST: tombstone expiry ====================
+    @Test
+    void put_ReadOlderThanPrunedTombstone_ShouldBeDropped() throws Exception {
+        cache = new EvictionGuardedCache("test", Caffeine.newBuilder().build(), false, Duration.ofMillis(10),
+                Duration.ZERO);
+        assertNull(cache.get(1L));
+        cache.evict(1L);
+        Thread.sleep(20);
+        cache.evict(2L); // prunes the tombstone of key 1
+
+        cache.put(1L, "old");
+
+        assertNull(cache.get(1L));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.webapp.config;
+
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Student;
+import com.example.webapp.repository.CourseRepository;
+import com.example.webapp.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for N+1 detection - LazyLoadCounter and nested RequestTimings (what @QueryBudget builds on)
+// HOW: Loads students without their courses, then touches every course set: one lazy load and one statement each
+@SpringBootTest
+@ActiveProfiles("test")
+class LazyLoadCounterTest {
+
+    private static final int STUDENTS = 5;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        Course course = courseRepository.save(new Course("Lazy Course", "N+1 demo"));
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student("Lazy Student " + i, "LAZY-" + i, null);
+            student.addCourse(course);
+            students.add(student);
+        }
+        studentRepository.saveAll(students);
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        courseRepository.deleteAll();
+    }
+
+    @Test
+    void lazyCollections_ShouldBeCountedOncePerInitialization() {
+        RequestTimings timings = RequestTimings.start();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                List<Student> students = studentRepository.findAll();
+                students.forEach(student -> student.getCourses().size());
+                students.forEach(student -> student.getCourses().size()); // already initialized
+            });
+        } finally {
+            RequestTimings.clear();
+        }
+
+        assertEquals(STUDENTS, timings.lazyLoads());
+        assertEquals(STUDENTS + 1, timings.statements(), "one query for the students, one per course set");
+    }
+
+    @Test
+    void nestedTimings_ShouldAlsoReportToOuterAndRestoreIt() {
+        RequestTimings outer = RequestTimings.start();
+        try {
+            RequestTimings inner = RequestTimings.start();
+            assertSame(inner, RequestTimings.current());
+            studentRepository.count();
+            RequestTimings.clear();
+
+            assertSame(outer, RequestTimings.current());
+            assertEquals(1, inner.statements());
+            assertEquals(1, outer.statements());
+        } finally {
+            RequestTimings.clear();
+        }
+        assertNull(RequestTimings.current());
+    }
+}
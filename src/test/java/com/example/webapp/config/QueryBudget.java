@@ -0,0 +1,25 @@
+package com.example.webapp.config;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Upper bound on the SQL a test method may issue, checked by {@link QueryBudgetExtension}. Everything the test body
+ * runs counts, including MockMvc requests and work on other threads that joins the request (ViewAssembler); setup
+ * in {@code @BeforeEach} does not. Statements are counted at the JDBC level, so JdbcTemplate SQL is included.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    // Maximum SQL statements
+    int value();
+
+    // Maximum lazy collection / proxy initializations; -1 = not checked
+    int lazyLoads() default -1;
+}
@@ -0,0 +1,45 @@
+package com.example.webapp.config;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * Runs each {@link QueryBudget} test method inside its own {@link RequestTimings}, so SqlTimingDataSource and
+ * LazyLoadCounter report into it, and fails the test when the counts go over budget. A request made by the test
+ * gets its own timings from RequestTimingFilter, which report into this one too.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        if (context.getRequiredTestMethod().isAnnotationPresent(QueryBudget.class)) {
+            context.getStore(NAMESPACE).put(RequestTimings.class, RequestTimings.start());
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        RequestTimings timings = context.getStore(NAMESPACE).remove(RequestTimings.class, RequestTimings.class);
+        if (timings == null) {
+            return;
+        }
+        RequestTimings.clear();
+        if (context.getExecutionException().isPresent()) {
+            return; // the test's own failure is the one to report
+        }
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        String test = context.getRequiredTestMethod().getName();
+        if (timings.statements() > budget.value()) {
+            throw new AssertionFailedError(test + " issued " + timings.statements() + " SQL statements, budget is "
+                    + budget.value(), budget.value(), timings.statements());
+        }
+        if (budget.lazyLoads() >= 0 && timings.lazyLoads() > budget.lazyLoads()) {
+            throw new AssertionFailedError(test + " triggered " + timings.lazyLoads() + " lazy loads, budget is "
+                    + budget.lazyLoads(), budget.lazyLoads(), timings.lazyLoads());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.webapp.config;
+
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.entity.Role;
+import com.example.webapp.entity.User;
+import com.example.webapp.security.CustomUserDetails;
+import com.example.webapp.service.StudentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.hamcrest.Matchers.containsString;
+
+// WHAT: Integration test for read replica routing - read-only transactions on the replica, writes on the primary,
+//       and a request reading its own writes from the primary
+// HOW: Two separate H2 databases and no replication between them, so every row shows which one a read came from.
+//      The replica gets the same Flyway migrations before the context starts
+@SpringBootTest(properties = {
+        "app.db.replicas[0].url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "app.db.replicas[0].username=sa",
+        "app.db.replicas[0].password=",
+        "app.db.read-your-writes-window=1m"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1";
+    private static final long REPLICA_ONLY_ID = 990_001L;
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void migrateReplica() {
+        // One connection for the whole class: H2 check constraints stay tied to the session that created them
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(REPLICA_URL, "sa", "", true);
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/h2", "classpath:db/test-migration")
+                .load()
+                .migrate();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+        replica.update("delete from students where id = ?", REPLICA_ONLY_ID);
+        primary.update("delete from students where roll like 'RYW-%'");
+    }
+
+    // ==================== TEST: routing ====================
+    @Test
+    void readOnlyTransaction_ShouldReadFromReplica() {
+        insertOnReplica("Replica Only");
+
+        assertEquals("Replica Only", studentService.getStudentDTO(REPLICA_ONLY_ID).getName());
+        Integer onPrimary = transactionTemplate.execute(status -> primary.queryForObject(
+                "select count(*) from students where id = ?", Integer.class, REPLICA_ONLY_ID));
+        assertEquals(0, onPrimary, "read-write transactions use the primary");
+    }
+
+    @Test
+    void write_ShouldGoToPrimary() {
+        Long id = studentService.saveStudent(studentDTO("Primary Only", "RYW-1")).getId();
+
+        assertEquals(1, primary.queryForObject("select count(*) from students where id = ?", Integer.class, id));
+        assertEquals(0, replica.queryForObject("select count(*) from students where id = ?", Integer.class, id));
+    }
+
+    // ==================== TEST: read-your-writes ====================
+    @Test
+    void afterWriteInRequest_ShouldReadFromPrimary() {
+        ReadYourWrites.start(null, Duration.ofMinutes(1), 0);
+        Long id = studentService.saveStudent(studentDTO("Fresh Student", "RYW-2")).getId();
+
+        assertTrue(ReadYourWrites.isPinned());
+        assertEquals("Fresh Student", studentService.getStudentDTO(id).getName());
+
+        ReadYourWrites.clear();
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> studentService.getStudentDTO(id));
+        assertEquals("Student not found", exception.getMessage());
+    }
+
+    @Test
+    void formPost_ShouldSetCookieThatPinsNextPageToPrimary() throws Exception {
+        CustomUserDetails teacher = new CustomUserDetails(new User("ryw-teacher", "secret", "RYW Teacher", Role.TEACHER));
+        Cookie pin = mockMvc.perform(post("/students").with(user(teacher)).with(csrf())
+                        .param("name", "Posted Student")
+                        .param("roll", "RYW-3"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(cookie().exists(ReadYourWrites.COOKIE))
+                .andReturn().getResponse().getCookie(ReadYourWrites.COOKIE);
+        Long id = primary.queryForObject("select id from students where roll = 'RYW-3'", Long.class);
+
+        mockMvc.perform(get("/students/{id}", id).with(user(teacher)).cookie(pin))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Posted Student")));
+    }
+
+    // ==================== TEST: metrics ====================
+    @Test
+    void metrics_ShouldCountStatementsPerRoute() {
+        insertOnReplica("Counted");
+        studentService.getStudentDTO(REPLICA_ONLY_ID);
+        transactionTemplate.executeWithoutResult(status -> primary.queryForObject("select count(*) from students",
+                Integer.class));
+
+        assertTrue(meterRegistry.get("db.route.statements").tag("route", "replica-1").functionCounter().count() > 0);
+        assertTrue(meterRegistry.get("db.route.statements").tag("route", "primary").functionCounter().count() > 0);
+        assertTrue(meterRegistry.get("db.route.connections").tag("route", "replica-1").functionCounter().count() > 0);
+        assertNotNull(meterRegistry.find("hikaricp.connections.max").tag("pool", "replica-1").gauge());
+    }
+
+    // ==================== TEST: bulkhead ====================
+    @Test
+    void bulkhead_ShouldLimitEachRouteOnItsOwn() {
+        insertOnReplica("Bulkhead");
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            studentService.getStudentDTO(REPLICA_ONLY_ID);
+            assertEquals(1.0, concurrency("active", "replica-1"), "the replica read holds a replica permit");
+            assertEquals(0.0, concurrency("active", "primary"));
+        });
+
+        assertEquals(20.0, concurrency("limit", "primary"));
+        assertEquals(20.0, concurrency("limit", "replica-1"), "each route has its own app.db.max-concurrency");
+    }
+
+    private static void insertOnReplica(String name) {
+        replica.update("insert into students (id, name, roll, role) values (?, ?, ?, 'STUDENT')",
+                REPLICA_ONLY_ID, name, "REPLICA-" + REPLICA_ONLY_ID);
+    }
+
+    private double concurrency(String meter, String route) {
+        return meterRegistry.get("db.concurrency." + meter).tag("route", route).gauge().value();
+    }
+
+    private static StudentDTO studentDTO(String name, String roll) {
+        StudentDTO dto = new StudentDTO();
+        dto.setName(name);
+        dto.setRoll(roll);
+        return dto;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.webapp.config;
+
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.service.DtoCache;
+import com.example.webapp.service.StudentService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for the DTO caches behind a lagging read replica - a replica read right after a write must
+//       not put the old state back into the cache, where the writer (pinned to the primary) would then find it
+// HOW: Two separate H2 databases and no replication between them, so the replica lags until the test copies a change
+//      over by hand. DTO caches on, read-your-writes window 500 ms; ReadYourWrites scopes stand in for the browsers
+@SpringBootTest(properties = {
+        "app.db.replicas[0].url=" + ReplicaLagCacheTest.REPLICA_URL,
+        "app.db.replicas[0].username=sa",
+        "app.db.replicas[0].password=",
+        "app.db.read-your-writes-window=500ms",
+        "app.cache.enabled=true"
+})
+@ActiveProfiles("test")
+class ReplicaLagCacheTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:laggingreplicadb;DB_CLOSE_DELAY=-1";
+    private static final Duration WINDOW = Duration.ofMillis(500);
+    private static final long STUDENT_ID = 990_101L;
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @BeforeAll
+    static void migrateReplica() {
+        // One connection for the whole class: H2 check constraints stay tied to the session that created them
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(REPLICA_URL, "sa", "", true);
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/h2", "classpath:db/test-migration")
+                .load()
+                .migrate();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        // straight on the Caffeine caches: a clear() would count as a write and keep replica reads out for the window
+        DtoCache.NAMES.forEach(name -> ((CaffeineCache) cacheManager.getCache(name)).getNativeCache().invalidateAll());
+        for (JdbcTemplate database : new JdbcTemplate[]{primary, replica}) {
+            database.update("insert into students (id, name, roll, role) values (?, 'Old Name', 'LAG-1', 'STUDENT')",
+                    STUDENT_ID);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+        primary.update("delete from students where id = ?", STUDENT_ID);
+        replica.update("delete from students where id = ?", STUDENT_ID);
+    }
+
+    @Test
+    void replicaRead_BeforeAnyWrite_ShouldBeCached() {
+        assertEquals("Old Name", studentService.getStudentDTO(STUDENT_ID).getName());
+
+        assertTrue(cached());
+    }
+
+    @Test
+    void replicaRead_RightAfterWrite_ShouldNotBeCached() {
+        studentService.getStudentDTO(STUDENT_ID);
+        rename("New Name");
+
+        // another browser, not pinned: the lagging replica still has the old row
+        assertEquals("Old Name", studentService.getStudentDTO(STUDENT_ID).getName());
+        assertFalse(cached(), "a replica read inside the lag window must not refill the cache");
+
+        // the writer, pinned to the primary by the cookie, sees its own write, and that read is cached
+        ReadYourWrites.start(null, WINDOW, System.currentTimeMillis() + WINDOW.toMillis());
+        assertEquals("New Name", studentService.getStudentDTO(STUDENT_ID).getName());
+        ReadYourWrites.clear();
+        assertTrue(cached());
+        assertEquals("New Name", studentService.getStudentDTO(STUDENT_ID).getName());
+    }
+
+    @Test
+    void replicaRead_AfterLagWindow_ShouldBeCached() throws Exception {
+        rename("New Name");
+        replica.update("update students set name = 'New Name' where id = ?", STUDENT_ID); // replica catches up
+        Thread.sleep(WINDOW.toMillis() + 100);
+
+        assertEquals("New Name", studentService.getStudentDTO(STUDENT_ID).getName());
+        assertTrue(cached());
+    }
+
+    // A write committed on the primary from its own request
+    private void rename(String name) {
+        ReadYourWrites.start(null, WINDOW, 0);
+        StudentDTO request = new StudentDTO();
+        request.setName(name);
+        request.setRoll("LAG-1");
+        studentService.updateStudent(STUDENT_ID, request, true);
+        ReadYourWrites.clear();
+    }
+
+    private boolean cached() {
+        return cacheManager.getCache(DtoCache.STUDENT).get(STUDENT_ID) != null;
+    }
+}
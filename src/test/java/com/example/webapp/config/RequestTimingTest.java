@@ -0,0 +1,127 @@
+package com.example.webapp.config;
+
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.entity.Student;
+import com.example.webapp.repository.StudentRepository;
+import com.example.webapp.service.StudentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for the per-request breakdown (Server-Timing header + request.* metrics)
+// HOW: Runs the registered filter around a fake handler that calls a real service, so the service advisor and the SQL
+//      proxy on the DataSource both report into the request's timings
+@SpringBootTest
+@ActiveProfiles("test")
+class RequestTimingTest {
+
+    private static final Pattern DB = Pattern.compile("db;dur=[\\d.]+;desc=\"(\\d+) queries, (\\d+) rows\"");
+    private static final Pattern FLUSH = Pattern.compile("flush;dur=[\\d.]+;desc=\"(\\d+) entities\"");
+
+    @Autowired
+    private FilterRegistrationBean<RequestTimingFilter> requestTimingFilter;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository.saveAll(List.of(new Student("Timing One", "T-1", null), new Student("Timing Two", "T-2", null)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+    }
+
+    @Test
+    void request_ShouldReportLayersAndSqlInServerTimingHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/students");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain handler = (req, res) -> {
+            studentService.getAllStudentsDTO();
+            res.getWriter().write("page");
+        };
+
+        requestTimingFilter.getFilter().doFilter(request, response, handler);
+
+        String header = response.getHeader(RequestTimingFilter.HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("controller;dur="), header);
+        assertTrue(header.contains("service;dur=") && header.contains("view;dur=") && header.contains("total;dur="), header);
+        Matcher db = DB.matcher(header);
+        assertTrue(db.find(), header);
+        assertTrue(Integer.parseInt(db.group(1)) >= 1, "the student list query should be counted");
+        assertTrue(Integer.parseInt(db.group(2)) >= 2, "both students should be counted as rows");
+
+        assertTrue(meterRegistry.get("request.layer").tags("uri", "/students", "layer", "service").timer().count() >= 1);
+        assertTrue(meterRegistry.get("request.sql.rows").tag("uri", "/students").summary().totalAmount() >= 2);
+    }
+
+    // ==================== TEST: flush ====================
+    @Test
+    void readOnlyServiceCall_ShouldNotFlush() throws Exception {
+        String header = timedRequest("/students", () -> studentService.getAllStudentsDTO());
+
+        Matcher flush = FLUSH.matcher(header);
+        assertTrue(flush.find(), header);
+        assertEquals(0, Integer.parseInt(flush.group(1)), "read-only transactions are not dirty-checked");
+        assertTrue(meterRegistry.get("request.layer").tags("uri", "/students", "layer", "flush").timer().count() >= 1);
+        assertTrue(meterRegistry.get("request.allocated.bytes").tag("uri", "/students").summary().totalAmount() > 0,
+                "the test thread is a platform thread, so its allocations are measured");
+    }
+
+    @Test
+    void write_ShouldReportFlushedEntities() throws Exception {
+        StudentDTO dto = new StudentDTO();
+        dto.setName("Timing Three");
+        dto.setRoll("T-3");
+
+        String header = timedRequest("/students/new", () -> studentService.saveStudent(dto));
+
+        Matcher flush = FLUSH.matcher(header);
+        assertTrue(flush.find(), header);
+        assertTrue(Integer.parseInt(flush.group(1)) >= 1, "the new student is flushed at commit");
+        assertTrue(meterRegistry.get("request.flush.entities").tag("uri", "/students/new").summary().totalAmount() >= 1);
+    }
+
+    @Test
+    void serviceCallsOutsideRequest_ShouldNotBeTimed() {
+        studentService.getAllStudentsDTO();
+
+        assertNull(RequestTimings.current());
+    }
+
+    private String timedRequest(String uri, Runnable work) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        requestTimingFilter.getFilter().doFilter(request, response, (req, res) -> {
+            work.run();
+            res.getWriter().write("page");
+        });
+        return response.getHeader(RequestTimingFilter.HEADER);
+    }
+}
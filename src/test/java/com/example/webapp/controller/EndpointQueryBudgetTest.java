@@ -0,0 +1,177 @@
+package com.example.webapp.controller;
+
+import com.example.webapp.config.QueryBudget;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.entity.Role;
+import com.example.webapp.entity.Student;
+import com.example.webapp.entity.Teacher;
+import com.example.webapp.entity.User;
+import com.example.webapp.repository.CourseRepository;
+import com.example.webapp.repository.DepartmentRepository;
+import com.example.webapp.repository.StudentRepository;
+import com.example.webapp.repository.TeacherRepository;
+import com.example.webapp.security.CustomUserDetails;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// WHAT: SQL budget per page - each endpoint must render within a fixed number of statements and lazy loads
+// HOW: Full MVC stack through MockMvc (filters, security, controller, Thymeleaf) as a teacher, on committed H2 data,
+//      because detail pages load their parts on other threads. @QueryBudget counts everything the request runs;
+//      the budgets hold for any amount of data, so an N+1 in a page shows up as a failure here
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EndpointQueryBudgetTest {
+
+    private static final int STUDENTS = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final RequestPostProcessor teacher =
+            user(new CustomUserDetails(new User("budget-teacher", "secret", "Budget Teacher", Role.TEACHER)));
+
+    private Department department;
+    private Course course;
+    private Teacher someTeacher;
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        List<Department> departments = departmentRepository.saveAll(List.of(
+                new Department("Budget Dept 0"), new Department("Budget Dept 1"), new Department("Budget Dept 2")));
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Course c = new Course("Budget Course " + i, "Description " + i);
+            c.setDepartment(departments.get(i % departments.size()));
+            courses.add(c);
+        }
+        courses = courseRepository.saveAll(courses);
+        List<Teacher> teachers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Teacher t = new Teacher("Budget Teacher " + i, "budget.teacher" + i + "@example.com");
+            t.setDepartment(departments.get(i % departments.size()));
+            teachers.add(t);
+        }
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            Student s = new Student("Budget Student " + i, "BUDGET-" + i, "budget.student" + i + "@example.com");
+            s.addCourse(courses.get(i % courses.size()));
+            s.addCourse(courses.get((i + 1) % courses.size()));
+            students.add(s);
+        }
+        students = studentRepository.saveAll(students);
+        for (int i = 0; i < STUDENTS; i++) {
+            teachers.get(i % teachers.size()).addStudent(students.get(i));
+        }
+        teachers = teacherRepository.saveAll(teachers);
+
+        department = departments.get(0);
+        course = courses.get(0);
+        someTeacher = teachers.get(0);
+        student = students.get(0);
+        entityManagerFactory.getCache().evictAll(); // every page starts from a cold second-level cache
+    }
+
+    @AfterEach
+    void tearDown() {
+        teacherRepository.deleteAll();
+        studentRepository.deleteAll();
+        courseRepository.deleteAll();
+        departmentRepository.deleteAll();
+    }
+
+    // ==================== list pages ====================
+    @Test
+    @QueryBudget(value = 3, lazyLoads = 0)
+    void studentsPage() throws Exception {
+        mockMvc.perform(get("/students").with(teacher)).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(value = 3, lazyLoads = 0)
+    void teachersPage() throws Exception {
+        mockMvc.perform(get("/teachers").with(teacher)).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(value = 3, lazyLoads = 0)
+    void coursesPage() throws Exception {
+        mockMvc.perform(get("/courses").with(teacher)).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(value = 3, lazyLoads = 0)
+    void departmentsPage() throws Exception {
+        mockMvc.perform(get("/departments").with(teacher)).andExpect(status().isOk());
+    }
+
+    // ==================== detail pages ====================
+    @Test
+    @QueryBudget(value = 5, lazyLoads = 4)
+    void studentDetailPage() throws Exception {
+        mockMvc.perform(get("/students/{id}", student.getId()).with(teacher)).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(value = 5, lazyLoads = 2)
+    void teacherDetailPage() throws Exception {
+        mockMvc.perform(get("/teachers/{id}", someTeacher.getId()).with(teacher)).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(value = 5, lazyLoads = 2)
+    void courseDetailPage() throws Exception {
+        mockMvc.perform(get("/courses/{id}", course.getId()).with(teacher)).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(value = 4, lazyLoads = 3)
+    void departmentDetailPage() throws Exception {
+        mockMvc.perform(get("/departments/{id}", department.getId()).with(teacher)).andExpect(status().isOk());
+    }
+
+    // ==================== edit forms ====================
+    @Test
+    @QueryBudget(value = 5, lazyLoads = 2)
+    void studentEditForm() throws Exception {
+        mockMvc.perform(get("/students/{id}/edit", student.getId()).with(teacher)).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(value = 5, lazyLoads = 2)
+    void courseEditForm() throws Exception {
+        mockMvc.perform(get("/courses/{id}/edit", course.getId()).with(teacher)).andExpect(status().isOk());
+    }
+}
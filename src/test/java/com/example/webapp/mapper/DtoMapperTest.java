@@ -0,0 +1,153 @@
+package com.example.webapp.mapper;
+
+import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.DepartmentDTO;
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.dto.TeacherDTO;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.entity.Role;
+import com.example.webapp.entity.Student;
+import com.example.webapp.entity.Teacher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Unit test for the generated DtoMapper, one section per entity/DTO pair
+// HOW: Uses DtoMapperImpl directly on a small in-memory graph (no Spring, no database)
+class DtoMapperTest {
+
+    private final DtoMapper dtoMapper = new DtoMapperImpl();
+
+    private Department department;
+    private Course course;
+    private Teacher teacher;
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        department = new Department("Computer Science");
+        department.setId(1L);
+
+        course = new Course("Algorithms", "Graphs and sorting");
+        course.setId(10L);
+        course.setDepartment(department);
+        department.getCourses().add(course);
+
+        teacher = new Teacher("Dr. Smith", "smith@uni.edu");
+        teacher.setId(20L);
+        teacher.setDepartment(department);
+        department.getTeachers().add(teacher);
+
+        student = new Student("John Doe", "CSE-001", "john@example.com");
+        student.setId(30L);
+        student.setRole(Role.STUDENT);
+        student.addCourse(course);
+        teacher.addStudent(student);
+    }
+
+    // ==================== TEST: Student ====================
+    @Test
+    void studentToDto_ShouldMapFieldsAndAssociationIds() {
+        StudentDTO dto = dtoMapper.toDto(student);
+
+        assertEquals(30L, dto.getId());
+        assertEquals("John Doe", dto.getName());
+        assertEquals("CSE-001", dto.getRoll());
+        assertEquals("john@example.com", dto.getEmail());
+        assertEquals("STUDENT", dto.getRole());
+        assertEquals(List.of(10L), dto.getCourseIds());
+        assertEquals(List.of(20L), dto.getTeacherIds());
+    }
+
+    @Test
+    void updateStudent_ShouldCopyScalarsOnly() {
+        StudentDTO dto = new StudentDTO();
+        dto.setId(99L);
+        dto.setName("Jane Doe");
+        dto.setRoll("CSE-002");
+        dto.setEmail("jane@example.com");
+        dto.setRole("TEACHER");
+        dto.setCourseIds(List.of());
+
+        dtoMapper.updateStudent(dto, student);
+
+        assertEquals(30L, student.getId());
+        assertEquals("Jane Doe", student.getName());
+        assertEquals("CSE-002", student.getRoll());
+        assertEquals("jane@example.com", student.getEmail());
+        assertEquals(Role.STUDENT, student.getRole());
+        assertEquals(1, student.getCourses().size());
+    }
+
+    // ==================== TEST: Teacher ====================
+    @Test
+    void teacherToDto_ShouldFlattenDepartment() {
+        TeacherDTO dto = dtoMapper.toDto(teacher);
+
+        assertEquals(20L, dto.getId());
+        assertEquals("smith@uni.edu", dto.getEmail());
+        assertEquals(1L, dto.getDepartmentId());
+        assertEquals("Computer Science", dto.getDepartmentName());
+        assertEquals(List.of(30L), dto.getStudentIds());
+    }
+
+    @Test
+    void teacherToDto_WithoutDepartment_ShouldLeaveDepartmentNull() {
+        teacher.setDepartment(null);
+
+        TeacherDTO dto = dtoMapper.toDto(teacher);
+
+        assertNull(dto.getDepartmentId());
+        assertNull(dto.getDepartmentName());
+    }
+
+    // ==================== TEST: Course ====================
+    @Test
+    void courseToDto_ShouldMapDepartmentAndStudents() {
+        CourseDTO dto = dtoMapper.toDto(course);
+
+        assertEquals(10L, dto.getId());
+        assertEquals("Graphs and sorting", dto.getDescription());
+        assertEquals(1L, dto.getDepartmentId());
+        assertEquals(List.of(30L), dto.getStudentIds());
+    }
+
+    @Test
+    void courseVariants_ShouldSkipWhatTheyDoNotNeed() {
+        CourseDTO withoutStudents = dtoMapper.toDtoWithoutStudents(course);
+        assertEquals("Computer Science", withoutStudents.getDepartmentName());
+        assertNull(withoutStudents.getStudentIds());
+
+        CourseDTO option = dtoMapper.toOption(course);
+        assertEquals(10L, option.getId());
+        assertEquals("Algorithms", option.getName());
+        assertNull(option.getDescription());
+        assertNull(option.getDepartmentId());
+    }
+
+    // ==================== TEST: Department ====================
+    @Test
+    void departmentToDto_ShouldMapTeacherAndCourseIds() {
+        DepartmentDTO dto = dtoMapper.toDto(department);
+
+        assertEquals(1L, dto.getId());
+        assertEquals(List.of(20L), dto.getTeacherIds());
+        assertEquals(List.of(10L), dto.getCourseIds());
+    }
+
+    @Test
+    void departmentToEntity_ShouldCopyIdAndNameOnly() {
+        DepartmentDTO dto = new DepartmentDTO(5L, "Physics");
+        dto.setCourseIds(List.of(10L));
+
+        Department entity = dtoMapper.toEntity(dto);
+
+        assertEquals(5L, entity.getId());
+        assertEquals("Physics", entity.getName());
+        assertTrue(entity.getCourses().isEmpty());
+    }
+}
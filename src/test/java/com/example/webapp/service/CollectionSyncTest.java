@@ -0,0 +1,80 @@
+package com.example.webapp.service;
+
+import com.example.webapp.entity.Course;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Unit test for CollectionSync
+// HOW: Syncs plain sets against requested ids and records which ids the loader was asked for
+class CollectionSyncTest {
+
+    private final List<List<Long>> loaderCalls = new ArrayList<>();
+
+    private List<Course> load(List<Long> ids) {
+        loaderCalls.add(ids);
+        return ids.stream().filter(id -> id > 0).map(this::course).collect(Collectors.toList());
+    }
+
+    private Course course(Long id) {
+        Course course = new Course("Course " + id, null);
+        course.setId(id);
+        return course;
+    }
+
+    private Set<Course> coursesOf(Long... ids) {
+        return Arrays.stream(ids).map(this::course).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private Set<Long> idsOf(Set<Course> courses) {
+        return courses.stream().map(Course::getId).collect(Collectors.toSet());
+    }
+
+    // ==================== TEST: sync ====================
+    // HOW: Keeps 2, drops 1, loads only 3 — the element already linked is never reloaded
+    @Test
+    void sync_ShouldOnlyLoadMissingIds() {
+        Set<Course> courses = coursesOf(1L, 2L);
+
+        int changes = CollectionSync.sync(courses, List.of(2L, 3L), Course::getId, this::load);
+
+        assertEquals(2, changes);
+        assertEquals(Set.of(2L, 3L), idsOf(courses));
+        assertEquals(List.of(List.of(3L)), loaderCalls);
+    }
+
+    @Test
+    void sync_SameIds_ShouldNotTouchCollection() {
+        Set<Course> courses = coursesOf(1L, 2L);
+
+        int changes = CollectionSync.sync(courses, List.of(2L, 1L, 1L), Course::getId, this::load);
+
+        assertEquals(0, changes);
+        assertEquals(Set.of(1L, 2L), idsOf(courses));
+        assertTrue(loaderCalls.isEmpty());
+    }
+
+    @Test
+    void sync_NullOrEmptyIds_ShouldClearCollection() {
+        Set<Course> courses = coursesOf(1L, 2L);
+
+        int changes = CollectionSync.sync(courses, null, Course::getId, this::load);
+
+        assertEquals(2, changes);
+        assertTrue(courses.isEmpty());
+        assertTrue(loaderCalls.isEmpty());
+    }
+
+    @Test
+    void sync_UnknownIds_ShouldBeIgnored() {
+        Set<Course> courses = coursesOf(1L);
+
+        int changes = CollectionSync.sync(courses, Arrays.asList(1L, -5L, null), Course::getId, this::load);
+
+        assertEquals(0, changes);
+        assertEquals(Set.of(1L), idsOf(courses));
+    }
+}
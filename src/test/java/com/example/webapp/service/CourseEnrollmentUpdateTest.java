@@ -0,0 +1,104 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.EnrollmentDiff;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Student;
+import com.example.webapp.repository.EnrollmentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for diff-based roster updates against the real student_course table
+// HOW: Enrolls 600 students on H2, edits the roster and checks that only the difference was written
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class CourseEnrollmentUpdateTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    private Course course;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        course = new Course("Big Lecture", "600 seats");
+        entityManager.persist(course);
+        studentIds = new ArrayList<>();
+        for (int i = 0; i < 650; i++) {
+            Student student = new Student("Student " + i, "R-" + i, null);
+            if (i < 600) {
+                student.addCourse(course);
+            }
+            entityManager.persist(student);
+            studentIds.add(student.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private CourseDTO rosterOf(List<Long> ids) {
+        CourseDTO dto = new CourseDTO();
+        dto.setName("Big Lecture");
+        dto.setStudentIds(ids);
+        return dto;
+    }
+
+    @Test
+    void updateCourse_ShouldApplyOnlyTheDifference() {
+        // Drop the first 10 students, keep 590, add the 50 that were not enrolled
+        List<Long> requested = new ArrayList<>(studentIds.subList(10, 650));
+
+        EnrollmentDiff diff = courseService.updateCourse(course.getId(), rosterOf(requested));
+
+        assertEquals(studentIds.subList(600, 650), diff.getAddedStudentIds());
+        assertEquals(studentIds.subList(0, 10), diff.getRemovedStudentIds());
+        List<Long> enrolled = enrollmentRepository.findStudentIdsByCourseId(course.getId());
+        assertEquals(640, enrolled.size());
+        assertTrue(enrolled.containsAll(requested));
+    }
+
+    @Test
+    void updateCourse_UnknownStudentIds_ShouldBeIgnored() {
+        List<Long> requested = new ArrayList<>(studentIds.subList(0, 600));
+        requested.add(-1L);
+
+        EnrollmentDiff diff = courseService.updateCourse(course.getId(), rosterOf(requested));
+
+        assertTrue(diff.isEmpty());
+    }
+
+    @Test
+    void updateCourse_EmptySelection_ShouldRemoveEveryone() {
+        EnrollmentDiff diff = courseService.updateCourse(course.getId(), rosterOf(null));
+
+        assertEquals(600, diff.getRemovedStudentIds().size());
+        assertTrue(enrollmentRepository.findStudentIdsByCourseId(course.getId()).isEmpty());
+    }
+
+    @Test
+    void deleteCourse_WithEnrollments_ShouldRemoveRowsFirst() {
+        courseService.deleteCourse(course.getId());
+        entityManager.flush();
+
+        assertNull(entityManager.find(Course.class, course.getId()));
+        assertTrue(enrollmentRepository.findStudentIdsByCourseId(course.getId()).isEmpty());
+    }
+}
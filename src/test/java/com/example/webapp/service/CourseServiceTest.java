@@ -1,23 +1,32 @@
 package com.example.webapp.service;
 
 import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.EnrollmentDiff;
 import com.example.webapp.entity.Course;
 import com.example.webapp.entity.Department;
 import com.example.webapp.entity.Student;
+import com.example.webapp.mapper.DtoMapper;
+import com.example.webapp.mapper.DtoMapperImpl;
 import com.example.webapp.repository.CourseRepository;
 import com.example.webapp.repository.DepartmentRepository;
+import com.example.webapp.repository.EnrollmentRepository;
 import com.example.webapp.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 // WHAT: Unit test for CourseService
@@ -34,6 +43,28 @@ class CourseServiceTest {
     @Mock
     private StudentRepository studentRepository;
 
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    // Seat allocation is checked in EnrollmentServiceTest
+    @Mock
+    private EnrollmentService enrollmentService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    // Cache invalidation is checked in DtoCacheTest
+    @Mock
+    private DtoCache dtoCache;
+
+    // Delivery is checked in EntityChangeBusTest
+    @Mock
+    private EntityChangeBus entityChangeBus;
+
+    // Real generated mapper, so the tests see the same DTOs as the app
+    @Spy
+    private DtoMapper dtoMapper = new DtoMapperImpl();
+
     @InjectMocks
     private CourseService courseService;
 
@@ -77,7 +108,7 @@ class CourseServiceTest {
     // ==================== TEST: getAllCoursesDTO ====================
     @Test
     void getAllCoursesDTO_ShouldReturnDTOList() {
-        when(courseRepository.findAll()).thenReturn(Arrays.asList(course));
+        when(courseRepository.findAllWithDepartmentAndStudents()).thenReturn(Arrays.asList(course));
 
         List<CourseDTO> result = courseService.getAllCoursesDTO();
 
@@ -131,13 +162,13 @@ class CourseServiceTest {
     @Test
     void saveCourse_ShouldSaveAndReturn() {
         when(departmentRepository.findById(1L)).thenReturn(Optional.of(department));
-        when(courseRepository.save(any(Course.class))).thenReturn(course);
+        when(courseRepository.saveAndFlush(any(Course.class))).thenReturn(course);
 
         Course result = courseService.saveCourse(courseDTO);
 
         assertNotNull(result);
         assertEquals("Java Programming", result.getName());
-        verify(courseRepository, times(1)).save(any(Course.class));
+        verify(courseRepository, times(1)).saveAndFlush(any(Course.class));
     }
 
     @Test
@@ -150,20 +181,16 @@ class CourseServiceTest {
 
     @Test
     void saveCourse_WithStudents_ShouldAssignStudents() {
-        Student student = new Student();
-        student.setId(1L);
-        student.setCourses(new HashSet<>());
-
         courseDTO.setStudentIds(Arrays.asList(1L));
         when(departmentRepository.findById(1L)).thenReturn(Optional.of(department));
-        when(courseRepository.save(any(Course.class))).thenReturn(course);
-        when(studentRepository.findAllById(Arrays.asList(1L))).thenReturn(Arrays.asList(student));
-        when(studentRepository.save(any(Student.class))).thenReturn(student);
+        when(courseRepository.saveAndFlush(any(Course.class))).thenReturn(course);
+        when(studentRepository.findExistingIds(Set.of(1L))).thenReturn(Arrays.asList(1L));
 
         Course result = courseService.saveCourse(courseDTO);
 
         assertNotNull(result);
-        verify(studentRepository, times(1)).findAllById(Arrays.asList(1L));
+        verify(enrollmentRepository, times(1)).insert(1L, List.of(1L));
+        verify(studentRepository, never()).save(any(Student.class));
     }
 
     // ==================== TEST: updateCourse ====================
@@ -178,12 +205,51 @@ class CourseServiceTest {
         when(departmentRepository.findById(1L)).thenReturn(Optional.of(department));
         when(courseRepository.save(any(Course.class))).thenReturn(course);
 
-        Course result = courseService.updateCourse(1L, updateDTO);
+        EnrollmentDiff result = courseService.updateCourse(1L, updateDTO);
 
         assertNotNull(result);
+        assertTrue(result.isEmpty());
+        assertEquals("Advanced Java", course.getName());
         verify(courseRepository, times(1)).save(course);
     }
 
+    // HOW: Current roster {1, 2}, requested {2, 3} -> only student 3 is inserted and only student 1 is deleted
+    @Test
+    void updateCourse_ShouldOnlyWriteChangedEnrollments() {
+        CourseDTO updateDTO = new CourseDTO();
+        updateDTO.setName("Java Programming");
+        updateDTO.setStudentIds(Arrays.asList(2L, 3L));
+
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(studentRepository.findExistingIds(Set.of(2L, 3L))).thenReturn(Arrays.asList(2L, 3L));
+        when(enrollmentRepository.findStudentIdsByCourseId(1L)).thenReturn(Arrays.asList(1L, 2L));
+
+        EnrollmentDiff result = courseService.updateCourse(1L, updateDTO);
+
+        assertEquals(List.of(3L), result.getAddedStudentIds());
+        assertEquals(List.of(1L), result.getRemovedStudentIds());
+        verify(enrollmentRepository, times(1)).delete(1L, List.of(1L));
+        verify(enrollmentRepository, times(1)).insert(1L, List.of(3L));
+        verify(studentRepository, never()).save(any(Student.class));
+    }
+
+    @Test
+    void updateCourse_UnchangedRoster_ShouldNotWriteEnrollments() {
+        CourseDTO updateDTO = new CourseDTO();
+        updateDTO.setName("Java Programming");
+        updateDTO.setStudentIds(Arrays.asList(1L, 2L));
+
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(studentRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(Arrays.asList(1L, 2L));
+        when(enrollmentRepository.findStudentIdsByCourseId(1L)).thenReturn(Arrays.asList(2L, 1L));
+
+        EnrollmentDiff result = courseService.updateCourse(1L, updateDTO);
+
+        assertTrue(result.isEmpty());
+        verify(enrollmentRepository, never()).delete(anyLong(), anyCollection());
+        verify(enrollmentRepository, never()).insert(anyLong(), anyCollection());
+    }
+
     @Test
     void updateCourse_WhenNotFound_ShouldThrowException() {
         when(courseRepository.findById(99L)).thenReturn(Optional.empty());
@@ -198,18 +264,36 @@ class CourseServiceTest {
 
         courseService.deleteCourse(1L);
 
+        verify(enrollmentRepository, times(1)).deleteByCourseId(1L);
         verify(courseRepository, times(1)).deleteById(1L);
     }
 
     // ==================== TEST: getCoursesByIds ====================
     @Test
     void getCoursesByIds_ShouldReturnDTOList() {
-        when(courseRepository.findAllById(Arrays.asList(1L))).thenReturn(Arrays.asList(course));
+        // WHAT: Courses are multi-loaded by id (second-level cache aware); unknown ids come back as null and are skipped
+        Session session = mock(Session.class); // not a @Mock field: a Session is also an EntityManager
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.findMultiple(Course.class, Arrays.asList(1L, 99L))).thenReturn(Arrays.asList(course, null));
 
-        List<CourseDTO> result = courseService.getCoursesByIds(Arrays.asList(1L));
+        List<CourseDTO> result = courseService.getCoursesByIds(Arrays.asList(1L, 99L));
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Java Programming", result.get(0).getName());
+        verify(courseRepository, never()).findWithDepartmentAndStudentsByIdIn(anyCollection());
+    }
+
+    // ==================== TEST: getCourseOptions ====================
+    @Test
+    void getCourseOptions_ShouldReturnIdAndNameOnly() {
+        when(courseRepository.findAllByOrderByNameAsc()).thenReturn(Arrays.asList(course));
+
+        List<CourseDTO> result = courseService.getCourseOptions();
+
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals("Java Programming", result.get(0).getName());
+        assertNull(result.get(0).getStudentIds());
     }
 }
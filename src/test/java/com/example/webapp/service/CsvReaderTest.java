@@ -0,0 +1,51 @@
+package com.example.webapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Unit test for CsvReader
+// HOW: Feeds small CSV strings and checks the records and line numbers that come out
+class CsvReaderTest {
+
+    @Test
+    void next_ShouldSplitPlainRecords() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("name,roll\nAlice,R-1\r\nBob,R-2"));
+
+        assertEquals(List.of("name", "roll"), csv.next());
+        assertEquals(List.of("Alice", "R-1"), csv.next());
+        assertEquals(2, csv.getRecordLine());
+        assertEquals(List.of("Bob", "R-2"), csv.next());
+        assertEquals(3, csv.getRecordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void next_ShouldHandleQuotesCommasAndLineBreaks() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\"Doe, John\",\"say \"\"hi\"\"\",\"two\nlines\"\nnext,,\n"));
+
+        assertEquals(List.of("Doe, John", "say \"hi\"", "two\nlines"), csv.next());
+        assertEquals(List.of("next", "", ""), csv.next());
+        assertEquals(3, csv.getRecordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void next_ShouldSkipByteOrderMark() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("﻿name\nAlice\n"));
+
+        assertEquals(List.of("name"), csv.next());
+        assertEquals(List.of("Alice"), csv.next());
+    }
+
+    @Test
+    void next_UnterminatedQuote_ShouldThrow() {
+        CsvReader csv = new CsvReader(new StringReader("\"never closed\n"));
+
+        assertThrows(IOException.class, csv::next);
+    }
+}
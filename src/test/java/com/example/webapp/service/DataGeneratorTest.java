@@ -0,0 +1,160 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.GeneratorPlan;
+import com.example.webapp.entity.Department;
+import com.example.webapp.entity.Student;
+import com.example.webapp.repository.DepartmentRepository;
+import com.example.webapp.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for the synthetic dataset generator (datagen profile) on a small plan
+// HOW: Generates into H2, checks volumes, skew and reproducibility from the seed, then that the app still inserts
+//      through Hibernate (sequences moved past the generated ids). Generated rows are deleted after each test
+@SpringBootTest
+@ActiveProfiles("test")
+class DataGeneratorTest {
+
+    @Autowired
+    private DataGenerator dataGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    private long maxDepartmentId;
+    private long maxCourseId;
+    private long maxTeacherId;
+    private long maxStudentId;
+    private long maxUserId;
+
+    @BeforeEach
+    void setUp() {
+        maxDepartmentId = maxId("departments");
+        maxCourseId = maxId("courses");
+        maxTeacherId = maxId("teachers");
+        maxStudentId = maxId("students");
+        maxUserId = maxId("users");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("delete from teacher_student where student_id > ?", maxStudentId);
+        jdbc.update("delete from student_course where student_id > ?", maxStudentId);
+        jdbc.update("delete from users where id > ?", maxUserId);
+        jdbc.update("delete from students where id > ?", maxStudentId);
+        jdbc.update("delete from teachers where id > ?", maxTeacherId);
+        jdbc.update("delete from courses where id > ?", maxCourseId);
+        jdbc.update("delete from departments where id > ?", maxDepartmentId);
+    }
+
+    // ==================== TEST: volumes and shape ====================
+    @Test
+    void generate_ShouldWriteRequestedVolumesWithSkewedCourseSizes() {
+        Map<String, Long> written = dataGenerator.generate(plan(42));
+
+        assertEquals(4, written.get("departments"));
+        assertEquals(40, written.get("courses"));
+        assertEquals(6, written.get("teachers"));
+        assertEquals(500, written.get("students"));
+        assertEquals(20, written.get("users"));
+        assertEquals(500, written.get("teacher_student"));
+        assertEquals(500, count("select count(*) from students where id > ?", maxStudentId));
+        assertEquals(written.get("student_course"),
+                count("select count(*) from student_course where student_id > ?", maxStudentId));
+        assertEquals(0, count("select count(*) from students s where s.id > ? and not exists "
+                + "(select 1 from student_course sc where sc.student_id = s.id)", maxStudentId), "every student takes a course");
+        assertEquals(6, count("select count(*) from users where id > ? and role = 'TEACHER'", maxUserId));
+
+        double average = (double) written.get("student_course") / written.get("courses");
+        long largest = count("select max(c) from (select count(*) c from student_course where student_id > ? "
+                + "group by course_id) t", maxStudentId);
+        assertTrue(largest > 3 * average, "largest course " + largest + " vs average " + average);
+    }
+
+    // ==================== TEST: reproducible from the seed ====================
+    @Test
+    void sameSeed_ShouldGenerateSameData() {
+        dataGenerator.generate(plan(7));
+        List<String> first = snapshot();
+        tearDown();
+        setUp();
+
+        dataGenerator.generate(plan(7));
+        assertEquals(first, snapshot());
+
+        tearDown();
+        setUp();
+        dataGenerator.generate(plan(8));
+        assertNotEquals(first, snapshot());
+    }
+
+    // ==================== TEST: application keeps inserting afterwards ====================
+    @Test
+    void afterGenerate_HibernateInsertsShouldNotCollide() {
+        dataGenerator.generate(plan(42));
+
+        // More than two id blocks: uses up any block Hibernate already held, then draws from the moved sequence
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            students.add(new Student("After Datagen " + i, "AFTER-DATAGEN-" + i, null));
+        }
+        studentRepository.saveAll(students);
+        Department department = departmentRepository.save(new Department("After Datagen"));
+
+        assertEquals(620, count("select count(*) from students where id > ?", maxStudentId));
+        assertTrue(department.getId() > maxDepartmentId);
+    }
+
+    private static GeneratorPlan plan(long seed) {
+        GeneratorPlan plan = new GeneratorPlan();
+        plan.setSeed(seed);
+        plan.setDepartments(4);
+        plan.setCourses(40);
+        plan.setTeachers(6);
+        plan.setStudents(500);
+        plan.setUsers(20);
+        plan.setEnrollmentsPerStudent(3);
+        plan.setSkew(1.1);
+        plan.setBatchSize(64);
+        return plan;
+    }
+
+    // Generated content with ids relative to the first generated id, so two runs can be compared
+    private List<String> snapshot() {
+        long firstStudent = count("select min(id) from students where id > ?", maxStudentId);
+        long firstCourse = count("select min(id) from courses where id > ?", maxCourseId);
+        List<String> rows = new ArrayList<>(jdbc.queryForList(
+                "select (id - ?) || '|' || name from students where id > ? order by id",
+                String.class, firstStudent, maxStudentId));
+        rows.addAll(jdbc.queryForList("select name from courses where id > ? order by id", String.class, maxCourseId));
+        rows.addAll(jdbc.queryForList("select (student_id - ?) || '-' || (course_id - ?) from student_course "
+                        + "where student_id > ? order by student_id, course_id",
+                String.class, firstStudent, firstCourse, maxStudentId));
+        return rows;
+    }
+
+    private long maxId(String table) {
+        return jdbc.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbc.queryForObject(sql, Long.class, args);
+    }
+}
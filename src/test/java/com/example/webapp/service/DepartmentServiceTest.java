@@ -2,14 +2,16 @@ package com.example.webapp.service;
 
 import com.example.webapp.dto.DepartmentDTO;
 import com.example.webapp.entity.Department;
+import com.example.webapp.mapper.DtoMapper;
+import com.example.webapp.mapper.DtoMapperImpl;
 import com.example.webapp.repository.DepartmentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 
 import java.util.Arrays;
 import java.util.List;
@@ -29,8 +31,17 @@ class DepartmentServiceTest {
     @Mock
     private DepartmentRepository departmentRepository;
 
+    // Real generated mapper, so the tests see the same DTOs as the app
+    @Spy
+    private DtoMapper dtoMapper = new DtoMapperImpl();
+
+    // Cache invalidation is checked in DtoCacheTest
+    @Mock
+    private DtoCache dtoCache;
+
+    // Delivery is checked in EntityChangeBusTest
     @Mock
-    private ModelMapper modelMapper;
+    private EntityChangeBus entityChangeBus;
 
     // WHAT: The actual service we're testing
     // HOW: @InjectMocks injects the @Mock objects into this service automatically
@@ -74,6 +85,22 @@ class DepartmentServiceTest {
         verify(departmentRepository, times(1)).findAll();
     }
 
+    // ==================== TEST: getDepartmentOptions ====================
+    // WHAT: Dropdown options carry only id and name
+    // HOW: Mock the cacheable query, check no teacher/course ids are filled in
+    @Test
+    void getDepartmentOptions_ShouldReturnIdAndNameOnly() {
+        when(departmentRepository.findAllByOrderByNameAsc()).thenReturn(Arrays.asList(department));
+
+        List<DepartmentDTO> result = departmentService.getDepartmentOptions();
+
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals("Computer Science", result.get(0).getName());
+        assertNull(result.get(0).getTeacherIds());
+        assertNull(result.get(0).getCourseIds());
+    }
+
     // ==================== TEST: getDepartmentById ====================
     // WHAT: Tests if getDepartmentById returns correct department when found
     // HOW: Mock findById() to return Optional with department
@@ -107,11 +134,10 @@ class DepartmentServiceTest {
 
     // ==================== TEST: saveDepartment ====================
     // WHAT: Tests if saveDepartment correctly saves a new department
-    // HOW: Mock modelMapper and repository.save(), verify they're called correctly
+    // HOW: Real dtoMapper builds the entity, repository.save() is mocked and verified
     @Test
     void saveDepartment_ShouldSaveAndReturnDepartment() {
         // Arrange
-        when(modelMapper.map(departmentDTO, Department.class)).thenReturn(department);
         when(departmentRepository.save(any(Department.class))).thenReturn(department);
 
         // Act
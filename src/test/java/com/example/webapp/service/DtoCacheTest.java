@@ -0,0 +1,206 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.DepartmentDTO;
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.entity.Student;
+import com.example.webapp.entity.Teacher;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for the service-level DTO caches and their invalidation
+// HOW: Caches are switched on for this context only. Each test warms the caches through the read methods, runs a write,
+//      and checks which entries were evicted - including DTOs of other entity types that the write changed
+@SpringBootTest(properties = "app.cache.enabled=true")
+@ActiveProfiles("test")
+@Transactional
+class DtoCacheTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TeacherService teacherService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Department department;
+    private Course course;
+    private Course otherCourse;
+    private Teacher teacher;
+    private Student enrolled;
+    private Student newcomer;
+    private Student bystander;
+
+    @BeforeEach
+    void setUp() {
+        DtoCache.NAMES.forEach(name -> cacheManager.getCache(name).clear());
+
+        department = new Department("Cache Department");
+        entityManager.persist(department);
+        course = new Course("Cache Course", null);
+        course.setDepartment(department);
+        entityManager.persist(course);
+        otherCourse = new Course("Other Course", null);
+        entityManager.persist(otherCourse);
+        teacher = new Teacher("Cache Teacher", "cache.teacher@example.com");
+        teacher.setDepartment(department);
+        entityManager.persist(teacher);
+
+        enrolled = new Student("Enrolled", "C-1", null);
+        enrolled.addCourse(course);
+        newcomer = new Student("Newcomer", "C-2", null);
+        bystander = new Student("Bystander", "C-3", null);
+        bystander.addCourse(otherCourse);
+        entityManager.persist(enrolled);
+        entityManager.persist(newcomer);
+        entityManager.persist(bystander);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // ==================== reads ====================
+    @Test
+    void getStudentDTO_ShouldBeServedFromCacheOnRepeat() {
+        studentService.getStudentDTO(enrolled.getId());
+        studentService.getStudentDTO(enrolled.getId());
+
+        assertTrue(cached(DtoCache.STUDENT, enrolled.getId()));
+        double hitRatio = meterRegistry.get("cache.hit.ratio").tag("cache", DtoCache.STUDENT).gauge().value();
+        assertTrue(hitRatio > 0, "hit ratio gauge should count the repeat lookup");
+    }
+
+    // ==================== cross-entity invalidation ====================
+    @Test
+    void updateCourse_ShouldEvictOnlyStudentsWhoseEnrollmentChanged() {
+        warmStudents();
+        CourseDTO current = courseService.getCourseDTO(course.getId());
+
+        CourseDTO request = new CourseDTO();
+        request.setName(current.getName());
+        request.setDepartmentId(current.getDepartmentId());
+        request.setStudentIds(List.of(newcomer.getId())); // drops enrolled, adds newcomer
+        courseService.updateCourse(course.getId(), request);
+
+        assertFalse(cached(DtoCache.STUDENT, enrolled.getId()));
+        assertFalse(cached(DtoCache.STUDENT, newcomer.getId()));
+        assertTrue(cached(DtoCache.STUDENT, bystander.getId()));
+        assertFalse(cached(DtoCache.COURSE, course.getId()));
+
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(List.of(course.getId()), studentService.getStudentDTO(newcomer.getId()).getCourseIds());
+        assertTrue(studentService.getStudentDTO(enrolled.getId()).getCourseIds().isEmpty());
+    }
+
+    @Test
+    void updateStudent_ShouldEvictCoursesGainedAndLost() {
+        courseService.getCourseDTO(course.getId());
+        courseService.getCourseDTO(otherCourse.getId());
+        courseService.getAllCoursesDTO();
+
+        studentService.updateStudent(enrolled.getId(), studentRequest(enrolled, otherCourse.getId()), true);
+
+        assertFalse(cached(DtoCache.STUDENT, enrolled.getId()));
+        assertFalse(cached(DtoCache.COURSE, course.getId()));
+        assertFalse(cached(DtoCache.COURSE, otherCourse.getId()));
+        assertFalse(cached(DtoCache.COURSE_LIST, DtoCache.ALL));
+    }
+
+    @Test
+    void updateStudent_WithSameCourses_ShouldKeepCourseEntries() {
+        courseService.getCourseDTO(course.getId());
+
+        studentService.updateStudent(enrolled.getId(), studentRequest(enrolled, course.getId()), true);
+
+        assertTrue(cached(DtoCache.COURSE, course.getId()));
+    }
+
+    @Test
+    void assignStudentToTeacher_ShouldEvictBothSides() {
+        teacherService.getTeacherDTO(teacher.getId());
+        warmStudents();
+
+        teacherService.assignStudentToTeacher(teacher.getId(), newcomer.getId());
+
+        assertFalse(cached(DtoCache.TEACHER, teacher.getId()));
+        assertFalse(cached(DtoCache.STUDENT, newcomer.getId()));
+        assertTrue(cached(DtoCache.STUDENT, enrolled.getId()));
+    }
+
+    @Test
+    void updateDepartment_Rename_ShouldEvictCoursesAndTeachersShowingTheName() {
+        courseService.getCourseDTO(course.getId());
+        courseService.getCourseDTO(otherCourse.getId());
+        teacherService.getTeacherDTO(teacher.getId());
+        departmentService.getAllDepartmentsDTO();
+
+        departmentService.updateDepartment(department.getId(), new DepartmentDTO(department.getId(), "Renamed"));
+
+        assertFalse(cached(DtoCache.COURSE, course.getId()));
+        assertFalse(cached(DtoCache.TEACHER, teacher.getId()));
+        assertTrue(cached(DtoCache.COURSE, otherCourse.getId()));
+        assertFalse(cached(DtoCache.DEPARTMENT_LIST, DtoCache.ALL));
+        assertEquals("Renamed", courseService.getCourseDTO(course.getId()).getDepartmentName());
+    }
+
+    @Test
+    void saveCourse_ShouldEvictListAndDepartment() {
+        courseService.getAllCoursesDTO();
+        departmentService.getAllDepartmentsDTO();
+
+        CourseDTO request = new CourseDTO();
+        request.setName("New Course");
+        request.setDepartmentId(department.getId());
+        courseService.saveCourse(request);
+
+        assertFalse(cached(DtoCache.COURSE_LIST, DtoCache.ALL));
+        assertFalse(cached(DtoCache.DEPARTMENT_LIST, DtoCache.ALL));
+    }
+
+    private void warmStudents() {
+        studentService.getStudentDTO(enrolled.getId());
+        studentService.getStudentDTO(newcomer.getId());
+        studentService.getStudentDTO(bystander.getId());
+    }
+
+    private static StudentDTO studentRequest(Student student, Long courseId) {
+        StudentDTO request = new StudentDTO();
+        request.setName(student.getName());
+        request.setRoll(student.getRoll());
+        request.setCourseIds(List.of(courseId));
+        return request;
+    }
+
+    private boolean cached(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        return cache != null && cache.get(key) != null;
+    }
+}
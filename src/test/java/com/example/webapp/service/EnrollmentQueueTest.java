@@ -0,0 +1,210 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.EnrollmentResult;
+import com.example.webapp.dto.EnrollmentTicket;
+import com.example.webapp.dto.EnrollmentTicket.Action;
+import com.example.webapp.dto.EnrollmentTicket.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+// WHAT: Unit test for the enrollment request queue - arrival order per course, courses taking turns, batching,
+//       backpressure and failure isolation
+// HOW: Mocked EnrollmentService and transaction manager, real executor. Student BLOCKER's request holds its batch
+//      on a latch, so the test can fill the queue behind it before anything else is processed
+class EnrollmentQueueTest {
+
+    private static final Long HOT = 1L;
+    private static final Long COLD = 2L;
+    private static final Long BLOCKER = 100L;
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private EnrollmentService enrollmentService;
+    private SimpleMeterRegistry meterRegistry;
+    private EnrollmentQueue queue;
+
+    private final List<Long> processed = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch blockerStarted = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        enrollmentService = mock(EnrollmentService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(enrollmentService.enroll(anyLong(), anyLong())).thenAnswer(invocation -> {
+            Long studentId = invocation.getArgument(1);
+            processed.add(studentId);
+            if (studentId.equals(BLOCKER)) {
+                blockerStarted.countDown();
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            }
+            return EnrollmentResult.ENROLLED;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        queue.destroy();
+    }
+
+    // ==================== TEST: ordering and batching ====================
+    @Test
+    void submit_ShouldProcessOneCourseInArrivalOrderAndInBatches() throws Exception {
+        queue = queue(10, 3, 2);
+        List<EnrollmentTicket> tickets = new ArrayList<>();
+        tickets.add(queue.submit(HOT, BLOCKER, Action.ENROLL));
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        for (long student = 1; student <= 6; student++) {
+            tickets.add(queue.submit(HOT, student, Action.ENROLL));
+        }
+        assertEquals(6, queue.getDepth());
+        assertEquals(State.QUEUED, tickets.get(1).getState());
+        assertEquals(1, tickets.get(1).getPosition());
+        assertEquals(6, tickets.get(6).getPosition());
+
+        release.countDown();
+        awaitAll(tickets);
+
+        assertEquals(List.of(BLOCKER, 1L, 2L, 3L, 4L, 5L, 6L), processed);
+        assertEquals(0, queue.getDepth());
+        // the blocker alone, then the six waiting requests in two full batches
+        assertEquals(3, meterRegistry.get("enrollment.queue.batch.size").summary().count());
+        assertEquals(7, meterRegistry.get("enrollment.queue.batch.size").summary().totalAmount());
+        assertEquals(7, meterRegistry.get("enrollment.queue.wait").timer().count());
+        assertEquals(7, meterRegistry.get("enrollment.queue.latency").tag("outcome", "ENROLLED").timer().count());
+    }
+
+    @Test
+    void submit_ShouldLetCoursesTakeTurns() throws Exception {
+        queue = queue(10, 2, 1);
+        List<EnrollmentTicket> tickets = new ArrayList<>();
+        tickets.add(queue.submit(HOT, BLOCKER, Action.ENROLL));
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        for (long student = 1; student <= 6; student++) {
+            tickets.add(queue.submit(HOT, student, Action.ENROLL));
+        }
+        tickets.add(queue.submit(COLD, 50L, Action.ENROLL));
+
+        release.countDown();
+        awaitAll(tickets);
+
+        // the cold course arrived last but only waits for the hot course's running batch
+        assertEquals(List.of(BLOCKER, 50L, 1L, 2L, 3L, 4L, 5L, 6L), processed);
+    }
+
+    @Test
+    void submit_SameRequestWhileQueued_ShouldReturnWaitingTicket() throws Exception {
+        queue = queue(10, 5, 1);
+        queue.submit(HOT, BLOCKER, Action.ENROLL);
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+
+        EnrollmentTicket first = queue.submit(HOT, 1L, Action.ENROLL);
+        EnrollmentTicket second = queue.submit(HOT, 1L, Action.ENROLL);
+
+        assertEquals(first.getId(), second.getId());
+        assertEquals(1, queue.getDepth());
+        assertEquals(first.getId(), queue.findOutstanding(HOT, 1L).orElseThrow().getId());
+    }
+
+    // ==================== TEST: backpressure ====================
+    @Test
+    void submit_WhenQueueIsFull_ShouldRejectImmediately() throws Exception {
+        queue = queue(2, 1, 1);
+        List<EnrollmentTicket> tickets = new ArrayList<>();
+        tickets.add(queue.submit(HOT, BLOCKER, Action.ENROLL));
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        tickets.add(queue.submit(HOT, 1L, Action.ENROLL));
+        tickets.add(queue.submit(COLD, 2L, Action.ENROLL));
+
+        EnrollmentTicket rejected = queue.submit(HOT, 3L, Action.ENROLL);
+
+        assertEquals(State.REJECTED, rejected.getState());
+        assertTrue(rejected.isFinished());
+        assertEquals(1.0, meterRegistry.get("enrollment.queue.rejected").counter().count());
+        release.countDown();
+        awaitAll(tickets);
+        assertFalse(processed.contains(3L));
+    }
+
+    // ==================== TEST: failures ====================
+    @Test
+    void process_FailingRequest_ShouldOnlyFailItself() throws Exception {
+        queue = queue(10, 5, 1);
+        when(enrollmentService.enroll(HOT, 2L)).thenThrow(new RuntimeException("Course not found"));
+        queue.submit(HOT, BLOCKER, Action.ENROLL);
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        List<EnrollmentTicket> tickets = List.of(
+                queue.submit(HOT, 1L, Action.ENROLL),
+                queue.submit(HOT, 2L, Action.ENROLL),
+                queue.submit(HOT, 3L, Action.DROP));
+        when(enrollmentService.drop(HOT, 3L)).thenReturn(true);
+
+        release.countDown();
+        List<EnrollmentTicket> results = awaitAll(tickets);
+
+        assertEquals(State.COMPLETED, results.get(0).getState());
+        assertEquals(EnrollmentResult.ENROLLED, results.get(0).getResult());
+        assertEquals(State.FAILED, results.get(1).getState());
+        assertEquals("Course not found", results.get(1).getMessage());
+        assertEquals(State.COMPLETED, results.get(2).getState());
+        assertEquals(EnrollmentResult.DROPPED, results.get(2).getResult());
+    }
+
+    // ==================== TEST: waiting for the result ====================
+    @Test
+    void submitAndWait_OutsideRush_ShouldReturnResult() {
+        queue = queue(10, 5, 1);
+
+        EnrollmentTicket ticket = queue.submitAndWait(HOT, 1L, Action.ENROLL);
+
+        assertEquals(State.COMPLETED, ticket.getState());
+        assertEquals(EnrollmentResult.ENROLLED, ticket.getResult());
+    }
+
+    @Test
+    void subscribe_ShouldDeliverEveryChangeUntilFinished() throws Exception {
+        queue = queue(10, 5, 1);
+        queue.submit(HOT, BLOCKER, Action.ENROLL);
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        EnrollmentTicket ticket = queue.submit(HOT, 1L, Action.ENROLL);
+        List<State> states = Collections.synchronizedList(new ArrayList<>());
+        queue.subscribe(ticket.getId(), update -> states.add(update.getState())).orElseThrow();
+
+        release.countDown();
+        queue.await(ticket.getId(), WAIT);
+
+        assertEquals(List.of(State.QUEUED, State.PROCESSING, State.COMPLETED), states);
+        assertTrue(queue.subscribe("unknown", update -> { }).isEmpty());
+    }
+
+    private EnrollmentQueue queue(int capacity, int batchSize, int workers) {
+        return new EnrollmentQueue(enrollmentService, mock(PlatformTransactionManager.class),
+                new SimpleAsyncTaskExecutorBuilder(), meterRegistry, capacity, batchSize, workers,
+                Duration.ofMillis(500), Duration.ofMinutes(1));
+    }
+
+    private List<EnrollmentTicket> awaitAll(List<EnrollmentTicket> tickets) {
+        List<EnrollmentTicket> results = new ArrayList<>();
+        for (EnrollmentTicket ticket : tickets) {
+            EnrollmentTicket result = queue.await(ticket.getId(), WAIT).orElseThrow();
+            assertTrue(result.isFinished(), "ticket not finished: " + result.getState());
+            results.add(result);
+        }
+        return results;
+    }
+}
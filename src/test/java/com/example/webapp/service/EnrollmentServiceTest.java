@@ -0,0 +1,230 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.EnrollmentResult;
+import com.example.webapp.dto.SeatStatus;
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Student;
+import com.example.webapp.repository.CourseRepository;
+import com.example.webapp.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for capacity-limited courses — seats, waitlist order, recounts after teacher changes
+// HOW: Real services on H2; every call commits, so the course and students are deleted after each test
+@SpringBootTest
+@ActiveProfiles("test")
+class EnrollmentServiceTest {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Course course;
+    private List<Long> students;
+
+    @BeforeEach
+    void setUp() {
+        course = courseService.saveCourse(courseDTO("Seats 101", 3));
+        students = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            students.add(studentRepository.save(new Student("Seat Student " + i, "SEAT-" + i, null)).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("delete from course_waitlist where course_id = ?", course.getId());
+        jdbc.update("delete from course_seats where course_id = ?", course.getId());
+        jdbc.update("delete from student_course where course_id = ?", course.getId());
+        studentRepository.deleteAllById(students);
+        courseRepository.deleteById(course.getId());
+    }
+
+    // ==================== TEST: enroll ====================
+    @Test
+    void enroll_ShouldFillSeatsThenWaitlist() {
+        assertEquals(EnrollmentResult.ENROLLED, enrollmentService.enroll(course.getId(), students.get(0)));
+        assertEquals(EnrollmentResult.ENROLLED, enrollmentService.enroll(course.getId(), students.get(1)));
+        assertEquals(EnrollmentResult.ENROLLED, enrollmentService.enroll(course.getId(), students.get(2)));
+        assertEquals(EnrollmentResult.WAITLISTED, enrollmentService.enroll(course.getId(), students.get(3)));
+        assertEquals(EnrollmentResult.WAITLISTED, enrollmentService.enroll(course.getId(), students.get(4)));
+
+        assertEquals(EnrollmentResult.ALREADY_ENROLLED, enrollmentService.enroll(course.getId(), students.get(0)));
+        assertEquals(EnrollmentResult.ALREADY_WAITLISTED, enrollmentService.enroll(course.getId(), students.get(3)));
+
+        SeatStatus seats = enrollmentService.getSeatStatus(course.getId(), students.get(4));
+        assertEquals(3, seats.getCapacity());
+        assertEquals(3, seats.getEnrolled());
+        assertEquals(0, seats.getFree());
+        assertEquals(2, seats.getWaitlisted());
+        assertEquals(2, seats.getWaitlistPosition());
+    }
+
+    @Test
+    void enroll_UnlimitedCourse_ShouldNeverWaitlist() {
+        Course open = courseService.saveCourse(courseDTO("Open 101", null));
+        try {
+            for (Long studentId : students) {
+                assertEquals(EnrollmentResult.ENROLLED, enrollmentService.enroll(open.getId(), studentId));
+            }
+            assertNull(enrollmentService.getSeatStatus(open.getId(), null));
+        } finally {
+            jdbc.update("delete from student_course where course_id = ?", open.getId());
+            courseRepository.deleteById(open.getId());
+        }
+    }
+
+    // ==================== TEST: drop ====================
+    @Test
+    void drop_ShouldGiveSeatToFirstOnWaitlist() {
+        for (int i = 0; i < 5; i++) {
+            enrollmentService.enroll(course.getId(), students.get(i));
+        }
+
+        assertTrue(enrollmentService.drop(course.getId(), students.get(1)));
+
+        assertEquals(List.of(students.get(0), students.get(2), students.get(3)), enrolled());
+        assertEquals(List.of(students.get(4)), waitlisted());
+        assertEquals(0, enrollmentService.getSeatStatus(course.getId(), null).getFree());
+    }
+
+    @Test
+    void drop_WithEmptyWaitlist_ShouldFreeSeat() {
+        enrollmentService.enroll(course.getId(), students.get(0));
+
+        assertTrue(enrollmentService.drop(course.getId(), students.get(0)));
+        assertFalse(enrollmentService.drop(course.getId(), students.get(0)));
+
+        assertEquals(3, enrollmentService.getSeatStatus(course.getId(), null).getFree());
+    }
+
+    @Test
+    void drop_FromWaitlist_ShouldKeepSeatsUnchanged() {
+        for (int i = 0; i < 4; i++) {
+            enrollmentService.enroll(course.getId(), students.get(i));
+        }
+
+        assertTrue(enrollmentService.drop(course.getId(), students.get(3)));
+
+        assertEquals(3, enrolled().size());
+        assertEquals(List.of(), waitlisted());
+    }
+
+    // ==================== TEST: teacher changes and recount ====================
+    @Test
+    void raisingCapacity_ShouldMoveWaitlistIntoSeats() {
+        for (int i = 0; i < 5; i++) {
+            enrollmentService.enroll(course.getId(), students.get(i));
+        }
+
+        CourseDTO update = courseDTO("Seats 101", 4);
+        update.setStudentIds(enrolled());
+        courseService.updateCourse(course.getId(), update);
+
+        assertEquals(List.of(students.get(0), students.get(1), students.get(2), students.get(3)), enrolled());
+        assertEquals(List.of(students.get(4)), waitlisted());
+        assertEquals(0, enrollmentService.getSeatStatus(course.getId(), null).getFree());
+    }
+
+    @Test
+    void removingCapacity_ShouldEnrollEveryoneWaiting() {
+        for (int i = 0; i < 5; i++) {
+            enrollmentService.enroll(course.getId(), students.get(i));
+        }
+
+        CourseDTO update = courseDTO("Seats 101", null);
+        update.setStudentIds(enrolled());
+        courseService.updateCourse(course.getId(), update);
+
+        assertEquals(5, enrolled().size());
+        assertEquals(List.of(), waitlisted());
+        assertEquals(0, jdbc.queryForObject("select count(*) from course_seats where course_id = ?",
+                Integer.class, course.getId()));
+    }
+
+    @Test
+    void teacherRoster_MayGoPastCapacity_AndCountersFollow() {
+        CourseDTO update = courseDTO("Seats 101", 3);
+        update.setStudentIds(students.subList(0, 5));
+        courseService.updateCourse(course.getId(), update);
+
+        SeatStatus seats = enrollmentService.getSeatStatus(course.getId(), null);
+        assertEquals(5, seats.getEnrolled());
+        assertEquals(0, seats.getFree());
+        assertEquals(EnrollmentResult.WAITLISTED, enrollmentService.enroll(course.getId(), students.get(5)));
+    }
+
+    // ==================== TEST: student profile form ====================
+    @Test
+    void studentProfileEdit_FullCourse_ShouldWaitlistInsteadOfEnrolling() {
+        for (int i = 0; i < 3; i++) {
+            enrollmentService.enroll(course.getId(), students.get(i));
+        }
+        Long studentId = students.get(5);
+        StudentDTO profile = studentService.getStudentDTO(studentId);
+        profile.setCourseIds(List.of(course.getId()));
+
+        studentService.updateStudentByStudent(studentId, profile, studentId);
+
+        assertFalse(enrolled().contains(studentId));
+        assertEquals(List.of(studentId), waitlisted());
+    }
+
+    @Test
+    void studentProfileEdit_RemovingCourse_ShouldReleaseSeat() {
+        for (int i = 0; i < 4; i++) {
+            enrollmentService.enroll(course.getId(), students.get(i));
+        }
+        Long studentId = students.get(0);
+        StudentDTO profile = studentService.getStudentDTO(studentId);
+        profile.setCourseIds(List.of());
+
+        studentService.updateStudentByStudent(studentId, profile, studentId);
+
+        assertEquals(List.of(students.get(1), students.get(2), students.get(3)), enrolled());
+        assertEquals(List.of(), waitlisted());
+    }
+
+    private List<Long> enrolled() {
+        return jdbc.queryForList("select student_id from student_course where course_id = ? order by student_id",
+                Long.class, course.getId());
+    }
+
+    private List<Long> waitlisted() {
+        return jdbc.queryForList("select student_id from course_waitlist where course_id = ? order by id",
+                Long.class, course.getId());
+    }
+
+    private static CourseDTO courseDTO(String name, Integer capacity) {
+        CourseDTO dto = new CourseDTO();
+        dto.setName(name);
+        dto.setCapacity(capacity);
+        return dto;
+    }
+}
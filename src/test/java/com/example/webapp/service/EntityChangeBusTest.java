@@ -0,0 +1,242 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.EntityChange;
+import com.example.webapp.dto.EntityChange.Action;
+import com.example.webapp.dto.EntityChange.Type;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Unit test for the entity change bus - delivery after commit only, batching, per-entity order, dropping when
+//       full, failure isolation and the lag metric
+// HOW: Real executor, listeners registered in a StaticListableBeanFactory. A change of student BLOCKER holds its
+//      batch on a latch, so the test can queue changes behind it. Transactions are simulated with
+//      TransactionSynchronizationManager and triggered by hand
+class EntityChangeBusTest {
+
+    private static final Long BLOCKER = 100L;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EntityChangeBus bus;
+
+    private final Recorder recorder = new Recorder();
+    private final CountDownLatch blockerStarted = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        bus.destroy();
+    }
+
+    // ==================== TEST: after commit ====================
+    @Test
+    void publish_InTransaction_ShouldDeliverOnceAfterCommit() throws Exception {
+        bus = bus(10, 10, 1, recorder);
+        TransactionSynchronizationManager.initSynchronization();
+        bus.publish(Type.STUDENT, Action.UPDATED, 1L);
+        bus.publish(Type.STUDENT, Action.UPDATED, List.of(1L, 2L));
+
+        Thread.sleep(50);
+        assertTrue(recorder.changes().isEmpty(), "nothing is delivered before commit");
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(List.of("STUDENT 1 UPDATED", "STUDENT 2 UPDATED"), recorder.await(2));
+    }
+
+    @Test
+    void publish_InRolledBackTransaction_ShouldDeliverNothing() throws Exception {
+        bus = bus(10, 10, 1, recorder);
+        TransactionSynchronizationManager.initSynchronization();
+        bus.publish(Type.COURSE, Action.DELETED, 1L);
+
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.clearSynchronization();
+        bus.publish(Type.COURSE, Action.CREATED, 2L);
+
+        assertEquals(List.of("COURSE 2 CREATED"), recorder.await(1));
+        assertEquals(0, bus.getDepth());
+    }
+
+    // ==================== TEST: batching and order ====================
+    @Test
+    void publish_ShouldDeliverInCommitOrderAndInBatches() throws Exception {
+        bus = bus(10, 3, 1, blocking(recorder));
+        bus.publish(Type.STUDENT, Action.UPDATED, BLOCKER);
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        for (long student = 1; student <= 6; student++) {
+            bus.publish(Type.STUDENT, Action.UPDATED, student);
+        }
+        assertEquals(6, bus.getDepth());
+
+        release.countDown();
+        recorder.await(7);
+
+        assertEquals(List.of(1, 3, 3), recorder.batchSizes());
+        List<Long> sequences = recorder.received().stream().map(EntityChange::getSequence).toList();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), sequences);
+        assertEquals(0, bus.getDepth());
+        assertEquals(3, meterRegistry.get("entity.changes.batch.size").summary().count());
+        assertEquals(7, meterRegistry.get("entity.changes.published").tag("type", "STUDENT").counter().count());
+    }
+
+    @Test
+    void publish_ManyLanes_ShouldKeepEachEntityInOrder() throws Exception {
+        bus = bus(10_000, 4, 4, recorder);
+        for (Action action : Action.values()) {
+            for (Type type : Type.values()) {
+                for (long id = 1; id <= 50; id++) {
+                    bus.publish(type, action, id);
+                }
+            }
+        }
+
+        recorder.await(Action.values().length * Type.values().length * 50);
+
+        Map<String, List<Action>> byEntity = new HashMap<>();
+        for (EntityChange change : recorder.received()) {
+            byEntity.computeIfAbsent(change.getType() + " " + change.getId(), key -> new ArrayList<>())
+                    .add(change.getAction());
+        }
+        assertEquals(200, byEntity.size());
+        byEntity.forEach((entity, actions) -> assertEquals(List.of(Action.values()), actions, entity));
+    }
+
+    // ==================== TEST: capacity ====================
+    @Test
+    void publish_WhenFull_ShouldDropAndCount() throws Exception {
+        bus = bus(2, 10, 1, blocking(recorder));
+        bus.publish(Type.STUDENT, Action.UPDATED, BLOCKER);
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+
+        bus.publish(Type.STUDENT, Action.UPDATED, List.of(1L, 2L, 3L));
+
+        assertEquals(2, bus.getDepth());
+        assertEquals(1.0, meterRegistry.get("entity.changes.dropped").counter().count());
+        release.countDown();
+        assertEquals(List.of("STUDENT 100 UPDATED", "STUDENT 1 UPDATED", "STUDENT 2 UPDATED"), recorder.await(3));
+    }
+
+    // ==================== TEST: failures ====================
+    @Test
+    void deliver_FailingListener_ShouldNotAffectOthers() throws Exception {
+        EntityChangeListener failing = changes -> {
+            throw new RuntimeException("listener down");
+        };
+        bus = bus(10, 10, 1, failing, recorder);
+
+        bus.publish(Type.TEACHER, Action.CREATED, 1L);
+        recorder.await(1);
+        bus.publish(Type.TEACHER, Action.UPDATED, 1L);
+
+        assertEquals(List.of("TEACHER 1 CREATED", "TEACHER 1 UPDATED"), recorder.await(2));
+        assertEquals(2.0, meterRegistry.get("entity.changes.listener.failures").counter().count());
+        assertEquals(2, meterRegistry.get("entity.changes.listener").tag("listener", "Recorder").timer().count());
+    }
+
+    // ==================== TEST: lag ====================
+    @Test
+    void deliver_ShouldRecordTimeSinceCommit() throws Exception {
+        bus = bus(10, 10, 1, blocking(recorder));
+        bus.publish(Type.STUDENT, Action.UPDATED, BLOCKER);
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        bus.publish(Type.DEPARTMENT, Action.UPDATED, 1L);
+        Thread.sleep(100);
+
+        release.countDown();
+        recorder.await(2);
+
+        assertEquals(2, meterRegistry.get("entity.changes.lag").timer().count());
+        // the second change waited behind the blocked batch
+        assertTrue(meterRegistry.get("entity.changes.lag").timer().max(TimeUnit.MILLISECONDS) >= 100);
+    }
+
+    private EntityChangeBus bus(int capacity, int batchSize, int lanes, EntityChangeListener... listeners) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(new LinkedHashMap<>());
+        for (int i = 0; i < listeners.length; i++) {
+            beanFactory.addBean("listener" + i, listeners[i]);
+        }
+        return new EntityChangeBus(beanFactory.getBeanProvider(EntityChangeListener.class),
+                new SimpleAsyncTaskExecutorBuilder(), meterRegistry, capacity, batchSize, lanes, Duration.ofSeconds(5));
+    }
+
+    // Holds the batch with the BLOCKER change until released
+    private EntityChangeListener blocking(EntityChangeListener delegate) {
+        return changes -> {
+            delegate.onChanges(changes);
+            if (changes.stream().anyMatch(change -> change.getId().equals(BLOCKER))) {
+                blockerStarted.countDown();
+                try {
+                    assertTrue(release.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    private static final class Recorder implements EntityChangeListener {
+        private final List<List<EntityChange>> batches = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onChanges(List<EntityChange> changes) {
+            batches.add(changes);
+        }
+
+        List<EntityChange> received() {
+            synchronized (batches) {
+                return batches.stream().flatMap(List::stream).toList();
+            }
+        }
+
+        List<Integer> batchSizes() {
+            synchronized (batches) {
+                return batches.stream().map(List::size).toList();
+            }
+        }
+
+        List<String> changes() {
+            return received().stream()
+                    .map(change -> change.getType() + " " + change.getId() + " " + change.getAction())
+                    .toList();
+        }
+
+        // Waits until the given number of changes has arrived
+        List<String> await(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (received().size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(count, received().size());
+            return changes();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.DepartmentDTO;
+import com.example.webapp.dto.EntityChange;
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.entity.Student;
+import com.example.webapp.entity.Teacher;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for the entity changes the services publish - delivered after commit on a bus worker,
+//       never for a rolled-back transaction, and without the write waiting for the listener
+// HOW: A recording listener bean; not @Transactional, so every service call commits on its own. The listener can be
+//      held on a latch to stand in for a slow consumer
+@SpringBootTest
+@ActiveProfiles("test")
+class EntityChangePublicationTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TeacherService teacherService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private ChangeRecorder recorder;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        recorder.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recorder.release.countDown();
+        jdbcTemplate.update("delete from teacher_student where student_id in "
+                + "(select id from students where roll like 'EC-%')");
+        jdbcTemplate.update("delete from students where roll like 'EC-%'");
+        jdbcTemplate.update("delete from teachers where email like 'ec.%'");
+        jdbcTemplate.update("delete from departments where name like 'EC %'");
+    }
+
+    // ==================== TEST: after commit, off the request thread ====================
+    @Test
+    void saveStudent_ShouldNotWaitForSlowListener() throws Exception {
+        recorder.release = new CountDownLatch(1);
+
+        long start = System.nanoTime();
+        Student saved = studentService.saveStudent(student("EC-1"));
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(millis < 2_000, "the write returned while the listener was held: " + millis + " ms");
+        recorder.release.countDown();
+        assertEquals(List.of("STUDENT " + saved.getId() + " CREATED"), recorder.await(1));
+        assertTrue(recorder.threads.stream().allMatch(name -> name.startsWith("entity-changes-")),
+                recorder.threads.toString());
+    }
+
+    @Test
+    void rolledBackWrite_ShouldPublishNothing() throws Exception {
+        Student rolledBack = transactionTemplate.execute(status -> {
+            Student student = studentService.saveStudent(student("EC-2"));
+            status.setRollbackOnly();
+            return student;
+        });
+        Student committed = studentService.saveStudent(student("EC-3"));
+
+        assertEquals(List.of("STUDENT " + committed.getId() + " CREATED"), recorder.await(1));
+        assertNotEquals(rolledBack.getId(), committed.getId());
+    }
+
+    // ==================== TEST: what the services report ====================
+    @Test
+    void assignStudentToTeacher_ShouldReportBothSides() throws Exception {
+        Teacher teacher = new Teacher("Change Teacher", "ec.teacher@example.com");
+        Student student = new Student("Change Student", "EC-4", null);
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.persist(teacher);
+            entityManager.persist(student);
+        });
+
+        teacherService.assignStudentToTeacher(teacher.getId(), student.getId());
+
+        assertEquals(Set.of("TEACHER " + teacher.getId() + " UPDATED", "STUDENT " + student.getId() + " UPDATED"),
+                new HashSet<>(recorder.await(2)));
+    }
+
+    @Test
+    void deleteDepartment_ShouldReportCascadedDeletes() throws Exception {
+        Department department = new Department("EC Department");
+        Course course = new Course("EC Course", "Description");
+        Teacher teacher = new Teacher("EC Teacher", "ec.cascade@example.com");
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.persist(department);
+            course.setDepartment(department);
+            entityManager.persist(course);
+            teacher.setDepartment(department);
+            entityManager.persist(teacher);
+        });
+        DepartmentDTO rename = new DepartmentDTO();
+        rename.setName("EC Department Renamed");
+        departmentService.updateDepartment(department.getId(), rename);
+        assertEquals(Set.of("DEPARTMENT " + department.getId() + " UPDATED",
+                        "COURSE " + course.getId() + " UPDATED",
+                        "TEACHER " + teacher.getId() + " UPDATED"),
+                new HashSet<>(recorder.await(3)));
+        recorder.reset();
+
+        departmentService.deleteDepartment(department.getId());
+
+        // different entities go through different lanes, so only their per-entity order is fixed
+        assertEquals(Set.of("DEPARTMENT " + department.getId() + " DELETED",
+                        "COURSE " + course.getId() + " DELETED",
+                        "TEACHER " + teacher.getId() + " DELETED"),
+                new HashSet<>(recorder.await(3)));
+    }
+
+    private static StudentDTO student(String roll) {
+        StudentDTO dto = new StudentDTO();
+        dto.setName("Change Student " + roll);
+        dto.setRoll(roll);
+        return dto;
+    }
+
+    @TestConfiguration
+    static class RecorderConfig {
+
+        @Bean
+        ChangeRecorder changeRecorder() {
+            return new ChangeRecorder();
+        }
+    }
+
+    static class ChangeRecorder implements EntityChangeListener {
+        private final List<EntityChange> received = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        private volatile CountDownLatch release = new CountDownLatch(0);
+
+        @Override
+        public void onChanges(List<EntityChange> changes) {
+            threads.add(Thread.currentThread().getName());
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.addAll(changes);
+        }
+
+        void reset() {
+            received.clear();
+            threads.clear();
+            release = new CountDownLatch(0);
+        }
+
+        // Waits for the given number of changes, then gives the listener a moment to receive unexpected extra ones
+        List<String> await(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (received.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            Thread.sleep(50);
+            synchronized (received) {
+                return received.stream()
+                        .map(change -> change.getType() + " " + change.getId() + " " + change.getAction())
+                        .toList();
+            }
+        }
+    }
+}
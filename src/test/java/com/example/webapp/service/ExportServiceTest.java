@@ -0,0 +1,122 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.ExportFormat;
+import com.example.webapp.dto.ExportStatus;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Student;
+import com.example.webapp.entity.Teacher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for the streaming roster export
+// HOW: Seeds more students than one export batch, exports into a byte buffer and checks rows, formats and statement count
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ExportServiceTest {
+
+    private static final int STUDENTS = 1200; // three export batches
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Course java = new Course("Java", null);
+        Course spring = new Course("Spring, Boot", null);
+        entityManager.persist(java);
+        entityManager.persist(spring);
+        Teacher teacher = new Teacher("Dr. Rahman", null);
+        entityManager.persist(teacher);
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student("Student " + i, "R-" + i, "s" + i + "@example.com");
+            student.addCourse(java);
+            if (i == 0) {
+                student.addCourse(spring);
+                teacher.addStudent(student);
+            }
+            entityManager.persist(student);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private List<String> export(ExportFormat format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.exportStudents(format, output);
+        return output.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    // ==================== CSV ====================
+    @Test
+    void exportStudents_Csv_ShouldWriteEveryStudentWithNames() throws IOException {
+        List<String> lines = export(ExportFormat.CSV);
+
+        assertEquals(STUDENTS + 1, lines.size());
+        assertEquals("id,name,roll,email,courses,teachers", lines.get(0));
+        assertTrue(lines.get(1).endsWith(",Student 0,R-0,s0@example.com,\"Java; Spring, Boot\",Dr. Rahman"));
+        assertTrue(lines.get(STUDENTS).endsWith(",Student 1199,R-1199,s1199@example.com,Java,"));
+    }
+
+    // HOW: One cursor query plus two name queries per batch of 500 — never one query per student
+    @Test
+    void exportStudents_ShouldUseFixedQueriesPerBatch() throws IOException {
+        export(ExportFormat.CSV);
+
+        assertEquals(1 + 2 * 3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    // ==================== NDJSON ====================
+    @Test
+    void exportStudents_Ndjson_ShouldWriteOneObjectPerLine() throws IOException {
+        List<String> lines = export(ExportFormat.NDJSON);
+
+        assertEquals(STUDENTS, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("R-0", first.get("roll").asString());
+        assertEquals(2, first.get("courses").size());
+        assertEquals("Dr. Rahman", first.get("teachers").get(0).asString());
+    }
+
+    // ==================== status ====================
+    @Test
+    void getRecentExports_ShouldReportRowsAndThroughput() throws IOException {
+        export(ExportFormat.CSV);
+
+        ExportStatus status = exportService.getRecentExports().get(0);
+        assertEquals(ExportStatus.State.COMPLETED, status.getState());
+        assertEquals(STUDENTS, status.getRowsWritten());
+        assertTrue(status.getRowsPerSecond() > 0);
+    }
+}
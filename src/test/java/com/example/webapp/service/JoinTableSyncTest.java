@@ -0,0 +1,154 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.dto.TeacherDTO;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Student;
+import com.example.webapp.entity.Teacher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test — statements written when a many-to-many collection is edited, as the collection grows
+// HOW: Links a teacher (or student) to N rows, swaps one link, flushes and counts statements via Hibernate statistics.
+//      JDBC batching is switched off here so that every written row shows up as one prepared statement
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.jdbc.batch_size=0")
+@ActiveProfiles("test")
+@Transactional
+class JoinTableSyncTest {
+
+    private static final int[] SIZES = {10, 100, 400};
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TeacherService teacherService;
+
+    @Autowired
+    private StudentService studentService;
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Seeds a teacher linked to the first n students, plus one unlinked student at the end of the list
+    private List<Long> seedTeacher(Teacher teacher, int n) {
+        entityManager.persist(teacher);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i <= n; i++) {
+            Student student = new Student("S" + i, teacher.getName() + "-" + i, null);
+            entityManager.persist(student);
+            if (i < n) {
+                teacher.addStudent(student);
+            }
+            ids.add(student.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+        return ids;
+    }
+
+    // Swap one link: drop the first student, add the unlinked one
+    private TeacherDTO swapOne(Teacher teacher, List<Long> ids) {
+        TeacherDTO dto = new TeacherDTO();
+        dto.setName(teacher.getName());
+        dto.setStudentIds(new ArrayList<>(ids.subList(1, ids.size())));
+        return dto;
+    }
+
+    private long countSync(int n) {
+        Teacher teacher = new Teacher("Sync " + n, null);
+        List<Long> ids = seedTeacher(teacher, n);
+
+        teacherService.updateTeacher(teacher.getId(), swapOne(teacher, ids));
+        entityManager.flush();
+        long statements = statistics().getPrepareStatementCount();
+
+        entityManager.clear();
+        Teacher reloaded = entityManager.find(Teacher.class, teacher.getId());
+        assertEquals(n, reloaded.getStudents().size());
+        assertFalse(reloaded.getStudents().stream().anyMatch(s -> s.getId().equals(ids.get(0))));
+        return statements;
+    }
+
+    // The previous implementation: replace the collection with a freshly loaded set
+    private long countReplace(int n) {
+        Teacher teacher = new Teacher("Replace " + n, null);
+        List<Long> ids = seedTeacher(teacher, n);
+
+        Teacher managed = entityManager.find(Teacher.class, teacher.getId());
+        List<Student> students = entityManager
+                .createQuery("select s from Student s where s.id in :ids", Student.class)
+                .setParameter("ids", ids.subList(1, ids.size()))
+                .getResultList();
+        managed.setStudents(new HashSet<>(students));
+        entityManager.flush();
+        return statistics().getPrepareStatementCount();
+    }
+
+    // ==================== Teacher.students ====================
+    @Test
+    void updateTeacher_StatementsShouldNotGrowWithCollectionSize() {
+        long[] sync = new long[SIZES.length];
+        long[] replace = new long[SIZES.length];
+        for (int i = 0; i < SIZES.length; i++) {
+            sync[i] = countSync(SIZES[i]);
+            replace[i] = countReplace(SIZES[i]);
+        }
+
+        int last = SIZES.length - 1;
+        for (int i = 1; i < SIZES.length; i++) {
+            int n = i;
+            assertEquals(sync[0], sync[n], () -> "in-place sync statements at links=" + SIZES[n]
+                    + " vs links=" + SIZES[0] + "; replace wrote " + replace[n]);
+        }
+        assertTrue(replace[last] > SIZES[last],
+                () -> "replace wrote " + replace[last] + " statements for links=" + SIZES[last]);
+        assertTrue(sync[last] < 10, () -> "in-place sync wrote " + sync[last] + " statements for links=" + SIZES[last]);
+    }
+
+    // ==================== Student.courses ====================
+    @Test
+    void updateStudent_UnchangedCourses_ShouldWriteNoJoinRows() {
+        Student student = new Student("Course Taker", "CT-1", null);
+        List<Long> courseIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Course course = new Course("C" + i, null);
+            entityManager.persist(course);
+            student.addCourse(course);
+            courseIds.add(course.getId());
+        }
+        entityManager.persist(student);
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+
+        StudentDTO dto = new StudentDTO();
+        dto.setName(student.getName());
+        dto.setRoll(student.getRoll());
+        dto.setCourseIds(courseIds);
+        studentService.updateStudent(student.getId(), dto, true);
+        entityManager.flush();
+
+        // select student, initialize courses; no deletes or inserts
+        assertEquals(2, statistics().getPrepareStatementCount());
+        assertEquals(0, statistics().getCollectionRecreateCount());
+    }
+}
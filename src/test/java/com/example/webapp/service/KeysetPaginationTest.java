@@ -0,0 +1,171 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.KeysetPage;
+import com.example.webapp.dto.ListQuery;
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.entity.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for keyset (cursor) pagination on the list pages
+// HOW: Seeds 45 students on H2 and walks the pages forward and backward using the returned cursors
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class KeysetPaginationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    private Department science;
+
+    @BeforeEach
+    void setUp() {
+        science = new Department("Science");
+        Department arts = new Department("Arts");
+        entityManager.persist(science);
+        entityManager.persist(arts);
+        Course course = new Course("Physics", "Mechanics");
+        course.setDepartment(science);
+        entityManager.persist(course);
+        Course other = new Course("Poetry", "Verse");
+        other.setDepartment(arts);
+        entityManager.persist(other);
+
+        for (int i = 0; i < 40; i++) {
+            Student student = new Student(String.format("Student %02d", i), "R-" + i, "s" + i + "@example.com");
+            student.addCourse(course);
+            entityManager.persist(student);
+        }
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(new Student("Zed " + i, "Z-" + i, "z" + i + "@example.com"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private ListQuery query(String sort, String dir, String cursor) {
+        ListQuery query = new ListQuery();
+        query.setSort(sort);
+        query.setDir(dir);
+        query.setCursor(cursor);
+        return query;
+    }
+
+    private List<String> names(KeysetPage<StudentDTO> page) {
+        return page.getItems().stream().map(StudentDTO::getName).toList();
+    }
+
+    // ==================== forward paging ====================
+    @Test
+    void getStudentsPage_ShouldWalkAllRowsForward() {
+        List<String> seen = new ArrayList<>();
+        KeysetPage<StudentDTO> page = studentService.getStudentsPage(query("name", "asc", null));
+        assertFalse(page.hasPrevious());
+        seen.addAll(names(page));
+        while (page.hasNext()) {
+            page = studentService.getStudentsPage(query("name", "asc", page.getNextCursor()));
+            assertTrue(page.hasPrevious());
+            seen.addAll(names(page));
+        }
+
+        assertEquals(45, seen.size());
+        assertEquals("Student 00", seen.get(0));
+        assertEquals("Zed 4", seen.get(44));
+        assertEquals(seen.stream().sorted().toList(), seen);
+    }
+
+    // ==================== backward paging ====================
+    @Test
+    void getStudentsPage_PreviousCursor_ShouldReturnPrecedingPage() {
+        KeysetPage<StudentDTO> first = studentService.getStudentsPage(query("name", "asc", null));
+        KeysetPage<StudentDTO> second = studentService.getStudentsPage(query("name", "asc", first.getNextCursor()));
+        KeysetPage<StudentDTO> back = studentService.getStudentsPage(query("name", "asc", second.getPreviousCursor()));
+
+        assertEquals(names(first), names(back));
+        assertFalse(back.hasPrevious());
+        assertTrue(back.hasNext());
+    }
+
+    // ==================== sort and filter ====================
+    @Test
+    void getStudentsPage_SortByIdDescending_ShouldStartWithNewest() {
+        KeysetPage<StudentDTO> page = studentService.getStudentsPage(query("id", "desc", null));
+
+        assertEquals("Zed 4", page.getItems().get(0).getName());
+        assertEquals(20, page.getItems().size());
+    }
+
+    @Test
+    void getStudentsPage_WithPrefixFilter_ShouldOnlyReturnMatches() {
+        ListQuery query = query("name", "asc", null);
+        query.setQ("zed");
+
+        KeysetPage<StudentDTO> page = studentService.getStudentsPage(query);
+
+        assertEquals(List.of("Zed 0", "Zed 1", "Zed 2", "Zed 3", "Zed 4"), names(page));
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void getStudentsPage_CursorFromOtherSort_ShouldRestartFromFirstPage() {
+        KeysetPage<StudentDTO> byName = studentService.getStudentsPage(query("name", "asc", null));
+
+        KeysetPage<StudentDTO> byId = studentService.getStudentsPage(query("id", "asc", byName.getNextCursor()));
+
+        assertFalse(byId.hasPrevious());
+        assertEquals("Student 00", byId.getItems().get(0).getName());
+    }
+
+    @Test
+    void getCoursesPage_WithDepartmentFilter_ShouldOnlyReturnThatDepartment() {
+        ListQuery query = query("name", "asc", null);
+        query.setDepartmentId(science.getId());
+
+        KeysetPage<CourseDTO> page = courseService.getCoursesPage(query);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("Physics", page.getItems().get(0).getName());
+        assertEquals(40, page.getItems().get(0).getStudentIds().size());
+    }
+
+    // ==================== page cost ====================
+    @Test
+    void getStudentsPage_DeepPage_ShouldUseSameNumberOfStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        KeysetPage<StudentDTO> first = studentService.getStudentsPage(query("name", "asc", null));
+        KeysetPage<StudentDTO> second = studentService.getStudentsPage(query("name", "asc", first.getNextCursor()));
+        entityManager.clear();
+        statistics.clear();
+
+        studentService.getStudentsPage(query("name", "asc", second.getNextCursor()));
+
+        // One keyset query plus one per collection, regardless of page depth
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.DepartmentDTO;
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.dto.TeacherDTO;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.entity.Student;
+import com.example.webapp.entity.Teacher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test — checks that every list page is built with a fixed number of SQL statements
+// HOW: Seeds H2 with linked data, clears the persistence context, then counts prepared statements via Hibernate statistics
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ListQueryCountTest {
+
+    private static final int STUDENTS = 30;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TeacherService teacherService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Department[] departments = new Department[3];
+        Course[] courses = new Course[6];
+        Teacher[] teachers = new Teacher[4];
+        for (int i = 0; i < departments.length; i++) {
+            departments[i] = new Department("Department " + i);
+            entityManager.persist(departments[i]);
+        }
+        for (int i = 0; i < courses.length; i++) {
+            courses[i] = new Course("Course " + i, "Description " + i);
+            courses[i].setDepartment(departments[i % departments.length]);
+            entityManager.persist(courses[i]);
+        }
+        for (int i = 0; i < teachers.length; i++) {
+            teachers[i] = new Teacher("Teacher " + i, "teacher" + i + "@example.com");
+            teachers[i].setDepartment(departments[i % departments.length]);
+            entityManager.persist(teachers[i]);
+        }
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student("Student " + i, "ROLL-" + i, "student" + i + "@example.com");
+            student.addCourse(courses[i % courses.length]);
+            student.addCourse(courses[(i + 1) % courses.length]);
+            entityManager.persist(student);
+            teachers[i % teachers.length].addStudent(student);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // ==================== /students ====================
+    @Test
+    void getAllStudentsDTO_ShouldUseTwoStatements() {
+        List<StudentDTO> result = studentService.getAllStudentsDTO();
+
+        assertEquals(STUDENTS, result.size());
+        assertEquals(2, result.get(0).getCourseIds().size());
+        assertEquals(1, result.get(0).getTeacherIds().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    // ==================== /teachers ====================
+    @Test
+    void getAllTeachersDTO_ShouldUseOneStatement() {
+        List<TeacherDTO> result = teacherService.getAllTeachersDTO();
+
+        assertEquals(4, result.size());
+        assertNotNull(result.get(0).getDepartmentName());
+        assertFalse(result.get(0).getStudentIds().isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // ==================== /courses ====================
+    @Test
+    void getAllCoursesDTO_ShouldUseOneStatement() {
+        List<CourseDTO> result = courseService.getAllCoursesDTO();
+
+        assertEquals(6, result.size());
+        assertNotNull(result.get(0).getDepartmentName());
+        assertEquals(10, result.get(0).getStudentIds().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // ==================== /departments ====================
+    @Test
+    void getAllDepartmentsDTO_ShouldUseTwoStatements() {
+        List<DepartmentDTO> result = departmentService.getAllDepartmentsDTO();
+
+        assertEquals(3, result.size());
+        assertEquals(2, result.get(0).getCourseIds().size());
+        assertFalse(result.get(0).getTeacherIds().isEmpty());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    // ==================== detail pages: lists by ids ====================
+    @Test
+    void getStudentsByIds_ShouldNotDependOnListSize() {
+        List<Long> ids = studentService.getAllStudents().stream().map(Student::getId).toList();
+        entityManager.clear();
+        statistics.clear();
+
+        List<StudentDTO> result = studentService.getStudentsByIds(ids);
+
+        assertEquals(STUDENTS, result.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.webapp.service;
+
+import com.example.webapp.WebappApplication;
+import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.EnrollmentResult;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Student;
+import com.example.webapp.repository.CourseRepository;
+import com.example.webapp.repository.StudentRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: The seat allocation stress scenarios with two app nodes sharing one PostgreSQL database — the seat counters
+//       and the waitlist must hold up when the competing transactions come from different JVM-level pools
+// HOW: Two application contexts (separate EnrollmentService instances and Hikari pools) on a PostgreSQL container
+//      (Testcontainers, skipped without Docker); SeatAllocationScenario sends half of the threads to each node.
+//      Slow, so tagged benchmark: ./mvnw test -Pbenchmark -Dtest=MultiNodeSeatAllocationTest
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class MultiNodeSeatAllocationTest {
+
+    private static final int STUDENTS = 1200;
+    private static final int CAPACITY = 300;
+    private static final int POOL_SIZE = 8;
+
+    @Container
+    static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    private Course course;
+    private SeatAllocationScenario scenario;
+
+    @BeforeAll
+    static void startNodes() {
+        // one after the other, so only the first runs the migrations
+        nodeA = node("a");
+        nodeB = node("b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        CourseDTO dto = new CourseDTO();
+        dto.setName("Multi-node 101");
+        dto.setCapacity(CAPACITY);
+        course = nodeA.getBean(CourseService.class).saveCourse(dto);
+        List<Student> created = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            created.add(new Student("Node Student " + i, "NODE-" + i, null));
+        }
+        List<Long> students = nodeB.getBean(StudentRepository.class).saveAll(created).stream()
+                .map(Student::getId).toList();
+        scenario = new SeatAllocationScenario(
+                List.of(nodeA.getBean(EnrollmentService.class), nodeB.getBean(EnrollmentService.class)),
+                nodeA.getBean(JdbcTemplate.class), course.getId(), CAPACITY, students);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scenario.deleteCourseData();
+        nodeA.getBean(CourseRepository.class).deleteById(course.getId());
+    }
+
+    // ==================== TEST: registration opens ====================
+    @Test
+    void rush_OnTwoNodes_ShouldFillExactlyCapacityAndWaitlistTheRest() throws Exception {
+        long start = System.nanoTime();
+        Map<EnrollmentResult, AtomicInteger> results = scenario.rush();
+        report("rush", STUDENTS, System.nanoTime() - start);
+
+        assertEquals(CAPACITY, results.get(EnrollmentResult.ENROLLED).get());
+        assertEquals(STUDENTS - CAPACITY, results.get(EnrollmentResult.WAITLISTED).get());
+        scenario.assertInvariants();
+        assertEquals(CAPACITY, scenario.enrolledCount());
+        assertEquals(STUDENTS - CAPACITY, scenario.waitlistCount());
+    }
+
+    // ==================== TEST: add/drop period ====================
+    @Test
+    void enrollAndDropMix_OnTwoNodes_ShouldNeverOverbookOrLoseSeats() throws Exception {
+        int operations = 3000;
+
+        long start = System.nanoTime();
+        scenario.enrollAndDropMix(operations);
+        report("enroll/drop mix", operations, System.nanoTime() - start);
+
+        scenario.assertInvariants();
+    }
+
+    private static ConfigurableApplicationContext node(String name) {
+        return new SpringApplicationBuilder(WebappApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "spring.datasource.hikari.pool-name=node-" + name,
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "app.db.max-concurrency=" + POOL_SIZE,
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    private static void report(String phase, int operations, long nanos) {
+        System.out.printf("seat allocation, 2 nodes, %-16s %5d requests, %d threads, %d seats: %6.0f ms, "
+                        + "%7.0f allocations/s%n", phase, operations, SeatAllocationScenario.THREADS, CAPACITY,
+                nanos / 1e6, operations / (nanos / 1e9));
+    }
+}
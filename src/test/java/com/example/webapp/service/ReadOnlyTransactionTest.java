@@ -0,0 +1,144 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.ListQuery;
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.entity.Student;
+import com.example.webapp.entity.Teacher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.LazyInitializationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for the read path - service reads run in read-only transactions (flush mode MANUAL, so no
+//       flush and no dirty check at commit), and no session stays open for the view
+// HOW: Not @Transactional, so every service call brings its own transaction; Hibernate statistics count the flushes
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadOnlyTransactionTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TeacherService teacherService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private Statistics statistics;
+    private Department department;
+    private Course course;
+    private Teacher teacher;
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            department = new Department("Read Only Department");
+            entityManager.persist(department);
+            course = new Course("Read Only Course", "Description");
+            course.setDepartment(department);
+            entityManager.persist(course);
+            teacher = new Teacher("Read Only Teacher", "read.only.teacher@example.com");
+            teacher.setDepartment(department);
+            entityManager.persist(teacher);
+            student = new Student("Read Only Student", "RO-1", "read.only.student@example.com");
+            student.addCourse(course);
+            entityManager.persist(student);
+            teacher.addStudent(student);
+        });
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from teacher_student where teacher_id = ?", teacher.getId());
+        jdbcTemplate.update("delete from student_course where student_id = ?", student.getId());
+        jdbcTemplate.update("delete from students where roll like 'RO-%'");
+        jdbcTemplate.update("delete from teachers where id = ?", teacher.getId());
+        jdbcTemplate.update("delete from courses where id = ?", course.getId());
+        jdbcTemplate.update("delete from departments where id = ?", department.getId());
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    // ==================== TEST: no flush on reads ====================
+    @Test
+    void readMethods_ShouldNotFlush() {
+        long flushes = statistics.getFlushCount();
+
+        assertFalse(studentService.getStudentsPage(new ListQuery()).getItems().isEmpty());
+        assertFalse(teacherService.getTeachersPage(new ListQuery()).getItems().isEmpty());
+        assertFalse(courseService.getCoursesPage(new ListQuery()).getItems().isEmpty());
+        assertFalse(departmentService.getDepartmentsPage(new ListQuery()).getItems().isEmpty());
+        assertEquals("Read Only Student", studentService.getStudentDTO(student.getId()).getName());
+        assertEquals("Read Only Teacher", teacherService.getTeacherDTO(teacher.getId()).getName());
+        assertEquals("Read Only Course", courseService.getCourseDTO(course.getId()).getName());
+        assertEquals("Read Only Department", departmentService.getDepartmentDTO(department.getId()).getName());
+        assertTrue(studentService.getStudentById(student.getId()).isPresent());
+        assertFalse(studentService.searchStudents("read only", 10).isEmpty());
+        assertFalse(courseService.getCoursesByIds(List.of(course.getId())).isEmpty());
+
+        assertEquals(flushes, statistics.getFlushCount(), "read-only transactions use flush mode MANUAL");
+    }
+
+    @Test
+    void write_ShouldStillFlush() {
+        long flushes = statistics.getFlushCount();
+        StudentDTO dto = new StudentDTO();
+        dto.setName("Read Only Writer");
+        dto.setRoll("RO-2");
+
+        studentService.saveStudent(dto);
+
+        assertTrue(statistics.getFlushCount() > flushes);
+    }
+
+    // ==================== TEST: no open session in view ====================
+    @Test
+    void openInView_ShouldBeOff() {
+        assertEquals(0, context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class).length);
+    }
+
+    @Test
+    void entityReturnedByReadMethod_ShouldBeDetached() {
+        Student loaded = studentService.getStudentById(student.getId()).orElseThrow();
+
+        // Nothing may lazy-load after the service returns: templates get DTOs
+        assertThrows(LazyInitializationException.class, () -> loaded.getCourses().size());
+    }
+}
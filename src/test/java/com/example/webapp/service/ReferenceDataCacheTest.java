@@ -0,0 +1,158 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.DepartmentDTO;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.repository.CourseRepository;
+import com.example.webapp.repository.DepartmentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for the second-level and query cache on Department and Course
+// HOW: Commits reference data (the cache is only filled after commit), warms it with one call, then checks via
+//      Hibernate statistics that the repeat call issues no SQL and that writes evict what they make stale.
+//      Not @Transactional: the data must really be committed, so it is deleted again after each test.
+@SpringBootTest
+@ActiveProfiles("test")
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+    private final List<Long> departmentIds = new ArrayList<>();
+    private final List<Long> courseIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            for (int d = 0; d < 2; d++) {
+                Department department = new Department("Cached Department " + d);
+                entityManager.persist(department);
+                departmentIds.add(department.getId());
+                for (int c = 0; c < 3; c++) {
+                    Course course = new Course("Cached Course " + d + "-" + c, null);
+                    course.setDepartment(department);
+                    entityManager.persist(course);
+                    courseIds.add(course.getId());
+                }
+            }
+        });
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        courseRepository.deleteAllById(courseIds);
+        departmentRepository.deleteAllById(departmentIds);
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    // ==================== department dropdown ====================
+    @Test
+    void getDepartmentOptions_WhenWarm_ShouldNotQueryTheDatabase() {
+        List<DepartmentDTO> cold = departmentService.getDepartmentOptions();
+        long coldStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        List<DepartmentDTO> warm = departmentService.getDepartmentOptions();
+
+        assertEquals(1, coldStatements);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(names(cold), names(warm));
+        assertEquals("Cached Department 0", warm.get(0).getName());
+    }
+
+    @Test
+    void getDepartmentOptions_AfterRename_ShouldShowNewName() {
+        departmentService.getDepartmentOptions();
+        DepartmentDTO rename = new DepartmentDTO(departmentIds.get(0), "Cached Department Renamed");
+        departmentService.updateDepartment(departmentIds.get(0), rename);
+        statistics.clear();
+
+        List<DepartmentDTO> options = departmentService.getDepartmentOptions();
+
+        // the write invalidated the cached query result, so the id list is read again
+        assertEquals(0, statistics.getQueryCacheHitCount());
+        assertTrue(names(options).contains("Cached Department Renamed"));
+        assertFalse(names(options).contains("Cached Department 0"));
+    }
+
+    // ==================== course tags ====================
+    @Test
+    void getCoursesByIds_WhenWarm_ShouldNotQueryTheDatabase() {
+        courseService.getCoursesByIds(courseIds);
+        statistics.clear();
+
+        List<CourseDTO> warm = courseService.getCoursesByIds(courseIds);
+
+        assertEquals(courseIds.size(), warm.size());
+        assertEquals("Cached Department 0", warm.get(0).getDepartmentName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+    }
+
+    // ==================== Department.courses ====================
+    @Test
+    void departmentCourses_AfterCourseMoved_ShouldBeEvicted() {
+        Long from = departmentIds.get(0);
+        Long to = departmentIds.get(1);
+        Long moved = courseIds.get(0);
+        assertTrue(courseIdsOf(from).contains(moved)); // warms the collection cache
+
+        CourseDTO update = new CourseDTO();
+        update.setName("Moved Course");
+        update.setDepartmentId(to);
+        courseService.updateCourse(moved, update);
+
+        assertFalse(courseIdsOf(from).contains(moved));
+        assertTrue(courseIdsOf(to).contains(moved));
+    }
+
+    private List<Long> courseIdsOf(Long departmentId) {
+        return transaction.execute(status -> departmentService.getDepartmentDTO(departmentId).getCourseIds());
+    }
+
+    private static List<String> names(List<DepartmentDTO> departments) {
+        return departments.stream().map(DepartmentDTO::getName).toList();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.EnrollmentResult;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The seat allocation scenarios of SeatAllocationStressTest (one app) and MultiNodeSeatAllocationTest (two apps):
+// THREADS threads start together on a latch and call EnrollmentService directly, each call its own transaction.
+// With several nodes, thread t calls the EnrollmentService of node t % nodes; the invariants are checked in SQL
+final class SeatAllocationScenario {
+
+    static final int THREADS = 16;
+
+    private final List<EnrollmentService> nodes;
+    private final JdbcTemplate jdbc;
+    private final Long courseId;
+    private final int capacity;
+    private final List<Long> students;
+
+    SeatAllocationScenario(List<EnrollmentService> nodes, JdbcTemplate jdbc, Long courseId, int capacity,
+                           List<Long> students) {
+        this.nodes = nodes;
+        this.jdbc = jdbc;
+        this.courseId = courseId;
+        this.capacity = capacity;
+        this.students = students;
+    }
+
+    // Every student tries to enroll once, in random order; returns how many got each result
+    Map<EnrollmentResult, AtomicInteger> rush() throws Exception {
+        List<Long> order = new ArrayList<>(students);
+        Collections.shuffle(order);
+        Map<EnrollmentResult, AtomicInteger> results = new ConcurrentHashMap<>();
+        AtomicInteger next = new AtomicInteger();
+
+        runConcurrently(node -> {
+            int i;
+            while ((i = next.getAndIncrement()) < order.size()) {
+                EnrollmentResult result = node.enroll(courseId, order.get(i));
+                results.computeIfAbsent(result, r -> new AtomicInteger()).incrementAndGet();
+            }
+        });
+        return results;
+    }
+
+    // Random enrolls (65%) and drops; the course is checked for overbooking after every operation
+    void enrollAndDropMix(int operations) throws Exception {
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger threadIndex = new AtomicInteger();
+
+        runConcurrently(node -> {
+            // One student acts from one thread at a time, like one browser per student
+            int thread = threadIndex.getAndIncrement();
+            List<Long> mine = new ArrayList<>();
+            for (int i = thread; i < students.size(); i += THREADS) {
+                mine.add(students.get(i));
+            }
+            while (done.getAndIncrement() < operations) {
+                Long studentId = mine.get(ThreadLocalRandom.current().nextInt(mine.size()));
+                if (ThreadLocalRandom.current().nextInt(100) < 65) {
+                    node.enroll(courseId, studentId);
+                } else {
+                    node.drop(courseId, studentId);
+                }
+                int enrolled = enrolledCount();
+                assertTrue(enrolled <= capacity, () -> "overbooked: " + enrolled);
+            }
+        });
+    }
+
+    void assertInvariants() throws InterruptedException {
+        awaitWaitlistFills();
+        int enrolled = enrolledCount();
+        int free = jdbc.queryForObject("select coalesce(sum(free), 0) from course_seats where course_id = ?",
+                Integer.class, courseId);
+        assertTrue(enrolled <= capacity, "overbooked: " + enrolled);
+        assertEquals(capacity, enrolled + free, "every seat is either taken or free");
+        assertEquals(0, jdbc.queryForObject("select count(*) from course_seats where course_id = ? and free < 0",
+                Integer.class, courseId));
+        assertEquals(0, jdbc.queryForObject("select count(*) from course_waitlist w join student_course sc "
+                + "on sc.course_id = w.course_id and sc.student_id = w.student_id where w.course_id = ?",
+                Integer.class, courseId), "nobody is enrolled and waiting at once");
+        if (free > 0) {
+            assertEquals(0, waitlistCount(), "free seats while students wait");
+        }
+    }
+
+    // The last drops hand their waitlist fill to a worker of the node; the seats settle once those are done
+    void awaitWaitlistFills() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (nodes.stream().anyMatch(node -> node.getPendingFills() > 0)) {
+            assertTrue(System.nanoTime() < deadline, "waitlist fills still running after 10 s");
+            Thread.sleep(10);
+        }
+    }
+
+    int enrolledCount() {
+        return jdbc.queryForObject("select count(*) from student_course where course_id = ?", Integer.class, courseId);
+    }
+
+    int waitlistCount() {
+        return jdbc.queryForObject("select count(*) from course_waitlist where course_id = ?", Integer.class, courseId);
+    }
+
+    void deleteCourseData() {
+        jdbc.update("delete from course_waitlist where course_id = ?", courseId);
+        jdbc.update("delete from course_seats where course_id = ?", courseId);
+        jdbc.update("delete from student_course where course_id = ?", courseId);
+        jdbc.update("delete from students where id in (" + String.join(",",
+                students.stream().map(String::valueOf).toList()) + ")");
+    }
+
+    // Starts THREADS workers at the same moment, each bound to one node, and waits until all of them finished
+    private void runConcurrently(Worker worker) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                EnrollmentService node = nodes.get(t % nodes.size());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    worker.run(node);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private interface Worker {
+        void run(EnrollmentService node) throws Exception;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.EnrollmentResult;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Student;
+import com.example.webapp.repository.CourseRepository;
+import com.example.webapp.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Concurrency stress test for seat allocation — many students rush one popular course at the same moment,
+//       then keep enrolling and dropping; the course must never hold more students than seats
+// HOW: SeatAllocationScenario against this app on H2: THREADS threads start together and call EnrollmentService
+//      directly, each call its own transaction. Afterwards the invariants are checked in SQL and allocations per
+//      second are logged. MultiNodeSeatAllocationTest runs the same scenarios with two apps on PostgreSQL
+@SpringBootTest
+@ActiveProfiles("test")
+class SeatAllocationStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatAllocationStressTest.class);
+
+    private static final int STUDENTS = 600;
+    private static final int CAPACITY = 150;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Course course;
+    private SeatAllocationScenario scenario;
+
+    @BeforeEach
+    void setUp() {
+        CourseDTO dto = new CourseDTO();
+        dto.setName("Stress 101");
+        dto.setCapacity(CAPACITY);
+        course = courseService.saveCourse(dto);
+        List<Student> created = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            created.add(new Student("Stress Student " + i, "STRESS-" + i, null));
+        }
+        List<Long> students = studentRepository.saveAll(created).stream().map(Student::getId).toList();
+        scenario = new SeatAllocationScenario(List.of(enrollmentService), jdbc, course.getId(), CAPACITY, students);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scenario.deleteCourseData();
+        courseRepository.deleteById(course.getId());
+    }
+
+    // ==================== TEST: registration opens ====================
+    @Test
+    void rush_ShouldFillExactlyCapacityAndWaitlistTheRest() throws Exception {
+        long start = System.nanoTime();
+        Map<EnrollmentResult, AtomicInteger> results = scenario.rush();
+        report("rush", STUDENTS, System.nanoTime() - start);
+
+        assertEquals(CAPACITY, results.get(EnrollmentResult.ENROLLED).get());
+        assertEquals(STUDENTS - CAPACITY, results.get(EnrollmentResult.WAITLISTED).get());
+        scenario.assertInvariants();
+        assertEquals(CAPACITY, scenario.enrolledCount());
+        assertEquals(STUDENTS - CAPACITY, scenario.waitlistCount());
+    }
+
+    // ==================== TEST: add/drop period ====================
+    @Test
+    void enrollAndDropMix_ShouldNeverOverbookOrLoseSeats() throws Exception {
+        int operations = 1500;
+
+        long start = System.nanoTime();
+        scenario.enrollAndDropMix(operations);
+        report("enroll/drop mix", operations, System.nanoTime() - start);
+
+        scenario.assertInvariants();
+    }
+
+    private static void report(String phase, int operations, long nanos) {
+        log.info("seat allocation {}: {} requests, {} threads, {} seats: {} ms, {} allocations/s", phase, operations,
+                SeatAllocationScenario.THREADS, CAPACITY, nanos / 1_000_000, Math.round(operations / (nanos / 1e9)));
+    }
+}
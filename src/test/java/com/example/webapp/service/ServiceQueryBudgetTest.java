@@ -0,0 +1,170 @@
+package com.example.webapp.service;
+
+import com.example.webapp.config.QueryBudget;
+import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.ListQuery;
+import com.example.webapp.dto.StudentDTO;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Department;
+import com.example.webapp.entity.Student;
+import com.example.webapp.entity.Teacher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: SQL budget per service read method - statements (JDBC level) and lazy loads, independent of data size
+// HOW: Seeds H2 with linked data, clears the persistence context and the second-level cache, then @QueryBudget
+//      counts what the service call issues. Exact list-page counts are also pinned in ListQueryCountTest
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ServiceQueryBudgetTest {
+
+    private static final int STUDENTS = 30;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TeacherService teacherService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    private Long departmentId;
+    private Long courseId;
+    private Long teacherId;
+    private Long studentId;
+    private final List<Long> studentIds = new ArrayList<>();
+    private final List<Long> courseIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Department[] departments = new Department[3];
+        Course[] courses = new Course[6];
+        Teacher[] teachers = new Teacher[4];
+        for (int i = 0; i < departments.length; i++) {
+            departments[i] = new Department("Department " + i);
+            entityManager.persist(departments[i]);
+        }
+        for (int i = 0; i < courses.length; i++) {
+            courses[i] = new Course("Course " + i, "Description " + i);
+            courses[i].setDepartment(departments[i % departments.length]);
+            entityManager.persist(courses[i]);
+            courseIds.add(courses[i].getId());
+        }
+        for (int i = 0; i < teachers.length; i++) {
+            teachers[i] = new Teacher("Teacher " + i, "teacher" + i + "@example.com");
+            teachers[i].setDepartment(departments[i % departments.length]);
+            entityManager.persist(teachers[i]);
+        }
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student("Student " + i, "ROLL-" + i, "student" + i + "@example.com");
+            student.addCourse(courses[i % courses.length]);
+            student.addCourse(courses[(i + 1) % courses.length]);
+            entityManager.persist(student);
+            teachers[i % teachers.length].addStudent(student);
+            studentIds.add(student.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        entityManagerFactory.getCache().evictAll();
+
+        departmentId = departments[0].getId();
+        courseId = courses[0].getId();
+        teacherId = teachers[0].getId();
+        studentId = studentIds.get(0);
+    }
+
+    // ==================== list pages ====================
+    @Test
+    @QueryBudget(value = 3, lazyLoads = 0)
+    void getStudentsPage() {
+        assertFalse(studentService.getStudentsPage(new ListQuery()).getItems().isEmpty());
+    }
+
+    @Test
+    @QueryBudget(value = 2, lazyLoads = 0)
+    void getTeachersPage() {
+        assertFalse(teacherService.getTeachersPage(new ListQuery()).getItems().isEmpty());
+    }
+
+    @Test
+    @QueryBudget(value = 2, lazyLoads = 0)
+    void getCoursesPage() {
+        assertFalse(courseService.getCoursesPage(new ListQuery()).getItems().isEmpty());
+    }
+
+    @Test
+    @QueryBudget(value = 3, lazyLoads = 0)
+    void getDepartmentsPage() {
+        assertFalse(departmentService.getDepartmentsPage(new ListQuery()).getItems().isEmpty());
+    }
+
+    // ==================== single DTOs ====================
+    @Test
+    @QueryBudget(value = 3, lazyLoads = 2)
+    void getStudentDTO() {
+        StudentDTO dto = studentService.getStudentDTO(studentId);
+        assertEquals(2, dto.getCourseIds().size());
+    }
+
+    @Test
+    @QueryBudget(value = 3, lazyLoads = 2)
+    void getTeacherDTO() {
+        assertNotNull(teacherService.getTeacherDTO(teacherId).getDepartmentName());
+    }
+
+    @Test
+    @QueryBudget(value = 3, lazyLoads = 2)
+    void getCourseDTO() {
+        assertEquals(10, courseService.getCourseDTO(courseId).getStudentIds().size());
+    }
+
+    @Test
+    @QueryBudget(value = 3, lazyLoads = 2)
+    void getDepartmentDTO() {
+        assertEquals(2, departmentService.getDepartmentDTO(departmentId).getCourseIds().size());
+    }
+
+    // ==================== detail page branches ====================
+    @Test
+    @QueryBudget(value = 2, lazyLoads = 0)
+    void getStudentsByIds() {
+        assertEquals(STUDENTS, studentService.getStudentsByIds(studentIds).size());
+    }
+
+    // Departments not in the second-level cache: the first proxy loads them all (@BatchSize on Department)
+    @Test
+    @QueryBudget(value = 2, lazyLoads = 1)
+    void getCoursesByIds() {
+        List<CourseDTO> courses = courseService.getCoursesByIds(courseIds);
+        assertEquals(courseIds.size(), courses.size());
+        assertNotNull(courses.get(0).getDepartmentName());
+    }
+
+    @Test
+    @QueryBudget(value = 1, lazyLoads = 0)
+    void searchStudents() {
+        assertFalse(studentService.searchStudents("stud", 20).isEmpty());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.StudentSummaryDTO;
+import com.example.webapp.entity.Student;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for the typeahead student search used by the course and teacher forms
+// HOW: Seeds a few students on H2 and checks prefix matching on name, roll and email
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class StudentSearchTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private StudentService studentService;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(new Student("Alice Smith", "CSE-001", "alice@example.com"));
+        entityManager.persist(new Student("Alan Turing", "CSE-002", "turing@example.com"));
+        entityManager.persist(new Student("Bob Jones", "EEE-001", "bob@example.com"));
+        entityManager.persist(new Student("Carol 100%", "EEE-002", "carol@example.com"));
+        entityManager.flush();
+    }
+
+    private List<String> names(List<StudentSummaryDTO> result) {
+        return result.stream().map(StudentSummaryDTO::getName).toList();
+    }
+
+    @Test
+    void searchStudents_ByNamePrefix_ShouldIgnoreCase() {
+        assertEquals(List.of("Alan Turing", "Alice Smith"), names(studentService.searchStudents("al", 10)));
+    }
+
+    @Test
+    void searchStudents_ByRollPrefix_ShouldMatch() {
+        assertEquals(List.of("Bob Jones", "Carol 100%"), names(studentService.searchStudents("EEE-", 10)));
+    }
+
+    @Test
+    void searchStudents_ByEmailPrefix_ShouldMatch() {
+        List<StudentSummaryDTO> result = studentService.searchStudents("turing@", 10);
+
+        assertEquals(1, result.size());
+        assertEquals("CSE-002", result.get(0).getRoll());
+    }
+
+    @Test
+    void searchStudents_ShouldRespectLimit() {
+        assertEquals(1, studentService.searchStudents("a", 1).size());
+    }
+
+    @Test
+    void searchStudents_WildcardCharacters_ShouldBeMatchedLiterally() {
+        assertTrue(studentService.searchStudents("%", 10).isEmpty());
+        assertEquals(List.of("Carol 100%"), names(studentService.searchStudents("carol 100%", 10)));
+    }
+
+    @Test
+    void searchStudents_BlankQuery_ShouldReturnEmpty() {
+        assertTrue(studentService.searchStudents("  ", 10).isEmpty());
+    }
+}
@@ -4,6 +4,8 @@ import com.example.webapp.dto.StudentDTO;
 import com.example.webapp.entity.Course;
 import com.example.webapp.entity.Role;
 import com.example.webapp.entity.Student;
+import com.example.webapp.mapper.DtoMapper;
+import com.example.webapp.mapper.DtoMapperImpl;
 import com.example.webapp.repository.CourseRepository;
 import com.example.webapp.repository.StudentRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.*;
@@ -30,6 +33,22 @@ class StudentServiceTest {
     @Mock
     private CourseRepository courseRepository;
 
+    // Seat allocation is checked in EnrollmentServiceTest
+    @Mock
+    private EnrollmentService enrollmentService;
+
+    // Cache invalidation is checked in DtoCacheTest
+    @Mock
+    private DtoCache dtoCache;
+
+    // Delivery is checked in EntityChangeBusTest
+    @Mock
+    private EntityChangeBus entityChangeBus;
+
+    // Real generated mapper, so the tests see the same DTOs as the app
+    @Spy
+    private DtoMapper dtoMapper = new DtoMapperImpl();
+
     // WHAT: The service under test with mocked dependencies injected
     @InjectMocks
     private StudentService studentService;
@@ -72,7 +91,7 @@ class StudentServiceTest {
     // ==================== TEST: getAllStudentsDTO ====================
     @Test
     void getAllStudentsDTO_ShouldReturnDTOList() {
-        when(studentRepository.findAll()).thenReturn(Arrays.asList(student));
+        when(studentRepository.findAllWithCourses()).thenReturn(Arrays.asList(student));
 
         List<StudentDTO> result = studentService.getAllStudentsDTO();
 
@@ -167,6 +186,27 @@ class StudentServiceTest {
         verify(studentRepository, times(1)).save(student);
     }
 
+    // HOW: Student is in course 1, form asks for course 2 -> only course 2 is loaded, the set is edited in place
+    @Test
+    void updateStudent_ShouldSyncCoursesInPlace() {
+        Course course1 = new Course("Java", null);
+        course1.setId(1L);
+        Course course2 = new Course("Spring", null);
+        course2.setId(2L);
+        Set<Course> managedCourses = student.getCourses();
+        managedCourses.add(course1);
+        studentDTO.setCourseIds(Arrays.asList(2L));
+
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
+        when(courseRepository.findAllById(List.of(2L))).thenReturn(Arrays.asList(course2));
+        when(studentRepository.save(any(Student.class))).thenReturn(student);
+
+        studentService.updateStudent(1L, studentDTO, true);
+
+        assertSame(managedCourses, student.getCourses());
+        assertEquals(Set.of(course2), student.getCourses());
+    }
+
     @Test
     void updateStudent_WhenNotFound_ShouldThrowException() {
         when(studentRepository.findById(99L)).thenReturn(Optional.empty());
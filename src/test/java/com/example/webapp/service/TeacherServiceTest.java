@@ -5,6 +5,8 @@ import com.example.webapp.entity.Department;
 import com.example.webapp.entity.Role;
 import com.example.webapp.entity.Student;
 import com.example.webapp.entity.Teacher;
+import com.example.webapp.mapper.DtoMapper;
+import com.example.webapp.mapper.DtoMapperImpl;
 import com.example.webapp.repository.DepartmentRepository;
 import com.example.webapp.repository.StudentRepository;
 import com.example.webapp.repository.TeacherRepository;
@@ -13,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.*;
@@ -35,6 +38,18 @@ class TeacherServiceTest {
     @Mock
     private StudentRepository studentRepository;
 
+    // Cache invalidation is checked in DtoCacheTest
+    @Mock
+    private DtoCache dtoCache;
+
+    // Delivery is checked in EntityChangeBusTest
+    @Mock
+    private EntityChangeBus entityChangeBus;
+
+    // Real generated mapper, so the tests see the same DTOs as the app
+    @Spy
+    private DtoMapper dtoMapper = new DtoMapperImpl();
+
     @InjectMocks
     private TeacherService teacherService;
 
@@ -79,7 +94,7 @@ class TeacherServiceTest {
     // ==================== TEST: getAllTeachersDTO ====================
     @Test
     void getAllTeachersDTO_ShouldReturnDTOList() {
-        when(teacherRepository.findAll()).thenReturn(Arrays.asList(teacher));
+        when(teacherRepository.findAllWithDepartmentAndStudents()).thenReturn(Arrays.asList(teacher));
 
         List<TeacherDTO> result = teacherService.getAllTeachersDTO();
 
@@ -184,6 +199,26 @@ class TeacherServiceTest {
         verify(teacherRepository, times(1)).save(teacher);
     }
 
+    // HOW: Teacher already has student 1 -> resubmitting the same ids loads nothing and keeps the managed set
+    @Test
+    void updateTeacher_SameStudents_ShouldNotReloadStudents() {
+        Student student = new Student();
+        student.setId(1L);
+        Set<Student> managedStudents = teacher.getStudents();
+        managedStudents.add(student);
+        teacherDTO.setDepartmentId(null);
+        teacherDTO.setStudentIds(Arrays.asList(1L));
+
+        when(teacherRepository.findById(1L)).thenReturn(Optional.of(teacher));
+        when(teacherRepository.save(any(Teacher.class))).thenReturn(teacher);
+
+        teacherService.updateTeacher(1L, teacherDTO);
+
+        assertSame(managedStudents, teacher.getStudents());
+        assertEquals(1, teacher.getStudents().size());
+        verify(studentRepository, never()).findAllById(any());
+    }
+
     @Test
     void updateTeacher_WhenNotFound_ShouldThrowException() {
         when(teacherRepository.findById(99L)).thenReturn(Optional.empty());
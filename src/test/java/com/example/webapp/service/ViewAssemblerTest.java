@@ -0,0 +1,178 @@
+package com.example.webapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Unit test for the detail page fan-out
+// HOW: Real executor with a small limit and a SimpleMeterRegistry; branches wait on a latch that only opens once
+//      both have started, so the test can only pass if they run at the same time
+class ViewAssemblerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ViewAssembler viewAssembler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        viewAssembler = new ViewAssembler(new SimpleAsyncTaskExecutorBuilder(), meterRegistry, 4, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        viewAssembler.destroy();
+    }
+
+    // ==================== TEST: fan-out ====================
+    @Test
+    void assemble_ShouldRunBranchesConcurrentlyAfterRoot() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Supplier<List<String>> teachers = () -> awaitOther(bothStarted, "Teacher");
+        Supplier<List<String>> courses = () -> awaitOther(bothStarted, "Course");
+
+        Map<String, Object> model = viewAssembler.assemble("student-view", "student", () -> 7L,
+                id -> Map.of("teachers", teachers, "courses", courses));
+
+        assertEquals(7L, model.get("student"));
+        assertEquals(List.of("Teacher"), model.get("teachers"));
+        assertEquals(List.of("Course"), model.get("courses"));
+    }
+
+    @Test
+    void assemble_ShouldPassRootToBranches() {
+        Map<String, Object> model = viewAssembler.assemble("course-view", "course", () -> List.of(1L, 2L),
+                ids -> Map.of("students", () -> ids.size()));
+
+        assertEquals(2, model.get("students"));
+    }
+
+    // ==================== TEST: errors ====================
+    @Test
+    void assemble_WhenRootFails_ShouldRethrowOriginalException() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> viewAssembler.assemble("student-view", "student",
+                        () -> { throw new RuntimeException("Student not found"); },
+                        student -> Map.of()));
+
+        assertEquals("Student not found", exception.getMessage());
+    }
+
+    @Test
+    void assemble_WhenBranchExceedsTimeout_ShouldFail() {
+        ViewAssembler impatient = new ViewAssembler(new SimpleAsyncTaskExecutorBuilder(), meterRegistry, 4,
+                Duration.ofMillis(100));
+        try {
+            RuntimeException exception = assertThrows(RuntimeException.class,
+                    () -> impatient.assemble("teacher-view", "teacher", () -> 1L,
+                            id -> Map.of("students", () -> sleep(2_000))));
+            assertTrue(exception.getMessage().contains("did not load"));
+        } finally {
+            impatient.destroy();
+        }
+    }
+
+    @Test
+    void assemble_WhenBranchExceedsTimeout_ShouldInterruptRunningBranches() throws Exception {
+        ViewAssembler impatient = new ViewAssembler(new SimpleAsyncTaskExecutorBuilder(), meterRegistry, 4,
+                Duration.ofMillis(100));
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try {
+            assertThrows(RuntimeException.class,
+                    () -> impatient.assemble("teacher-view", "teacher", () -> 1L,
+                            id -> Map.of("students", () -> sleepUntilInterrupted(interrupted))));
+
+            assertTrue(interrupted.await(2, TimeUnit.SECONDS), "the timed-out branch should have been interrupted");
+        } finally {
+            impatient.destroy();
+        }
+    }
+
+    @Test
+    void assemble_WhenBranchFails_ShouldFailFastAndInterruptSiblings() throws Exception {
+        CountDownLatch siblingStarted = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        // fails once the sibling runs: a lookup cancelled before it starts is never run, so it is not interrupted
+        Supplier<Object> failing = () -> {
+            awaitQuietly(siblingStarted);
+            throw new RuntimeException("Course not found");
+        };
+        Supplier<Object> slow = () -> {
+            siblingStarted.countDown();
+            return sleepUntilInterrupted(interrupted);
+        };
+
+        long start = System.nanoTime();
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> viewAssembler.assemble("student-view", "student", () -> 1L,
+                        id -> Map.of("courses", failing, "teachers", slow)));
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("Course not found", exception.getMessage());
+        assertTrue(millis < 2_000, "the page waited for the slow sibling: " + millis + " ms");
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS), "the slow sibling should have been interrupted");
+    }
+
+    // ==================== TEST: timings ====================
+    @Test
+    void assemble_ShouldRecordPageAndBranchTimings() {
+        viewAssembler.assemble("department-view", "department", () -> 1L,
+                id -> Map.of("teachers", List::of));
+
+        assertEquals(1, meterRegistry.get("view.assembly").tag("page", "department-view").timer().count());
+        assertEquals(1, meterRegistry.get("view.assembly.branch")
+                .tags("page", "department-view", "branch", "department").timer().count());
+        assertEquals(1, meterRegistry.get("view.assembly.branch")
+                .tags("page", "department-view", "branch", "teachers").timer().count());
+    }
+
+    private static List<String> awaitOther(CountDownLatch bothStarted, String result) {
+        bothStarted.countDown();
+        try {
+            if (!bothStarted.await(2, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("branches did not run concurrently");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return List.of(result);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Stands in for a lookup stuck on the database: runs until its thread is interrupted
+    private static Object sleepUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(10_000);
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+        }
+        return null;
+    }
+
+    private static Object sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.CourseDTO;
+import com.example.webapp.dto.EnrollmentResult;
+import com.example.webapp.entity.Course;
+import com.example.webapp.entity.Student;
+import com.example.webapp.repository.CourseRepository;
+import com.example.webapp.repository.StudentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// WHAT: Integration test for the waitlist check after a commit under a tight database bulkhead — a burst of drops
+//       must not each hold one permit while waiting for a second one to fill their seat from the waitlist
+// HOW: Bulkhead of 2 permits with a 5 s acquire timeout; a full course with an empty waitlist, then 16 threads drop
+//      at the same moment while 16 other students enroll, so most drops free a seat and hand it to the waitlist
+@SpringBootTest(properties = {
+        "app.db.max-concurrency=2",
+        "app.db.acquire-timeout=5s"
+})
+@ActiveProfiles("test")
+class WaitlistFillConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Course course;
+    private List<Long> enrolled;
+    private List<Long> newcomers;
+    private SeatAllocationScenario scenario;
+
+    @BeforeEach
+    void setUp() {
+        CourseDTO dto = new CourseDTO();
+        dto.setName("Bulkhead 101");
+        dto.setCapacity(THREADS);
+        course = courseService.saveCourse(dto);
+        List<Student> created = new ArrayList<>();
+        for (int i = 0; i < 2 * THREADS; i++) {
+            created.add(new Student("Fill Student " + i, "FILL-" + i, null));
+        }
+        List<Long> students = studentRepository.saveAll(created).stream().map(Student::getId).toList();
+        enrolled = students.subList(0, THREADS);
+        newcomers = students.subList(THREADS, 2 * THREADS);
+        for (Long studentId : enrolled) {
+            assertEquals(EnrollmentResult.ENROLLED, enrollmentService.enroll(course.getId(), studentId));
+        }
+        scenario = new SeatAllocationScenario(List.of(enrollmentService), jdbc, course.getId(), THREADS, students);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scenario.deleteCourseData();
+        courseRepository.deleteById(course.getId());
+    }
+
+    @Test
+    void drops_MoreThanBulkheadPermits_ShouldFillSeatsWithoutWaitingForASecondPermit() throws Exception {
+        double rejectedBefore = rejected();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        long begin = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(2 * THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                Long leaving = enrolled.get(i);
+                Long joining = newcomers.get(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return enrollmentService.drop(course.getId(), leaving);
+                }));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return enrollmentService.enroll(course.getId(), joining);
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        scenario.awaitWaitlistFills();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+
+        assertEquals(rejectedBefore, rejected(), "no request gave up waiting for a database permit");
+        assertTrue(elapsedMillis < 5000, () -> "drops waited for the acquire timeout: " + elapsedMillis + " ms");
+        scenario.assertInvariants();
+        assertEquals(THREADS, scenario.enrolledCount(), "every freed seat went to a newcomer");
+        assertEquals(0, scenario.waitlistCount());
+    }
+
+    private double rejected() {
+        return meterRegistry.get("db.concurrency.rejected").functionCounter().count();
+    }
+}
@@ -0,0 +1,9 @@
+-- Test-only tables (application-test.yml adds this location): IdentityStudent in InsertThroughputBenchmark
+create table if not exists benchmark_identity_students (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    roll varchar(255) not null,
+    email varchar(255),
+    constraint pk_benchmark_identity_students primary key (id),
+    constraint uk_benchmark_identity_students_roll unique (roll)
+);